@@ -0,0 +1,90 @@
+package de.fva_net.maxs.logger.benchmark;
+
+import de.fva_net.maxs.logger.MaxsLoggableRoutine;
+import de.fva_net.maxs.logger.MaxsLoggerContext;
+import de.fva_net.maxs.logger.MaxsMessageType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/**
+ * Reproducible test data of the benchmarks.
+ */
+final class BenchmarkData {
+
+	/**
+	 * The routines of the notifications.
+	 */
+	static final MaxsLoggableRoutine[] ROUTINES = { () -> "iso6336_2019", () -> "iso21771_2007", () -> "din3990_1987" };
+
+	/**
+	 * The number of distinct component IDs.
+	 */
+	static final int COMPONENTS = 1000;
+
+	/**
+	 * The seed of the random data, so every run logs the same notifications.
+	 */
+	private static final long SEED = 42;
+
+	/**
+	 * Prevents instantiation.
+	 */
+	private BenchmarkData() {
+	}
+
+	/**
+	 * Logs the notifications of a typical calculation: mostly infos and debug messages, few warnings and errors.
+	 *
+	 * @param context the context
+	 * @param count   the number of notifications
+	 */
+	static void fill(final MaxsLoggerContext context, final int count) {
+		final SplittableRandom random = new SplittableRandom(SEED);
+		for (int i = 0; i < count; i++) {
+			final int draw = random.nextInt(100);
+			final MaxsMessageType type = draw < 1 ? MaxsMessageType.ERROR
+					: draw < 5 ? MaxsMessageType.WARNING
+					: draw < 40 ? MaxsMessageType.INFO
+					: MaxsMessageType.DEBUG_INFO;
+			final MaxsLoggableRoutine routine = ROUTINES[random.nextInt(ROUTINES.length)];
+			final int compId = random.nextInt(COMPONENTS);
+			if (draw < 60) {
+				context.logMessage(routine, compId, "Calculation step " + i + " finished.", type);
+			} else {
+				context.requireNonZero(routine, compId, 0.0, "normal_module");
+			}
+		}
+	}
+
+	/**
+	 * Creates a temporary directory for log files.
+	 *
+	 * @return the directory
+	 * @throws IOException if the directory cannot be created
+	 */
+	static Path createDirectory() throws IOException {
+		return Files.createTempDirectory("maxs-benchmark");
+	}
+
+	/**
+	 * Deletes a temporary directory with its log files.
+	 *
+	 * @param directory the directory, may be null
+	 * @throws IOException if the directory cannot be deleted
+	 */
+	static void deleteDirectory(final Path directory) throws IOException {
+		if (directory == null) {
+			return;
+		}
+		try (Stream<Path> paths = Files.walk(directory)) {
+			for (final Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+				Files.delete(path);
+			}
+		}
+	}
+}
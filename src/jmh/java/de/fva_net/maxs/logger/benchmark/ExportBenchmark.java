@@ -0,0 +1,111 @@
+package de.fva_net.maxs.logger.benchmark;
+
+import de.fva_net.maxs.logger.MaxsLoggerContext;
+import de.fva_net.maxs.logger.xml.JaxbMaxsSerializer;
+import de.fva_net.maxs.logger.xml.KernelNotifications;
+import de.fva_net.maxs.logger.xml.MaxsSerializer;
+import de.fva_net.maxs.logger.xml.StreamingMaxsSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of writing a complete .maxs file of different sizes with the serializers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 2, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class ExportBenchmark {
+
+	/**
+	 * The number of notifications in the file.
+	 */
+	@Param({ "1000", "100000", "1000000" })
+	public int size;
+
+	/**
+	 * The serializer: formatted, compact or jaxb.
+	 */
+	@Param({ "formatted", "compact", "jaxb" })
+	public String serializer;
+
+	/**
+	 * The notifications to write.
+	 */
+	private KernelNotifications kernelNotifications;
+
+	/**
+	 * The selected serializer.
+	 */
+	private MaxsSerializer maxsSerializer;
+
+	/**
+	 * The directory of the log file.
+	 */
+	private Path directory;
+
+	/**
+	 * Logs the notifications and selects the serializer.
+	 *
+	 * @throws IOException if the directory cannot be created
+	 */
+	@Setup
+	public void setUp() throws IOException {
+		final MaxsLoggerContext context = new MaxsLoggerContext();
+		BenchmarkData.fill(context, size);
+		kernelNotifications = new KernelNotifications();
+		kernelNotifications.setAppId("benchmark");
+		kernelNotifications.setAppVersion("1.0");
+		kernelNotifications.getNotifications().addAll(context.getAllNotifications());
+		maxsSerializer = switch (serializer) {
+			case "compact" -> StreamingMaxsSerializer.COMPACT;
+			case "jaxb" -> JaxbMaxsSerializer.INSTANCE;
+			default -> StreamingMaxsSerializer.FORMATTED;
+		};
+		directory = BenchmarkData.createDirectory();
+	}
+
+	/**
+	 * Deletes the log file.
+	 *
+	 * @throws IOException if the file cannot be deleted
+	 */
+	@TearDown
+	public void tearDown() throws IOException {
+		BenchmarkData.deleteDirectory(directory);
+	}
+
+	/**
+	 * Writes the complete file.
+	 *
+	 * @return the size of the file
+	 * @throws IOException if the file cannot be written
+	 */
+	@Benchmark
+	public long writeToFile() throws IOException {
+		final Path file = directory.resolve("benchmark.maxs");
+		try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			maxsSerializer.write(kernelNotifications, writer);
+		}
+		return Files.size(file);
+	}
+}
@@ -0,0 +1,107 @@
+package de.fva_net.maxs.logger.benchmark;
+
+import de.fva_net.maxs.logger.MaxsFileLoggingOptions;
+import de.fva_net.maxs.logger.MaxsLoggerContext;
+import de.fva_net.maxs.logger.MaxsMessageType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@code logMessage} without file logging and with the file logging modes.
+ * <p>
+ * Every iteration logs a fixed batch of notifications into a fresh context, so the memory of the store is bounded and
+ * the results do not depend on the duration of the iterations. The score is the time of a whole batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10, batchSize = LoggingBenchmark.BATCH_SIZE)
+@Measurement(iterations = 20, batchSize = LoggingBenchmark.BATCH_SIZE)
+@Fork(value = 2, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class LoggingBenchmark {
+
+	/**
+	 * The number of notifications logged per iteration and thread.
+	 */
+	static final int BATCH_SIZE = 100_000;
+
+	/**
+	 * The file logging mode: none, rewriting, incremental or async. Rewriting writes the whole file on every call, so
+	 * it is only suitable for small batches and excluded by default.
+	 */
+	@Param({ "none", "incremental", "async" })
+	public String fileLogging;
+
+	/**
+	 * The context of the iteration.
+	 */
+	private MaxsLoggerContext context;
+
+	/**
+	 * The directory of the log file.
+	 */
+	private Path directory;
+
+	/**
+	 * Creates a fresh context and activates the file logging.
+	 *
+	 * @throws IOException if the directory cannot be created
+	 */
+	@Setup(Level.Iteration)
+	public void setUp() throws IOException {
+		context = new MaxsLoggerContext();
+		if (!"none".equals(fileLogging)) {
+			directory = BenchmarkData.createDirectory();
+			final MaxsFileLoggingOptions options = MaxsFileLoggingOptions.builder()
+					.incremental(!"rewriting".equals(fileLogging))
+					.async("async".equals(fileLogging))
+					.build();
+			context.activateFileLogging(directory.resolve("benchmark.maxs").toFile(), options);
+		}
+	}
+
+	/**
+	 * Closes the log file and deletes it.
+	 *
+	 * @throws IOException if the file cannot be deleted
+	 */
+	@TearDown(Level.Iteration)
+	public void tearDown() throws IOException {
+		context.reset();
+		BenchmarkData.deleteDirectory(directory);
+		directory = null;
+	}
+
+	/**
+	 * Logs a message from a single thread.
+	 */
+	@Benchmark
+	public void logMessage() {
+		context.logMessage(BenchmarkData.ROUTINES[0], 1, "The calculation step has finished.", MaxsMessageType.INFO);
+	}
+
+	/**
+	 * Logs a message from four threads.
+	 */
+	@Benchmark
+	@Threads(4)
+	public void logMessageConcurrent() {
+		context.logMessage(BenchmarkData.ROUTINES[0], 1, "The calculation step has finished.", MaxsMessageType.INFO);
+	}
+}
@@ -0,0 +1,123 @@
+package de.fva_net.maxs.logger.benchmark;
+
+import de.fva_net.maxs.logger.MaxsLoggerContext;
+import de.fva_net.maxs.logger.MaxsMessageType;
+import de.fva_net.maxs.logger.store.ChunkedNotificationStore;
+import de.fva_net.maxs.logger.store.ConcurrentNotificationStore;
+import de.fva_net.maxs.logger.xml.Notification;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of reading the notifications of a context of different sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class QueryBenchmark {
+
+	/**
+	 * The number of notifications in the context.
+	 */
+	@Param({ "1000", "100000", "1000000" })
+	public int size;
+
+	/**
+	 * The store of the context.
+	 */
+	@Param({ "chunked", "concurrent" })
+	public String store;
+
+	/**
+	 * The context with the notifications.
+	 */
+	private MaxsLoggerContext context;
+
+	/**
+	 * Logs the notifications.
+	 */
+	@Setup
+	public void setUp() {
+		context = new MaxsLoggerContext();
+		context.setNotificationStore("chunked".equals(store) ? new ChunkedNotificationStore() : new ConcurrentNotificationStore());
+		BenchmarkData.fill(context, size);
+	}
+
+	/**
+	 * Takes a snapshot of all notifications, which copies them unless the store is chunked.
+	 *
+	 * @return the notifications
+	 */
+	@Benchmark
+	public List<Notification> getAllNotifications() {
+		return context.getAllNotifications();
+	}
+
+	/**
+	 * Filters the errors of a component with a predicate.
+	 *
+	 * @return the errors
+	 */
+	@Benchmark
+	public List<Notification> getFilteredNotifications() {
+		return context.getFilteredNotifications(notification -> notification.getType() == MaxsMessageType.ERROR
+				&& Integer.valueOf(42).equals(notification.getCompId()));
+	}
+
+	/**
+	 * Filters the errors of a component with a predicate from four threads.
+	 *
+	 * @return the errors
+	 */
+	@Benchmark
+	@Threads(4)
+	public List<Notification> getFilteredNotificationsConcurrent() {
+		return getFilteredNotifications();
+	}
+
+	/**
+	 * Queries the errors of a component with the indexes.
+	 *
+	 * @return the errors
+	 */
+	@Benchmark
+	public List<Notification> queryList() {
+		return context.query().type(MaxsMessageType.ERROR).compId(42).list();
+	}
+
+	/**
+	 * Checks for an error of a component in a routine with the indexes.
+	 *
+	 * @return true if there is an error
+	 */
+	@Benchmark
+	public boolean queryExists() {
+		return context.query().type(MaxsMessageType.ERROR).routine(BenchmarkData.ROUTINES[0]).compId(42).exists();
+	}
+
+	/**
+	 * Checks for errors with the counters.
+	 *
+	 * @return true if there is an error
+	 */
+	@Benchmark
+	public boolean hasErrors() {
+		return context.hasErrors();
+	}
+}
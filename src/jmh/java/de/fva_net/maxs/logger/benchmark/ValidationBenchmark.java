@@ -0,0 +1,152 @@
+package de.fva_net.maxs.logger.benchmark;
+
+import de.fva_net.maxs.logger.MaxsLoggerContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the validation methods on the success path, where the value is present, and on the failure path,
+ * where a notification is logged.
+ * <p>
+ * Every iteration validates a fixed batch of values in a fresh context, so the memory of the store is bounded on the
+ * failure path. The score is the time of a whole batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10, batchSize = ValidationBenchmark.BATCH_SIZE)
+@Measurement(iterations = 20, batchSize = ValidationBenchmark.BATCH_SIZE)
+@Fork(value = 2, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class ValidationBenchmark {
+
+	/**
+	 * The number of validations per iteration and thread.
+	 */
+	static final int BATCH_SIZE = 100_000;
+
+	/**
+	 * A component ID outside the cache of boxed integers, so boxing allocates.
+	 */
+	private static final int COMP_ID = 4711;
+
+	/**
+	 * The boxed component ID for the methods with a boxed parameter.
+	 */
+	private static final Integer BOXED_COMP_ID = COMP_ID;
+
+	/**
+	 * The context of the iteration.
+	 */
+	private MaxsLoggerContext context;
+
+	/**
+	 * The values per tooth without missing values.
+	 */
+	private final double[] toothValues = new double[64];
+
+	/**
+	 * The value to validate, read from a field so the check is not folded.
+	 */
+	private double present = 2.5;
+
+	/**
+	 * The missing value to validate, read from a field so the check is not folded.
+	 */
+	private double zero = 0.0;
+
+	/**
+	 * Creates a fresh context.
+	 */
+	@Setup(Level.Iteration)
+	public void setUp() {
+		context = new MaxsLoggerContext();
+		Arrays.fill(toothValues, 1.5);
+	}
+
+	/**
+	 * Clears the notifications of the iteration.
+	 */
+	@TearDown(Level.Iteration)
+	public void tearDown() {
+		context.reset();
+	}
+
+	/**
+	 * Validates a present value with a boxed component ID.
+	 */
+	@Benchmark
+	public void requireNonNullSuccessBoxed() {
+		context.requireNonNull(BenchmarkData.ROUTINES[0], BOXED_COMP_ID, present, "normal_module");
+	}
+
+	/**
+	 * Validates a present value with a primitive component ID.
+	 */
+	@Benchmark
+	public void requireNonNullSuccess() {
+		context.requireNonNull(BenchmarkData.ROUTINES[0], COMP_ID, present, "normal_module");
+	}
+
+	/**
+	 * Validates a missing value.
+	 */
+	@Benchmark
+	public void requireNonNullFailure() {
+		context.requireNonNull(BenchmarkData.ROUTINES[0], COMP_ID, Double.NaN, "normal_module");
+	}
+
+	/**
+	 * Validates a present object value.
+	 */
+	@Benchmark
+	public void requireNonNullObjectSuccess() {
+		context.requireNonNull(BenchmarkData.ROUTINES[0], BOXED_COMP_ID, (Object) present, "normal_module");
+	}
+
+	/**
+	 * Validates a non-zero value.
+	 */
+	@Benchmark
+	public void requireNonZeroSuccess() {
+		context.requireNonZero(BenchmarkData.ROUTINES[0], COMP_ID, present, "normal_module");
+	}
+
+	/**
+	 * Validates a zero value.
+	 */
+	@Benchmark
+	public void requireNonZeroFailure() {
+		context.requireNonZero(BenchmarkData.ROUTINES[0], COMP_ID, zero, "normal_module");
+	}
+
+	/**
+	 * Validates a zero value from four threads.
+	 */
+	@Benchmark
+	@Threads(4)
+	public void requireNonZeroFailureConcurrent() {
+		context.requireNonZero(BenchmarkData.ROUTINES[0], COMP_ID, zero, "normal_module");
+	}
+
+	/**
+	 * Validates the values of all teeth.
+	 */
+	@Benchmark
+	public void requireAllNonZeroSuccess() {
+		context.requireAllNonZero(BenchmarkData.ROUTINES[0], COMP_ID, toothValues, "tooth_values");
+	}
+}
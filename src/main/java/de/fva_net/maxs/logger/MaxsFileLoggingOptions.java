@@ -0,0 +1,137 @@
+package de.fva_net.maxs.logger;
+
+import de.fva_net.maxs.logger.io.AsyncNotificationQueue;
+import de.fva_net.maxs.logger.io.JournalMaxsFileWriter;
+import de.fva_net.maxs.logger.io.MaxsJournal;
+import de.fva_net.maxs.logger.io.MaxsOverflowPolicy;
+import de.fva_net.maxs.logger.io.MaxsPartitioning;
+import de.fva_net.maxs.logger.io.RollingMaxsFileWriter;
+import de.fva_net.maxs.logger.xml.JaxbMaxsSerializer;
+import de.fva_net.maxs.logger.xml.MaxsSerializer;
+import de.fva_net.maxs.logger.xml.StreamingMaxsSerializer;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.zip.Deflater;
+
+/**
+ * Options for logging notifications to a MAXS file.
+ */
+@Getter
+@Builder
+public class MaxsFileLoggingOptions {
+
+	/**
+	 * The default options, which rewrite the complete file on every log call.
+	 */
+	public static final MaxsFileLoggingOptions DEFAULT = MaxsFileLoggingOptions.builder().build();
+
+	/**
+	 * Indicates whether only new notifications are appended to the open file instead of rewriting the complete file
+	 * on every log call.
+	 */
+	@Builder.Default
+	private final boolean incremental = false;
+
+	/**
+	 * The serializer for the MAXS documents. Use {@link StreamingMaxsSerializer#COMPACT} for output without
+	 * indentation or {@link JaxbMaxsSerializer#INSTANCE} to fall back to JAXB.
+	 */
+	@Builder.Default
+	private final MaxsSerializer serializer = StreamingMaxsSerializer.FORMATTED;
+
+	/**
+	 * Indicates whether the file is written by a background thread, so the logging thread does not wait for the file
+	 * I/O. New notifications are appended incrementally in this mode.
+	 */
+	@Builder.Default
+	private final boolean async = false;
+
+	/**
+	 * The capacity of the queue of the background thread.
+	 */
+	@Builder.Default
+	private final int queueCapacity = 8192;
+
+	/**
+	 * The number of notifications after which the background thread writes the queue, or 0 to disable.
+	 */
+	@Builder.Default
+	private final int flushEveryNotifications = 1024;
+
+	/**
+	 * The interval in milliseconds in which the background thread writes the queue, or 0 to disable.
+	 */
+	@Builder.Default
+	private final long flushIntervalMillis = 1000;
+
+	/**
+	 * Indicates whether the background thread writes the queue as soon as an {@link MaxsMessageType#ERROR} or a
+	 * {@link MaxsMessageType#DEBUG_ERROR} is logged.
+	 */
+	@Builder.Default
+	private final boolean flushOnError = true;
+
+	/**
+	 * The policy if the queue of the background thread is full.
+	 */
+	@Builder.Default
+	private final MaxsOverflowPolicy overflowPolicy = MaxsOverflowPolicy.BLOCK;
+
+	/**
+	 * The capacity of the overflow buffer of the {@link MaxsOverflowPolicy#BUFFER} policy. Notifications beyond it are
+	 * dropped and counted, see {@link MaxsLoggerContext#getDroppedCount()}.
+	 */
+	@Builder.Default
+	private final int overflowCapacity = AsyncNotificationQueue.DEFAULT_OVERFLOW_CAPACITY;
+
+	/**
+	 * The compression level of .maxs.gz files from 0 (fastest) to 9 (smallest), or -1 for the default level.
+	 */
+	@Builder.Default
+	private final int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+	/**
+	 * Indicates whether the notifications are appended to a memory-mapped journal next to the log file, which survives a
+	 * crash of the process. The log file is written from the journal when the file logging is deactivated, or with
+	 * {@link MaxsJournal#recover(java.io.File, java.io.File)} after a crash. The other write options are ignored in
+	 * this mode.
+	 */
+	@Builder.Default
+	private final boolean journal = false;
+
+	/**
+	 * The size in bytes of the segments, by which the journal grows.
+	 */
+	@Builder.Default
+	private final int journalSegmentSize = JournalMaxsFileWriter.DEFAULT_SEGMENT_SIZE;
+
+	/**
+	 * The number of notifications after which a new segment file is started, or 0 for no limit. If a limit or a
+	 * partitioning is set, the notifications are written to segment files listed in a manifest, see
+	 * {@link RollingMaxsFileWriter}.
+	 */
+	@Builder.Default
+	private final int rollingMaxNotifications = 0;
+
+	/**
+	 * The size in bytes after which a new segment file is started, or 0 for no limit.
+	 */
+	@Builder.Default
+	private final long rollingMaxBytes = 0;
+
+	/**
+	 * The partitioning of the notifications into separate segment files.
+	 */
+	@Builder.Default
+	private final MaxsPartitioning partitioning = MaxsPartitioning.NONE;
+
+	/**
+	 * Checks whether the notifications are written to segment files instead of a single log file.
+	 *
+	 * @return true if a segment limit or a partitioning is set
+	 */
+	public boolean isRolling() {
+		return rollingMaxNotifications > 0 || rollingMaxBytes > 0 || partitioning != MaxsPartitioning.NONE;
+	}
+}
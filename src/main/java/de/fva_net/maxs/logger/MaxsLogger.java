@@ -1,78 +1,222 @@
 package de.fva_net.maxs.logger;
 
-import de.fva_net.maxs.logger.xml.Item;
-import de.fva_net.maxs.logger.xml.KernelNotifications;
+import de.fva_net.maxs.logger.sink.MaxsSink;
+import de.fva_net.maxs.logger.sink.MaxsSinkOptions;
+import de.fva_net.maxs.logger.store.NotificationStore;
 import de.fva_net.maxs.logger.xml.Notification;
 import info.rexs.model.RexsComponent;
-import jakarta.xml.bind.JAXBContext;
-import jakarta.xml.bind.JAXBException;
-import jakarta.xml.bind.Marshaller;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.math3.util.Precision;
-import tech.units.indriya.quantity.NumberQuantity;
 
 import javax.measure.Quantity;
 import java.io.File;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Flow;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * Central class for generating MAXS log files and managing notifications.
+ * <p>
+ * All methods operate on the {@link MaxsLoggerContext#current() current context}, which is the context bound to the
+ * current thread or the global context if no context is bound.
  */
-@Slf4j
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class MaxsLogger {
 
 	/**
-	 * The XML object holding all kernel notifications.
+	 * Returns the context the static methods of this class operate on.
+	 *
+	 * @return the context bound to the current thread, or the global context if no context is bound
 	 */
-	private static final KernelNotifications kernelNotifications = new KernelNotifications();
+	public static MaxsLoggerContext getContext() {
+		return MaxsLoggerContext.current();
+	}
 
 	/**
-	 * The path to the log file.
+	 * Activates logging to a file. The complete file is rewritten on every log call.
+	 *
+	 * @param logFile the path to the log file. Must have a .maxs extension, .maxs.gz to write it compressed or .maxsb to
+	 *                write it in the binary format.
 	 */
-	private static File logPath;
+	public static void activateFileLogging(final File logFile) {
+		MaxsLoggerContext.current().activateFileLogging(logFile);
+	}
 
 	/**
-	 * Activates logging to a file.
+	 * Activates logging to a file using the given options.
 	 *
-	 * @param logFile the path to the log file. Must have a .maxs extension.
+	 * @param logFile the path to the log file. Must have a .maxs extension, .maxs.gz to write it compressed or .maxsb to
+	 *                write it in the binary format.
+	 * @param options the options for the file logging
 	 */
-	public static void activateFileLogging(final File logFile) {
-		// null check
-		if (logFile == null) {
-			log.error("The given path is null");
-			return;
-		}
+	public static void activateFileLogging(final File logFile, final MaxsFileLoggingOptions options) {
+		MaxsLoggerContext.current().activateFileLogging(logFile, options);
+	}
 
-		// check if file ending is *.maxs (case-insensitive)
-		if (!logFile.getName().toLowerCase().endsWith(".maxs")) {
-			log.error("The given log path does not end with '.maxs': {}", logFile);
-			return;
-		}
+	/**
+	 * Writes all notifications that are still buffered to the log file and passes the notifications that are still
+	 * queued to the asynchronous sinks. This is only necessary if the file logging or a sink is asynchronous.
+	 */
+	public static void flush() {
+		MaxsLoggerContext.current().flush();
+	}
 
-		// create file, if it does not exist
-		// if path is not writable, log an error and return
-		try {
-			writeToFile(logFile);
-		} catch (final JAXBException e) {
-			log.error("Cannot write to the logfile: {}", e.getMessage());
-			return;
-		}
+	/**
+	 * Adds a sink that receives all notifications logged from now on.
+	 *
+	 * @param sink the sink, which is not closed by the context
+	 */
+	public static void addSink(final MaxsSink sink) {
+		MaxsLoggerContext.current().addSink(sink);
+	}
 
-		// set the log path and write all messages that are already stored in the list to the file
-		MaxsLogger.logPath = logFile;
-		log.info("The log path is set to: {}", logFile);
+	/**
+	 * Adds a sink that receives the notifications logged from now on that pass the filter of the options.
+	 *
+	 * @param sink    the sink, which is not closed by the context
+	 * @param options the filter of the sink and whether it is called by a background thread
+	 */
+	public static void addSink(final MaxsSink sink, final MaxsSinkOptions options) {
+		MaxsLoggerContext.current().addSink(sink, options);
 	}
 
 	/**
-	 * Deactivates logging to file.
+	 * Removes a sink. The notifications that are still queued for an asynchronous sink are passed to it before.
+	 *
+	 * @param sink the sink, which is not closed
+	 * @return true if the sink was added to the current context
+	 */
+	public static boolean removeSink(final MaxsSink sink) {
+		return MaxsLoggerContext.current().removeSink(sink);
+	}
+
+	/**
+	 * Subscribes to the notifications logged from now on. The subscriber receives them on another thread, as many as it
+	 * requests, so a slow subscriber does not block the logging thread.
+	 *
+	 * @param subscriber the subscriber
+	 */
+	public static void subscribe(final Flow.Subscriber<? super Notification> subscriber) {
+		MaxsLoggerContext.current().subscribe(subscriber);
+	}
+
+	/**
+	 * Deactivates logging to file. Notifications that are still buffered are written to the file before.
 	 */
 	public static void deactivateFileLogging() {
-		log.info("Logging to file has been deactivated.");
-		logPath = null;
+		MaxsLoggerContext.current().deactivateFileLogging();
+	}
+
+	/**
+	 * Sets the minimum severity of messages that are logged. Messages of a lower severity are discarded before any
+	 * object is created for them. The default is {@link MaxsMessageType#INFO}, which logs all messages.
+	 *
+	 * @param minimumSeverity the minimum severity, the debug flag of the type is ignored
+	 */
+	public static void setMinimumSeverity(final MaxsMessageType minimumSeverity) {
+		MaxsLoggerContext.current().setMinimumSeverity(minimumSeverity);
+	}
+
+	/**
+	 * Enables or disables the logging of debug messages. Debug messages are enabled by default.
+	 *
+	 * @param debugEnabled true to log debug messages, false to discard them
+	 */
+	public static void setDebugEnabled(final boolean debugEnabled) {
+		MaxsLoggerContext.current().setDebugEnabled(debugEnabled);
+	}
+
+	/**
+	 * Returns whether messages of the given type are logged. Use this check to skip expensive preparations of messages
+	 * that would be discarded anyway.
+	 *
+	 * @param messageType the message type
+	 * @return true if messages of the type are logged
+	 */
+	public static boolean isEnabled(final MaxsMessageType messageType) {
+		return MaxsLoggerContext.current().isEnabled(messageType);
+	}
+
+	/**
+	 * Enables the aggregation of repeated notifications. A repeated notification with the same routine, component ID,
+	 * attribute ID, message and type is not stored again. Instead, the first notification counts the occurrences and
+	 * keeps the value of the last occurrence as second item.
+	 * <p>
+	 * The counts are written to the log file when file logging is deactivated.
+	 *
+	 * @param maxKeys the maximum number of distinct notifications that are aggregated, to bound the memory usage
+	 */
+	public static void enableAggregation(final int maxKeys) {
+		MaxsLoggerContext.current().enableAggregation(maxKeys);
+	}
+
+	/**
+	 * Disables the aggregation of repeated notifications.
+	 */
+	public static void disableAggregation() {
+		MaxsLoggerContext.current().disableAggregation();
+	}
+
+	/**
+	 * Sets caps for the number of notifications per routine, per component ID and per message type. Once a cap is
+	 * reached, further notifications are suppressed and a single summary notification counts them.
+	 * <p>
+	 * The final counts of the summary notifications are written to the log file when file logging is deactivated.
+	 *
+	 * @param rateLimits the rate limits, or {@link MaxsRateLimits#UNLIMITED} to remove all caps
+	 */
+	public static void setRateLimits(final MaxsRateLimits rateLimits) {
+		MaxsLoggerContext.current().setRateLimits(rateLimits);
+	}
+
+	/**
+	 * Sets the bounds for the notifications retained in memory. If a bound is exceeded, the oldest notification of the
+	 * least important message type is evicted, so errors are kept longest.
+	 *
+	 * @param retentionPolicy the retention policy, or {@link MaxsRetentionPolicy#UNBOUNDED} to retain all notifications
+	 */
+	public static void setRetentionPolicy(final MaxsRetentionPolicy retentionPolicy) {
+		MaxsLoggerContext.current().setRetentionPolicy(retentionPolicy);
+	}
+
+	/**
+	 * Replaces the store holding the notifications, e.g. with a
+	 * {@link de.fva_net.maxs.logger.store.CompactNotificationStore} for jobs that log millions of notifications. The
+	 * notifications that are already retained are moved to the new store.
+	 *
+	 * @param store the new store
+	 */
+	public static void setNotificationStore(final NotificationStore store) {
+		MaxsLoggerContext.current().setNotificationStore(store);
+	}
+
+	/**
+	 * Returns the number of notifications that are retained in memory.
+	 *
+	 * @return the number of retained notifications
+	 */
+	public static int getRetainedCount() {
+		return MaxsLoggerContext.current().getRetainedCount();
+	}
+
+	/**
+	 * Returns the estimated heap size of the notifications that are retained in memory.
+	 *
+	 * @return the estimated size in bytes
+	 */
+	public static long getRetainedBytes() {
+		return MaxsLoggerContext.current().getRetainedBytes();
+	}
+
+	/**
+	 * Returns the number of notifications that have been evicted by the retention policy since the last reset.
+	 *
+	 * @return the number of evicted notifications
+	 */
+	public static long getEvictedCount() {
+		return MaxsLoggerContext.current().getEvictedCount();
 	}
 
 	/**
@@ -81,7 +225,7 @@ public static void deactivateFileLogging() {
 	 * @return true if logging to a file is activated, false otherwise
 	 */
 	public static boolean isLoggingToFileActivated() {
-		return logPath != null;
+		return MaxsLoggerContext.current().isLoggingToFileActivated();
 	}
 
 	/**
@@ -93,11 +237,7 @@ public static boolean isLoggingToFileActivated() {
 	 * @param messageType   the severity of the message
 	 */
 	public static void logMessage(final MaxsLoggableRoutine routine, final RexsComponent rexsComponent, final String message, final MaxsMessageType messageType) {
-		if (rexsComponent == null) {
-			logMessage(routine, message, messageType);
-		} else {
-			logMessage(routine, rexsComponent.getId(), message, messageType);
-		}
+		MaxsLoggerContext.current().logMessage(routine, rexsComponent, message, messageType);
 	}
 
 	/**
@@ -109,18 +249,7 @@ public static void logMessage(final MaxsLoggableRoutine routine, final RexsCompo
 	 * @param messageType the severity of the message
 	 */
 	public static void logMessage(final MaxsLoggableRoutine routine, final Integer componentId, final String message, final MaxsMessageType messageType) {
-		// Create the log message
-		final Notification notification = new Notification();
-		notification.setRoutine(routine != null ? routine.getMaxsId() : null);
-		notification.setMessage(message);
-		notification.setType(messageType);
-		if (componentId != null && componentId > 0) {
-			notification.setCompId(componentId);
-		}
-
-		// store it in the list and write it to file
-		kernelNotifications.getNotifications().add(notification);
-		writeToFileIfActivated();
+		MaxsLoggerContext.current().logMessage(routine, componentId, message, messageType);
 	}
 
 	/**
@@ -131,61 +260,86 @@ public static void logMessage(final MaxsLoggableRoutine routine, final Integer c
 	 * @param messageType   the severity of the message
 	 */
 	public static void logMessage(final MaxsLoggableRoutine routine, final String message, final MaxsMessageType messageType) {
-		// Create the log message
-		final Notification notification = new Notification();
-		notification.setRoutine(routine != null ? routine.getMaxsId() : null);
-		notification.setMessage(message);
-		notification.setType(messageType);
+		MaxsLoggerContext.current().logMessage(routine, message, messageType);
+	}
 
-		// store it in the list and write it to file
-		kernelNotifications.getNotifications().add(notification);
-		writeToFileIfActivated();
+	/**
+	 * Logs a new message. The message is only created if the message type is enabled.
+	 *
+	 * @param routine       the routine for which the messasge shall be logged
+	 * @param rexsComponent the rexs component
+	 * @param message       the supplier of the log message
+	 * @param messageType   the severity of the message
+	 */
+	public static void logMessage(final MaxsLoggableRoutine routine, final RexsComponent rexsComponent, final Supplier<String> message, final MaxsMessageType messageType) {
+		MaxsLoggerContext.current().logMessage(routine, rexsComponent, message, messageType);
 	}
 
 	/**
-	 * Logs a missing attribute error.
+	 * Logs a new message. The message is only created if the message type is enabled.
 	 *
-	 * @param routine     the routine
+	 * @param routine     the routine for which the messasge shall be logged
 	 * @param componentId the numeric ID of the component
-	 * @param value       the value
-	 * @param attribute   the attribute name
-	 */
-	private static void logMissingAttribute(final MaxsLoggableRoutine routine, final Integer componentId, final Object value, final String attribute) {
-		final Notification notification = new Notification();
-		final Item item = new Item();
-
-		notification.setRoutine(routine != null ? routine.getMaxsId() : null);
-		notification.setMessage(attribute + " is required to perform the calculation but is missing.");
-		notification.setType(MaxsMessageType.DEBUG_ERROR);
-		if (componentId != null) {
-			notification.setCompId(componentId);
-		}
-
-		if (value == null) {
-			item.setValue(Double.NaN);
-		} else if (value instanceof final Double d) {
-			item.setValue(d);
-		} else if (value instanceof final Integer integer) {
-			item.setValue(integer);
-		} else if (value instanceof final NumberQuantity<?> quantity) {
-			item.setValue(quantity.getValue().doubleValue());
-		} else if (value instanceof Enum<?>) {
-			final String enumName = ((Enum<?>) value).name();
-			if ("UNKNOWN".equalsIgnoreCase(enumName)) {
-				item.setValue(Double.NaN);
-			}
-		} else {
-			log.error("Unsupported Data Type");
-		}
-		item.setAttrId(attribute);
-		if (componentId != null) {
-			item.setCompId(componentId);
-		}
-		notification.getData().add(item);
-
-		// store it in the list and write it to file
-		kernelNotifications.getNotifications().add(notification);
-		writeToFileIfActivated();
+	 * @param message     the supplier of the log message
+	 * @param messageType the severity of the message
+	 */
+	public static void logMessage(final MaxsLoggableRoutine routine, final Integer componentId, final Supplier<String> message, final MaxsMessageType messageType) {
+		MaxsLoggerContext.current().logMessage(routine, componentId, message, messageType);
+	}
+
+	/**
+	 * Logs a new message. The message is only created if the message type is enabled.
+	 *
+	 * @param routine     the routine for which the messasge shall be logged
+	 * @param message     the supplier of the log message
+	 * @param messageType the severity of the message
+	 */
+	public static void logMessage(final MaxsLoggableRoutine routine, final Supplier<String> message, final MaxsMessageType messageType) {
+		MaxsLoggerContext.current().logMessage(routine, message, messageType);
+	}
+
+	/**
+	 * Logs a new message from a template. The arguments are kept as they are and the message is only built when it is
+	 * read, e.g. when the notification is written to a file.
+	 *
+	 * @param routine       the routine for which the messasge shall be logged
+	 * @param rexsComponent the rexs component
+	 * @param template      the template of the log message
+	 * @param messageType   the severity of the message
+	 * @param arguments     the arguments of the placeholders of the template
+	 */
+	public static void logMessage(final MaxsLoggableRoutine routine, final RexsComponent rexsComponent, final MaxsMessageTemplate template,
+		final MaxsMessageType messageType, final Object... arguments) {
+		MaxsLoggerContext.current().logMessage(routine, rexsComponent, template, messageType, arguments);
+	}
+
+	/**
+	 * Logs a new message from a template. The arguments are kept as they are and the message is only built when it is
+	 * read, e.g. when the notification is written to a file.
+	 *
+	 * @param routine     the routine for which the messasge shall be logged
+	 * @param componentId the numeric ID of the component
+	 * @param template    the template of the log message
+	 * @param messageType the severity of the message
+	 * @param arguments   the arguments of the placeholders of the template
+	 */
+	public static void logMessage(final MaxsLoggableRoutine routine, final Integer componentId, final MaxsMessageTemplate template,
+		final MaxsMessageType messageType, final Object... arguments) {
+		MaxsLoggerContext.current().logMessage(routine, componentId, template, messageType, arguments);
+	}
+
+	/**
+	 * Logs a new message from a template. The arguments are kept as they are and the message is only built when it is
+	 * read, e.g. when the notification is written to a file.
+	 *
+	 * @param routine     the routine for which the messasge shall be logged
+	 * @param template    the template of the log message
+	 * @param messageType the severity of the message
+	 * @param arguments   the arguments of the placeholders of the template
+	 */
+	public static void logMessage(final MaxsLoggableRoutine routine, final MaxsMessageTemplate template, final MaxsMessageType messageType,
+		final Object... arguments) {
+		MaxsLoggerContext.current().logMessage(routine, template, messageType, arguments);
 	}
 
 	/**
@@ -197,9 +351,7 @@ private static void logMissingAttribute(final MaxsLoggableRoutine routine, final
 	 * @param attribute   the name of the attribute
 	 */
 	public static void requireNonNull(final MaxsLoggableRoutine routine, final Integer componentId, final double value, final String attribute) {
-		if (Double.isNaN(value)) {
-			logMissingAttribute(routine, componentId, value, attribute);
-		}
+		MaxsLoggerContext.current().requireNonNull(routine, componentId, value, attribute);
 	}
 
 	/**
@@ -212,20 +364,7 @@ public static void requireNonNull(final MaxsLoggableRoutine routine, final Integ
 	 * @param attribute   the name of the attribute being checked
 	 */
 	public static void requireNonNull(final MaxsLoggableRoutine routine, final Integer componentId, final Object value, final String attribute) {
-		// Check if the value is null and log the missing attribute if true
-		if (value == null) {
-			logMissingAttribute(routine, componentId, null, attribute);
-		}
-
-		// Check if the value is an enum with the name "UNKNOWN" and log the missing attribute if true
-		else if (value instanceof Enum<?> enumValue && enumValue.name().equalsIgnoreCase("unknown")) {
-			logMissingAttribute(routine, componentId, enumValue, attribute);
-		}
-
-		// Check if the value is a complex Double or Float and contains NaN
-		else if (value instanceof Double d && Double.isNaN(d)) {
-			logMissingAttribute(routine, componentId, d, attribute);
-		}
+		MaxsLoggerContext.current().requireNonNull(routine, componentId, value, attribute);
 	}
 
 	/**
@@ -237,9 +376,7 @@ else if (value instanceof Double d && Double.isNaN(d)) {
 	 * @param attribute   the name of the attribute
 	 */
 	public static void requireNonZero(final MaxsLoggableRoutine routine, final Integer componentId, final double value, final String attribute) {
-		if (Double.isNaN(value) || Precision.equalsWithRelativeTolerance(value, 0, 1e-7)) {
-			logMissingAttribute(routine, componentId, value, attribute);
-		}
+		MaxsLoggerContext.current().requireNonZero(routine, componentId, value, attribute);
 	}
 
 	/**
@@ -252,22 +389,89 @@ public static void requireNonZero(final MaxsLoggableRoutine routine, final Integ
 	 * @param <Q>         the type of the quantity
 	 */
 	public static <Q extends Quantity<Q>> void requireNonZero(final MaxsLoggableRoutine routine, final Integer componentId, final Quantity<Q> quantity, final String attribute) {
-		if (quantity == null) {
-			logMissingAttribute(routine, componentId, null, attribute);
-			return;
-		}
-		if (Precision.equalsWithRelativeTolerance(quantity.getValue().doubleValue(), 0, 1e-7)) {
-			logMissingAttribute(routine, componentId, quantity, attribute);
-		}
+		MaxsLoggerContext.current().requireNonZero(routine, componentId, quantity, attribute);
 	}
 
 	/**
-	 * Resets the notification logger by deactivating file logging and clearing .
+	 * Requires non NaN logs to notification logger if the attribute value is NaN. The component ID is not boxed, so the
+	 * check does not allocate if the value is present.
+	 *
+	 * @param routine     the routine
+	 * @param componentId the numeric ID of the component
+	 * @param value       the double field
+	 * @param attribute   the name of the attribute
+	 */
+	public static void requireNonNull(final MaxsLoggableRoutine routine, final int componentId, final double value, final String attribute) {
+		MaxsLoggerContext.current().requireNonNull(routine, componentId, value, attribute);
+	}
+
+	/**
+	 * Ensures that the provided value is not zero. If the value is zero, logs the missing attribute. The component ID
+	 * is not boxed, so the check does not allocate if the value is present.
+	 *
+	 * @param routine     the routine
+	 * @param componentId the numeric ID of the component associated with the attribute
+	 * @param value       the double value to check
+	 * @param attribute   the name of the attribute
+	 */
+	public static void requireNonZero(final MaxsLoggableRoutine routine, final int componentId, final double value, final String attribute) {
+		MaxsLoggerContext.current().requireNonZero(routine, componentId, value, attribute);
+	}
+
+	/**
+	 * Ensures that no value of the array is NaN, e.g. the values per tooth or per step. All NaN values are reported
+	 * with their indices in a single notification.
+	 *
+	 * @param routine     the routine
+	 * @param componentId the numeric ID of the component associated with the attribute
+	 * @param values      the values to check
+	 * @param attribute   the name of the attribute
+	 */
+	public static void requireAllNonNull(final MaxsLoggableRoutine routine, final int componentId, final double[] values, final String attribute) {
+		MaxsLoggerContext.current().requireAllNonNull(routine, componentId, values, attribute);
+	}
+
+	/**
+	 * Ensures that no value of the array is NaN or zero, e.g. the values per tooth or per step. All NaN and zero values
+	 * are reported with their indices in a single notification.
+	 *
+	 * @param routine     the routine
+	 * @param componentId the numeric ID of the component associated with the attribute
+	 * @param values      the values to check
+	 * @param attribute   the name of the attribute
+	 */
+	public static void requireAllNonZero(final MaxsLoggableRoutine routine, final int componentId, final double[] values, final String attribute) {
+		MaxsLoggerContext.current().requireAllNonZero(routine, componentId, values, attribute);
+	}
+
+	/**
+	 * Validates the component with the plan. All missing attributes are added to the store and written to the log file
+	 * as one batch.
+	 *
+	 * @param plan      the validation plan
+	 * @param component the component
+	 */
+	public static void validate(final MaxsValidationPlan plan, final RexsComponent component) {
+		MaxsLoggerContext.current().validate(plan, component);
+	}
+
+	/**
+	 * Validates all components with the plan. All missing attributes of all components are added to the store and
+	 * written to the log file as one batch.
+	 *
+	 * @param plan       the validation plan
+	 * @param components the components
+	 */
+	public static void validate(final MaxsValidationPlan plan, final Collection<? extends RexsComponent> components) {
+		MaxsLoggerContext.current().validate(plan, components);
+	}
+
+	/**
+	 * Resets the context by deactivating file logging and clearing all notifications. The buffers of the store are
+	 * kept, so reusing the context for the next job is cheap.
 	 */
 	public static void reset() {
-		deactivateFileLogging();
-		kernelNotifications.getNotifications().clear();
-		log.info("The notification logger has been reset.");
+		MaxsLoggerContext.current().reset();
 	}
 
 	/**
@@ -277,42 +481,51 @@ public static void reset() {
 	 * @param appVersion the application version
 	 */
 	public static void setAppInformation(final String appId, final String appVersion) {
-		kernelNotifications.setAppId(appId);
-		kernelNotifications.setAppVersion(appVersion);
+		MaxsLoggerContext.current().setAppInformation(appId, appVersion);
 	}
 
 	/**
-	 * Writes the  to the log file.
+	 * Retrieves an unmodifiable view of the kernel notifications. The view is ordered by the time the notifications
+	 * were logged, also if they were logged by several threads.
+	 * <p>
+	 * With the default store the view is an immutable snapshot, which is taken in constant time without copying the
+	 * notifications. Notifications logged afterwards are not part of it.
 	 *
-	 * @param logFile the log file path
+	 * @return a unmodifiable view of the kernel notifications
 	 */
-	private static void writeToFile(final File logFile) throws JAXBException {
-		final JAXBContext context = JAXBContext.newInstance(KernelNotifications.class);
-		final Marshaller marshaller = context.createMarshaller();
-		marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-		marshaller.marshal(kernelNotifications, logFile);
+	public static List<Notification> getAllNotifications() {
+		return MaxsLoggerContext.current().getAllNotifications();
 	}
 
 	/**
-	 * Writes the  to the defined log file, if logging to file is activated.
+	 * Returns whether an error has been logged since the last reset. The check reads a counter and does not touch the
+	 * notifications.
+	 *
+	 * @return true if an error has been logged
 	 */
-	private static void writeToFileIfActivated() {
-		if (isLoggingToFileActivated()) {
-			try {
-				writeToFile(logPath);
-			} catch (final JAXBException e) {
-				log.error("Unable to write  to file: {}", e.getMessage());
-			}
-		}
+	public static boolean hasErrors() {
+		return MaxsLoggerContext.current().hasErrors();
 	}
 
 	/**
-	 * Retrieves an unmodifiable view of the kernel notifications.
+	 * Returns the number of notifications of the message type logged since the last reset. The count includes
+	 * aggregated repeats and notifications that have been suppressed or evicted.
 	 *
-	 * @return a unmodifiable view of the kernel notifications
+	 * @param messageType the message type
+	 * @return the number of notifications
 	 */
-	public static List<Notification> getAllNotifications() {
-		return List.copyOf(kernelNotifications.getNotifications());
+	public static long count(final MaxsMessageType messageType) {
+		return MaxsLoggerContext.current().count(messageType);
+	}
+
+	/**
+	 * Creates a query for the notifications of the current context. The query uses the indexes of the store, so it
+	 * neither copies nor scans all notifications.
+	 *
+	 * @return the new query
+	 */
+	public static MaxsQuery query() {
+		return MaxsLoggerContext.current().query();
 	}
 
 	/**
@@ -322,9 +535,7 @@ public static List<Notification> getAllNotifications() {
 	 * @return a list of filtered notifications
 	 */
 	public static List<Notification> getFilteredNotifications(Predicate<Notification> filter) {
-		return getAllNotifications().stream()
-			.filter(filter)
-			.toList();
+		return MaxsLoggerContext.current().getFilteredNotifications(filter);
 	}
 
 	/**
@@ -333,7 +544,7 @@ public static List<Notification> getFilteredNotifications(Predicate<Notification
 	 * @return the application ID
 	 */
 	public static String getAppId() {
-		return kernelNotifications.getAppId();
+		return MaxsLoggerContext.current().getAppId();
 	}
 
 	/**
@@ -342,6 +553,6 @@ public static String getAppId() {
 	 * @return the application version
 	 */
 	public static String getAppVersion() {
-		return kernelNotifications.getAppVersion();
+		return MaxsLoggerContext.current().getAppVersion();
 	}
 }
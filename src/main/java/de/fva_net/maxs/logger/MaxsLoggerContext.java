@@ -0,0 +1,1545 @@
+package de.fva_net.maxs.logger;
+
+import de.fva_net.maxs.logger.io.AsyncMaxsFileWriter;
+import de.fva_net.maxs.logger.io.BinaryMaxsFileWriter;
+import de.fva_net.maxs.logger.io.CompressedMaxsFileWriter;
+import de.fva_net.maxs.logger.io.IncrementalMaxsFileWriter;
+import de.fva_net.maxs.logger.io.JournalMaxsFileWriter;
+import de.fva_net.maxs.logger.io.MaxsFileWriter;
+import de.fva_net.maxs.logger.io.MaxsFiles;
+import de.fva_net.maxs.logger.io.MaxsJournal;
+import de.fva_net.maxs.logger.io.RewritingMaxsFileWriter;
+import de.fva_net.maxs.logger.io.RollingMaxsFileWriter;
+import de.fva_net.maxs.logger.sink.MaxsFileSink;
+import de.fva_net.maxs.logger.sink.MaxsNotificationPublisher;
+import de.fva_net.maxs.logger.sink.MaxsSink;
+import de.fva_net.maxs.logger.sink.MaxsSinkDispatcher;
+import de.fva_net.maxs.logger.sink.MaxsSinkOptions;
+import de.fva_net.maxs.logger.sink.NotificationStoreSink;
+import de.fva_net.maxs.logger.store.BoundedNotificationStore;
+import de.fva_net.maxs.logger.store.CompactNotificationStore;
+import de.fva_net.maxs.logger.store.ChunkedNotificationStore;
+import de.fva_net.maxs.logger.store.NotificationAggregator;
+import de.fva_net.maxs.logger.store.NotificationRateLimiter;
+import de.fva_net.maxs.logger.store.NotificationStatistics;
+import de.fva_net.maxs.logger.store.NotificationStore;
+import de.fva_net.maxs.logger.xml.Item;
+import de.fva_net.maxs.logger.xml.KernelNotifications;
+import de.fva_net.maxs.logger.xml.Notification;
+import info.rexs.model.RexsComponent;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.math3.util.Precision;
+import tech.units.indriya.quantity.NumberQuantity;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.measure.Quantity;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Logging context holding its own notifications, application information and log file.
+ * <p>
+ * Independent jobs can use their own context, so they neither share notifications nor log files. A context can be
+ * bound to the current thread with {@link #bind()}, so the static methods of the {@link MaxsLogger} route to it. If no
+ * context is bound, the static methods use the {@link #getGlobal() global context}.
+ * <p>
+ * Each notification is dispatched once to the {@link MaxsSink sinks} of the context: its store, its log file, if file
+ * logging is activated, and the sinks added with {@link #addSink(MaxsSink, MaxsSinkOptions)}.
+ * <p>
+ * After a job is finished, the context can be reused for the next job by calling {@link #reset()}.
+ */
+@Slf4j
+public final class MaxsLoggerContext {
+
+	/**
+	 * The global context, which is used if no context is bound to the current thread.
+	 */
+	private static final MaxsLoggerContext GLOBAL = new MaxsLoggerContext();
+
+	/**
+	 * The context bound to the current thread.
+	 */
+	private static final ThreadLocal<MaxsLoggerContext> BOUND = new ThreadLocal<>();
+
+	/**
+	 * The maximum number of indices that are listed in the message of an array validation.
+	 */
+	private static final int MAX_REPORTED_INDICES = 20;
+
+	/**
+	 * The message of a missing attribute, whose arguments are the name of the attribute and the location of the missing
+	 * values in an array, which is empty for a single value.
+	 */
+	static final MaxsMessageTemplate MISSING_ATTRIBUTE = MaxsMessageTemplate.of("{} is required to perform the calculation but is missing{}.");
+
+	/**
+	 * The domain of the MBeans.
+	 */
+	private static final String MBEAN_DOMAIN = "de.fva_net.maxs.logger";
+
+	/**
+	 * The message if aggregation or rate limits are combined with a bounded retention policy and a log file that cannot
+	 * be updated.
+	 */
+	private static final String NOT_UPDATABLE = "Aggregation and rate limits with a bounded retention policy require a .maxs log file "
+			+ "without journal and rolling mode, which can be updated";
+
+	/**
+	 * The store holding all kernel notifications.
+	 */
+	private volatile NotificationStore notificationStore = new ChunkedNotificationStore();
+
+	/**
+	 * The sink adding the notifications to the store.
+	 */
+	private volatile NotificationStoreSink storeSink = new NotificationStoreSink(notificationStore);
+
+	/**
+	 * The sinks receiving the notifications, starting with the store.
+	 */
+	private final MaxsSinkDispatcher sinks = new MaxsSinkDispatcher();
+
+	/**
+	 * The retention policy of the notification store.
+	 */
+	private volatile MaxsRetentionPolicy retentionPolicy = MaxsRetentionPolicy.UNBOUNDED;
+
+	/**
+	 * The live counters of the logged notifications.
+	 */
+	private final NotificationStatistics statistics = new NotificationStatistics();
+
+	/**
+	 * The name under which the statistics are registered as MBean, or null if they are not registered.
+	 */
+	private volatile ObjectName mbeanName;
+
+	/**
+	 * The application ID.
+	 */
+	private volatile String appId;
+
+	/**
+	 * The application version.
+	 */
+	private volatile String appVersion;
+
+	/**
+	 * The sink writing the log file, or null if logging to file is not activated.
+	 */
+	private volatile MaxsFileSink fileSink;
+
+	/**
+	 * The publisher pushing the notifications to subscribers, or null if nobody has subscribed yet.
+	 */
+	private volatile MaxsNotificationPublisher publisher;
+
+	/**
+	 * The minimum severity of messages that are logged.
+	 */
+	private volatile MaxsMessageType minimumSeverity = MaxsMessageType.INFO;
+
+	/**
+	 * Indicates whether debug messages are logged.
+	 */
+	private volatile boolean debugEnabled = true;
+
+	/**
+	 * Lookup table indexed by the ordinal of the message types, indicating whether a message type is logged.
+	 */
+	private volatile boolean[] enabledTypes = computeEnabledTypes(MaxsMessageType.INFO, true);
+
+	/**
+	 * The aggregator of repeated notifications, or null if aggregation is disabled.
+	 */
+	private volatile NotificationAggregator aggregator;
+
+	/**
+	 * The rate limits of the notifications.
+	 */
+	private volatile MaxsRateLimits rateLimits = MaxsRateLimits.UNLIMITED;
+
+	/**
+	 * The rate limiter enforcing the rate limits, or null if there is no limit.
+	 */
+	private volatile NotificationRateLimiter rateLimiter;
+
+	/**
+	 * Creates a new context, whose notifications are only kept in its store.
+	 */
+	public MaxsLoggerContext() {
+		sinks.add(storeSink, MaxsSinkOptions.DEFAULT);
+	}
+
+	/**
+	 * Returns the global context, which is used if no context is bound to the current thread.
+	 *
+	 * @return the global context
+	 */
+	public static MaxsLoggerContext getGlobal() {
+		return GLOBAL;
+	}
+
+	/**
+	 * Returns the context bound to the current thread, or the global context if no context is bound.
+	 *
+	 * @return the current context
+	 */
+	public static MaxsLoggerContext current() {
+		final MaxsLoggerContext context = BOUND.get();
+		return context != null ? context : GLOBAL;
+	}
+
+	/**
+	 * Binds this context to the current thread until the returned scope is closed. Scopes can be nested, closing a
+	 * scope restores the previously bound context.
+	 * <p>
+	 * The binding is not inherited by other threads, e.g. of a parallel stream. Use {@link #run(Runnable)} or
+	 * {@link #wrap(Runnable)} inside such tasks, or call the methods of the context directly.
+	 *
+	 * @return the scope of the binding
+	 */
+	public Scope bind() {
+		final MaxsLoggerContext previous = BOUND.get();
+		BOUND.set(this);
+		return new Scope(previous);
+	}
+
+	/**
+	 * Runs the task with this context bound to the current thread.
+	 *
+	 * @param task the task to run
+	 */
+	public void run(final Runnable task) {
+		try (Scope ignored = bind()) {
+			task.run();
+		}
+	}
+
+	/**
+	 * Calls the task with this context bound to the current thread.
+	 *
+	 * @param task the task to call
+	 * @param <T>  the type of the result
+	 * @return the result of the task
+	 * @throws Exception if the task fails
+	 */
+	public <T> T call(final Callable<T> task) throws Exception {
+		try (Scope ignored = bind()) {
+			return task.call();
+		}
+	}
+
+	/**
+	 * Wraps the task, so it runs with this context bound to the executing thread.
+	 *
+	 * @param task the task to wrap
+	 * @return the wrapped task
+	 */
+	public Runnable wrap(final Runnable task) {
+		return () -> run(task);
+	}
+
+	/**
+	 * Activates logging to a file. The complete file is rewritten on every log call.
+	 *
+	 * @param logFile the path to the log file. Must have a .maxs extension, .maxs.gz to write it compressed or .maxsb to
+	 *                write it in the binary format.
+	 */
+	public void activateFileLogging(final File logFile) {
+		activateFileLogging(logFile, MaxsFileLoggingOptions.DEFAULT);
+	}
+
+	/**
+	 * Activates logging to a file using the given options.
+	 * <p>
+	 * If notifications are aggregated or rate limited and the retention policy is bounded, the log file has to be
+	 * updated once notifications have been evicted. Only .maxs files written without journal and rolling mode can be
+	 * updated, the activation of other files is refused with an error.
+	 *
+	 * @param logFile the path to the log file. Must have a .maxs extension, .maxs.gz to write it compressed or .maxsb to
+	 *                write it in the binary format.
+	 * @param options the options for the file logging
+	 */
+	public void activateFileLogging(final File logFile, final MaxsFileLoggingOptions options) {
+		// null check
+		if (logFile == null) {
+			log.error("The given path is null");
+			return;
+		}
+
+		// check if file ending is *.maxs, *.maxs.gz or *.maxsb (case-insensitive)
+		if (!MaxsFiles.hasMaxsExtension(logFile)) {
+			log.error("The given log path does not end with '.maxs', '.maxs.gz' or '.maxsb': {}", logFile);
+			return;
+		}
+
+		// create file, if it does not exist, and write all messages that are already stored in the list to the file
+		// if path is not writable, log an error and return
+		final MaxsFileWriter writer = createFileWriter(logFile, options);
+		if (!canWriteChanges(writer, retentionPolicy, aggregator != null, rateLimits)) {
+			log.error(NOT_UPDATABLE + ": {}", logFile);
+			closeQuietly(writer);
+			return;
+		}
+		try {
+			writer.open(toKernelNotifications());
+		} catch (final IOException e) {
+			log.error("Cannot write to the logfile: {}", e.getMessage());
+			closeQuietly(writer);
+			return;
+		}
+
+		// replace the previous writer
+		final MaxsFileSink previous = fileSink;
+		final MaxsFileSink sink = new MaxsFileSink(writer);
+		sinks.replace(previous, sink);
+		this.fileSink = sink;
+		if (previous != null) {
+			closeQuietly(previous.getWriter());
+		}
+		log.info("The log path is set to: {}", logFile);
+	}
+
+	/**
+	 * Creates the writer for the log file. In journal mode the notifications are appended to the journal, in rolling
+	 * mode they are written to segment files. Otherwise files with the extension .maxs.gz are always written as
+	 * compressed stream and files with the extension .maxsb in the binary format.
+	 *
+	 * @param logFile the path to the log file
+	 * @param options the options for the file logging
+	 * @return the writer
+	 */
+	private static MaxsFileWriter createFileWriter(final File logFile, final MaxsFileLoggingOptions options) {
+		if (options.isJournal()) {
+			return new JournalMaxsFileWriter(logFile, MaxsJournal.journalFileOf(logFile), options.getJournalSegmentSize());
+		}
+		if (options.isRolling()) {
+			final MaxsFileWriter writer = RollingMaxsFileWriter.builder()
+				.logFile(logFile)
+				.serializer(options.getSerializer())
+				.compressionLevel(options.getCompressionLevel())
+				.maxNotifications(options.getRollingMaxNotifications())
+				.maxBytes(options.getRollingMaxBytes())
+				.partitioning(options.getPartitioning())
+				.build();
+			return options.isAsync() ? createAsyncFileWriter(writer, options) : writer;
+		}
+		if (MaxsFiles.isCompressed(logFile)) {
+			final MaxsFileWriter writer = new CompressedMaxsFileWriter(logFile, options.getSerializer(), options.getCompressionLevel());
+			return options.isAsync() ? createAsyncFileWriter(writer, options) : writer;
+		}
+		if (MaxsFiles.isBinary(logFile)) {
+			final MaxsFileWriter writer = new BinaryMaxsFileWriter(logFile);
+			return options.isAsync() ? createAsyncFileWriter(writer, options) : writer;
+		}
+		if (options.isAsync()) {
+			return createAsyncFileWriter(new IncrementalMaxsFileWriter(logFile, options.getSerializer()), options);
+		}
+		if (options.isIncremental()) {
+			return new IncrementalMaxsFileWriter(logFile, options.getSerializer());
+		}
+		return new RewritingMaxsFileWriter(logFile, options.getSerializer());
+	}
+
+	/**
+	 * Creates the asynchronous writer for the log file.
+	 *
+	 * @param delegate the writer of the background thread
+	 * @param options  the options for the file logging
+	 * @return the asynchronous writer
+	 */
+	private static MaxsFileWriter createAsyncFileWriter(final MaxsFileWriter delegate, final MaxsFileLoggingOptions options) {
+		return AsyncMaxsFileWriter.builder()
+			.delegate(delegate)
+			.queueCapacity(options.getQueueCapacity())
+			.flushEveryNotifications(options.getFlushEveryNotifications())
+			.flushIntervalMillis(options.getFlushIntervalMillis())
+			.flushOnError(options.isFlushOnError())
+			.overflowPolicy(options.getOverflowPolicy())
+			.overflowCapacity(options.getOverflowCapacity())
+			.build();
+	}
+
+	/**
+	 * Writes all notifications that are still buffered to the log file and passes the notifications that are still
+	 * queued to the asynchronous sinks. This is only necessary if the file logging or a sink is asynchronous.
+	 */
+	public void flush() {
+		sinks.flush();
+	}
+
+	/**
+	 * Adds a sink that receives all notifications logged from now on.
+	 *
+	 * @param sink the sink, which is not closed by the context
+	 */
+	public void addSink(final MaxsSink sink) {
+		addSink(sink, MaxsSinkOptions.DEFAULT);
+	}
+
+	/**
+	 * Adds a sink that receives the notifications logged from now on that pass the filter of the options. Adding a
+	 * sink again replaces its options.
+	 *
+	 * @param sink    the sink, which is not closed by the context
+	 * @param options the filter of the sink and whether it is called by a background thread
+	 */
+	public void addSink(final MaxsSink sink, final MaxsSinkOptions options) {
+		sinks.add(sink, options);
+	}
+
+	/**
+	 * Removes a sink. The notifications that are still queued for an asynchronous sink are passed to it before.
+	 *
+	 * @param sink the sink, which is not closed
+	 * @return true if the sink was added to this context
+	 */
+	public boolean removeSink(final MaxsSink sink) {
+		if (sink == storeSink || (sink != null && sink == fileSink)) {
+			throw new IllegalArgumentException("The store and the log file cannot be removed as sink");
+		}
+		return sinks.remove(sink);
+	}
+
+	/**
+	 * Returns the publisher that pushes the notifications logged from now on to its subscribers. The publisher buffers
+	 * {@link Flow#defaultBufferSize()} notifications per subscriber and drops the oldest ones if a subscriber is too
+	 * slow. Add a {@link MaxsNotificationPublisher} with other options as sink to change this.
+	 *
+	 * @return the publisher
+	 */
+	public Flow.Publisher<Notification> getPublisher() {
+		MaxsNotificationPublisher current = publisher;
+		if (current == null) {
+			synchronized (this) {
+				current = publisher;
+				if (current == null) {
+					current = MaxsNotificationPublisher.builder().build();
+					sinks.add(current, MaxsSinkOptions.DEFAULT);
+					publisher = current;
+				}
+			}
+		}
+		return current;
+	}
+
+	/**
+	 * Subscribes to the notifications logged from now on. The subscriber receives them on another thread, as many as it
+	 * requests, so a slow subscriber does not block the logging thread.
+	 *
+	 * @param subscriber the subscriber
+	 * @see #getPublisher()
+	 */
+	public void subscribe(final Flow.Subscriber<? super Notification> subscriber) {
+		getPublisher().subscribe(subscriber);
+	}
+
+	/**
+	 * Returns the sinks of the context, starting with the store. The sink of the log file and the added sinks follow in
+	 * the order in which they have been registered: activating file logging registers the log file at the end, unless
+	 * it replaces an active log file at its position.
+	 *
+	 * @return the sinks in the order in which the notifications are dispatched to them
+	 */
+	public List<MaxsSink> getSinks() {
+		return sinks.getSinks();
+	}
+
+	/**
+	 * Deactivates logging to file. Notifications that are still buffered are written to the file before.
+	 */
+	public void deactivateFileLogging() {
+		log.info("Logging to file has been deactivated.");
+		rewriteChangedNotifications();
+		closeFileWriter();
+	}
+
+	/**
+	 * Enables the aggregation of repeated notifications. A repeated notification with the same routine, component ID,
+	 * attribute ID, message and type is not stored again. Instead, the first notification counts the occurrences in its
+	 * item {@value NotificationAggregator#COUNT_ATTRIBUTE} and keeps the value of the last occurrence as second item.
+	 * <p>
+	 * The counts are written to the log file when file logging is deactivated. With a bounded retention policy, this
+	 * requires a log file that can be {@link #activateFileLogging(File, MaxsFileLoggingOptions) updated}, otherwise
+	 * the aggregation is refused with an error.
+	 *
+	 * @param maxKeys the maximum number of distinct notifications that are aggregated, to bound the memory usage
+	 */
+	public void enableAggregation(final int maxKeys) {
+		if (!canWriteChanges(fileWriter(), retentionPolicy, true, rateLimits)) {
+			log.error(NOT_UPDATABLE + ", the aggregation is not enabled");
+			return;
+		}
+		aggregator = new NotificationAggregator(maxKeys);
+	}
+
+	/**
+	 * Disables the aggregation of repeated notifications.
+	 */
+	public void disableAggregation() {
+		rewriteChangedNotifications();
+		aggregator = null;
+	}
+
+	/**
+	 * Returns whether repeated notifications are aggregated.
+	 *
+	 * @return true if repeated notifications are aggregated
+	 */
+	public boolean isAggregationEnabled() {
+		return aggregator != null;
+	}
+
+	/**
+	 * Sets caps for the number of notifications per routine, per component ID and per message type. Once a cap is
+	 * reached, further notifications are suppressed and a single summary notification counts them.
+	 * <p>
+	 * The final counts of the summary notifications are written to the log file when file logging is deactivated. With
+	 * a bounded retention policy, this requires a log file that can be
+	 * {@link #activateFileLogging(File, MaxsFileLoggingOptions) updated}, otherwise the rate limits are refused with an
+	 * error.
+	 *
+	 * @param rateLimits the rate limits, or {@link MaxsRateLimits#UNLIMITED} to remove all caps
+	 */
+	public void setRateLimits(final MaxsRateLimits rateLimits) {
+		final MaxsRateLimits limits = rateLimits != null ? rateLimits : MaxsRateLimits.UNLIMITED;
+		if (!canWriteChanges(fileWriter(), retentionPolicy, aggregator != null, limits)) {
+			log.error(NOT_UPDATABLE + ", the rate limits are not set");
+			return;
+		}
+		rewriteChangedNotifications();
+		this.rateLimits = limits;
+		this.rateLimiter = createRateLimiter(limits);
+	}
+
+	/**
+	 * Returns the rate limits of the notifications.
+	 *
+	 * @return the rate limits
+	 */
+	public MaxsRateLimits getRateLimits() {
+		return rateLimits;
+	}
+
+	/**
+	 * Sets the bounds for the notifications retained in memory. If a bound is exceeded, the oldest notification of the
+	 * least important message type is evicted, so errors are kept longest. The notifications that are already retained
+	 * are moved to the new store and evicted if necessary.
+	 * <p>
+	 * The policy replaces the {@link #setNotificationStore(NotificationStore) store} and should be set before
+	 * notifications are logged concurrently, notifications logged by other threads while the store is replaced may be
+	 * lost.
+	 * <p>
+	 * If notifications are aggregated or rate limited, a bounded policy requires a log file that can be
+	 * {@link #activateFileLogging(File, MaxsFileLoggingOptions) updated}, otherwise the policy is refused with an error.
+	 *
+	 * @param retentionPolicy the retention policy, or {@link MaxsRetentionPolicy#UNBOUNDED} to retain all notifications
+	 */
+	public void setRetentionPolicy(final MaxsRetentionPolicy retentionPolicy) {
+		final MaxsRetentionPolicy policy = retentionPolicy != null ? retentionPolicy : MaxsRetentionPolicy.UNBOUNDED;
+		if (!canWriteChanges(fileWriter(), policy, aggregator != null, rateLimits)) {
+			log.error(NOT_UPDATABLE + ", the retention policy is not set");
+			return;
+		}
+		setNotificationStore(policy.isBounded()
+				? new BoundedNotificationStore(policy.getMaxNotifications(), policy.getMaxBytes())
+				: new ChunkedNotificationStore());
+		this.retentionPolicy = policy;
+	}
+
+	/**
+	 * Replaces the store holding the notifications, e.g. with a {@link CompactNotificationStore} for jobs that log
+	 * millions of notifications. The notifications that are already retained are moved to the new store.
+	 * <p>
+	 * The store should be set before notifications are logged concurrently, notifications logged by other threads
+	 * while the store is replaced may be lost.
+	 *
+	 * @param store the new store
+	 */
+	public void setNotificationStore(final NotificationStore store) {
+		final NotificationStore previous = notificationStore;
+		for (final Notification notification : previous.getAll()) {
+			store.addMutable(notification);
+		}
+		this.retentionPolicy = MaxsRetentionPolicy.UNBOUNDED;
+		this.notificationStore = store;
+		final NotificationStoreSink sink = new NotificationStoreSink(store);
+		sinks.replace(storeSink, sink);
+		this.storeSink = sink;
+	}
+
+	/**
+	 * Returns the retention policy of the notifications.
+	 *
+	 * @return the retention policy
+	 */
+	public MaxsRetentionPolicy getRetentionPolicy() {
+		return retentionPolicy;
+	}
+
+	/**
+	 * Returns the number of notifications that are retained in memory.
+	 *
+	 * @return the number of retained notifications
+	 */
+	public int getRetainedCount() {
+		return notificationStore.size();
+	}
+
+	/**
+	 * Returns the estimated heap size of the notifications that are retained in memory.
+	 *
+	 * @return the estimated size in bytes
+	 */
+	public long getRetainedBytes() {
+		return notificationStore.getEstimatedBytes();
+	}
+
+	/**
+	 * Returns the number of notifications that have been evicted by the retention policy since the last reset.
+	 *
+	 * @return the number of evicted notifications
+	 */
+	public long getEvictedCount() {
+		return notificationStore.getEvictedCount();
+	}
+
+	/**
+	 * Returns the number of notifications of the message type that have been evicted by the retention policy since
+	 * the last reset.
+	 *
+	 * @param messageType the message type
+	 * @return the number of evicted notifications of the type
+	 */
+	public long getEvictedCount(final MaxsMessageType messageType) {
+		return notificationStore.getEvictedCount(messageType);
+	}
+
+	/**
+	 * Returns the number of notifications that the asynchronous file logging has dropped because its queue and its
+	 * overflow buffer were full. The count starts again when file logging is activated.
+	 *
+	 * @return the number of dropped notifications, or 0 if logging to file is not activated
+	 */
+	public long getDroppedCount() {
+		final MaxsFileWriter writer = fileWriter();
+		return writer != null ? writer.getDroppedCount() : 0;
+	}
+
+	/**
+	 * Creates the rate limiter for the given rate limits.
+	 *
+	 * @param rateLimits the rate limits
+	 * @return the rate limiter, or null if there is no limit
+	 */
+	private static NotificationRateLimiter createRateLimiter(final MaxsRateLimits rateLimits) {
+		if (!rateLimits.isLimited()) {
+			return null;
+		}
+		return new NotificationRateLimiter(rateLimits.getMaxPerRoutine(), rateLimits.getMaxPerComponent(), rateLimits.getMaxPerType());
+	}
+
+	/**
+	 * Returns the writer of the log file.
+	 *
+	 * @return the writer, or null if logging to file is not activated
+	 */
+	private MaxsFileWriter fileWriter() {
+		final MaxsFileSink sink = fileSink;
+		return sink != null ? sink.getWriter() : null;
+	}
+
+	/**
+	 * Returns whether aggregated and summary notifications can be written to the log file after they have changed.
+	 * Once the retention policy has evicted notifications, they are no longer written from the store, but updated in
+	 * the file, which not every writer supports.
+	 *
+	 * @param writer          the writer of the log file, or null if logging to file is not activated
+	 * @param retentionPolicy the retention policy
+	 * @param aggregating     whether repeated notifications are aggregated
+	 * @param rateLimits      the rate limits
+	 * @return true if the changed notifications can be written
+	 */
+	private static boolean canWriteChanges(final MaxsFileWriter writer, final MaxsRetentionPolicy retentionPolicy, final boolean aggregating,
+			final MaxsRateLimits rateLimits) {
+		return writer == null || writer.isUpdatable() || !retentionPolicy.isBounded() || (!aggregating && !rateLimits.isLimited());
+	}
+
+	/**
+	 * Writes the log file again, if aggregated or summary notifications have changed since they were written.
+	 */
+	private void rewriteChangedNotifications() {
+		final NotificationAggregator currentAggregator = aggregator;
+		final NotificationRateLimiter currentRateLimiter = rateLimiter;
+		final boolean repeated = currentAggregator != null && currentAggregator.isRepeated();
+		final boolean suppressed = currentRateLimiter != null && currentRateLimiter.isSuppressed();
+		final MaxsFileSink sink = fileSink;
+		if (sink != null && (repeated || suppressed)) {
+			if (currentAggregator != null) {
+				currentAggregator.resetRepeated();
+			}
+			if (currentRateLimiter != null) {
+				currentRateLimiter.resetSuppressed();
+			}
+			try {
+				rewriteFile(sink);
+			} catch (final IOException e) {
+				log.error("Unable to write to file: {}", e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Sets the minimum severity of messages that are logged. Messages of a lower severity are discarded before any
+	 * object is created for them. The default is {@link MaxsMessageType#INFO}, which logs all messages.
+	 *
+	 * @param minimumSeverity the minimum severity, the debug flag of the type is ignored
+	 */
+	public void setMinimumSeverity(final MaxsMessageType minimumSeverity) {
+		this.minimumSeverity = minimumSeverity != null ? minimumSeverity : MaxsMessageType.INFO;
+		this.enabledTypes = computeEnabledTypes(this.minimumSeverity, debugEnabled);
+	}
+
+	/**
+	 * Returns the minimum severity of messages that are logged.
+	 *
+	 * @return the minimum severity
+	 */
+	public MaxsMessageType getMinimumSeverity() {
+		return minimumSeverity;
+	}
+
+	/**
+	 * Enables or disables the logging of debug messages. Debug messages are enabled by default.
+	 *
+	 * @param debugEnabled true to log debug messages, false to discard them
+	 */
+	public void setDebugEnabled(final boolean debugEnabled) {
+		this.debugEnabled = debugEnabled;
+		this.enabledTypes = computeEnabledTypes(minimumSeverity, debugEnabled);
+	}
+
+	/**
+	 * Returns whether debug messages are logged.
+	 *
+	 * @return true if debug messages are logged
+	 */
+	public boolean isDebugEnabled() {
+		return debugEnabled;
+	}
+
+	/**
+	 * Returns whether messages of the given type are logged. Use this check to skip expensive preparations of messages
+	 * that would be discarded anyway.
+	 *
+	 * @param messageType the message type
+	 * @return true if messages of the type are logged
+	 */
+	public boolean isEnabled(final MaxsMessageType messageType) {
+		return messageType == null || enabledTypes[messageType.ordinal()];
+	}
+
+	/**
+	 * Computes the lookup table of the enabled message types.
+	 *
+	 * @param minimumSeverity the minimum severity
+	 * @param debugEnabled    whether debug messages are logged
+	 * @return the lookup table indexed by the ordinal of the message types
+	 */
+	private static boolean[] computeEnabledTypes(final MaxsMessageType minimumSeverity, final boolean debugEnabled) {
+		final MaxsMessageType[] types = MaxsMessageType.values();
+		final boolean[] enabled = new boolean[types.length];
+		for (final MaxsMessageType type : types) {
+			enabled[type.ordinal()] = (debugEnabled || !type.isDebug()) && type.getSeverity() >= minimumSeverity.getSeverity();
+		}
+		return enabled;
+	}
+
+	/**
+	 * Returns if logging to a file is activated.
+	 *
+	 * @return true if logging to a file is activated, false otherwise
+	 */
+	public boolean isLoggingToFileActivated() {
+		return fileSink != null;
+	}
+
+	/**
+	 * Logs a new message.
+	 *
+	 * @param routine       the routine for which the messasge shall be logged
+	 * @param rexsComponent the rexs component
+	 * @param message       the log message
+	 * @param messageType   the severity of the message
+	 */
+	public void logMessage(final MaxsLoggableRoutine routine, final RexsComponent rexsComponent, final String message, final MaxsMessageType messageType) {
+		if (rexsComponent == null) {
+			logMessage(routine, message, messageType);
+		} else {
+			logMessage(routine, rexsComponent.getId(), message, messageType);
+		}
+	}
+
+	/**
+	 * Logs a new message.
+	 *
+	 * @param routine     the routine for which the messasge shall be logged
+	 * @param componentId the numeric ID of the component
+	 * @param message     the log message
+	 * @param messageType the severity of the message
+	 */
+	public void logMessage(final MaxsLoggableRoutine routine, final Integer componentId, final String message, final MaxsMessageType messageType) {
+		if (!isEnabled(messageType)) {
+			return;
+		}
+
+		// Create the log message
+		final Notification notification = new Notification();
+		notification.setRoutine(routine != null ? routine.getMaxsId() : null);
+		notification.setMessage(message);
+		notification.setType(messageType);
+		if (componentId != null && componentId > 0) {
+			notification.setCompId(componentId);
+		}
+
+		// store it in the list and write it to file
+		addNotification(notification);
+	}
+
+	/**
+	 * Logs a new message.
+	 *
+	 * @param routine       the routine for which the messasge shall be logged
+	 * @param message       the log message
+	 * @param messageType   the severity of the message
+	 */
+	public void logMessage(final MaxsLoggableRoutine routine, final String message, final MaxsMessageType messageType) {
+		if (!isEnabled(messageType)) {
+			return;
+		}
+
+		// Create the log message
+		final Notification notification = new Notification();
+		notification.setRoutine(routine != null ? routine.getMaxsId() : null);
+		notification.setMessage(message);
+		notification.setType(messageType);
+
+		// store it in the list and write it to file
+		addNotification(notification);
+	}
+
+	/**
+	 * Logs a new message. The message is only created if the message type is enabled.
+	 *
+	 * @param routine       the routine for which the messasge shall be logged
+	 * @param rexsComponent the rexs component
+	 * @param message       the supplier of the log message
+	 * @param messageType   the severity of the message
+	 */
+	public void logMessage(final MaxsLoggableRoutine routine, final RexsComponent rexsComponent, final Supplier<String> message, final MaxsMessageType messageType) {
+		if (isEnabled(messageType)) {
+			logMessage(routine, rexsComponent, message.get(), messageType);
+		}
+	}
+
+	/**
+	 * Logs a new message. The message is only created if the message type is enabled.
+	 *
+	 * @param routine     the routine for which the messasge shall be logged
+	 * @param componentId the numeric ID of the component
+	 * @param message     the supplier of the log message
+	 * @param messageType the severity of the message
+	 */
+	public void logMessage(final MaxsLoggableRoutine routine, final Integer componentId, final Supplier<String> message, final MaxsMessageType messageType) {
+		if (isEnabled(messageType)) {
+			logMessage(routine, componentId, message.get(), messageType);
+		}
+	}
+
+	/**
+	 * Logs a new message. The message is only created if the message type is enabled.
+	 *
+	 * @param routine     the routine for which the messasge shall be logged
+	 * @param message     the supplier of the log message
+	 * @param messageType the severity of the message
+	 */
+	public void logMessage(final MaxsLoggableRoutine routine, final Supplier<String> message, final MaxsMessageType messageType) {
+		if (isEnabled(messageType)) {
+			logMessage(routine, message.get(), messageType);
+		}
+	}
+
+	/**
+	 * Logs a new message from a template. The arguments are kept as they are and the message is only built when it is
+	 * read, e.g. when the notification is written to a file.
+	 *
+	 * @param routine       the routine for which the messasge shall be logged
+	 * @param rexsComponent the rexs component
+	 * @param template      the template of the log message
+	 * @param messageType   the severity of the message
+	 * @param arguments     the arguments of the placeholders of the template
+	 */
+	public void logMessage(final MaxsLoggableRoutine routine, final RexsComponent rexsComponent, final MaxsMessageTemplate template,
+		final MaxsMessageType messageType, final Object... arguments) {
+		logMessage(routine, rexsComponent != null ? rexsComponent.getId() : null, template, messageType, arguments);
+	}
+
+	/**
+	 * Logs a new message from a template. The arguments are kept as they are and the message is only built when it is
+	 * read, e.g. when the notification is written to a file.
+	 *
+	 * @param routine     the routine for which the messasge shall be logged
+	 * @param componentId the numeric ID of the component
+	 * @param template    the template of the log message
+	 * @param messageType the severity of the message
+	 * @param arguments   the arguments of the placeholders of the template
+	 */
+	public void logMessage(final MaxsLoggableRoutine routine, final Integer componentId, final MaxsMessageTemplate template, final MaxsMessageType messageType,
+		final Object... arguments) {
+		if (!isEnabled(messageType)) {
+			return;
+		}
+
+		final Notification notification = new Notification();
+		notification.setRoutine(routine != null ? routine.getMaxsId() : null);
+		notification.setMessage(template, arguments);
+		notification.setType(messageType);
+		if (componentId != null && componentId > 0) {
+			notification.setCompId(componentId);
+		}
+		addNotification(notification);
+	}
+
+	/**
+	 * Logs a new message from a template. The arguments are kept as they are and the message is only built when it is
+	 * read, e.g. when the notification is written to a file.
+	 *
+	 * @param routine     the routine for which the messasge shall be logged
+	 * @param template    the template of the log message
+	 * @param messageType the severity of the message
+	 * @param arguments   the arguments of the placeholders of the template
+	 */
+	public void logMessage(final MaxsLoggableRoutine routine, final MaxsMessageTemplate template, final MaxsMessageType messageType, final Object... arguments) {
+		logMessage(routine, (Integer) null, template, messageType, arguments);
+	}
+
+	/**
+	 * Logs a missing attribute error.
+	 *
+	 * @param routine     the routine
+	 * @param componentId the numeric ID of the component
+	 * @param value       the value
+	 * @param attribute   the attribute name
+	 */
+	private void logMissingAttribute(final MaxsLoggableRoutine routine, final Integer componentId, final Object value, final String attribute) {
+		if (!isEnabled(MaxsMessageType.DEBUG_ERROR)) {
+			return;
+		}
+
+		final Notification notification = new Notification();
+		final Item item = new Item();
+
+		notification.setRoutine(routine != null ? routine.getMaxsId() : null);
+		notification.setMessage(MISSING_ATTRIBUTE, attribute, "");
+		notification.setType(MaxsMessageType.DEBUG_ERROR);
+		if (componentId != null) {
+			notification.setCompId(componentId);
+		}
+
+		if (value == null) {
+			item.setValue(Double.NaN);
+		} else if (value instanceof final Double d) {
+			item.setValue(d);
+		} else if (value instanceof final Integer integer) {
+			item.setValue(integer);
+		} else if (value instanceof final NumberQuantity<?> quantity) {
+			item.setValue(quantity.getValue().doubleValue());
+		} else if (value instanceof Enum<?>) {
+			final String enumName = ((Enum<?>) value).name();
+			if ("UNKNOWN".equalsIgnoreCase(enumName)) {
+				item.setValue(Double.NaN);
+			}
+		} else {
+			log.error("Unsupported Data Type");
+		}
+		item.setAttrId(attribute);
+		if (componentId != null) {
+			item.setCompId(componentId);
+		}
+		notification.getData().add(item);
+
+		// store it in the list and write it to file
+		addNotification(notification);
+	}
+
+	/**
+	 * Requires non NaN logs to notification logger if the attribute value is NaN
+	 *
+	 * @param routine     the routine
+	 * @param componentId the numeric ID of the component
+	 * @param value       the double field
+	 * @param attribute   the name of the attribute
+	 */
+	public void requireNonNull(final MaxsLoggableRoutine routine, final Integer componentId, final double value, final String attribute) {
+		if (Double.isNaN(value)) {
+			logMissingAttribute(routine, componentId, value, attribute);
+		}
+	}
+
+	/**
+	 * Ensures that the provided value is not null. If the value is null or an enum with the name "UNKNOWN",
+	 * logs the missing attribute.
+	 *
+	 * @param routine     the routine for which the attribute is being checked
+	 * @param componentId the numeric ID of the component associated with the attribute
+	 * @param value       the value to check for null or "UNKNOWN"
+	 * @param attribute   the name of the attribute being checked
+	 */
+	public void requireNonNull(final MaxsLoggableRoutine routine, final Integer componentId, final Object value, final String attribute) {
+		// Check if the value is null and log the missing attribute if true
+		if (value == null) {
+			logMissingAttribute(routine, componentId, null, attribute);
+		}
+
+		// Check if the value is an enum with the name "UNKNOWN" and log the missing attribute if true
+		else if (value instanceof Enum<?> enumValue && enumValue.name().equalsIgnoreCase("unknown")) {
+			logMissingAttribute(routine, componentId, enumValue, attribute);
+		}
+
+		// Check if the value is a complex Double or Float and contains NaN
+		else if (value instanceof Double d && Double.isNaN(d)) {
+			logMissingAttribute(routine, componentId, d, attribute);
+		}
+	}
+
+	/**
+	 * Ensures that the provided value is not zero. If the value is zero, logs the missing attribute.
+	 *
+	 * @param routine     the routine
+	 * @param componentId the numeric ID of the component associated with the attribute
+	 * @param value       the double value to check
+	 * @param attribute   the name of the attribute
+	 */
+	public void requireNonZero(final MaxsLoggableRoutine routine, final Integer componentId, final double value, final String attribute) {
+		if (isNaNOrZero(value)) {
+			logMissingAttribute(routine, componentId, value, attribute);
+		}
+	}
+
+	/**
+	 * Ensures that the provided quantity value is not zero. If the value is zero, logs the missing attribute.
+	 *
+	 * @param routine     the routine
+	 * @param componentId the numeric ID of the component associated with the attribute
+	 * @param quantity    the quantity value to check
+	 * @param attribute   the name of the attribute
+	 * @param <Q>         the type of the quantity
+	 */
+	public <Q extends Quantity<Q>> void requireNonZero(final MaxsLoggableRoutine routine, final Integer componentId, final Quantity<Q> quantity, final String attribute) {
+		if (quantity == null) {
+			logMissingAttribute(routine, componentId, null, attribute);
+			return;
+		}
+		if (Precision.equalsWithRelativeTolerance(quantity.getValue().doubleValue(), 0, 1e-7)) {
+			logMissingAttribute(routine, componentId, quantity, attribute);
+		}
+	}
+
+	/**
+	 * Requires non NaN logs to notification logger if the attribute value is NaN. The component ID is not boxed, so the
+	 * check does not allocate if the value is present.
+	 *
+	 * @param routine     the routine
+	 * @param componentId the numeric ID of the component
+	 * @param value       the double field
+	 * @param attribute   the name of the attribute
+	 */
+	public void requireNonNull(final MaxsLoggableRoutine routine, final int componentId, final double value, final String attribute) {
+		if (Double.isNaN(value)) {
+			logMissingAttribute(routine, componentId, value, attribute);
+		}
+	}
+
+	/**
+	 * Ensures that the provided value is not zero. If the value is zero, logs the missing attribute. The component ID
+	 * is not boxed, so the check does not allocate if the value is present.
+	 *
+	 * @param routine     the routine
+	 * @param componentId the numeric ID of the component associated with the attribute
+	 * @param value       the double value to check
+	 * @param attribute   the name of the attribute
+	 */
+	public void requireNonZero(final MaxsLoggableRoutine routine, final int componentId, final double value, final String attribute) {
+		if (isNaNOrZero(value)) {
+			logMissingAttribute(routine, componentId, value, attribute);
+		}
+	}
+
+	/**
+	 * Ensures that no value of the array is NaN, e.g. the values per tooth or per step. All NaN values are reported
+	 * with their indices in a single notification.
+	 *
+	 * @param routine     the routine
+	 * @param componentId the numeric ID of the component associated with the attribute
+	 * @param values      the values to check
+	 * @param attribute   the name of the attribute
+	 */
+	public void requireAllNonNull(final MaxsLoggableRoutine routine, final int componentId, final double[] values, final String attribute) {
+		requireAll(routine, componentId, values, attribute, false);
+	}
+
+	/**
+	 * Ensures that no value of the array is NaN or zero, e.g. the values per tooth or per step. All NaN and zero values
+	 * are reported with their indices in a single notification.
+	 *
+	 * @param routine     the routine
+	 * @param componentId the numeric ID of the component associated with the attribute
+	 * @param values      the values to check
+	 * @param attribute   the name of the attribute
+	 */
+	public void requireAllNonZero(final MaxsLoggableRoutine routine, final int componentId, final double[] values, final String attribute) {
+		requireAll(routine, componentId, values, attribute, true);
+	}
+
+	/**
+	 * Scans the array for missing values and reports them in a single notification.
+	 *
+	 * @param routine     the routine
+	 * @param componentId the numeric ID of the component associated with the attribute
+	 * @param values      the values to check
+	 * @param attribute   the name of the attribute
+	 * @param nonZero     true if zero values are missing as well
+	 */
+	private void requireAll(final MaxsLoggableRoutine routine, final int componentId, final double[] values, final String attribute,
+			final boolean nonZero) {
+		if (!isEnabled(MaxsMessageType.DEBUG_ERROR)) {
+			return;
+		}
+		if (values == null) {
+			logMissingAttribute(routine, componentId, null, attribute);
+			return;
+		}
+
+		int missing = 0;
+		int firstMissing = -1;
+		for (int i = 0; i < values.length; i++) {
+			if (Double.isNaN(values[i]) || (nonZero && isNaNOrZero(values[i]))) {
+				if (missing++ == 0) {
+					firstMissing = i;
+				}
+			}
+		}
+		if (missing == 0) {
+			return;
+		}
+
+		final StringBuilder location = new StringBuilder(missing == 1 ? " at index " : " at indices ");
+		int reported = 0;
+		for (int i = firstMissing; i < values.length && reported < MAX_REPORTED_INDICES; i++) {
+			if (Double.isNaN(values[i]) || (nonZero && isNaNOrZero(values[i]))) {
+				location.append(reported++ > 0 ? ", " : "").append(i);
+			}
+		}
+		if (missing > reported) {
+			location.append(" and ").append(missing - reported).append(" more");
+		}
+
+		final Notification notification = new Notification();
+		notification.setRoutine(routine != null ? routine.getMaxsId() : null);
+		notification.setMessage(MISSING_ATTRIBUTE, attribute, location.toString());
+		notification.setType(MaxsMessageType.DEBUG_ERROR);
+		notification.setCompId(componentId);
+		final Item item = new Item();
+		item.setAttrId(attribute);
+		item.setCompId(componentId);
+		item.setValue(values[firstMissing]);
+		notification.getData().add(item);
+		addNotification(notification);
+	}
+
+	/**
+	 * Checks whether the value is NaN or zero.
+	 *
+	 * @param value the value
+	 * @return true if the value is NaN or zero
+	 */
+	private static boolean isNaNOrZero(final double value) {
+		return Double.isNaN(value) || Precision.equalsWithRelativeTolerance(value, 0, 1e-7);
+	}
+
+	/**
+	 * Validates the component with the plan. All missing attributes are added to the store and written to the log file
+	 * as one batch.
+	 *
+	 * @param plan      the validation plan
+	 * @param component the component
+	 */
+	public void validate(final MaxsValidationPlan plan, final RexsComponent component) {
+		if (component == null || !isEnabled(MaxsMessageType.DEBUG_ERROR)) {
+			return;
+		}
+		final List<Notification> hits = new ArrayList<>(0);
+		plan.evaluate(component, hits);
+		if (!hits.isEmpty()) {
+			addNotifications(hits);
+		}
+	}
+
+	/**
+	 * Validates all components with the plan. All missing attributes of all components are added to the store and
+	 * written to the log file as one batch.
+	 *
+	 * @param plan       the validation plan
+	 * @param components the components
+	 */
+	public void validate(final MaxsValidationPlan plan, final Collection<? extends RexsComponent> components) {
+		if (!isEnabled(MaxsMessageType.DEBUG_ERROR)) {
+			return;
+		}
+		final List<Notification> hits = new ArrayList<>(0);
+		for (final RexsComponent component : components) {
+			if (component != null) {
+				plan.evaluate(component, hits);
+			}
+		}
+		if (!hits.isEmpty()) {
+			addNotifications(hits);
+		}
+	}
+
+	/**
+	 * Resets the context by deactivating file logging and clearing all notifications. The buffers of the store are
+	 * kept, so reusing the context for the next job is cheap.
+	 */
+	public void reset() {
+		deactivateFileLogging();
+		notificationStore.clear();
+		final NotificationAggregator currentAggregator = aggregator;
+		if (currentAggregator != null) {
+			currentAggregator.clear();
+		}
+		rateLimiter = createRateLimiter(rateLimits);
+		statistics.reset();
+		log.info("The notification logger has been reset.");
+	}
+
+	/**
+	 * Sets the application information for the kernel .
+	 *
+	 * @param appId      the application ID
+	 * @param appVersion the application version
+	 */
+	public void setAppInformation(final String appId, final String appVersion) {
+		this.appId = appId;
+		this.appVersion = appVersion;
+
+		// the application information is part of the file header, so the file has to be written again
+		final MaxsFileSink sink = fileSink;
+		if (sink != null) {
+			try {
+				rewriteFile(sink);
+			} catch (final IOException e) {
+				log.error("Unable to write to file: {}", e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Aggregates and limits the notification and dispatches it to the sinks, which store it and write it to the
+	 * defined log file, if logging to file is activated.
+	 *
+	 * @param notification the new notification
+	 */
+	private void addNotification(final Notification notification) {
+		if (admit(notification, sinks::dispatchMutable)) {
+			if (isMutable(notification)) {
+				sinks.dispatchMutable(notification);
+			} else {
+				sinks.dispatch(notification);
+			}
+		}
+	}
+
+	/**
+	 * Aggregates and limits the notifications and dispatches them to the sinks as one batch, so the log file is
+	 * written with a single append.
+	 *
+	 * @param notifications the new notifications
+	 */
+	private void addNotifications(final List<Notification> notifications) {
+		if (aggregator == null && rateLimiter == null) {
+			for (final Notification notification : notifications) {
+				statistics.record(notification);
+			}
+			sinks.dispatchAll(notifications, null);
+			return;
+		}
+		final List<Notification> admitted = new ArrayList<>(notifications.size());
+		final Set<Notification> mutable = Collections.newSetFromMap(new IdentityHashMap<>());
+		final Consumer<Notification> summarySink = summary -> {
+			admitted.add(summary);
+			mutable.add(summary);
+		};
+		for (final Notification notification : notifications) {
+			if (admit(notification, summarySink)) {
+				admitted.add(notification);
+				if (isMutable(notification)) {
+					mutable.add(notification);
+				}
+			}
+		}
+		sinks.dispatchAll(admitted, mutable.isEmpty() ? null : mutable::contains);
+	}
+
+	/**
+	 * Aggregates the notification and applies the rate limits. A new notification is only tracked by the aggregator
+	 * once the rate limiter has admitted it, so the repeats of a suppressed notification are counted as suppressed
+	 * as well instead of being merged into a notification that is not stored.
+	 *
+	 * @param notification the new notification
+	 * @param summarySink  receives the summary notification, if a rate limit is exceeded for the first time. The
+	 *                     summary counts the suppressed notifications, so it changes after it has been dispatched.
+	 * @return true if the notification has to be stored, false if it has been aggregated or suppressed
+	 */
+	private boolean admit(final Notification notification, final Consumer<Notification> summarySink) {
+		statistics.record(notification);
+		final NotificationAggregator currentAggregator = aggregator;
+		if (currentAggregator != null && currentAggregator.aggregateRepeat(notification)) {
+			return false;
+		}
+		final NotificationRateLimiter currentRateLimiter = rateLimiter;
+		if (currentRateLimiter != null && !currentRateLimiter.tryAcquire(notification, summarySink)) {
+			return false;
+		}
+		// tracks the admitted notification, or aggregates it if another thread has tracked an occurrence meanwhile
+		return currentAggregator == null || !currentAggregator.aggregate(notification);
+	}
+
+	/**
+	 * Checks whether an admitted notification changes after it has been dispatched, which is the case for the
+	 * notifications tracked by the aggregator.
+	 *
+	 * @param notification the notification
+	 * @return true if the notification is mutable
+	 */
+	private boolean isMutable(final Notification notification) {
+		final NotificationAggregator currentAggregator = aggregator;
+		return currentAggregator != null && currentAggregator.isTracked(notification);
+	}
+
+	/**
+	 * Removes the sink of the log file and closes its writer, if logging to file is activated.
+	 */
+	private void closeFileWriter() {
+		final MaxsFileSink sink = fileSink;
+		if (sink != null) {
+			fileSink = null;
+			sinks.remove(sink);
+			closeQuietly(sink.getWriter());
+		}
+	}
+
+	/**
+	 * Writes the log file again with the application information and the current state of the changed notifications.
+	 * As long as the store retains all notifications, the file is written from the store. Once notifications have
+	 * been evicted, the writer updates the file it has written instead, so the evicted notifications are kept.
+	 *
+	 * @param sink the sink of the log file
+	 * @throws IOException if the file cannot be written
+	 */
+	private void rewriteFile(final MaxsFileSink sink) throws IOException {
+		if (notificationStore.getEvictedCount() == 0) {
+			sink.rewrite(toKernelNotifications());
+		} else {
+			final KernelNotifications header = new KernelNotifications();
+			header.setAppId(appId);
+			header.setAppVersion(appVersion);
+			sink.update(header);
+		}
+	}
+
+	/**
+	 * Creates the XML object with the application information and all notifications in the store.
+	 *
+	 * @return the XML object
+	 */
+	private KernelNotifications toKernelNotifications() {
+		final KernelNotifications kernelNotifications = new KernelNotifications();
+		kernelNotifications.setAppId(appId);
+		kernelNotifications.setAppVersion(appVersion);
+		kernelNotifications.getNotifications().addAll(notificationStore.getAll());
+		return kernelNotifications;
+	}
+
+	/**
+	 * Closes the given writer and logs possible errors.
+	 *
+	 * @param writer the writer to close
+	 */
+	private static void closeQuietly(final MaxsFileWriter writer) {
+		try {
+			writer.close();
+		} catch (final IOException e) {
+			log.error("Unable to close the log file: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * Retrieves an unmodifiable view of the kernel notifications. The view is ordered by the time the notifications
+	 * were logged, also if they were logged by several threads.
+	 * <p>
+	 * With the default store the view is an immutable snapshot, which is taken in constant time without copying the
+	 * notifications. Notifications logged afterwards are not part of it.
+	 *
+	 * @return a unmodifiable view of the kernel notifications
+	 */
+	public List<Notification> getAllNotifications() {
+		return notificationStore.getAll();
+	}
+
+	/**
+	 * Returns the live counters of the notifications logged since the last reset.
+	 *
+	 * @return the statistics
+	 */
+	public NotificationStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Returns whether an error has been logged since the last reset. The check reads a counter and does not touch the
+	 * notifications.
+	 *
+	 * @return true if an error has been logged
+	 */
+	public boolean hasErrors() {
+		return statistics.hasErrors();
+	}
+
+	/**
+	 * Returns the number of notifications of the message type logged since the last reset. The count includes
+	 * aggregated repeats and notifications that have been suppressed or evicted.
+	 *
+	 * @param messageType the message type
+	 * @return the number of notifications
+	 */
+	public long count(final MaxsMessageType messageType) {
+		return statistics.count(messageType);
+	}
+
+	/**
+	 * Publishes the statistics of this context as MBean with the object name
+	 * {@code de.fva_net.maxs.logger:type=MaxsLoggerContext,name=<name>} on the platform MBean server.
+	 *
+	 * @param name the name of the context
+	 */
+	public synchronized void registerMBean(final String name) {
+		unregisterMBean();
+		try {
+			final ObjectName objectName = new ObjectName(MBEAN_DOMAIN + ":type=MaxsLoggerContext,name=" + ObjectName.quote(name));
+			ManagementFactory.getPlatformMBeanServer().registerMBean(new MaxsLoggerMonitor(this), objectName);
+			mbeanName = objectName;
+		} catch (final JMException e) {
+			log.error("Unable to register the MBean {}: {}", name, e.getMessage());
+		}
+	}
+
+	/**
+	 * Removes the MBean of this context from the platform MBean server, if it is registered.
+	 */
+	public synchronized void unregisterMBean() {
+		final ObjectName objectName = mbeanName;
+		if (objectName == null) {
+			return;
+		}
+		mbeanName = null;
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+		} catch (final JMException e) {
+			log.error("Unable to unregister the MBean {}: {}", objectName, e.getMessage());
+		}
+	}
+
+	/**
+	 * Creates a query for the notifications of this context. The query uses the indexes of the store, so it neither
+	 * copies nor scans all notifications.
+	 *
+	 * @return the new query
+	 */
+	public MaxsQuery query() {
+		return new MaxsQuery(notificationStore);
+	}
+
+	/**
+	 * Retrieves a filtered list of notifications based on the provided predicate.
+	 *
+	 * @param filter the predicate to filter notifications
+	 * @return a list of filtered notifications
+	 */
+	public List<Notification> getFilteredNotifications(Predicate<Notification> filter) {
+		return getAllNotifications().stream()
+			.filter(filter)
+			.toList();
+	}
+
+	/**
+	 * Retrieves the application ID.
+	 *
+	 * @return the application ID
+	 */
+	public String getAppId() {
+		return appId;
+	}
+
+	/**
+	 * Retrieves the application version.
+	 *
+	 * @return the application version
+	 */
+	public String getAppVersion() {
+		return appVersion;
+	}
+
+	/**
+	 * The scope of a context binding, which restores the previously bound context when it is closed.
+	 */
+	public static final class Scope implements AutoCloseable {
+
+		/**
+		 * The previously bound context, or null if no context was bound.
+		 */
+		private final MaxsLoggerContext previous;
+
+		/**
+		 * Creates a new scope.
+		 *
+		 * @param previous the previously bound context
+		 */
+		private Scope(final MaxsLoggerContext previous) {
+			this.previous = previous;
+		}
+
+		@Override
+		public void close() {
+			if (previous == null) {
+				BOUND.remove();
+			} else {
+				BOUND.set(previous);
+			}
+		}
+	}
+}
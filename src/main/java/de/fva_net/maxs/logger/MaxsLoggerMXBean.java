@@ -0,0 +1,76 @@
+package de.fva_net.maxs.logger;
+
+import java.util.Map;
+
+/**
+ * Management interface publishing the notification statistics of a {@link MaxsLoggerContext} via JMX.
+ * <p>
+ * All attributes are read from live counters, so monitoring does not touch the notifications.
+ *
+ * @see MaxsLoggerContext#registerMBean(String)
+ */
+public interface MaxsLoggerMXBean {
+
+	/**
+	 * Returns the number of logged errors.
+	 *
+	 * @return the number of errors
+	 */
+	long getErrorCount();
+
+	/**
+	 * Returns the number of logged warnings.
+	 *
+	 * @return the number of warnings
+	 */
+	long getWarningCount();
+
+	/**
+	 * Returns the total number of logged notifications.
+	 *
+	 * @return the number of notifications
+	 */
+	long getTotalCount();
+
+	/**
+	 * Returns the counts by message type.
+	 *
+	 * @return the counts by the name of the message types
+	 */
+	Map<String, Long> getCountsByType();
+
+	/**
+	 * Returns the counts by routine.
+	 *
+	 * @return the counts by routine ID
+	 */
+	Map<String, Long> getCountsByRoutine();
+
+	/**
+	 * Returns the counts by component ID.
+	 *
+	 * @return the counts by component ID
+	 */
+	Map<Integer, Long> getCountsByComponent();
+
+	/**
+	 * Returns the number of notifications retained in memory.
+	 *
+	 * @return the number of retained notifications
+	 */
+	int getRetainedCount();
+
+	/**
+	 * Returns the number of notifications evicted by the retention policy.
+	 *
+	 * @return the number of evicted notifications
+	 */
+	long getEvictedCount();
+
+	/**
+	 * Returns whether logging to a file is activated.
+	 *
+	 * @return true if logging to a file is activated
+	 */
+	boolean isLoggingToFileActivated();
+}
@@ -0,0 +1,62 @@
+package de.fva_net.maxs.logger;
+
+import lombok.RequiredArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * JMX view of the statistics of a context.
+ */
+@RequiredArgsConstructor
+final class MaxsLoggerMonitor implements MaxsLoggerMXBean {
+
+	/**
+	 * The monitored context.
+	 */
+	private final MaxsLoggerContext context;
+
+	@Override
+	public long getErrorCount() {
+		return context.getStatistics().count(MaxsMessageType.ERROR);
+	}
+
+	@Override
+	public long getWarningCount() {
+		return context.getStatistics().count(MaxsMessageType.WARNING);
+	}
+
+	@Override
+	public long getTotalCount() {
+		return context.getStatistics().total();
+	}
+
+	@Override
+	public Map<String, Long> getCountsByType() {
+		return context.getStatistics().countsByType();
+	}
+
+	@Override
+	public Map<String, Long> getCountsByRoutine() {
+		return context.getStatistics().countsByRoutine();
+	}
+
+	@Override
+	public Map<Integer, Long> getCountsByComponent() {
+		return context.getStatistics().countsByCompId();
+	}
+
+	@Override
+	public int getRetainedCount() {
+		return context.getRetainedCount();
+	}
+
+	@Override
+	public long getEvictedCount() {
+		return context.getEvictedCount();
+	}
+
+	@Override
+	public boolean isLoggingToFileActivated() {
+		return context.isLoggingToFileActivated();
+	}
+}
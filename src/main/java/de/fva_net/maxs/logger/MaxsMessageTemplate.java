@@ -0,0 +1,156 @@
+package de.fva_net.maxs.logger;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Message with {@code {}} placeholders, whose arguments are only formatted when the message is read.
+ * <p>
+ * A notification logged with a template keeps a reference to the template and the arguments as they are, so logging
+ * the same message for many components does not create a string per notification. The message is built by
+ * {@link de.fva_net.maxs.logger.xml.Notification#getMessage()}, e.g. when the notification is written to a file.
+ * <p>
+ * Templates are interned by their pattern, so they should be created once and kept in constants:
+ *
+ * <pre>{@code
+ * private static final MaxsMessageTemplate TOOTH_ROOT = MaxsMessageTemplate.of("The tooth root stress of {} exceeds {} MPa.");
+ * MaxsLogger.logMessage(routine, gearId, TOOTH_ROOT, MaxsMessageType.WARNING, gearName, limit);
+ * }</pre>
+ *
+ * Each {@code {}} is replaced by the next argument, formatted with {@link String#valueOf(Object)}. Placeholders
+ * without argument are kept, arguments without placeholder are ignored.
+ */
+public final class MaxsMessageTemplate {
+
+	/**
+	 * The placeholder of an argument.
+	 */
+	private static final String PLACEHOLDER = "{}";
+
+	/**
+	 * The maximum number of interned templates, which protects against patterns that are built dynamically.
+	 */
+	private static final int MAX_INTERNED = 4096;
+
+	/**
+	 * The interned templates by their pattern.
+	 */
+	private static final ConcurrentMap<String, MaxsMessageTemplate> INTERNED = new ConcurrentHashMap<>();
+
+	/**
+	 * The pattern with the placeholders.
+	 */
+	@Getter
+	private final String pattern;
+
+	/**
+	 * The literal parts of the pattern between the placeholders, one more than there are placeholders.
+	 */
+	private final String[] fragments;
+
+	/**
+	 * The total length of the literal parts.
+	 */
+	private final int literalLength;
+
+	/**
+	 * Creates a new template.
+	 *
+	 * @param pattern the pattern with the placeholders
+	 */
+	private MaxsMessageTemplate(final String pattern) {
+		this.pattern = pattern;
+		final List<String> parts = new ArrayList<>();
+		int start = 0;
+		int placeholder;
+		while ((placeholder = pattern.indexOf(PLACEHOLDER, start)) >= 0) {
+			parts.add(pattern.substring(start, placeholder));
+			start = placeholder + PLACEHOLDER.length();
+		}
+		parts.add(pattern.substring(start));
+		this.fragments = parts.toArray(new String[0]);
+		this.literalLength = pattern.length() - (fragments.length - 1) * PLACEHOLDER.length();
+	}
+
+	/**
+	 * Returns the interned template of a pattern.
+	 *
+	 * @param pattern the pattern, in which each {@code {}} is replaced by the next argument
+	 * @return the template
+	 */
+	public static MaxsMessageTemplate of(final String pattern) {
+		if (pattern == null) {
+			throw new IllegalArgumentException("The pattern must not be null");
+		}
+		final MaxsMessageTemplate template = INTERNED.get(pattern);
+		if (template != null) {
+			return template;
+		}
+		if (INTERNED.size() >= MAX_INTERNED) {
+			return new MaxsMessageTemplate(pattern);
+		}
+		return INTERNED.computeIfAbsent(pattern, MaxsMessageTemplate::new);
+	}
+
+	/**
+	 * Returns the number of placeholders of the pattern.
+	 *
+	 * @return the number of arguments that are formatted
+	 */
+	public int getArgumentCount() {
+		return fragments.length - 1;
+	}
+
+	/**
+	 * Builds the message.
+	 *
+	 * @param arguments the arguments of the placeholders
+	 * @return the message
+	 */
+	public String format(final Object... arguments) {
+		if (fragments.length == 1) {
+			return pattern;
+		}
+		final StringBuilder message = new StringBuilder(literalLength + 16 * (fragments.length - 1));
+		formatTo(message, arguments);
+		return message.toString();
+	}
+
+	/**
+	 * Appends the message to a builder.
+	 *
+	 * @param message   the builder
+	 * @param arguments the arguments of the placeholders
+	 */
+	public void formatTo(final StringBuilder message, final Object... arguments) {
+		final int count = arguments != null ? arguments.length : 0;
+		message.append(fragments[0]);
+		for (int i = 1; i < fragments.length; i++) {
+			if (i <= count) {
+				message.append(arguments[i - 1]);
+			} else {
+				message.append(PLACEHOLDER);
+			}
+			message.append(fragments[i]);
+		}
+	}
+
+	@Override
+	public boolean equals(final Object other) {
+		return this == other || (other instanceof final MaxsMessageTemplate template && pattern.equals(template.pattern));
+	}
+
+	@Override
+	public int hashCode() {
+		return pattern.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return pattern;
+	}
+}
@@ -16,46 +16,51 @@ public enum MaxsMessageType {
 	 * <p>
 	 * Indicates a failure or critical issue that requires immediate attention.
      */
-	ERROR(false),
+	ERROR(false, 2),
 
     /**
 	 * Warning message type.
 	 * <p>
 	 * Indicates a potential problem or non-critical issue that should be reviewed.
      */
-	WARNING(false),
+	WARNING(false, 1),
 
     /**
 	 * Info message type.
 	 * <p>
 	 * Provides informational messages about normal operations.
      */
-	INFO(false),
+	INFO(false, 0),
 
 	/**
 	 * Debug error message type.
 	 * <p>
 	 * Used for debugging critical errors during development.
      */
-	DEBUG_ERROR(true),
+	DEBUG_ERROR(true, 2),
 
     /**
 	 * Debug warning message type.
 	 * <p>
 	 * Used for debugging potential issues during development.
      */
-	DEBUG_WARNING(true),
+	DEBUG_WARNING(true, 1),
 
     /**
 	 * Debug info message type.
 	 * <p>
 	 * Used for debugging informational messages during development.
      */
-	DEBUG_INFO(true);
+	DEBUG_INFO(true, 0);
 
 	/**
 	 * Indicates whether this message type is for debugging purposes.
 	 */
 	private final boolean debug;
 
+	/**
+	 * The severity of this message type, independent of the debug flag. A higher value indicates a higher severity.
+	 */
+	private final int severity;
+
 }
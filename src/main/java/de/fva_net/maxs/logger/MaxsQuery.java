@@ -0,0 +1,119 @@
+package de.fva_net.maxs.logger;
+
+import de.fva_net.maxs.logger.store.NotificationQuery;
+import de.fva_net.maxs.logger.store.NotificationStore;
+import de.fva_net.maxs.logger.xml.Notification;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Query for the notifications of a context, which uses the indexes of the store instead of copying all notifications.
+ * <p>
+ * The criteria are combined, e.g. to check for an error of a component in a routine:
+ * <pre>{@code
+ * boolean failed = MaxsLogger.query().type(MaxsMessageType.ERROR).routine(routine).compId(5).exists();
+ * }</pre>
+ */
+public final class MaxsQuery {
+
+	/**
+	 * The store to query.
+	 */
+	private final NotificationStore store;
+
+	/**
+	 * The message types to match, or an empty set to match all types.
+	 */
+	private final Set<MaxsMessageType> types = EnumSet.noneOf(MaxsMessageType.class);
+
+	/**
+	 * The routine ID to match, or null to match all routines.
+	 */
+	private String routine;
+
+	/**
+	 * The component ID to match, or null to match all components.
+	 */
+	private Integer compId;
+
+	/**
+	 * Creates a new query.
+	 *
+	 * @param store the store to query
+	 */
+	MaxsQuery(final NotificationStore store) {
+		this.store = store;
+	}
+
+	/**
+	 * Restricts the query to the message types. Calling this method several times adds further types.
+	 *
+	 * @param messageTypes the message types to match
+	 * @return this query
+	 */
+	public MaxsQuery type(final MaxsMessageType... messageTypes) {
+		Collections.addAll(types, messageTypes);
+		return this;
+	}
+
+	/**
+	 * Restricts the query to the routine.
+	 *
+	 * @param maxsRoutine the routine to match
+	 * @return this query
+	 */
+	public MaxsQuery routine(final MaxsLoggableRoutine maxsRoutine) {
+		this.routine = maxsRoutine.getMaxsId();
+		return this;
+	}
+
+	/**
+	 * Restricts the query to the component ID.
+	 *
+	 * @param componentId the component ID to match
+	 * @return this query
+	 */
+	public MaxsQuery compId(final int componentId) {
+		this.compId = componentId;
+		return this;
+	}
+
+	/**
+	 * Returns the matching notifications, ordered by the time they were logged.
+	 *
+	 * @return an unmodifiable list of the matching notifications
+	 */
+	public List<Notification> list() {
+		return store.find(toNotificationQuery());
+	}
+
+	/**
+	 * Returns the number of matching notifications.
+	 *
+	 * @return the number of matching notifications
+	 */
+	public int count() {
+		return store.count(toNotificationQuery());
+	}
+
+	/**
+	 * Checks whether at least one notification matches. The search stops at the first match.
+	 *
+	 * @return true if a notification matches
+	 */
+	public boolean exists() {
+		return store.exists(toNotificationQuery());
+	}
+
+	/**
+	 * Creates the criteria for the store.
+	 *
+	 * @return the criteria
+	 */
+	private NotificationQuery toNotificationQuery() {
+		return new NotificationQuery(types, routine, compId);
+	}
+}
@@ -0,0 +1,47 @@
+package de.fva_net.maxs.logger;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Caps for the number of notifications that are logged, to protect the application from floods of notifications.
+ * <p>
+ * A cap of 0 means that there is no limit. Once a cap is reached, a single summary notification is logged, which counts
+ * the suppressed notifications in its item.
+ */
+@Getter
+@Builder
+public class MaxsRateLimits {
+
+	/**
+	 * Rate limits without any cap.
+	 */
+	public static final MaxsRateLimits UNLIMITED = MaxsRateLimits.builder().build();
+
+	/**
+	 * The maximum number of notifications per routine.
+	 */
+	@Builder.Default
+	private final long maxPerRoutine = 0;
+
+	/**
+	 * The maximum number of notifications per component ID.
+	 */
+	@Builder.Default
+	private final long maxPerComponent = 0;
+
+	/**
+	 * The maximum number of notifications per message type.
+	 */
+	@Builder.Default
+	private final long maxPerType = 0;
+
+	/**
+	 * Returns whether at least one cap is set.
+	 *
+	 * @return true if at least one cap is set
+	 */
+	public boolean isLimited() {
+		return maxPerRoutine > 0 || maxPerComponent > 0 || maxPerType > 0;
+	}
+}
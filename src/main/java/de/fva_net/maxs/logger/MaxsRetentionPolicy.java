@@ -0,0 +1,47 @@
+package de.fva_net.maxs.logger;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Bounds for the notifications that are retained in memory, for long-running processes that never reset the logger.
+ * <p>
+ * A bound of 0 means that there is no limit. If a bound is exceeded, notifications are evicted by priority: the oldest
+ * notification of the least important message type goes first, so {@link MaxsMessageType#DEBUG_INFO} is evicted
+ * before {@link MaxsMessageType#INFO} and {@link MaxsMessageType#ERROR} is kept longest.
+ * <p>
+ * Evicted notifications remain in the log file. Once notifications have been evicted, the log file is no longer
+ * written again from the store: a change of the application information or of aggregated notifications
+ * {@link de.fva_net.maxs.logger.io.MaxsFileWriter#update updates} the written file instead. The writers of plain .maxs
+ * files support this, the other writers keep the file unchanged and log an error.
+ */
+@Getter
+@Builder
+public class MaxsRetentionPolicy {
+
+	/**
+	 * Retention policy without any bound.
+	 */
+	public static final MaxsRetentionPolicy UNBOUNDED = MaxsRetentionPolicy.builder().build();
+
+	/**
+	 * The maximum number of retained notifications.
+	 */
+	@Builder.Default
+	private final int maxNotifications = 0;
+
+	/**
+	 * The maximum estimated heap size of the retained notifications in bytes.
+	 */
+	@Builder.Default
+	private final long maxBytes = 0;
+
+	/**
+	 * Returns whether at least one bound is set.
+	 *
+	 * @return true if at least one bound is set
+	 */
+	public boolean isBounded() {
+		return maxNotifications > 0 || maxBytes > 0;
+	}
+}
@@ -0,0 +1,275 @@
+package de.fva_net.maxs.logger;
+
+import de.fva_net.maxs.logger.xml.Item;
+import de.fva_net.maxs.logger.xml.Notification;
+import info.rexs.model.RexsComponent;
+import org.apache.commons.math3.util.Precision;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Compiled set of attribute validation rules for a component type, e.g. all attributes of a cylindrical gear that a
+ * routine requires.
+ * <p>
+ * The rules are declared once with the {@link #builder(MaxsLoggableRoutine) builder} and the plan is reused for all
+ * components of the type. {@link MaxsLoggerContext#validate(MaxsValidationPlan, RexsComponent)} checks all rules in one
+ * pass and adds the missing attributes to the store and the log file as a single batch. The messages share the
+ * template of the context and are only formatted when they are read, so a validation only allocates for missing
+ * attributes.
+ * <p>
+ * A plan is immutable and can be shared by several threads.
+ */
+public final class MaxsValidationPlan {
+
+	/**
+	 * The ID of the routine.
+	 */
+	private final String routine;
+
+	/**
+	 * The compiled rules.
+	 */
+	private final Rule[] rules;
+
+	/**
+	 * Creates a new plan.
+	 *
+	 * @param routine the ID of the routine
+	 * @param rules   the rules
+	 */
+	private MaxsValidationPlan(final String routine, final Rule[] rules) {
+		this.routine = routine;
+		this.rules = rules;
+	}
+
+	/**
+	 * Creates a builder for a plan of the routine.
+	 *
+	 * @param routine the routine which requires the attributes
+	 * @return the builder
+	 */
+	public static Builder builder(final MaxsLoggableRoutine routine) {
+		return new Builder(routine != null ? routine.getMaxsId() : null);
+	}
+
+	/**
+	 * Returns the number of rules of the plan.
+	 *
+	 * @return the number of rules
+	 */
+	public int size() {
+		return rules.length;
+	}
+
+	/**
+	 * Checks all rules against the component and adds a notification for each missing attribute.
+	 *
+	 * @param component the component
+	 * @param hits      receives the notifications of the missing attributes
+	 */
+	void evaluate(final RexsComponent component, final List<Notification> hits) {
+		final Integer compId = component.getId();
+		for (final Rule rule : rules) {
+			final double value;
+			switch (rule.kind) {
+				case NON_NULL:
+				case KNOWN:
+					if (isPresent(rule.objectValue.apply(component))) {
+						continue;
+					}
+					value = Double.NaN;
+					break;
+				case NON_NAN:
+					value = rule.doubleValue.applyAsDouble(component);
+					if (!Double.isNaN(value)) {
+						continue;
+					}
+					break;
+				default:
+					value = rule.doubleValue.applyAsDouble(component);
+					if (!Double.isNaN(value) && !Precision.equalsWithRelativeTolerance(value, 0, 1e-7)) {
+						continue;
+					}
+					break;
+			}
+			hits.add(rule.toNotification(routine, compId, value));
+		}
+	}
+
+	/**
+	 * Checks whether the value is present, i.e. neither null, NaN nor an enum constant named UNKNOWN.
+	 *
+	 * @param value the value
+	 * @return true if the value is present
+	 */
+	private static boolean isPresent(final Object value) {
+		if (value == null) {
+			return false;
+		}
+		if (value instanceof final Double d) {
+			return !d.isNaN();
+		}
+		if (value instanceof final Enum<?> e) {
+			return !"UNKNOWN".equalsIgnoreCase(e.name());
+		}
+		return true;
+	}
+
+	/**
+	 * The kinds of rules.
+	 */
+	private enum Kind {
+
+		/**
+		 * The value must not be null, NaN or UNKNOWN.
+		 */
+		NON_NULL,
+
+		/**
+		 * The enum value must not be null or UNKNOWN.
+		 */
+		KNOWN,
+
+		/**
+		 * The double value must not be NaN.
+		 */
+		NON_NAN,
+
+		/**
+		 * The double value must neither be NaN nor zero.
+		 */
+		NON_ZERO
+	}
+
+	/**
+	 * Compiled rule for a single attribute.
+	 *
+	 * @param kind        the kind of the rule
+	 * @param attribute   the name of the attribute
+	 * @param objectValue extracts the value from the component for {@link Kind#NON_NULL} and {@link Kind#KNOWN}
+	 * @param doubleValue extracts the value from the component for {@link Kind#NON_NAN} and {@link Kind#NON_ZERO}
+	 */
+	private record Rule(Kind kind, String attribute, Function<RexsComponent, ?> objectValue, ToDoubleFunction<RexsComponent> doubleValue) {
+
+		/**
+		 * Creates the notification for the missing attribute.
+		 *
+		 * @param routine the ID of the routine
+		 * @param compId  the component ID
+		 * @param value   the value of the attribute
+		 * @return the notification
+		 */
+		private Notification toNotification(final String routine, final Integer compId, final double value) {
+			final Notification notification = new Notification();
+			notification.setRoutine(routine);
+			notification.setMessage(MaxsLoggerContext.MISSING_ATTRIBUTE, attribute, "");
+			notification.setType(MaxsMessageType.DEBUG_ERROR);
+			notification.setCompId(compId);
+			final Item item = new Item();
+			item.setAttrId(attribute);
+			item.setCompId(compId);
+			item.setValue(value);
+			notification.getData().add(item);
+			return notification;
+		}
+	}
+
+	/**
+	 * Builder declaring the rules of a plan.
+	 */
+	public static final class Builder {
+
+		/**
+		 * The ID of the routine.
+		 */
+		private final String routine;
+
+		/**
+		 * The declared rules.
+		 */
+		private final List<Rule> rules = new ArrayList<>();
+
+		/**
+		 * Creates a new builder.
+		 *
+		 * @param routine the ID of the routine
+		 */
+		private Builder(final String routine) {
+			this.routine = routine;
+		}
+
+		/**
+		 * Requires that the attribute is not null, not NaN and not an enum constant named UNKNOWN.
+		 *
+		 * @param attribute the name of the attribute
+		 * @param value     extracts the value of the attribute from the component
+		 * @return this builder
+		 */
+		public Builder requireNonNull(final String attribute, final Function<RexsComponent, ?> value) {
+			return add(Kind.NON_NULL, attribute, value, null);
+		}
+
+		/**
+		 * Requires that the enum attribute is not null and not the constant named UNKNOWN.
+		 *
+		 * @param attribute the name of the attribute
+		 * @param value     extracts the value of the attribute from the component
+		 * @return this builder
+		 */
+		public Builder requireKnown(final String attribute, final Function<RexsComponent, ? extends Enum<?>> value) {
+			return add(Kind.KNOWN, attribute, value, null);
+		}
+
+		/**
+		 * Requires that the double attribute is not NaN. The value is not boxed.
+		 *
+		 * @param attribute the name of the attribute
+		 * @param value     extracts the value of the attribute from the component
+		 * @return this builder
+		 */
+		public Builder requireNonNaN(final String attribute, final ToDoubleFunction<RexsComponent> value) {
+			return add(Kind.NON_NAN, attribute, null, value);
+		}
+
+		/**
+		 * Requires that the double attribute is neither NaN nor zero. The value is not boxed.
+		 *
+		 * @param attribute the name of the attribute
+		 * @param value     extracts the value of the attribute from the component
+		 * @return this builder
+		 */
+		public Builder requireNonZero(final String attribute, final ToDoubleFunction<RexsComponent> value) {
+			return add(Kind.NON_ZERO, attribute, null, value);
+		}
+
+		/**
+		 * Compiles the declared rules into a plan.
+		 *
+		 * @return the plan
+		 */
+		public MaxsValidationPlan build() {
+			return new MaxsValidationPlan(routine, rules.toArray(new Rule[0]));
+		}
+
+		/**
+		 * Adds a rule.
+		 *
+		 * @param kind        the kind of the rule
+		 * @param attribute   the name of the attribute
+		 * @param objectValue the extractor of an object value
+		 * @param doubleValue the extractor of a double value
+		 * @return this builder
+		 */
+		private Builder add(final Kind kind, final String attribute, final Function<RexsComponent, ?> objectValue,
+				final ToDoubleFunction<RexsComponent> doubleValue) {
+			if (attribute == null || (objectValue == null && doubleValue == null)) {
+				throw new IllegalArgumentException("The attribute and its value extractor are required.");
+			}
+			rules.add(new Rule(kind, attribute, objectValue, doubleValue));
+			return this;
+		}
+	}
+}
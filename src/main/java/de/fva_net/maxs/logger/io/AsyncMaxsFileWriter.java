@@ -0,0 +1,285 @@
+package de.fva_net.maxs.logger.io;
+
+import de.fva_net.maxs.logger.MaxsMessageType;
+import de.fva_net.maxs.logger.xml.KernelNotifications;
+import de.fva_net.maxs.logger.xml.Notification;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writer that moves the file I/O of another writer to a background thread.
+ * <p>
+ * New notifications are put into an {@link AsyncNotificationQueue}, which is drained by a single background thread. The
+ * queue is written to the file every {@code flushIntervalMillis}, when {@code flushEveryNotifications} notifications have been
+ * appended, when an error or debug error is appended (if {@code flushOnError} is set) and on
+ * {@link #flush()}. The {@link MaxsOverflowPolicy} defines what happens if the queue is full.
+ * <p>
+ * Closing stops the queue before its final drain, so an append racing the close is either written or rejected with an
+ * {@link IOException}. A shutdown hook closes the writer on JVM exit, so no queued notification is lost.
+ */
+@Slf4j
+public class AsyncMaxsFileWriter implements MaxsFileWriter {
+
+	/**
+	 * The writer that performs the file I/O.
+	 */
+	private final MaxsFileWriter delegate;
+
+	/**
+	 * The queue of notifications that have not been written yet.
+	 */
+	private final AsyncNotificationQueue queue;
+
+	/**
+	 * The number of appended notifications after which the queue is written, or 0 to disable.
+	 */
+	private final int flushEveryNotifications;
+
+	/**
+	 * Indicates whether the queue is written as soon as an error is appended.
+	 */
+	private final boolean flushOnError;
+
+	/**
+	 * The number of appended notifications.
+	 */
+	private final AtomicLong appendedCount = new AtomicLong();
+
+	/**
+	 * The queued notifications that may change after they have been written, guarded by itself.
+	 */
+	private final Set<Notification> mutable = Collections.newSetFromMap(new IdentityHashMap<>());
+
+	/**
+	 * Lock guarding the opening and closing of the writer.
+	 */
+	private final Object lock = new Object();
+
+	/**
+	 * The shutdown hook closing this writer.
+	 */
+	private Thread shutdownHook;
+
+	/**
+	 * Indicates whether the writer is open, guarded by the lock. The queue itself rejects notifications once closing has
+	 * started.
+	 */
+	private boolean open;
+
+	/**
+	 * Creates a new asynchronous writer.
+	 *
+	 * @param delegate                the writer that performs the file I/O
+	 * @param queueCapacity           the capacity of the queue
+	 * @param flushEveryNotifications the number of appended notifications after which the queue is written, or 0 to disable
+	 * @param flushIntervalMillis     the interval in milliseconds in which the queue is written, or 0 to disable
+	 * @param flushOnError            whether the queue is written as soon as an error is appended
+	 * @param overflowPolicy          the policy if the queue is full
+	 * @param overflowCapacity        the capacity of the overflow buffer of the {@link MaxsOverflowPolicy#BUFFER} policy, or 0
+	 *                                for the {@link AsyncNotificationQueue#DEFAULT_OVERFLOW_CAPACITY}
+	 */
+	@Builder
+	public AsyncMaxsFileWriter(final MaxsFileWriter delegate, final int queueCapacity, final int flushEveryNotifications, final long flushIntervalMillis,
+		final boolean flushOnError, final MaxsOverflowPolicy overflowPolicy, final int overflowCapacity) {
+		if (delegate == null) {
+			throw new IllegalArgumentException("The delegate writer must not be null");
+		}
+		this.delegate = delegate;
+		this.queue = AsyncNotificationQueue.builder()
+				.name("maxs-async-writer")
+				.capacity(queueCapacity)
+				.overflowPolicy(overflowPolicy)
+				.overflowCapacity(overflowCapacity)
+				.intervalMillis(flushIntervalMillis)
+				.handler(this::write)
+				.build();
+		this.flushEveryNotifications = Math.max(0, flushEveryNotifications);
+		this.flushOnError = flushOnError;
+	}
+
+	@Override
+	public void open(final KernelNotifications kernelNotifications) throws IOException {
+		synchronized (lock) {
+			// the queued notifications are already part of the given notifications
+			queue.clear(() -> {
+				synchronized (mutable) {
+					mutable.clear();
+				}
+				delegate.open(kernelNotifications);
+			});
+			open = true;
+			queue.start();
+			if (shutdownHook == null) {
+				addShutdownHook();
+			}
+		}
+	}
+
+	@Override
+	public void append(final Notification notification) throws IOException {
+		// the queue throws once the writer is closing, so no notification is added after the final drain
+		if (!queue.add(notification)) {
+			synchronized (mutable) {
+				mutable.remove(notification);
+			}
+			return;
+		}
+
+		final long count = appendedCount.incrementAndGet();
+		if ((flushOnError && isError(notification)) || (flushEveryNotifications > 0 && count % flushEveryNotifications == 0)) {
+			queue.wakeUp();
+		}
+	}
+
+	@Override
+	public void appendMutable(final Notification notification) throws IOException {
+		synchronized (mutable) {
+			mutable.add(notification);
+		}
+		append(notification);
+	}
+
+	@Override
+	public void update(final KernelNotifications header) throws IOException {
+		queue.drain(() -> delegate.update(header));
+	}
+
+	@Override
+	public boolean isUpdatable() {
+		return delegate.isUpdatable();
+	}
+
+	@Override
+	public void flush() throws IOException {
+		queue.drain(delegate::flush);
+	}
+
+	@Override
+	public void close() throws IOException {
+		synchronized (lock) {
+			if (!open) {
+				return;
+			}
+			open = false;
+		}
+
+		// stop accepting notifications and the background thread, then write the remaining notifications
+		queue.stop();
+		try {
+			flush();
+		} finally {
+			delegate.close();
+			synchronized (lock) {
+				removeShutdownHook();
+			}
+			if (queue.getDroppedCount() > 0) {
+				log.warn("{} notifications have been dropped because the queue was full.", queue.getDroppedCount());
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of notifications that have been dropped because the queue and its overflow buffer were full.
+	 *
+	 * @return the number of dropped notifications
+	 */
+	@Override
+	public long getDroppedCount() {
+		return queue.getDroppedCount();
+	}
+
+	/**
+	 * Writes a batch of queued notifications with the delegate, the mutable ones on their own, and flushes the delegate.
+	 * The mutable ones are only forgotten once the batch has been written, as the queue passes a failed batch again.
+	 *
+	 * @param batch the queued notifications
+	 * @throws IOException if the file cannot be written
+	 */
+	private void write(final List<Notification> batch) throws IOException {
+		final boolean withMutable;
+		synchronized (mutable) {
+			withMutable = !mutable.isEmpty();
+		}
+		if (!withMutable) {
+			delegate.appendAll(batch);
+		} else {
+			int start = 0;
+			for (int i = 0; i < batch.size(); i++) {
+				if (isMutable(batch.get(i))) {
+					if (start < i) {
+						delegate.appendAll(batch.subList(start, i));
+					}
+					delegate.appendMutable(batch.get(i));
+					start = i + 1;
+				}
+			}
+			if (start < batch.size()) {
+				delegate.appendAll(start == 0 ? batch : batch.subList(start, batch.size()));
+			}
+		}
+		delegate.flush();
+		if (withMutable) {
+			synchronized (mutable) {
+				batch.forEach(mutable::remove);
+			}
+		}
+	}
+
+	/**
+	 * Checks whether a notification has the severity of an {@link MaxsMessageType#ERROR}, which includes the debug
+	 * errors.
+	 *
+	 * @param notification the notification
+	 * @return true if the notification is an error
+	 */
+	private static boolean isError(final Notification notification) {
+		return notification.getType() != null && notification.getType().getSeverity() >= MaxsMessageType.ERROR.getSeverity();
+	}
+
+	/**
+	 * Checks whether a queued notification has been appended as mutable.
+	 *
+	 * @param notification the queued notification
+	 * @return true if the notification is mutable
+	 */
+	private boolean isMutable(final Notification notification) {
+		synchronized (mutable) {
+			return mutable.contains(notification);
+		}
+	}
+
+	/**
+	 * Registers the shutdown hook.
+	 */
+	private void addShutdownHook() {
+		shutdownHook = new Thread(() -> {
+			try {
+				close();
+			} catch (final IOException e) {
+				log.error("Unable to write notifications to file on shutdown: {}", e.getMessage());
+			}
+		}, "maxs-async-writer-shutdown");
+		Runtime.getRuntime().addShutdownHook(shutdownHook);
+	}
+
+	/**
+	 * Removes the shutdown hook, unless the JVM is already shutting down.
+	 */
+	private void removeShutdownHook() {
+		if (shutdownHook != null && shutdownHook != Thread.currentThread()) {
+			try {
+				Runtime.getRuntime().removeShutdownHook(shutdownHook);
+			} catch (final IllegalStateException e) {
+				// the JVM is shutting down, the hook is running already
+			}
+		}
+		shutdownHook = null;
+	}
+}
@@ -0,0 +1,432 @@
+package de.fva_net.maxs.logger.io;
+
+import de.fva_net.maxs.logger.xml.Notification;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Queue that passes notifications to a handler on a background thread, shared by the {@link AsyncMaxsFileWriter} and
+ * the asynchronous sinks.
+ * <p>
+ * New notifications are put into a bounded queue, which is drained by a single background thread whenever it is woken
+ * up or the interval has elapsed. The {@link MaxsOverflowPolicy} defines what happens if the queue is full. The handler
+ * receives the notifications in batches, in the order in which they have been added, and is never called
+ * concurrently.
+ * <p>
+ * Notifications are accepted between {@link #start()} and {@link #stop()}. Stopping waits for the adds in progress, so
+ * every accepted notification is still queued for the final {@link #drain(Action)}.
+ * <p>
+ * If the handler fails, the batch is kept and passed again before any further notification is taken from the queue,
+ * so the overflow policy applies while the handler is failing. A failure of the background thread is thrown by the
+ * next {@link #drain(Action)}, even if the batch has been passed again successfully in the meantime.
+ */
+@Slf4j
+public final class AsyncNotificationQueue {
+
+	/**
+	 * The default capacity of the overflow buffer of the {@link MaxsOverflowPolicy#BUFFER} policy.
+	 */
+	public static final int DEFAULT_OVERFLOW_CAPACITY = 100_000;
+
+	/**
+	 * The name of the background thread.
+	 */
+	private final String name;
+
+	/**
+	 * The handler that processes the batches of notifications.
+	 */
+	private final BatchHandler handler;
+
+	/**
+	 * The queue of notifications that have not been passed to the handler yet.
+	 */
+	private final BlockingQueue<Notification> queue;
+
+	/**
+	 * The overflow buffer for the {@link MaxsOverflowPolicy#BUFFER} policy.
+	 */
+	private final Queue<Notification> overflow = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * The number of notifications in the overflow buffer, which is not counted by the buffer in constant time.
+	 */
+	private final AtomicInteger overflowSize = new AtomicInteger();
+
+	/**
+	 * The maximum number of notifications in the overflow buffer.
+	 */
+	private final int overflowCapacity;
+
+	/**
+	 * The policy if the queue is full.
+	 */
+	private final MaxsOverflowPolicy overflowPolicy;
+
+	/**
+	 * The interval in nanoseconds in which the queue is drained, or 0 to drain it only when woken up.
+	 */
+	private final long intervalNanos;
+
+	/**
+	 * The number of dropped notifications.
+	 */
+	private final LongAdder droppedCount = new LongAdder();
+
+	/**
+	 * Reusable list for the notifications that are passed at once, which still holds the last batch if the handler has
+	 * failed.
+	 */
+	private final List<Notification> batch = new ArrayList<>();
+
+	/**
+	 * The first failure of the background thread since the last drain, or null, guarded by the lock.
+	 */
+	private IOException backgroundFailure;
+
+	/**
+	 * Lock guarding the access to the handler.
+	 */
+	private final Object lock = new Object();
+
+	/**
+	 * Guards the acceptance of notifications. Adding holds the read lock, so stopping with the write lock waits for the
+	 * adds in progress.
+	 */
+	private final StampedLock gate = new StampedLock();
+
+	/**
+	 * Indicates whether notifications are accepted, guarded by the gate.
+	 */
+	private boolean accepting;
+
+	/**
+	 * The background thread, or null if it is not running.
+	 */
+	private volatile Thread thread;
+
+	/**
+	 * Creates a new queue. The background thread is started with {@link #start()}.
+	 *
+	 * @param name             the name of the background thread
+	 * @param capacity         the capacity of the queue
+	 * @param overflowPolicy   the policy if the queue is full, or null to block
+	 * @param overflowCapacity the capacity of the overflow buffer of the {@link MaxsOverflowPolicy#BUFFER} policy, or 0
+	 *                         for the {@link #DEFAULT_OVERFLOW_CAPACITY}
+	 * @param intervalMillis   the interval in milliseconds in which the queue is drained, or 0 to drain it only when
+	 *                         woken up
+	 * @param handler          the handler that processes the batches of notifications
+	 */
+	@Builder
+	public AsyncNotificationQueue(final String name, final int capacity, final MaxsOverflowPolicy overflowPolicy, final int overflowCapacity,
+		final long intervalMillis, final BatchHandler handler) {
+		if (handler == null) {
+			throw new IllegalArgumentException("The handler must not be null");
+		}
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("The queue capacity must be positive: " + capacity);
+		}
+		if (overflowCapacity < 0) {
+			throw new IllegalArgumentException("The overflow capacity must not be negative: " + overflowCapacity);
+		}
+		this.name = name != null ? name : "maxs-async-queue";
+		this.handler = handler;
+		this.queue = new ArrayBlockingQueue<>(capacity);
+		this.overflowPolicy = overflowPolicy != null ? overflowPolicy : MaxsOverflowPolicy.BLOCK;
+		this.overflowCapacity = overflowCapacity > 0 ? overflowCapacity : DEFAULT_OVERFLOW_CAPACITY;
+		this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, intervalMillis));
+	}
+
+	/**
+	 * Adds a notification to the queue as defined by the overflow policy.
+	 *
+	 * @param notification the notification
+	 * @return false if the notification has been dropped because the queue was full
+	 * @throws IOException if the queue has been stopped, or if the thread is interrupted while waiting for room
+	 */
+	public boolean add(final Notification notification) throws IOException {
+		final long stamp = gate.readLock();
+		try {
+			if (!accepting) {
+				throw new IOException("The queue " + name + " has been stopped");
+			}
+			return offer(notification);
+		} finally {
+			gate.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Puts a notification into the queue or the overflow buffer as defined by the overflow policy.
+	 *
+	 * @param notification the notification
+	 * @return false if the notification has been dropped
+	 * @throws InterruptedIOException if the thread is interrupted while waiting for room in the queue
+	 */
+	private boolean offer(final Notification notification) throws InterruptedIOException {
+		switch (overflowPolicy) {
+			case BLOCK -> enqueue(notification);
+			case DROP_DEBUG -> {
+				if (!queue.offer(notification)) {
+					if (notification.getType() != null && notification.getType().isDebug()) {
+						droppedCount.increment();
+						return false;
+					}
+					enqueue(notification);
+				}
+			}
+			case BUFFER -> {
+				if (!overflow.isEmpty() || !queue.offer(notification)) {
+					wakeUp();
+					// the overflow buffer is bounded as well, further ones are dropped
+					if (overflowSize.getAndIncrement() >= overflowCapacity) {
+						overflowSize.decrementAndGet();
+						droppedCount.increment();
+						return false;
+					}
+					overflow.add(notification);
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Passes the queued notifications to the handler and runs an action before the next batch can be passed.
+	 *
+	 * @param then the action, e.g. flushing the target of the handler, or null
+	 * @throws IOException if the handler or the action fails, or if the handler has failed on the background thread
+	 *                     since the last drain
+	 */
+	public void drain(final Action then) throws IOException {
+		synchronized (lock) {
+			final IOException failure = backgroundFailure;
+			backgroundFailure = null;
+			try {
+				drainToHandler();
+				if (then != null) {
+					then.run();
+				}
+			} catch (final IOException | RuntimeException e) {
+				if (failure != null) {
+					e.addSuppressed(failure);
+				}
+				throw e;
+			}
+			if (failure != null) {
+				throw new IOException("The queue " + name + " has failed to pass notifications in the background, they have been passed again: "
+						+ failure.getMessage(), failure);
+			}
+		}
+	}
+
+	/**
+	 * Discards the queued notifications and runs an action before the next batch can be passed.
+	 *
+	 * @param then the action, e.g. writing the discarded notifications in another way, or null
+	 * @throws IOException if the action fails
+	 */
+	public void clear(final Action then) throws IOException {
+		synchronized (lock) {
+			queue.clear();
+			overflow.clear();
+			overflowSize.set(0);
+			batch.clear();
+			backgroundFailure = null;
+			if (then != null) {
+				then.run();
+			}
+		}
+	}
+
+	/**
+	 * Wakes up the background thread, so it drains the queue.
+	 */
+	public void wakeUp() {
+		final Thread current = thread;
+		if (current != null) {
+			LockSupport.unpark(current);
+		}
+	}
+
+	/**
+	 * Starts to accept notifications and starts the background thread, unless it is already running.
+	 */
+	public void start() {
+		final long stamp = gate.writeLock();
+		accepting = true;
+		gate.unlockWrite(stamp);
+		synchronized (lock) {
+			if (thread == null) {
+				final Thread started = new Thread(this::run, name);
+				started.setDaemon(true);
+				thread = started;
+				started.start();
+			}
+		}
+	}
+
+	/**
+	 * Stops accepting notifications, stops the background thread and waits until it has passed its current batch.
+	 * Notifications that are still queued are kept, so they can be passed with {@link #drain(Action)}.
+	 */
+	public void stop() {
+		// adds in progress are completed first, the background thread still makes room for blocked ones
+		final long stamp = gate.writeLock();
+		accepting = false;
+		gate.unlockWrite(stamp);
+
+		final Thread stopped;
+		synchronized (lock) {
+			stopped = thread;
+			thread = null;
+		}
+		if (stopped == null) {
+			return;
+		}
+		LockSupport.unpark(stopped);
+		if (stopped != Thread.currentThread()) {
+			try {
+				stopped.join();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of notifications that have been dropped because the queue was full.
+	 *
+	 * @return the number of dropped notifications
+	 */
+	public long getDroppedCount() {
+		return droppedCount.sum();
+	}
+
+	/**
+	 * Puts the notification into the queue and waits for room, if necessary.
+	 *
+	 * @param notification the notification
+	 * @throws InterruptedIOException if the thread is interrupted while waiting
+	 */
+	private void enqueue(final Notification notification) throws InterruptedIOException {
+		if (queue.offer(notification)) {
+			return;
+		}
+		wakeUp();
+		try {
+			queue.put(notification);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for room in the queue");
+		}
+	}
+
+	/**
+	 * Passes the batch kept after a failure of the handler and then the queued notifications to the handler. Must be
+	 * called while holding the lock.
+	 *
+	 * @throws IOException if the handler fails, the batch is kept in this case
+	 */
+	private void drainToHandler() throws IOException {
+		if (!batch.isEmpty()) {
+			passBatch();
+		}
+		queue.drainTo(batch);
+		Notification notification;
+		while ((notification = overflow.poll()) != null) {
+			overflowSize.decrementAndGet();
+			batch.add(notification);
+		}
+		if (!batch.isEmpty()) {
+			passBatch();
+		}
+	}
+
+	/**
+	 * Passes the batch to the handler and clears it, unless the handler fails. Must be called while holding the lock.
+	 *
+	 * @throws IOException if the handler fails
+	 */
+	private void passBatch() throws IOException {
+		try {
+			handler.accept(batch);
+		} catch (final RuntimeException e) {
+			throw new IOException(e.getMessage(), e);
+		}
+		batch.clear();
+	}
+
+	/**
+	 * The loop of the background thread, which drains the queue whenever it is woken up or the interval has elapsed.
+	 */
+	private void run() {
+		final Thread self = Thread.currentThread();
+		while (thread == self) {
+			if (intervalNanos > 0) {
+				LockSupport.parkNanos(this, intervalNanos);
+			} else {
+				LockSupport.park(this);
+			}
+			synchronized (lock) {
+				try {
+					drainToHandler();
+				} catch (final IOException e) {
+					log.error("Unable to pass the queued notifications of {}, they are passed again: {}", name, e.getMessage());
+					if (backgroundFailure == null) {
+						backgroundFailure = e;
+					}
+				}
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+
+	/**
+	 * Processes the batches of notifications taken from the queue.
+	 */
+	@FunctionalInterface
+	public interface BatchHandler {
+
+		/**
+		 * Processes a batch of notifications. The list is reused after the call, unless the call fails, in which case
+		 * the same batch is passed again later.
+		 *
+		 * @param batch the notifications in the order in which they have been added
+		 * @throws IOException if the notifications cannot be processed
+		 */
+		void accept(List<Notification> batch) throws IOException;
+	}
+
+	/**
+	 * An action that runs while no batch is passed to the handler.
+	 */
+	@FunctionalInterface
+	public interface Action {
+
+		/**
+		 * Runs the action.
+		 *
+		 * @throws IOException if the action fails
+		 */
+		void run() throws IOException;
+	}
+}
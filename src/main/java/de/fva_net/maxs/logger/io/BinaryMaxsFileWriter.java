@@ -0,0 +1,145 @@
+package de.fva_net.maxs.logger.io;
+
+import de.fva_net.maxs.logger.xml.KernelNotifications;
+import de.fva_net.maxs.logger.xml.Notification;
+import lombok.RequiredArgsConstructor;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Collection;
+
+/**
+ * Writer for binary .maxsb files, which are smaller and faster to write and read than XML.
+ * <p>
+ * Routine and attribute IDs are written once into the string table of the file and referenced by their ID. Messages
+ * are written inline on their first occurrence and added to the string table when they occur again, so unique messages
+ * do not fill the table. Each append is flushed, so a reader can read all notifications written so far. Use
+ * {@link MaxsFiles#convertToXml(File, File)} to get a standard .maxs file.
+ */
+@RequiredArgsConstructor
+public class BinaryMaxsFileWriter implements MaxsFileWriter {
+
+	/**
+	 * The path to the log file.
+	 */
+	private final File logFile;
+
+	/**
+	 * The encoder of the records.
+	 */
+	private final BinaryRecordEncoder encoder = new BinaryRecordEncoder();
+
+	/**
+	 * The buffer of the record lengths.
+	 */
+	private final BinaryMaxsFormat.Encoder prefix = new BinaryMaxsFormat.Encoder();
+
+	/**
+	 * The target of the encoded records, which prefixes them with their length.
+	 */
+	private final BinaryRecordEncoder.RecordSink sink = this::writeRecord;
+
+	/**
+	 * The stream of the open file, or null if the file is not open.
+	 */
+	private OutputStream output;
+
+	/**
+	 * The number of bytes written to the open file.
+	 */
+	private long writtenBytes;
+
+	@Override
+	public synchronized void open(final KernelNotifications kernelNotifications) throws IOException {
+		close();
+		encoder.reset();
+		output = new BufferedOutputStream(Files.newOutputStream(logFile.toPath()), 64 * 1024);
+		output.write(BinaryMaxsFormat.MAGIC);
+		output.write(BinaryMaxsFormat.VERSION);
+		writtenBytes = BinaryMaxsFormat.MAGIC.length + 1;
+		encoder.writeHeader(kernelNotifications, sink);
+		for (final Notification notification : kernelNotifications.getNotifications()) {
+			encoder.writeNotification(notification, sink);
+		}
+		output.flush();
+	}
+
+	@Override
+	public synchronized void append(final Notification notification) throws IOException {
+		checkOpen();
+		encoder.writeNotification(notification, sink);
+		output.flush();
+	}
+
+	@Override
+	public synchronized void appendAll(final Collection<Notification> notifications) throws IOException {
+		checkOpen();
+		for (final Notification notification : notifications) {
+			encoder.writeNotification(notification, sink);
+		}
+		output.flush();
+	}
+
+	/**
+	 * Appends a notification without flushing, for converting complete files.
+	 *
+	 * @param notification the notification
+	 * @throws IOException if the file is not open or cannot be written
+	 */
+	synchronized void write(final Notification notification) throws IOException {
+		checkOpen();
+		encoder.writeNotification(notification, sink);
+	}
+
+	@Override
+	public synchronized long getWrittenBytes() {
+		return output != null ? writtenBytes : 0;
+	}
+
+	@Override
+	public synchronized void flush() throws IOException {
+		if (output != null) {
+			output.flush();
+		}
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (output != null) {
+			try {
+				output.close();
+			} finally {
+				output = null;
+			}
+		}
+	}
+
+	/**
+	 * Writes an encoded record, prefixed with its length.
+	 *
+	 * @param bytes  the buffer of the record
+	 * @param length the length of the record
+	 * @throws IOException if the file cannot be written
+	 */
+	private void writeRecord(final byte[] bytes, final int length) throws IOException {
+		prefix.reset();
+		prefix.writeVarint(length);
+		output.write(prefix.bytes(), 0, prefix.size());
+		output.write(bytes, 0, length);
+		writtenBytes += prefix.size() + length;
+	}
+
+	/**
+	 * Checks that the file is open.
+	 *
+	 * @throws IOException if the file is not open
+	 */
+	private void checkOpen() throws IOException {
+		if (output == null) {
+			throw new IOException("The writer for " + logFile + " is not open");
+		}
+	}
+}
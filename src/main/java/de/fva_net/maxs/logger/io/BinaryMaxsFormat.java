@@ -0,0 +1,357 @@
+package de.fva_net.maxs.logger.io;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Constants and codecs of the binary .maxsb format.
+ * <p>
+ * A file starts with the {@link #MAGIC} bytes and the {@link #VERSION}, followed by records. Each record is prefixed
+ * with its length as unsigned varint and starts with its tag:
+ * <ul>
+ * <li>{@link #STRING}: the UTF-8 bytes of the next entry of the string table, whose IDs are assigned in the order of
+ * the definitions.</li>
+ * <li>{@link #HEADER}: the application ID and version.</li>
+ * <li>{@link #NOTIFICATION}: the flags of the present fields, the zigzag varint component ID, the routine ID, the
+ * ordinal of the message type, the message and the items with flags, component ID, attribute ID
+ * and the value as 8 bytes.</li>
+ * </ul>
+ * Strings are encoded as varint 0 for null, 1 for an inline value with length and UTF-8 bytes, or the ID in the string
+ * table plus 2. Records with an unknown tag are skipped, so later versions can add records.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class BinaryMaxsFormat {
+
+	/**
+	 * The first bytes of a binary file.
+	 */
+	static final byte[] MAGIC = { 'M', 'A', 'X', 'S', 'B' };
+
+	/**
+	 * The version of the format.
+	 */
+	static final int VERSION = 1;
+
+	/**
+	 * The tag of a string table entry.
+	 */
+	static final int STRING = 1;
+
+	/**
+	 * The tag of the header.
+	 */
+	static final int HEADER = 2;
+
+	/**
+	 * The tag of a notification.
+	 */
+	static final int NOTIFICATION = 3;
+
+	/**
+	 * The flag of a present component ID.
+	 */
+	static final int HAS_COMP_ID = 1;
+
+	/**
+	 * The flag of a present message type.
+	 */
+	static final int HAS_TYPE = 1 << 1;
+
+	/**
+	 * The encoding of a null string.
+	 */
+	static final int NULL_STRING = 0;
+
+	/**
+	 * The encoding of an inline string.
+	 */
+	static final int INLINE_STRING = 1;
+
+	/**
+	 * The offset of the IDs in the string table.
+	 */
+	static final int STRING_ID_OFFSET = 2;
+
+	/**
+	 * Checks whether the stream starts with the magic bytes, without consuming them.
+	 *
+	 * @param input the stream, which must support mark and reset
+	 * @return true if the stream contains the binary format
+	 * @throws IOException if the stream cannot be read
+	 */
+	static boolean hasMagic(final InputStream input) throws IOException {
+		input.mark(MAGIC.length);
+		final byte[] bytes = input.readNBytes(MAGIC.length);
+		input.reset();
+		return Arrays.equals(bytes, MAGIC);
+	}
+
+	/**
+	 * Growable buffer for encoding records.
+	 */
+	static final class Encoder {
+
+		/**
+		 * The encoded bytes.
+		 */
+		private byte[] bytes = new byte[256];
+
+		/**
+		 * The number of encoded bytes.
+		 */
+		private int size;
+
+		/**
+		 * Discards the encoded bytes.
+		 */
+		void reset() {
+			size = 0;
+		}
+
+		/**
+		 * Encodes a byte.
+		 *
+		 * @param value the byte
+		 */
+		void writeByte(final int value) {
+			ensureCapacity(1);
+			bytes[size++] = (byte) value;
+		}
+
+		/**
+		 * Encodes an unsigned varint.
+		 *
+		 * @param value the non-negative value
+		 */
+		void writeVarint(final long value) {
+			ensureCapacity(10);
+			long remaining = value;
+			while ((remaining & ~0x7FL) != 0) {
+				bytes[size++] = (byte) ((remaining & 0x7F) | 0x80);
+				remaining >>>= 7;
+			}
+			bytes[size++] = (byte) remaining;
+		}
+
+		/**
+		 * Encodes a signed integer as zigzag varint, so small negative values are short as well.
+		 *
+		 * @param value the value
+		 */
+		void writeZigZag(final int value) {
+			writeVarint(((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL);
+		}
+
+		/**
+		 * Encodes a double as 8 little-endian bytes.
+		 *
+		 * @param value the value
+		 */
+		void writeDouble(final double value) {
+			ensureCapacity(8);
+			final long bits = Double.doubleToRawLongBits(value);
+			for (int i = 0; i < 8; i++) {
+				bytes[size++] = (byte) (bits >>> (8 * i));
+			}
+		}
+
+		/**
+		 * Encodes the UTF-8 bytes of a string with their length.
+		 *
+		 * @param value the string
+		 */
+		void writeString(final String value) {
+			final byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+			writeVarint(utf8.length);
+			writeBytes(utf8);
+		}
+
+		/**
+		 * Encodes bytes as they are.
+		 *
+		 * @param value the bytes
+		 */
+		void writeBytes(final byte[] value) {
+			ensureCapacity(value.length);
+			System.arraycopy(value, 0, bytes, size, value.length);
+			size += value.length;
+		}
+
+		/**
+		 * Returns the buffer of the encoded bytes, which is only valid up to {@link #size()}.
+		 *
+		 * @return the buffer
+		 */
+		byte[] bytes() {
+			return bytes;
+		}
+
+		/**
+		 * Returns the number of encoded bytes.
+		 *
+		 * @return the number of bytes
+		 */
+		int size() {
+			return size;
+		}
+
+		/**
+		 * Ensures that the given number of bytes can be encoded.
+		 *
+		 * @param additional the number of bytes
+		 */
+		private void ensureCapacity(final int additional) {
+			if (size + additional > bytes.length) {
+				bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + additional));
+			}
+		}
+	}
+
+	/**
+	 * Decoder of the records of a stream.
+	 */
+	static final class Decoder {
+
+		/**
+		 * The bytes of the current record.
+		 */
+		private byte[] bytes = new byte[256];
+
+		/**
+		 * The length of the current record.
+		 */
+		private int limit;
+
+		/**
+		 * The position in the current record.
+		 */
+		private int position;
+
+		/**
+		 * Reads the next record of the stream.
+		 *
+		 * @param input the stream
+		 * @return false at the end of the stream
+		 * @throws IOException if the stream cannot be read or ends within a record
+		 */
+		boolean readRecord(final InputStream input) throws IOException {
+			final int first = input.read();
+			if (first < 0) {
+				return false;
+			}
+			long length = first & 0x7F;
+			int shift = 7;
+			int next = first;
+			while ((next & 0x80) != 0) {
+				next = input.read();
+				if (next < 0) {
+					throw new EOFException("The stream ends within the length of a record");
+				}
+				length |= (long) (next & 0x7F) << shift;
+				shift += 7;
+			}
+			if (length > Integer.MAX_VALUE - 8) {
+				throw new IOException("The length of the record is invalid: " + length);
+			}
+			if (bytes.length < length) {
+				bytes = new byte[Math.max(bytes.length * 2, (int) length)];
+			}
+			final int read = input.readNBytes(bytes, 0, (int) length);
+			if (read < length) {
+				throw new EOFException("The stream ends within a record");
+			}
+			limit = (int) length;
+			position = 0;
+			return true;
+		}
+
+		/**
+		 * Decodes a byte.
+		 *
+		 * @return the unsigned byte
+		 * @throws IOException if the record ends
+		 */
+		int readByte() throws IOException {
+			if (position >= limit) {
+				throw new EOFException("The record ends unexpectedly");
+			}
+			return bytes[position++] & 0xFF;
+		}
+
+		/**
+		 * Decodes an unsigned varint.
+		 *
+		 * @return the value
+		 * @throws IOException if the record ends
+		 */
+		long readVarint() throws IOException {
+			long value = 0;
+			for (int shift = 0; shift < 64; shift += 7) {
+				final int next = readByte();
+				value |= (long) (next & 0x7F) << shift;
+				if ((next & 0x80) == 0) {
+					return value;
+				}
+			}
+			throw new IOException("The varint is too long");
+		}
+
+		/**
+		 * Decodes a zigzag varint.
+		 *
+		 * @return the signed value
+		 * @throws IOException if the record ends
+		 */
+		int readZigZag() throws IOException {
+			final int value = (int) readVarint();
+			return (value >>> 1) ^ -(value & 1);
+		}
+
+		/**
+		 * Decodes a double of 8 little-endian bytes.
+		 *
+		 * @return the value
+		 * @throws IOException if the record ends
+		 */
+		double readDouble() throws IOException {
+			long bits = 0;
+			for (int i = 0; i < 8; i++) {
+				bits |= (long) readByte() << (8 * i);
+			}
+			return Double.longBitsToDouble(bits);
+		}
+
+		/**
+		 * Decodes a string with length.
+		 *
+		 * @return the string
+		 * @throws IOException if the record ends
+		 */
+		String readString() throws IOException {
+			final long length = readVarint();
+			if (length > limit - position) {
+				throw new EOFException("The record ends within a string");
+			}
+			final String value = new String(bytes, position, (int) length, StandardCharsets.UTF_8);
+			position += (int) length;
+			return value;
+		}
+
+		/**
+		 * Decodes the remaining bytes of the record as string.
+		 *
+		 * @return the string
+		 */
+		String readRemainingString() {
+			final String value = new String(bytes, position, limit - position, StandardCharsets.UTF_8);
+			position = limit;
+			return value;
+		}
+	}
+}
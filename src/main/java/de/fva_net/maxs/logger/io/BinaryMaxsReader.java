@@ -0,0 +1,291 @@
+package de.fva_net.maxs.logger.io;
+
+import de.fva_net.maxs.logger.MaxsMessageType;
+import de.fva_net.maxs.logger.store.NotificationQuery;
+import de.fva_net.maxs.logger.xml.Item;
+import de.fva_net.maxs.logger.xml.Notification;
+import lombok.Getter;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads the notifications of a binary .maxsb file one by one, in constant memory apart from the string table.
+ * <p>
+ * Like {@link MaxsReader}, a filter is evaluated on the component ID, routine and type at the start of each record, so
+ * non-matching notifications are skipped without creating objects for them. Errors while reading are thrown as
+ * {@link UncheckedIOException} by {@link #hasNext()} and {@link #next()}. Instances are not thread-safe and must be
+ * closed.
+ */
+public final class BinaryMaxsReader implements Iterator<Notification>, Closeable {
+
+	/**
+	 * The message types by their ordinal.
+	 */
+	private static final MaxsMessageType[] TYPES = MaxsMessageType.values();
+
+	/**
+	 * The file being read, for error messages.
+	 */
+	private final File file;
+
+	/**
+	 * The stream of the file.
+	 */
+	private final InputStream input;
+
+	/**
+	 * The filter of the notifications.
+	 */
+	private final NotificationQuery filter;
+
+	/**
+	 * The decoder of the records.
+	 */
+	private final BinaryMaxsFormat.Decoder decoder = new BinaryMaxsFormat.Decoder();
+
+	/**
+	 * The string table of the file.
+	 */
+	private final List<String> strings = new ArrayList<>();
+
+	/**
+	 * The application ID of the header.
+	 */
+	@Getter
+	private String appId;
+
+	/**
+	 * The application version of the header.
+	 */
+	@Getter
+	private String appVersion;
+
+	/**
+	 * The next notification, or null if it has not been read yet.
+	 */
+	private Notification next;
+
+	/**
+	 * Whether the end of the notifications has been reached.
+	 */
+	private boolean finished;
+
+	/**
+	 * Creates a new reader and reads the header of the file.
+	 *
+	 * @param file   the file, for error messages
+	 * @param input  the stream of the file, positioned at the magic bytes
+	 * @param filter the filter of the notifications
+	 * @throws IOException if the stream is no binary .maxsb file
+	 */
+	BinaryMaxsReader(final File file, final InputStream input, final NotificationQuery filter) throws IOException {
+		this.file = file;
+		this.input = input;
+		this.filter = filter;
+		final byte[] magic = input.readNBytes(BinaryMaxsFormat.MAGIC.length);
+		if (!Arrays.equals(magic, BinaryMaxsFormat.MAGIC)) {
+			throw new IOException("The file " + file + " is no binary MAXS file");
+		}
+		final int version = input.read();
+		if (version != BinaryMaxsFormat.VERSION) {
+			throw new IOException("The version " + version + " of the binary MAXS file " + file + " is not supported");
+		}
+		while (decoder.readRecord(input)) {
+			final int tag = decoder.readByte();
+			if (tag == BinaryMaxsFormat.HEADER) {
+				appId = readString();
+				appVersion = readString();
+				return;
+			}
+			if (tag == BinaryMaxsFormat.STRING) {
+				strings.add(decoder.readRemainingString());
+			}
+		}
+		throw new IOException("The binary MAXS file " + file + " has no header");
+	}
+
+	/**
+	 * Opens a reader of all notifications of the file.
+	 *
+	 * @param file the .maxsb file
+	 * @return the reader
+	 * @throws IOException if the file cannot be opened or has no valid header
+	 */
+	public static BinaryMaxsReader open(final File file) throws IOException {
+		return open(file, new NotificationQuery(Collections.emptySet(), null, null));
+	}
+
+	/**
+	 * Opens a reader of the notifications of the file that match the filter.
+	 *
+	 * @param file   the .maxsb file
+	 * @param filter the filter of the notifications
+	 * @return the reader
+	 * @throws IOException if the file cannot be opened or has no valid header
+	 */
+	public static BinaryMaxsReader open(final File file, final NotificationQuery filter) throws IOException {
+		final InputStream input = MaxsFiles.newInputStream(file);
+		try {
+			return new BinaryMaxsReader(file, input, filter);
+		} catch (final IOException | RuntimeException e) {
+			input.close();
+			throw e;
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (next == null && !finished) {
+			try {
+				next = readNext();
+			} catch (final IOException e) {
+				finished = true;
+				throw new UncheckedIOException(new IOException("Cannot read the binary MAXS file " + file + ": " + e.getMessage(), e));
+			}
+			finished = next == null;
+		}
+		return next != null;
+	}
+
+	@Override
+	public Notification next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		final Notification notification = next;
+		next = null;
+		return notification;
+	}
+
+	/**
+	 * Returns a sequential stream of the remaining notifications. Closing the stream closes this reader.
+	 *
+	 * @return the stream of notifications
+	 */
+	public Stream<Notification> stream() {
+		final Spliterator<Notification> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+		return StreamSupport.stream(spliterator, false).onClose(() -> {
+			try {
+				close();
+			} catch (final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+
+	@Override
+	public void close() throws IOException {
+		finished = true;
+		next = null;
+		input.close();
+	}
+
+	/**
+	 * Reads up to the next notification that matches the filter.
+	 *
+	 * @return the notification, or null at the end of the file
+	 * @throws IOException if the file is no valid .maxsb file
+	 */
+	private Notification readNext() throws IOException {
+		while (decoder.readRecord(input)) {
+			final int tag = decoder.readByte();
+			if (tag == BinaryMaxsFormat.STRING) {
+				strings.add(decoder.readRemainingString());
+			} else if (tag == BinaryMaxsFormat.NOTIFICATION) {
+				final Notification notification = readNotification();
+				if (notification != null) {
+					return notification;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Decodes the current notification record, if it matches the filter.
+	 *
+	 * @return the notification, or null if it does not match
+	 * @throws IOException if the record is invalid
+	 */
+	private Notification readNotification() throws IOException {
+		final int flags = decoder.readByte();
+		final Integer compId = (flags & BinaryMaxsFormat.HAS_COMP_ID) != 0 ? decoder.readZigZag() : null;
+		if (filter.getCompId() != null && !filter.getCompId().equals(compId)) {
+			return null;
+		}
+		final String routine = readString();
+		if (filter.getRoutine() != null && !filter.getRoutine().equals(routine)) {
+			return null;
+		}
+		final MaxsMessageType type = (flags & BinaryMaxsFormat.HAS_TYPE) != 0 ? readType() : null;
+		if (!filter.getTypes().isEmpty() && !filter.getTypes().contains(type)) {
+			return null;
+		}
+		final Notification notification = new Notification();
+		notification.setCompId(compId);
+		notification.setRoutine(routine);
+		notification.setType(type);
+		notification.setMessage(readString());
+		final long itemCount = decoder.readVarint();
+		for (long i = 0; i < itemCount; i++) {
+			final Item item = new Item();
+			if ((decoder.readByte() & BinaryMaxsFormat.HAS_COMP_ID) != 0) {
+				item.setCompId(decoder.readZigZag());
+			}
+			final String attrId = readString();
+			item.setAttrId(attrId != null ? attrId : "");
+			item.setValue(decoder.readDouble());
+			notification.getData().add(item);
+		}
+		return notification;
+	}
+
+	/**
+	 * Decodes a string of the current record.
+	 *
+	 * @return the string, may be null
+	 * @throws IOException if the string is invalid
+	 */
+	private String readString() throws IOException {
+		final long encoded = decoder.readVarint();
+		if (encoded == BinaryMaxsFormat.NULL_STRING) {
+			return null;
+		}
+		if (encoded == BinaryMaxsFormat.INLINE_STRING) {
+			return decoder.readString();
+		}
+		final long id = encoded - BinaryMaxsFormat.STRING_ID_OFFSET;
+		if (id >= strings.size()) {
+			throw new IOException("The string " + id + " is not defined");
+		}
+		return strings.get((int) id);
+	}
+
+	/**
+	 * Decodes a message type of the current record.
+	 *
+	 * @return the message type
+	 * @throws IOException if the ordinal is invalid
+	 */
+	private MaxsMessageType readType() throws IOException {
+		final int ordinal = decoder.readByte();
+		if (ordinal >= TYPES.length) {
+			throw new IOException("The message type " + ordinal + " is not defined");
+		}
+		return TYPES[ordinal];
+	}
+}
@@ -0,0 +1,164 @@
+package de.fva_net.maxs.logger.io;
+
+import de.fva_net.maxs.logger.xml.Item;
+import de.fva_net.maxs.logger.xml.KernelNotifications;
+import de.fva_net.maxs.logger.xml.Notification;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Encodes the records of the binary format, including the definitions of the string table.
+ * <p>
+ * The encoded records are passed to a {@link RecordSink}, which frames them for the target, e.g. with a varint length
+ * in .maxsb files or with a checksum in journals. Instances are not thread-safe.
+ */
+final class BinaryRecordEncoder {
+
+	/**
+	 * The maximum number of entries of the string table.
+	 */
+	static final int MAX_STRINGS = 1 << 16;
+
+	/**
+	 * The number of recent messages that are remembered to detect repeated messages.
+	 */
+	private static final int RECENT_MESSAGES = 1024;
+
+	/**
+	 * The IDs of the strings in the string table.
+	 */
+	private final Map<String, Integer> strings = new HashMap<>();
+
+	/**
+	 * The recent messages that are not in the string table yet.
+	 */
+	private final Map<String, Boolean> recentMessages = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<String, Boolean> eldest) {
+			return size() > RECENT_MESSAGES;
+		}
+	};
+
+	/**
+	 * The buffer of the current record.
+	 */
+	private final BinaryMaxsFormat.Encoder record = new BinaryMaxsFormat.Encoder();
+
+	/**
+	 * The buffer of string table records.
+	 */
+	private final BinaryMaxsFormat.Encoder definition = new BinaryMaxsFormat.Encoder();
+
+	/**
+	 * Target of the encoded records.
+	 */
+	@FunctionalInterface
+	interface RecordSink {
+
+		/**
+		 * Writes an encoded record.
+		 *
+		 * @param bytes  the buffer of the record
+		 * @param length the length of the record
+		 * @throws IOException if the record cannot be written
+		 */
+		void write(byte[] bytes, int length) throws IOException;
+	}
+
+	/**
+	 * Clears the string table, for a new file.
+	 */
+	void reset() {
+		strings.clear();
+		recentMessages.clear();
+	}
+
+	/**
+	 * Encodes the header with the application ID and version.
+	 *
+	 * @param kernelNotifications the document
+	 * @param sink                the target of the records
+	 * @throws IOException if a record cannot be written
+	 */
+	void writeHeader(final KernelNotifications kernelNotifications, final RecordSink sink) throws IOException {
+		record.reset();
+		record.writeByte(BinaryMaxsFormat.HEADER);
+		writeString(kernelNotifications.getAppId(), true, sink);
+		writeString(kernelNotifications.getAppVersion(), true, sink);
+		sink.write(record.bytes(), record.size());
+	}
+
+	/**
+	 * Encodes a notification, preceded by the definitions of new strings.
+	 *
+	 * @param notification the notification
+	 * @param sink         the target of the records
+	 * @throws IOException if a record cannot be written
+	 */
+	void writeNotification(final Notification notification, final RecordSink sink) throws IOException {
+		record.reset();
+		record.writeByte(BinaryMaxsFormat.NOTIFICATION);
+		int flags = 0;
+		flags |= notification.getCompId() != null ? BinaryMaxsFormat.HAS_COMP_ID : 0;
+		flags |= notification.getType() != null ? BinaryMaxsFormat.HAS_TYPE : 0;
+		record.writeByte(flags);
+		if (notification.getCompId() != null) {
+			record.writeZigZag(notification.getCompId());
+		}
+		writeString(notification.getRoutine(), true, sink);
+		if (notification.getType() != null) {
+			record.writeByte(notification.getType().ordinal());
+		}
+		final String message = notification.getMessage();
+		writeString(message, message != null && !strings.containsKey(message) && recentMessages.put(message, Boolean.TRUE) != null, sink);
+		if (notification.hasData()) {
+			record.writeVarint(notification.getData().size());
+			for (final Item item : notification.getData()) {
+				record.writeByte(item.getCompId() != null ? BinaryMaxsFormat.HAS_COMP_ID : 0);
+				if (item.getCompId() != null) {
+					record.writeZigZag(item.getCompId());
+				}
+				writeString(item.getAttrId(), true, sink);
+				record.writeDouble(item.getValue());
+			}
+		} else {
+			record.writeVarint(0);
+		}
+		sink.write(record.bytes(), record.size());
+	}
+
+	/**
+	 * Encodes a string into the current record, as reference to the string table if possible.
+	 *
+	 * @param value  the string, may be null
+	 * @param intern whether the string is added to the string table if it is not contained yet
+	 * @param sink   the target of the definition of the string
+	 * @throws IOException if the definition of the string cannot be written
+	 */
+	private void writeString(final String value, final boolean intern, final RecordSink sink) throws IOException {
+		if (value == null) {
+			record.writeVarint(BinaryMaxsFormat.NULL_STRING);
+			return;
+		}
+		Integer id = strings.get(value);
+		if (id == null && intern && strings.size() < MAX_STRINGS) {
+			id = strings.size();
+			strings.put(value, id);
+			recentMessages.remove(value);
+			definition.reset();
+			definition.writeByte(BinaryMaxsFormat.STRING);
+			definition.writeBytes(value.getBytes(StandardCharsets.UTF_8));
+			sink.write(definition.bytes(), definition.size());
+		}
+		if (id != null) {
+			record.writeVarint(id + (long) BinaryMaxsFormat.STRING_ID_OFFSET);
+		} else {
+			record.writeVarint(BinaryMaxsFormat.INLINE_STRING);
+			record.writeString(value);
+		}
+	}
+}
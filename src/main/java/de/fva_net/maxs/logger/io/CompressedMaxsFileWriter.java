@@ -0,0 +1,179 @@
+package de.fva_net.maxs.logger.io;
+
+import de.fva_net.maxs.logger.xml.KernelNotifications;
+import de.fva_net.maxs.logger.xml.MaxsSerializer;
+import de.fva_net.maxs.logger.xml.Notification;
+import de.fva_net.maxs.logger.xml.StreamingMaxsSerializer;
+import lombok.RequiredArgsConstructor;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.zip.Deflater;
+
+/**
+ * Writer for compressed .maxs.gz files, which streams the notifications through a deflate stream.
+ * <p>
+ * Each append is flushed, so a reader can decompress all notifications written so far. The end tag of the document is
+ * written when the writer is closed, so the file is a complete .maxs document only after closing.
+ */
+@RequiredArgsConstructor
+public class CompressedMaxsFileWriter implements MaxsFileWriter {
+
+	/**
+	 * The path to the log file.
+	 */
+	private final File logFile;
+
+	/**
+	 * The serializer for the MAXS model.
+	 */
+	private final MaxsSerializer serializer;
+
+	/**
+	 * The compression level from 0 to 9, or -1 for the default level.
+	 */
+	private final int compressionLevel;
+
+	/**
+	 * The writer of the open file, or null if the file is not open.
+	 */
+	private Writer writer;
+
+	/**
+	 * The stream of the open file, which counts the compressed bytes.
+	 */
+	private CountingOutputStream output;
+
+	/**
+	 * Creates a new writer with the formatted streaming serializer and the default compression level.
+	 *
+	 * @param logFile the path to the log file
+	 */
+	public CompressedMaxsFileWriter(final File logFile) {
+		this(logFile, StreamingMaxsSerializer.FORMATTED, Deflater.DEFAULT_COMPRESSION);
+	}
+
+	@Override
+	public synchronized void open(final KernelNotifications kernelNotifications) throws IOException {
+		closeWriter(false);
+		MaxsFiles.checkCompressionLevel(compressionLevel);
+		output = new CountingOutputStream(Files.newOutputStream(logFile.toPath()));
+		writer = new BufferedWriter(new OutputStreamWriter(MaxsFiles.newCompressedOutputStream(output, compressionLevel), StandardCharsets.UTF_8));
+		serializer.writeStart(kernelNotifications, writer);
+		for (final Notification notification : kernelNotifications.getNotifications()) {
+			serializer.writeNotification(notification, writer);
+		}
+		writer.flush();
+	}
+
+	@Override
+	public synchronized void append(final Notification notification) throws IOException {
+		checkOpen();
+		serializer.writeNotification(notification, writer);
+		writer.flush();
+	}
+
+	@Override
+	public synchronized void appendAll(final Collection<Notification> notifications) throws IOException {
+		checkOpen();
+		for (final Notification notification : notifications) {
+			serializer.writeNotification(notification, writer);
+		}
+		writer.flush();
+	}
+
+	/**
+	 * Returns the number of compressed bytes written to the file. Bytes that are still buffered before the compression
+	 * are not counted, but each append is flushed.
+	 *
+	 * @return the number of bytes
+	 */
+	@Override
+	public synchronized long getWrittenBytes() {
+		return writer != null ? output.count : 0;
+	}
+
+	@Override
+	public synchronized void flush() throws IOException {
+		if (writer != null) {
+			writer.flush();
+		}
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		closeWriter(true);
+	}
+
+	/**
+	 * Completes the document and closes the file.
+	 *
+	 * @param complete true to write the end tag before closing
+	 * @throws IOException if the file cannot be written
+	 */
+	private void closeWriter(final boolean complete) throws IOException {
+		if (writer == null) {
+			return;
+		}
+		try {
+			if (complete) {
+				serializer.writeEnd(writer);
+			}
+			writer.close();
+		} finally {
+			writer = null;
+			output = null;
+		}
+	}
+
+	/**
+	 * Checks that the file is open.
+	 *
+	 * @throws IOException if the file is not open
+	 */
+	private void checkOpen() throws IOException {
+		if (writer == null) {
+			throw new IOException("The writer for " + logFile + " is not open");
+		}
+	}
+
+	/**
+	 * Stream that counts the bytes written to the file.
+	 */
+	private static final class CountingOutputStream extends FilterOutputStream {
+
+		/**
+		 * The number of written bytes.
+		 */
+		private long count;
+
+		/**
+		 * Creates a new counting stream.
+		 *
+		 * @param output the stream of the file
+		 */
+		private CountingOutputStream(final OutputStream output) {
+			super(output);
+		}
+
+		@Override
+		public void write(final int b) throws IOException {
+			out.write(b);
+			count++;
+		}
+
+		@Override
+		public void write(final byte[] b, final int off, final int len) throws IOException {
+			out.write(b, off, len);
+			count += len;
+		}
+	}
+}
@@ -0,0 +1,222 @@
+package de.fva_net.maxs.logger.io;
+
+import de.fva_net.maxs.logger.xml.KernelNotifications;
+import de.fva_net.maxs.logger.xml.MaxsSerializer;
+import de.fva_net.maxs.logger.xml.Notification;
+import de.fva_net.maxs.logger.xml.StreamingMaxsSerializer;
+import lombok.RequiredArgsConstructor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Writer that keeps the log file open and only writes the new notification on each call.
+ * <p>
+ * The closing {@code </kernelNotifications>} tag is always kept at the end of the file. A new notification overwrites
+ * the tag and writes it again behind itself, so each write costs O(1) and the file on disk stays a well-formed MAXS
+ * document.
+ * <p>
+ * {@link #update(KernelNotifications)} copies the file with a new header and the current state of the mutable
+ * notifications into a temporary file, which then replaces the log file.
+ */
+@RequiredArgsConstructor
+public class IncrementalMaxsFileWriter implements MaxsFileWriter {
+
+	/**
+	 * The log file.
+	 */
+	private final File logFile;
+
+	/**
+	 * The serializer for the document.
+	 */
+	private final MaxsSerializer serializer;
+
+	/**
+	 * Reusable buffer for the serialized notifications.
+	 */
+	private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+
+	/**
+	 * Character writer on top of the buffer.
+	 */
+	private final Writer bufferWriter = new OutputStreamWriter(buffer, StandardCharsets.UTF_8);
+
+	/**
+	 * The channel of the opened log file.
+	 */
+	private FileChannel channel;
+
+	/**
+	 * The serialized closing tag of the document.
+	 */
+	private byte[] tail;
+
+	/**
+	 * The position of the closing tag in the file.
+	 */
+	private long tailPosition;
+
+	/**
+	 * The length of the header in the file, which is followed by the notifications.
+	 */
+	private long headerLength;
+
+	/**
+	 * The positions of the notifications that may change after they have been written.
+	 */
+	private MutableNotificationRegions mutableRegions = new MutableNotificationRegions();
+
+	/**
+	 * Creates a new writer with the formatted {@link StreamingMaxsSerializer}.
+	 *
+	 * @param logFile the log file
+	 */
+	public IncrementalMaxsFileWriter(final File logFile) {
+		this(logFile, StreamingMaxsSerializer.FORMATTED);
+	}
+
+	@Override
+	public synchronized void open(final KernelNotifications kernelNotifications) throws IOException {
+		close();
+		buffer.reset();
+		serializer.writeEnd(bufferWriter);
+		bufferWriter.flush();
+		tail = buffer.toByteArray();
+
+		buffer.reset();
+		serializer.writeStart(kernelNotifications, bufferWriter);
+		bufferWriter.flush();
+		headerLength = buffer.size();
+		for (final Notification notification : kernelNotifications.getNotifications()) {
+			serializer.writeNotification(notification, bufferWriter);
+		}
+		mutableRegions.clear();
+		channel = openChannel(StandardOpenOption.TRUNCATE_EXISTING);
+		tailPosition = 0;
+		writeBufferAndTail();
+	}
+
+	@Override
+	public synchronized void append(final Notification notification) throws IOException {
+		if (channel == null) {
+			throw new IOException("The writer for " + logFile + " is not open");
+		}
+		buffer.reset();
+		serializer.writeNotification(notification, bufferWriter);
+		writeBufferAndTail();
+	}
+
+	@Override
+	public synchronized void appendMutable(final Notification notification) throws IOException {
+		final long start = tailPosition;
+		append(notification);
+		mutableRegions.put(notification, start, tailPosition);
+	}
+
+	@Override
+	public synchronized long getWrittenBytes() {
+		return channel != null ? tailPosition + tail.length : 0;
+	}
+
+	@Override
+	public synchronized void appendAll(final Collection<Notification> notifications) throws IOException {
+		if (channel == null) {
+			throw new IOException("The writer for " + logFile + " is not open");
+		}
+		buffer.reset();
+		for (final Notification notification : notifications) {
+			serializer.writeNotification(notification, bufferWriter);
+		}
+		writeBufferAndTail();
+	}
+
+	@Override
+	public synchronized void update(final KernelNotifications header) throws IOException {
+		if (channel == null) {
+			throw new IOException("The writer for " + logFile + " is not open");
+		}
+		buffer.reset();
+		serializer.writeStart(header, bufferWriter);
+		bufferWriter.flush();
+
+		final Path temp = logFile.toPath().resolveSibling(logFile.getName() + ".tmp");
+		final long updatedHeaderLength = buffer.size();
+		final MutableNotificationRegions updatedRegions;
+		final long updatedTailPosition;
+		try (FileChannel target = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			MutableNotificationRegions.write(target, buffer.toByteArray());
+			updatedRegions = mutableRegions.copy(channel, headerLength, tailPosition, target, serializer);
+			updatedTailPosition = target.position();
+			MutableNotificationRegions.write(target, tail);
+		}
+		close();
+		try {
+			MutableNotificationRegions.replace(temp, logFile.toPath());
+		} finally {
+			// the previous file is kept if it cannot be replaced
+			channel = openChannel();
+		}
+		headerLength = updatedHeaderLength;
+		tailPosition = updatedTailPosition;
+		mutableRegions = updatedRegions;
+	}
+
+	@Override
+	public boolean isUpdatable() {
+		return true;
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (channel != null) {
+			try {
+				channel.close();
+			} finally {
+				channel = null;
+			}
+		}
+	}
+
+	/**
+	 * Opens the channel of the log file for reading and writing.
+	 *
+	 * @param options additional options
+	 * @return the channel
+	 * @throws IOException if the file cannot be opened
+	 */
+	private FileChannel openChannel(final StandardOpenOption... options) throws IOException {
+		final Set<StandardOpenOption> all = EnumSet.of(StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		all.addAll(Arrays.asList(options));
+		return FileChannel.open(logFile.toPath(), all);
+	}
+
+	/**
+	 * Writes the content of the buffer at the current tail position, followed by the closing tag.
+	 *
+	 * @throws IOException if the file cannot be written
+	 */
+	private void writeBufferAndTail() throws IOException {
+		bufferWriter.flush();
+		final int length = buffer.size();
+		buffer.writeBytes(tail);
+		final ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+		long position = tailPosition;
+		while (bytes.hasRemaining()) {
+			position += channel.write(bytes, position);
+		}
+		tailPosition += length;
+	}
+}
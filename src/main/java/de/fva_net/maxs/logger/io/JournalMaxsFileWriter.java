@@ -0,0 +1,236 @@
+package de.fva_net.maxs.logger.io;
+
+import de.fva_net.maxs.logger.xml.KernelNotifications;
+import de.fva_net.maxs.logger.xml.Notification;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.zip.CRC32;
+
+/**
+ * Writer that appends each notification to a memory-mapped journal and writes the log file when it is closed.
+ * <p>
+ * The journal is pre-allocated in segments, so an append only copies the record into the mapped memory, without a
+ * system call and without rewriting anything. The records are in the page cache of the operating system as soon as they
+ * are written, so they survive a crash or kill of the process. They are forced to the disk on {@link #flush()}, which
+ * also protects them against a power loss.
+ * <p>
+ * When the writer is closed, the log file is written from the journal and the journal is deleted. If the process dies
+ * before, the journal is left behind and {@link MaxsJournal#recover(File, File)} rebuilds the log file from it. A journal
+ * that already exists when the writer is opened is kept as {@code .crashed} file.
+ */
+@Slf4j
+public class JournalMaxsFileWriter implements MaxsFileWriter {
+
+	/**
+	 * The default size of the segments, by which the journal grows.
+	 */
+	public static final int DEFAULT_SEGMENT_SIZE = 8 * 1024 * 1024;
+
+	/**
+	 * The smallest size of the segments.
+	 */
+	private static final int MIN_SEGMENT_SIZE = 4 * 1024;
+
+	/**
+	 * The log file, which is written when the writer is closed.
+	 */
+	private final File logFile;
+
+	/**
+	 * The journal.
+	 */
+	private final File journalFile;
+
+	/**
+	 * The size of the segments, by which the journal grows.
+	 */
+	private final int segmentSize;
+
+	/**
+	 * The encoder of the records.
+	 */
+	private final BinaryRecordEncoder encoder = new BinaryRecordEncoder();
+
+	/**
+	 * The target of the encoded records, which frames them with length and checksum.
+	 */
+	private final BinaryRecordEncoder.RecordSink sink = this::writeFrame;
+
+	/**
+	 * The checksum of the records.
+	 */
+	private final CRC32 crc = new CRC32();
+
+	/**
+	 * The channel of the journal, or null if the writer is not open.
+	 */
+	private FileChannel channel;
+
+	/**
+	 * The mapped segment of the journal that is currently written.
+	 */
+	private MappedByteBuffer segment;
+
+	/**
+	 * The position of the current segment in the journal.
+	 */
+	private long segmentStart;
+
+	/**
+	 * Creates a new writer with the journal next to the log file and the default segment size.
+	 *
+	 * @param logFile the log file
+	 */
+	public JournalMaxsFileWriter(final File logFile) {
+		this(logFile, MaxsJournal.journalFileOf(logFile), DEFAULT_SEGMENT_SIZE);
+	}
+
+	/**
+	 * Creates a new writer.
+	 *
+	 * @param logFile     the log file, which is written as .maxs, .maxs.gz or .maxsb file depending on its extension
+	 * @param journalFile the journal
+	 * @param segmentSize the size of the segments, by which the journal grows
+	 */
+	public JournalMaxsFileWriter(final File logFile, final File journalFile, final int segmentSize) {
+		if (segmentSize < MIN_SEGMENT_SIZE) {
+			throw new IllegalArgumentException("The segment size must be at least " + MIN_SEGMENT_SIZE + " bytes: " + segmentSize);
+		}
+		this.logFile = logFile;
+		this.journalFile = journalFile;
+		this.segmentSize = segmentSize;
+	}
+
+	@Override
+	public synchronized void open(final KernelNotifications kernelNotifications) throws IOException {
+		if (channel == null) {
+			keepCrashedJournal();
+			channel = FileChannel.open(journalFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		}
+		// rewrite the journal from the start, the end marker hides the previous records
+		encoder.reset();
+		mapSegment(0, segmentSize);
+		segment.put(MaxsJournal.MAGIC);
+		segment.put((byte) MaxsJournal.VERSION);
+		segment.putInt(segment.position(), 0);
+		encoder.writeHeader(kernelNotifications, sink);
+		for (final Notification notification : kernelNotifications.getNotifications()) {
+			encoder.writeNotification(notification, sink);
+		}
+	}
+
+	@Override
+	public synchronized void append(final Notification notification) throws IOException {
+		checkOpen();
+		encoder.writeNotification(notification, sink);
+	}
+
+	@Override
+	public synchronized void appendAll(final Collection<Notification> notifications) throws IOException {
+		checkOpen();
+		for (final Notification notification : notifications) {
+			encoder.writeNotification(notification, sink);
+		}
+	}
+
+	@Override
+	public synchronized void flush() throws IOException {
+		if (segment != null) {
+			segment.force();
+		}
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (channel == null) {
+			return;
+		}
+		try {
+			segment.force();
+			channel.close();
+		} finally {
+			channel = null;
+			segment = null;
+		}
+		MaxsJournal.recover(journalFile, logFile);
+		try {
+			Files.deleteIfExists(journalFile.toPath());
+		} catch (final IOException e) {
+			// the mapping may still block the deletion on some platforms until it is garbage-collected
+			log.warn("The journal {} cannot be deleted: {}", journalFile, e.getMessage());
+		}
+	}
+
+	/**
+	 * Returns the number of bytes of the journal that are in use.
+	 *
+	 * @return the number of bytes
+	 */
+	synchronized long usedBytes() {
+		return segment != null ? segmentStart + segment.position() : 0;
+	}
+
+	/**
+	 * Writes a record framed by its length and checksum, followed by the end marker.
+	 *
+	 * @param bytes  the buffer of the record
+	 * @param length the length of the record
+	 * @throws IOException if the journal cannot be extended
+	 */
+	private void writeFrame(final byte[] bytes, final int length) throws IOException {
+		final int frameSize = MaxsJournal.FRAME_HEADER_SIZE + length + MaxsJournal.END_MARKER_SIZE;
+		if (segment.remaining() < frameSize) {
+			mapSegment(segmentStart + segment.position(), Math.max(segmentSize, frameSize));
+		}
+		crc.reset();
+		crc.update(bytes, 0, length);
+		segment.putInt(length);
+		segment.putInt((int) crc.getValue());
+		segment.put(bytes, 0, length);
+		segment.putInt(segment.position(), 0);
+	}
+
+	/**
+	 * Maps a new segment of the journal, which grows the file if necessary.
+	 *
+	 * @param start the position of the segment in the journal
+	 * @param size  the size of the segment
+	 * @throws IOException if the journal cannot be mapped
+	 */
+	private void mapSegment(final long start, final int size) throws IOException {
+		segment = channel.map(FileChannel.MapMode.READ_WRITE, start, size);
+		segmentStart = start;
+	}
+
+	/**
+	 * Keeps a journal left behind by a previous process, so it is not overwritten.
+	 *
+	 * @throws IOException if the journal cannot be moved
+	 */
+	private void keepCrashedJournal() throws IOException {
+		if (journalFile.exists()) {
+			final File crashed = new File(journalFile.getPath() + ".crashed");
+			Files.move(journalFile.toPath(), crashed.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			log.warn("The journal of a previous run has been moved to {}, it can be recovered with MaxsJournal.recover", crashed);
+		}
+	}
+
+	/**
+	 * Checks that the writer is open.
+	 *
+	 * @throws IOException if the writer is not open
+	 */
+	private void checkOpen() throws IOException {
+		if (channel == null) {
+			throw new IOException("The journal for " + logFile + " is not open");
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package de.fva_net.maxs.logger.io;
+
+import de.fva_net.maxs.logger.xml.KernelNotifications;
+import de.fva_net.maxs.logger.xml.Notification;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * Writes kernel notifications to a MAXS log file.
+ * <p>
+ * A writer is opened once with the current state of the notifications and then receives every new notification via
+ * {@link #append(Notification)}. After each call, the file on disk must be a well-formed MAXS document.
+ */
+public interface MaxsFileWriter extends Closeable {
+
+	/**
+	 * Opens the writer and writes all notifications that are already contained in the given collection.
+	 *
+	 * @param kernelNotifications the notifications and application information to write
+	 * @throws IOException if the file cannot be written
+	 */
+	void open(KernelNotifications kernelNotifications) throws IOException;
+
+	/**
+	 * Writes a new notification to the file.
+	 *
+	 * @param notification the notification to write
+	 * @throws IOException if the file cannot be written
+	 */
+	void append(Notification notification) throws IOException;
+
+	/**
+	 * Writes several new notifications to the file. Writers may override this method to write them at once.
+	 *
+	 * @param notifications the notifications to write, in their logging order
+	 * @throws IOException if the file cannot be written
+	 */
+	default void appendAll(final Collection<Notification> notifications) throws IOException {
+		for (final Notification notification : notifications) {
+			append(notification);
+		}
+	}
+
+	/**
+	 * Writes a new notification that may be changed after it has been written, e.g. the first occurrence of an
+	 * aggregated notification. Writers that can {@link #update(KernelNotifications) update} the file remember where it
+	 * has been written.
+	 *
+	 * @param notification the notification to write
+	 * @throws IOException if the file cannot be written
+	 */
+	default void appendMutable(final Notification notification) throws IOException {
+		append(notification);
+	}
+
+	/**
+	 * Writes the file again with new application information and the current state of the notifications written with
+	 * {@link #appendMutable(Notification)}. Unlike {@link #open(KernelNotifications)}, all other notifications are
+	 * taken from the file, so they do not have to be retained in memory.
+	 *
+	 * @param header the application information, its notifications are ignored
+	 * @throws IOException if the file cannot be written or if the writer cannot update a written file
+	 */
+	default void update(final KernelNotifications header) throws IOException {
+		throw new IOException(getClass().getSimpleName() + " cannot update a written file");
+	}
+
+	/**
+	 * Returns whether the writer can {@link #update(KernelNotifications) update} a written file.
+	 *
+	 * @return true if the writer can update a written file
+	 */
+	default boolean isUpdatable() {
+		return false;
+	}
+
+	/**
+	 * Returns the number of bytes written to the file since it has been opened, including the bytes that are still
+	 * buffered by the writer. Writers count the bytes themselves, so the size of the file is not queried.
+	 *
+	 * @return the number of bytes, or -1 if the writer does not count them
+	 */
+	default long getWrittenBytes() {
+		return -1;
+	}
+
+	/**
+	 * Returns the number of notifications that the writer has dropped instead of writing them, e.g. because its queue
+	 * was full.
+	 *
+	 * @return the number of dropped notifications
+	 */
+	default long getDroppedCount() {
+		return 0;
+	}
+
+	/**
+	 * Writes all notifications that are buffered by the writer to the file.
+	 *
+	 * @throws IOException if the file cannot be written
+	 */
+	default void flush() throws IOException {
+		// nothing is buffered by default
+	}
+}
@@ -0,0 +1,297 @@
+package de.fva_net.maxs.logger.io;
+
+import de.fva_net.maxs.logger.store.NotificationQuery;
+import de.fva_net.maxs.logger.xml.JaxbMaxsSerializer;
+import de.fva_net.maxs.logger.xml.KernelNotifications;
+import de.fva_net.maxs.logger.xml.MaxsSerializer;
+import de.fva_net.maxs.logger.xml.StreamingMaxsSerializer;
+import jakarta.xml.bind.JAXBException;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Utility methods for .maxs, compressed .maxs.gz and binary .maxsb files.
+ * <p>
+ * Readers open files with {@link #newInputStream(File)}, which detects the compression by the content of the file, so
+ * compressed and uncompressed files are read the same way.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class MaxsFiles {
+
+	/**
+	 * The extension of uncompressed files.
+	 */
+	public static final String EXTENSION = ".maxs";
+
+	/**
+	 * The extension of compressed files.
+	 */
+	public static final String COMPRESSED_EXTENSION = ".maxs.gz";
+
+	/**
+	 * The extension of binary files.
+	 */
+	public static final String BINARY_EXTENSION = ".maxsb";
+
+	/**
+	 * The first byte of the gzip header.
+	 */
+	private static final int GZIP_MAGIC_1 = 0x1f;
+
+	/**
+	 * The second byte of the gzip header.
+	 */
+	private static final int GZIP_MAGIC_2 = 0x8b;
+
+	/**
+	 * The size of the buffers.
+	 */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * Checks whether the file has the extension of a .maxs, .maxs.gz or .maxsb file (case-insensitive).
+	 *
+	 * @param file the file
+	 * @return true if the file has a supported extension
+	 */
+	public static boolean hasMaxsExtension(final File file) {
+		final String name = file.getName().toLowerCase(Locale.ROOT);
+		return name.endsWith(EXTENSION) || name.endsWith(COMPRESSED_EXTENSION) || name.endsWith(BINARY_EXTENSION);
+	}
+
+	/**
+	 * Checks whether the file has the extension of a compressed .maxs.gz file (case-insensitive).
+	 *
+	 * @param file the file
+	 * @return true if the file is written compressed
+	 */
+	public static boolean isCompressed(final File file) {
+		return file.getName().toLowerCase(Locale.ROOT).endsWith(COMPRESSED_EXTENSION);
+	}
+
+	/**
+	 * Checks whether the file has the extension of a binary .maxsb file (case-insensitive).
+	 *
+	 * @param file the file
+	 * @return true if the file is written in the binary format
+	 */
+	public static boolean isBinary(final File file) {
+		return file.getName().toLowerCase(Locale.ROOT).endsWith(BINARY_EXTENSION);
+	}
+
+	/**
+	 * Returns the extension of the file as it is written in its name, or an empty string if the file has no supported
+	 * extension.
+	 *
+	 * @param file the file
+	 * @return the extension
+	 */
+	static String extensionOf(final File file) {
+		final String name = file.getName();
+		final String lowerCase = name.toLowerCase(Locale.ROOT);
+		for (final String extension : new String[] { COMPRESSED_EXTENSION, BINARY_EXTENSION, EXTENSION }) {
+			if (lowerCase.endsWith(extension)) {
+				return name.substring(name.length() - extension.length());
+			}
+		}
+		return "";
+	}
+
+	/**
+	 * Returns the name of the file without its .maxs, .maxs.gz or .maxsb extension.
+	 *
+	 * @param file the file
+	 * @return the name without extension
+	 */
+	static String baseName(final File file) {
+		final String name = file.getName();
+		return name.substring(0, name.length() - extensionOf(file).length());
+	}
+
+	/**
+	 * Opens a buffered stream to read the file. Compressed files are detected by the gzip header and decompressed.
+	 *
+	 * @param file the .maxs or .maxs.gz file
+	 * @return the stream of the uncompressed content
+	 * @throws IOException if the file cannot be opened
+	 */
+	public static InputStream newInputStream(final File file) throws IOException {
+		final BufferedInputStream input = new BufferedInputStream(Files.newInputStream(file.toPath()), BUFFER_SIZE);
+		try {
+			input.mark(2);
+			final boolean compressed = input.read() == GZIP_MAGIC_1 && input.read() == GZIP_MAGIC_2;
+			input.reset();
+			return compressed ? new BufferedInputStream(new GZIPInputStream(input, BUFFER_SIZE), BUFFER_SIZE) : input;
+		} catch (final IOException e) {
+			input.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Opens a stream to write a compressed file. Flushing the stream completes the pending compressed data, so a reader
+	 * can decompress all data written so far.
+	 *
+	 * @param file  the .maxs.gz file
+	 * @param level the compression level from 0 to 9, or -1 for the default level
+	 * @return the stream compressing the content
+	 * @throws IOException if the file cannot be created
+	 */
+	public static OutputStream newCompressedOutputStream(final File file, final int level) throws IOException {
+		checkCompressionLevel(level);
+		return newCompressedOutputStream(Files.newOutputStream(file.toPath()), level);
+	}
+
+	/**
+	 * Opens a stream that compresses its content into another stream. Flushing the stream completes the pending
+	 * compressed data.
+	 *
+	 * @param target the stream of the .maxs.gz file
+	 * @param level  the compression level, which must have been {@link #checkCompressionLevel(int) checked}
+	 * @return the stream compressing the content
+	 * @throws IOException if the header cannot be written
+	 */
+	static OutputStream newCompressedOutputStream(final OutputStream target, final int level) throws IOException {
+		final OutputStream output = new BufferedOutputStream(target, BUFFER_SIZE);
+		return new GZIPOutputStream(output, BUFFER_SIZE, true) {
+			{
+				def.setLevel(level);
+			}
+		};
+	}
+
+	/**
+	 * Checks that a compression level is valid.
+	 *
+	 * @param level the compression level
+	 */
+	static void checkCompressionLevel(final int level) {
+		if (level < -1 || level > 9) {
+			throw new IllegalArgumentException("The compression level must be between -1 and 9: " + level);
+		}
+	}
+
+	/**
+	 * Opens a buffered stream to write an XML file, which is compressed if the file has the extension .maxs.gz.
+	 *
+	 * @param file the .maxs or .maxs.gz file
+	 * @return the stream
+	 * @throws IOException if the file cannot be created
+	 */
+	public static OutputStream newOutputStream(final File file) throws IOException {
+		if (isCompressed(file)) {
+			return newCompressedOutputStream(file, Deflater.DEFAULT_COMPRESSION);
+		}
+		return new BufferedOutputStream(Files.newOutputStream(file.toPath()), BUFFER_SIZE);
+	}
+
+	/**
+	 * Converts a binary .maxsb file into a standard .maxs or .maxs.gz file, one notification at a time.
+	 *
+	 * @param binaryFile the .maxsb file
+	 * @param target     the .maxs or .maxs.gz file
+	 * @return the number of converted notifications
+	 * @throws IOException if a file cannot be read or written
+	 */
+	public static long convertToXml(final File binaryFile, final File target) throws IOException {
+		try (BinaryMaxsReader reader = BinaryMaxsReader.open(binaryFile);
+			 Writer writer = new OutputStreamWriter(newOutputStream(target), StandardCharsets.UTF_8)) {
+			final KernelNotifications header = new KernelNotifications();
+			header.setAppId(reader.getAppId());
+			header.setAppVersion(reader.getAppVersion());
+			final MaxsSerializer serializer = StreamingMaxsSerializer.FORMATTED;
+			serializer.writeStart(header, writer);
+			long count = 0;
+			while (reader.hasNext()) {
+				serializer.writeNotification(reader.next(), writer);
+				count++;
+			}
+			serializer.writeEnd(writer);
+			return count;
+		} catch (final UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Converts a .maxs or .maxs.gz file into a binary .maxsb file, one notification at a time.
+	 *
+	 * @param xmlFile the .maxs or .maxs.gz file
+	 * @param target  the .maxsb file
+	 * @return the number of converted notifications
+	 * @throws IOException if a file cannot be read or written
+	 */
+	public static long convertToBinary(final File xmlFile, final File target) throws IOException {
+		try (MaxsReader reader = MaxsReader.open(xmlFile);
+			 BinaryMaxsFileWriter writer = new BinaryMaxsFileWriter(target)) {
+			final KernelNotifications header = new KernelNotifications();
+			header.setAppId(reader.getAppId());
+			header.setAppVersion(reader.getAppVersion());
+			writer.open(header);
+			long count = 0;
+			while (reader.hasNext()) {
+				writer.write(reader.next());
+				count++;
+			}
+			return count;
+		} catch (final UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Reads a complete .maxs, .maxs.gz or .maxsb file into memory. Binary files are detected by their content.
+	 *
+	 * @param file the file
+	 * @return the content of the file
+	 * @throws IOException if the file cannot be read or is no valid .maxs file
+	 */
+	public static KernelNotifications read(final File file) throws IOException {
+		try (InputStream input = newInputStream(file)) {
+			if (BinaryMaxsFormat.hasMagic(input)) {
+				return readBinary(file, input);
+			}
+			return (KernelNotifications) JaxbMaxsSerializer.getContext().createUnmarshaller().unmarshal(input);
+		} catch (final JAXBException e) {
+			throw new IOException("Cannot read the MAXS file " + file + ": " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Reads the notifications of a binary file into memory.
+	 *
+	 * @param file  the file, for error messages
+	 * @param input the stream of the file
+	 * @return the content of the file
+	 * @throws IOException if the file is no valid .maxsb file
+	 */
+	private static KernelNotifications readBinary(final File file, final InputStream input) throws IOException {
+		final BinaryMaxsReader reader = new BinaryMaxsReader(file, input, new NotificationQuery(Collections.emptySet(), null, null));
+		final KernelNotifications kernelNotifications = new KernelNotifications();
+		kernelNotifications.setAppId(reader.getAppId());
+		kernelNotifications.setAppVersion(reader.getAppVersion());
+		try {
+			reader.forEachRemaining(kernelNotifications.getNotifications()::add);
+		} catch (final UncheckedIOException e) {
+			throw e.getCause();
+		}
+		return kernelNotifications;
+	}
+}
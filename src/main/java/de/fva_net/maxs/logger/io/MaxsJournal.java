@@ -0,0 +1,150 @@
+package de.fva_net.maxs.logger.io;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Recovery of the journals written by {@link JournalMaxsFileWriter}.
+ * <p>
+ * A journal starts with the {@link #MAGIC} bytes and the {@link #VERSION}, followed by frames of the records of the
+ * binary format. Each frame consists of the length of the record as int, the CRC32 of the record as int and the record.
+ * A length of 0 marks the end of the journal, so the pre-allocated rest of the file is ignored. A frame that has only
+ * partially been written when the process was killed fails the checksum and ends the recovery as well.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class MaxsJournal {
+
+	/**
+	 * The extension that is appended to the name of the log file to get the name of its journal.
+	 */
+	public static final String EXTENSION = ".journal";
+
+	/**
+	 * The first bytes of a journal.
+	 */
+	static final byte[] MAGIC = { 'M', 'A', 'X', 'S', 'J' };
+
+	/**
+	 * The version of the journal format.
+	 */
+	static final int VERSION = 1;
+
+	/**
+	 * The size of the length and the checksum in front of each record.
+	 */
+	static final int FRAME_HEADER_SIZE = 8;
+
+	/**
+	 * The size of the end marker.
+	 */
+	static final int END_MARKER_SIZE = 4;
+
+	/**
+	 * Returns the journal of a log file, which is written next to the log file.
+	 *
+	 * @param logFile the log file
+	 * @return the journal
+	 */
+	public static File journalFileOf(final File logFile) {
+		return new File(logFile.getPath() + EXTENSION);
+	}
+
+	/**
+	 * Rebuilds a log file from a journal, e.g. one left behind by a crashed process. All complete notifications of the
+	 * journal are recovered. The target is written as .maxs, .maxs.gz or .maxsb file depending on its extension.
+	 *
+	 * @param journal the journal
+	 * @param target  the log file to write
+	 * @return the number of recovered notifications
+	 * @throws IOException if the journal cannot be read or has no valid header, or if the target cannot be written
+	 */
+	public static long recover(final File journal, final File target) throws IOException {
+		final boolean binaryTarget = MaxsFiles.isBinary(target);
+		final File absoluteTarget = target.getAbsoluteFile();
+		final File binary = binaryTarget ? target
+				: Files.createTempFile(absoluteTarget.getParentFile().toPath(), absoluteTarget.getName() + ".recovery", MaxsFiles.BINARY_EXTENSION).toFile();
+		try {
+			final long count = copyRecords(journal, binary);
+			if (!binaryTarget) {
+				MaxsFiles.convertToXml(binary, target);
+			}
+			return count;
+		} finally {
+			if (!binaryTarget) {
+				Files.deleteIfExists(binary.toPath());
+			}
+		}
+	}
+
+	/**
+	 * Copies the valid records of a journal into a binary file.
+	 *
+	 * @param journal the journal
+	 * @param binary  the binary file
+	 * @return the number of copied notifications
+	 * @throws IOException if the journal cannot be read or has no valid header, or if the binary file cannot be written
+	 */
+	private static long copyRecords(final File journal, final File binary) throws IOException {
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(journal.toPath()), 64 * 1024));
+			 OutputStream output = new BufferedOutputStream(Files.newOutputStream(binary.toPath()), 64 * 1024)) {
+			final byte[] magic = input.readNBytes(MAGIC.length);
+			if (!Arrays.equals(magic, MAGIC) || input.read() != VERSION) {
+				throw new IOException("The file " + journal + " is no MAXS journal of version " + VERSION);
+			}
+			output.write(BinaryMaxsFormat.MAGIC);
+			output.write(BinaryMaxsFormat.VERSION);
+
+			final BinaryMaxsFormat.Encoder prefix = new BinaryMaxsFormat.Encoder();
+			final CRC32 crc = new CRC32();
+			byte[] record = new byte[256];
+			final long journalLength = journal.length();
+			boolean hasHeader = false;
+			long count = 0;
+			while (true) {
+				final int length;
+				final int checksum;
+				try {
+					length = input.readInt();
+					if (length <= 0 || length > journalLength) {
+						break;
+					}
+					checksum = input.readInt();
+					if (record.length < length) {
+						record = new byte[Math.max(record.length * 2, length)];
+					}
+					input.readFully(record, 0, length);
+				} catch (final EOFException e) {
+					// the process has been killed while the journal was growing
+					break;
+				}
+				crc.reset();
+				crc.update(record, 0, length);
+				if ((int) crc.getValue() != checksum) {
+					// the process has been killed while writing this record
+					break;
+				}
+				hasHeader |= record[0] == BinaryMaxsFormat.HEADER;
+				count += record[0] == BinaryMaxsFormat.NOTIFICATION ? 1 : 0;
+				prefix.reset();
+				prefix.writeVarint(length);
+				output.write(prefix.bytes(), 0, prefix.size());
+				output.write(record, 0, length);
+			}
+			if (!hasHeader) {
+				throw new IOException("The journal " + journal + " has no header");
+			}
+			return count;
+		}
+	}
+}
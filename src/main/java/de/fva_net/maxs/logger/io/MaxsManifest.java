@@ -0,0 +1,146 @@
+package de.fva_net.maxs.logger.io;
+
+import lombok.Getter;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The list of the segment files written by a {@link RollingMaxsFileWriter}.
+ * <p>
+ * The manifest is a UTF-8 text file next to the segments. After a header line starting with {@code #}, each line
+ * contains the file name, the partition and the number of notifications of one segment, separated by tabs, in the order
+ * in which the segments have been started. The partition is empty if the notifications are not partitioned. The counts
+ * of the segments that are still written are updated when a segment is started and when the writer is closed.
+ */
+@Getter
+public final class MaxsManifest {
+
+	/**
+	 * The extension that is appended to the name of the log file to get the name of its manifest.
+	 */
+	public static final String EXTENSION = ".manifest";
+
+	/**
+	 * The header line of the manifest.
+	 */
+	private static final String HEADER = "# MAXS manifest 1: file, partition, notifications";
+
+	/**
+	 * The directory of the segment files.
+	 */
+	private final File directory;
+
+	/**
+	 * The segments in the order in which they have been started.
+	 */
+	private final List<Segment> segments;
+
+	/**
+	 * An entry of the manifest.
+	 *
+	 * @param fileName      the name of the segment file in the directory of the manifest
+	 * @param partition     the partition of the segment, or null if the notifications are not partitioned
+	 * @param notifications the number of notifications in the segment
+	 */
+	public record Segment(String fileName, String partition, long notifications) {
+	}
+
+	/**
+	 * Creates a new manifest.
+	 *
+	 * @param directory the directory of the segment files
+	 * @param segments  the segments
+	 */
+	public MaxsManifest(final File directory, final List<Segment> segments) {
+		this.directory = directory;
+		this.segments = Collections.unmodifiableList(new ArrayList<>(segments));
+	}
+
+	/**
+	 * Returns the manifest of a log file, which is written next to the log file.
+	 *
+	 * @param logFile the log file
+	 * @return the manifest file
+	 */
+	public static File manifestFileOf(final File logFile) {
+		return new File(logFile.getPath() + EXTENSION);
+	}
+
+	/**
+	 * Reads a manifest.
+	 *
+	 * @param manifestFile the manifest file
+	 * @return the manifest
+	 * @throws IOException if the file cannot be read or is no valid manifest
+	 */
+	public static MaxsManifest read(final File manifestFile) throws IOException {
+		final List<Segment> segments = new ArrayList<>();
+		for (final String line : Files.readAllLines(manifestFile.toPath(), StandardCharsets.UTF_8)) {
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			final String[] fields = line.split("\t", -1);
+			if (fields.length != 3) {
+				throw new IOException("Invalid line in the manifest " + manifestFile + ": " + line);
+			}
+			try {
+				segments.add(new Segment(fields[0], fields[1].isEmpty() ? null : fields[1], Long.parseLong(fields[2])));
+			} catch (final NumberFormatException e) {
+				throw new IOException("Invalid line in the manifest " + manifestFile + ": " + line, e);
+			}
+		}
+		return new MaxsManifest(manifestFile.getAbsoluteFile().getParentFile(), segments);
+	}
+
+	/**
+	 * Returns the segment files, e.g. to read them with {@link MaxsReader} or to merge them with {@link MaxsMerger}.
+	 *
+	 * @return the segment files in the order in which they have been started
+	 */
+	public List<File> getFiles() {
+		final List<File> files = new ArrayList<>(segments.size());
+		for (final Segment segment : segments) {
+			files.add(new File(directory, segment.fileName()));
+		}
+		return files;
+	}
+
+	/**
+	 * Writes the manifest. The file is replaced atomically where the file system supports it, so readers never see a
+	 * partially written manifest.
+	 *
+	 * @param manifestFile the manifest file
+	 * @throws IOException if the file cannot be written
+	 */
+	void write(final File manifestFile) throws IOException {
+		final Path target = manifestFile.toPath();
+		final Path temp = target.resolveSibling(manifestFile.getName() + ".tmp");
+		try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+			writer.write(HEADER);
+			writer.newLine();
+			for (final Segment segment : segments) {
+				writer.write(segment.fileName());
+				writer.write('\t');
+				writer.write(segment.partition() != null ? segment.partition() : "");
+				writer.write('\t');
+				writer.write(Long.toString(segment.notifications()));
+				writer.newLine();
+			}
+		}
+		try {
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (final AtomicMoveNotSupportedException e) {
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+}
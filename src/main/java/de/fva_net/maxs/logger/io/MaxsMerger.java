@@ -0,0 +1,397 @@
+package de.fva_net.maxs.logger.io;
+
+import de.fva_net.maxs.logger.MaxsMessageType;
+import de.fva_net.maxs.logger.xml.Item;
+import de.fva_net.maxs.logger.xml.KernelNotifications;
+import de.fva_net.maxs.logger.xml.MaxsSerializer;
+import de.fva_net.maxs.logger.xml.Notification;
+import de.fva_net.maxs.logger.xml.StreamingMaxsSerializer;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Merges the .maxs files of parallel runs into one file, reading and writing one notification at a time.
+ * <p>
+ * All input files are open at the same time and only the current notification of each input is held in memory, so the
+ * memory use depends on the number of inputs and not on their size. Without an {@code order} the
+ * notifications are written input by input. With an order each input must already be sorted by it, and the inputs are
+ * merged like in a merge sort.
+ * <p>
+ * The application ID of the inputs must be equal, unless it is set explicitly. Different application versions are
+ * joined in the order of the inputs.
+ */
+@Getter
+@Builder
+public class MaxsMerger {
+
+	/**
+	 * The attribute ID of the item holding the index of the input file of a tagged notification.
+	 */
+	public static final String SOURCE_ATTRIBUTE = "merge_source";
+
+	/**
+	 * The application ID of the merged file, or null to take the common application ID of the inputs.
+	 */
+	private final String appId;
+
+	/**
+	 * The application version of the merged file, or null to join the application versions of the inputs.
+	 */
+	private final String appVersion;
+
+	/**
+	 * Indicates whether each notification is tagged with the index of its input file in the list of inputs, which is
+	 * added as item {@value #SOURCE_ATTRIBUTE}, so the merged file stays valid. Notifications that have already been
+	 * tagged by an earlier merge keep their tag.
+	 */
+	@Builder.Default
+	private final boolean tagSources = false;
+
+	/**
+	 * The number of distinct recent notifications that are remembered to drop duplicates, or 0 to keep all
+	 * notifications. Duplicates further apart than this window are kept, so the memory use stays bounded.
+	 */
+	@Builder.Default
+	private final int deduplicationWindow = 0;
+
+	/**
+	 * The order of the merged notifications, or null to write the inputs one after another.
+	 */
+	private final Comparator<Notification> order;
+
+	/**
+	 * The serializer of the merged file.
+	 */
+	@Builder.Default
+	private final MaxsSerializer serializer = StreamingMaxsSerializer.FORMATTED;
+
+	/**
+	 * Merges the input files into the target file. A target with the extension .maxs.gz is written compressed.
+	 *
+	 * @param inputs the .maxs or .maxs.gz files to merge
+	 * @param target the merged file, which must not be one of the inputs
+	 * @return the number of written notifications
+	 * @throws IOException if a file cannot be read or written, or if the application IDs of the inputs differ
+	 */
+	public long merge(final List<File> inputs, final File target) throws IOException {
+		for (final File input : inputs) {
+			if (input.getCanonicalFile().equals(target.getCanonicalFile())) {
+				throw new IllegalArgumentException("The target " + target + " must not be one of the inputs");
+			}
+		}
+		final List<Input> opened = new ArrayList<>(inputs.size());
+		try {
+			for (final File input : inputs) {
+				opened.add(new Input(opened.size(), MaxsReader.open(input)));
+			}
+			final KernelNotifications header = new KernelNotifications();
+			header.setAppId(reconcileAppId(opened));
+			header.setAppVersion(reconcileAppVersion(opened));
+			try (Writer writer = new BufferedWriter(new OutputStreamWriter(MaxsFiles.newOutputStream(target), StandardCharsets.UTF_8))) {
+				serializer.writeStart(header, writer);
+				final long count = order != null ? writeOrdered(opened, writer) : writeConcatenated(opened, writer);
+				serializer.writeEnd(writer);
+				return count;
+			} catch (final UncheckedIOException e) {
+				throw e.getCause();
+			}
+		} finally {
+			closeAll(opened);
+		}
+	}
+
+	/**
+	 * Writes the notifications of the inputs one after another.
+	 *
+	 * @param inputs the opened inputs
+	 * @param writer the target
+	 * @return the number of written notifications
+	 * @throws IOException if the target cannot be written
+	 */
+	private long writeConcatenated(final List<Input> inputs, final Writer writer) throws IOException {
+		final Deduplicator deduplicator = new Deduplicator(deduplicationWindow);
+		long count = 0;
+		for (final Input input : inputs) {
+			while (input.reader.hasNext()) {
+				count += write(input.reader.next(), input, deduplicator, writer);
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Writes the notifications of the sorted inputs in the order, keeping the order of the inputs for equal
+	 * notifications.
+	 *
+	 * @param inputs the opened inputs
+	 * @param writer the target
+	 * @return the number of written notifications
+	 * @throws IOException if the target cannot be written
+	 */
+	private long writeOrdered(final List<Input> inputs, final Writer writer) throws IOException {
+		final Comparator<Input> byHead = Comparator.<Input, Notification>comparing(input -> input.head, order).thenComparingInt(input -> input.index);
+		final PriorityQueue<Input> queue = new PriorityQueue<>(Math.max(1, inputs.size()), byHead);
+		for (final Input input : inputs) {
+			if (input.advance()) {
+				queue.add(input);
+			}
+		}
+		final Deduplicator deduplicator = new Deduplicator(deduplicationWindow);
+		long count = 0;
+		while (!queue.isEmpty()) {
+			final Input input = queue.poll();
+			count += write(input.head, input, deduplicator, writer);
+			if (input.advance()) {
+				queue.add(input);
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Tags and writes a notification, unless it is a duplicate.
+	 *
+	 * @param notification the notification
+	 * @param input        the input of the notification
+	 * @param deduplicator the recent notifications
+	 * @param writer       the target
+	 * @return 1 if the notification has been written, 0 if it has been dropped
+	 * @throws IOException if the target cannot be written
+	 */
+	private int write(final Notification notification, final Input input, final Deduplicator deduplicator, final Writer writer) throws IOException {
+		if (!deduplicator.add(notification)) {
+			return 0;
+		}
+		if (tagSources && !isTagged(notification)) {
+			final Item item = new Item();
+			item.setAttrId(SOURCE_ATTRIBUTE);
+			item.setCompId(notification.getCompId());
+			item.setValue(input.index);
+			notification.getData().add(item);
+		}
+		serializer.writeNotification(notification, writer);
+		return 1;
+	}
+
+	/**
+	 * Returns whether the notification has been tagged with its source.
+	 *
+	 * @param notification the notification
+	 * @return true if the notification has an item {@value #SOURCE_ATTRIBUTE}
+	 */
+	private static boolean isTagged(final Notification notification) {
+		if (notification.hasData()) {
+			for (final Item item : notification.getData()) {
+				if (SOURCE_ATTRIBUTE.equals(item.getAttrId())) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Determines the application ID of the merged file.
+	 *
+	 * @param inputs the opened inputs
+	 * @return the application ID
+	 * @throws IOException if the application IDs of the inputs differ
+	 */
+	private String reconcileAppId(final List<Input> inputs) throws IOException {
+		if (appId != null) {
+			return appId;
+		}
+		final Set<String> appIds = distinct(inputs, MaxsReader::getAppId);
+		if (appIds.size() > 1) {
+			throw new IOException("The files have different application IDs " + appIds + ", set the application ID of the merged file explicitly");
+		}
+		return appIds.isEmpty() ? null : appIds.iterator().next();
+	}
+
+	/**
+	 * Determines the application version of the merged file.
+	 *
+	 * @param inputs the opened inputs
+	 * @return the application version
+	 */
+	private String reconcileAppVersion(final List<Input> inputs) {
+		if (appVersion != null) {
+			return appVersion;
+		}
+		final Set<String> appVersions = distinct(inputs, MaxsReader::getAppVersion);
+		return appVersions.isEmpty() ? null : String.join(", ", appVersions);
+	}
+
+	/**
+	 * Collects the distinct values of an attribute of the root elements, in the order of the inputs.
+	 *
+	 * @param inputs    the opened inputs
+	 * @param attribute the attribute of the root element
+	 * @return the distinct values that are not null
+	 */
+	private static Set<String> distinct(final List<Input> inputs, final Function<MaxsReader, String> attribute) {
+		final Set<String> values = new LinkedHashSet<>();
+		for (final Input input : inputs) {
+			final String value = attribute.apply(input.reader);
+			if (value != null) {
+				values.add(value);
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Closes all readers, even if closing one of them fails.
+	 *
+	 * @param inputs the opened inputs
+	 * @throws IOException if a reader cannot be closed
+	 */
+	private static void closeAll(final List<Input> inputs) throws IOException {
+		IOException failure = null;
+		for (final Input input : inputs) {
+			try {
+				input.reader.close();
+			} catch (final IOException e) {
+				if (failure == null) {
+					failure = e;
+				} else {
+					failure.addSuppressed(e);
+				}
+			}
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * An opened input file with its current notification.
+	 */
+	private static final class Input {
+
+		/**
+		 * The index of the input, which keeps the order of the inputs for equal notifications and tags the notifications.
+		 */
+		private final int index;
+
+		/**
+		 * The reader of the file.
+		 */
+		private final MaxsReader reader;
+
+		/**
+		 * The current notification.
+		 */
+		private Notification head;
+
+		/**
+		 * Creates a new input.
+		 *
+		 * @param index  the index of the input
+		 * @param reader the reader of the file
+		 */
+		private Input(final int index, final MaxsReader reader) {
+			this.index = index;
+			this.reader = reader;
+		}
+
+		/**
+		 * Reads the next notification.
+		 *
+		 * @return false if the end of the file has been reached
+		 */
+		private boolean advance() {
+			head = reader.hasNext() ? reader.next() : null;
+			return head != null;
+		}
+	}
+
+	/**
+	 * Remembers a bounded number of recent distinct notifications to detect duplicates.
+	 */
+	private static final class Deduplicator {
+
+		/**
+		 * The recent notifications, in the order they have last been seen.
+		 */
+		private final Map<Key, Boolean> recent;
+
+		/**
+		 * Creates a new deduplicator.
+		 *
+		 * @param window the number of remembered notifications, or 0 to disable the deduplication
+		 */
+		private Deduplicator(final int window) {
+			if (window < 0) {
+				throw new IllegalArgumentException("The deduplication window must not be negative: " + window);
+			}
+			this.recent = window == 0 ? null : new LinkedHashMap<>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(final Map.Entry<Key, Boolean> eldest) {
+					return size() > window;
+				}
+			};
+		}
+
+		/**
+		 * Remembers the notification. The tag of an earlier merge is not compared, so equal notifications of different
+		 * inputs are duplicates.
+		 *
+		 * @param notification the notification
+		 * @return false if the notification is a duplicate of a recent notification
+		 */
+		private boolean add(final Notification notification) {
+			if (recent == null) {
+				return true;
+			}
+			final Key key = new Key(notification.getCompId(), notification.getRoutine(), notification.getType(), notification.getMessage(),
+					withoutTag(notification));
+			return recent.put(key, Boolean.TRUE) == null;
+		}
+	}
+
+	/**
+	 * Returns a copy of the items of a notification without the tag of its source. The key of a notification must not
+	 * share its list of items, which is tagged after the duplicate check.
+	 *
+	 * @param notification the notification
+	 * @return the items
+	 */
+	private static List<Item> withoutTag(final Notification notification) {
+		if (!isTagged(notification)) {
+			return notification.hasData() ? List.copyOf(notification.getData()) : List.of();
+		}
+		final List<Item> data = new ArrayList<>(notification.getData());
+		data.removeIf(item -> SOURCE_ATTRIBUTE.equals(item.getAttrId()));
+		return data;
+	}
+
+	/**
+	 * The fields of a notification that are compared to detect duplicates.
+	 *
+	 * @param compId  the component ID
+	 * @param routine the routine ID
+	 * @param type    the message type
+	 * @param message the message
+	 * @param data    the data items
+	 */
+	private record Key(Integer compId, String routine, MaxsMessageType type, String message, List<Item> data) {
+	}
+}
@@ -0,0 +1,24 @@
+package de.fva_net.maxs.logger.io;
+
+/**
+ * Defines what happens when the queue of an {@link AsyncMaxsFileWriter} or of an asynchronous
+ * {@link de.fva_net.maxs.logger.sink.MaxsSink} is full.
+ */
+public enum MaxsOverflowPolicy {
+	/**
+	 * The logging thread waits until the background writer has made room in the queue.
+	 */
+	BLOCK,
+
+	/**
+	 * Debug notifications are dropped, all other notifications wait until there is room in the queue.
+	 */
+	DROP_DEBUG,
+
+	/**
+	 * Notifications are kept in an overflow buffer in memory, so the logging thread never waits. The capacity of the
+	 * overflow buffer is bounded as well, once it is full, further notifications are dropped and counted until the
+	 * background writer has caught up.
+	 */
+	BUFFER
+}
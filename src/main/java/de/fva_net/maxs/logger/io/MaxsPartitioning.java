@@ -0,0 +1,21 @@
+package de.fva_net.maxs.logger.io;
+
+/**
+ * Defines how a {@link RollingMaxsFileWriter} distributes the notifications over separate segment files.
+ */
+public enum MaxsPartitioning {
+	/**
+	 * All notifications are written to the same sequence of segments.
+	 */
+	NONE,
+
+	/**
+	 * The notifications of each routine are written to their own sequence of segments.
+	 */
+	ROUTINE,
+
+	/**
+	 * The notifications of each message type are written to their own sequence of segments.
+	 */
+	TYPE
+}
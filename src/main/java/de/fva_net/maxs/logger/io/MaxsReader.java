@@ -0,0 +1,326 @@
+package de.fva_net.maxs.logger.io;
+
+import de.fva_net.maxs.logger.MaxsMessageType;
+import de.fva_net.maxs.logger.store.NotificationQuery;
+import de.fva_net.maxs.logger.xml.Item;
+import de.fva_net.maxs.logger.xml.Notification;
+import lombok.Getter;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads the notifications of a .maxs or .maxs.gz file one by one with StAX, in constant memory.
+ * <p>
+ * A filter given to {@link #open(File, NotificationQuery)} is evaluated on the attributes of each notification element
+ * before its content is read, so non-matching notifications are skipped without creating objects for them.
+ * <p>
+ * Errors while reading are thrown as {@link UncheckedIOException} by {@link #hasNext()} and {@link #next()}. Instances
+ * are not thread-safe and must be closed.
+ */
+public final class MaxsReader implements Iterator<Notification>, Closeable {
+
+	/**
+	 * The factory of the StAX readers, with DTDs and external entities disabled.
+	 */
+	private static final XMLInputFactory FACTORY = createFactory();
+
+	/**
+	 * The file being read, for error messages.
+	 */
+	private final File file;
+
+	/**
+	 * The stream of the uncompressed content.
+	 */
+	private final InputStream input;
+
+	/**
+	 * The StAX reader.
+	 */
+	private final XMLStreamReader reader;
+
+	/**
+	 * The filter of the notifications.
+	 */
+	private final NotificationQuery filter;
+
+	/**
+	 * The application ID of the root element.
+	 */
+	@Getter
+	private final String appId;
+
+	/**
+	 * The application version of the root element.
+	 */
+	@Getter
+	private final String appVersion;
+
+	/**
+	 * The next notification, or null if it has not been read yet.
+	 */
+	private Notification next;
+
+	/**
+	 * Whether the end of the notifications has been reached.
+	 */
+	private boolean finished;
+
+	/**
+	 * Creates a new reader positioned after the start of the root element.
+	 *
+	 * @param file   the file
+	 * @param input  the stream of the uncompressed content
+	 * @param filter the filter of the notifications
+	 * @throws XMLStreamException if the root element cannot be read
+	 */
+	private MaxsReader(final File file, final InputStream input, final NotificationQuery filter) throws XMLStreamException {
+		this.file = file;
+		this.input = input;
+		this.filter = filter;
+		this.reader = FACTORY.createXMLStreamReader(input);
+		reader.nextTag();
+		reader.require(XMLStreamConstants.START_ELEMENT, null, "kernelNotifications");
+		this.appId = reader.getAttributeValue(null, "appId");
+		this.appVersion = reader.getAttributeValue(null, "appVersion");
+	}
+
+	/**
+	 * Opens a reader of all notifications of the file.
+	 *
+	 * @param file the .maxs or .maxs.gz file
+	 * @return the reader
+	 * @throws IOException if the file cannot be opened or has no valid root element
+	 */
+	public static MaxsReader open(final File file) throws IOException {
+		return open(file, new NotificationQuery(Collections.emptySet(), null, null));
+	}
+
+	/**
+	 * Opens a reader of the notifications of the file that match the filter.
+	 *
+	 * @param file   the .maxs or .maxs.gz file
+	 * @param filter the filter of the notifications
+	 * @return the reader
+	 * @throws IOException if the file cannot be opened or has no valid root element
+	 */
+	public static MaxsReader open(final File file, final NotificationQuery filter) throws IOException {
+		final InputStream input = MaxsFiles.newInputStream(file);
+		try {
+			return new MaxsReader(file, input, filter);
+		} catch (final XMLStreamException e) {
+			input.close();
+			throw new IOException("Cannot read the MAXS file " + file + ": " + e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (next == null && !finished) {
+			try {
+				next = readNext();
+			} catch (final XMLStreamException | IllegalArgumentException e) {
+				finished = true;
+				throw new UncheckedIOException(new IOException("Cannot read the MAXS file " + file + ": " + e.getMessage(), e));
+			}
+			finished = next == null;
+		}
+		return next != null;
+	}
+
+	@Override
+	public Notification next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		final Notification notification = next;
+		next = null;
+		return notification;
+	}
+
+	/**
+	 * Returns a sequential stream of the remaining notifications. Closing the stream closes this reader.
+	 *
+	 * @return the stream of notifications
+	 */
+	public Stream<Notification> stream() {
+		final Spliterator<Notification> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+		return StreamSupport.stream(spliterator, false).onClose(() -> {
+			try {
+				close();
+			} catch (final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+
+	@Override
+	public void close() throws IOException {
+		finished = true;
+		next = null;
+		try {
+			reader.close();
+		} catch (final XMLStreamException e) {
+			throw new IOException("Cannot close the MAXS file " + file + ": " + e.getMessage(), e);
+		} finally {
+			input.close();
+		}
+	}
+
+	/**
+	 * Reads up to the next notification that matches the filter.
+	 *
+	 * @return the notification, or null at the end of the root element
+	 * @throws XMLStreamException if the file is no valid .maxs file
+	 */
+	private Notification readNext() throws XMLStreamException {
+		while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			if ("notification".equals(reader.getLocalName()) && matches()) {
+				return readNotification();
+			}
+			skipElement();
+		}
+		return null;
+	}
+
+	/**
+	 * Checks whether the attributes of the current notification element match the filter.
+	 *
+	 * @return true if the notification matches
+	 */
+	private boolean matches() {
+		if (!filter.getTypes().isEmpty() && !filter.getTypes().contains(parseType(reader.getAttributeValue(null, "type")))) {
+			return false;
+		}
+		if (filter.getRoutine() != null && !filter.getRoutine().equals(reader.getAttributeValue(null, "routine"))) {
+			return false;
+		}
+		return filter.getCompId() == null || filter.getCompId().equals(parseInteger(reader.getAttributeValue(null, "compId")));
+	}
+
+	/**
+	 * Reads the current notification element up to its end tag.
+	 *
+	 * @return the notification
+	 * @throws XMLStreamException if the element is invalid
+	 */
+	private Notification readNotification() throws XMLStreamException {
+		final Notification notification = new Notification();
+		notification.setCompId(parseInteger(reader.getAttributeValue(null, "compId")));
+		notification.setRoutine(reader.getAttributeValue(null, "routine"));
+		notification.setType(parseType(reader.getAttributeValue(null, "type")));
+		while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			switch (reader.getLocalName()) {
+				case "message" -> notification.setMessage(reader.getElementText());
+				case "data" -> readData(notification);
+				default -> skipElement();
+			}
+		}
+		return notification;
+	}
+
+	/**
+	 * Reads the items of the current data element up to its end tag.
+	 *
+	 * @param notification the notification to add the items to
+	 * @throws XMLStreamException if the element is invalid
+	 */
+	private void readData(final Notification notification) throws XMLStreamException {
+		while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			if ("item".equals(reader.getLocalName())) {
+				final Item item = new Item();
+				item.setCompId(parseInteger(reader.getAttributeValue(null, "compId")));
+				final String attrId = reader.getAttributeValue(null, "attrId");
+				item.setAttrId(attrId != null ? attrId : "");
+				item.setValue(parseDouble(reader.getAttributeValue(null, "value")));
+				notification.getData().add(item);
+			}
+			skipElement();
+		}
+	}
+
+	/**
+	 * Skips the current element including its content, without reading any text.
+	 *
+	 * @throws XMLStreamException if the element is invalid
+	 */
+	private void skipElement() throws XMLStreamException {
+		int depth = 1;
+		while (depth > 0) {
+			final int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+	}
+
+	/**
+	 * Parses the message type of an attribute.
+	 *
+	 * @param value the attribute value, may be null
+	 * @return the message type, or null if the attribute is missing
+	 * @throws IllegalArgumentException if the value is no message type
+	 */
+	private static MaxsMessageType parseType(final String value) {
+		return value != null ? MaxsMessageType.valueOf(value.trim()) : null;
+	}
+
+	/**
+	 * Parses an integer attribute.
+	 *
+	 * @param value the attribute value, may be null
+	 * @return the integer, or null if the attribute is missing
+	 * @throws NumberFormatException if the value is no integer
+	 */
+	private static Integer parseInteger(final String value) {
+		return value != null ? Integer.valueOf(value.trim()) : null;
+	}
+
+	/**
+	 * Parses a double attribute in the notation of XML Schema.
+	 *
+	 * @param value the attribute value, may be null
+	 * @return the double, or 0 if the attribute is missing
+	 * @throws NumberFormatException if the value is no double
+	 */
+	static double parseDouble(final String value) {
+		if (value == null) {
+			return 0;
+		}
+		return switch (value.trim()) {
+			case "NaN" -> Double.NaN;
+			case "INF" -> Double.POSITIVE_INFINITY;
+			case "-INF" -> Double.NEGATIVE_INFINITY;
+			default -> Double.parseDouble(value.trim());
+		};
+	}
+
+	/**
+	 * Creates the factory of the StAX readers.
+	 *
+	 * @return the factory
+	 */
+	private static XMLInputFactory createFactory() {
+		final XMLInputFactory factory = XMLInputFactory.newFactory();
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		return factory;
+	}
+}
@@ -0,0 +1,140 @@
+package de.fva_net.maxs.logger.io;
+
+import de.fva_net.maxs.logger.xml.MaxsSerializer;
+import de.fva_net.maxs.logger.xml.Notification;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The positions of the notifications in a .maxs file that may change after they have been written.
+ * <p>
+ * The file can be copied with the current state of these notifications, while all other notifications are copied as
+ * bytes. A written file is therefore updated without keeping its notifications in memory. Only the mutable
+ * notifications are referenced, which are bounded by the aggregation and the rate limits.
+ * <p>
+ * The regions are not thread-safe, the owning writer has to synchronize the access.
+ */
+final class MutableNotificationRegions {
+
+	/**
+	 * The start and end position of the mutable notifications.
+	 */
+	private final Map<Notification, long[]> regions = new IdentityHashMap<>();
+
+	/**
+	 * Remembers the position of a mutable notification.
+	 *
+	 * @param notification the notification
+	 * @param start        the position of the first byte
+	 * @param end          the position after the last byte
+	 */
+	void put(final Notification notification, final long start, final long end) {
+		regions.put(notification, new long[] { start, end });
+	}
+
+	/**
+	 * Forgets all notifications.
+	 */
+	void clear() {
+		regions.clear();
+	}
+
+	/**
+	 * Copies a range of notifications to another file, serializing the mutable notifications again.
+	 *
+	 * @param source     the file with the notifications
+	 * @param from       the position of the first notification in the source
+	 * @param to         the position after the last notification in the source
+	 * @param target     the file that receives the notifications at its current position
+	 * @param serializer the serializer for the mutable notifications
+	 * @return the positions of the mutable notifications in the target
+	 * @throws IOException if a file cannot be read or written
+	 */
+	MutableNotificationRegions copy(final FileChannel source, final long from, final long to, final FileChannel target, final MaxsSerializer serializer)
+		throws IOException {
+		final List<Map.Entry<Notification, long[]>> sorted = new ArrayList<>(regions.entrySet());
+		sorted.sort(Comparator.comparingLong(entry -> entry.getValue()[0]));
+
+		final MutableNotificationRegions copied = new MutableNotificationRegions();
+		final ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+		final Writer bufferWriter = new OutputStreamWriter(buffer, StandardCharsets.UTF_8);
+		long position = from;
+		for (final Map.Entry<Notification, long[]> entry : sorted) {
+			final long[] region = entry.getValue();
+			transfer(source, position, region[0], target);
+			buffer.reset();
+			serializer.writeNotification(entry.getKey(), bufferWriter);
+			bufferWriter.flush();
+			final long start = target.position();
+			write(target, buffer.toByteArray());
+			copied.put(entry.getKey(), start, target.position());
+			position = region[1];
+		}
+		transfer(source, position, to, target);
+		return copied;
+	}
+
+	/**
+	 * Writes bytes at the current position of a file.
+	 *
+	 * @param target the file
+	 * @param bytes  the bytes
+	 * @throws IOException if the file cannot be written
+	 */
+	static void write(final FileChannel target, final byte[] bytes) throws IOException {
+		final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+		while (buffer.hasRemaining()) {
+			target.write(buffer);
+		}
+	}
+
+	/**
+	 * Replaces a file with a completely written temporary file, atomically if the file system supports it.
+	 *
+	 * @param temp   the temporary file
+	 * @param target the file to replace
+	 * @throws IOException if the file cannot be replaced
+	 */
+	static void replace(final Path temp, final Path target) throws IOException {
+		try {
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (final AtomicMoveNotSupportedException e) {
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Copies a range of bytes to the current position of another file.
+	 *
+	 * @param source the file to copy from
+	 * @param from   the position of the first byte
+	 * @param to     the position after the last byte
+	 * @param target the file to copy to
+	 * @throws IOException if a file cannot be read or written
+	 */
+	private static void transfer(final FileChannel source, final long from, final long to, final FileChannel target) throws IOException {
+		long position = from;
+		while (position < to) {
+			final long transferred = source.transferTo(position, to - position, target);
+			if (transferred <= 0) {
+				throw new IOException("The file ends before position " + to);
+			}
+			position += transferred;
+		}
+	}
+}
@@ -0,0 +1,181 @@
+package de.fva_net.maxs.logger.io;
+
+import de.fva_net.maxs.logger.xml.KernelNotifications;
+import de.fva_net.maxs.logger.xml.MaxsSerializer;
+import de.fva_net.maxs.logger.xml.Notification;
+import de.fva_net.maxs.logger.xml.StreamingMaxsSerializer;
+import lombok.RequiredArgsConstructor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writer that writes the complete file again on every write.
+ * <p>
+ * Each write copies the previous file with the new notifications into a temporary file, which then replaces the log
+ * file, so the log file is never seen half-written. The notifications themselves are not kept in memory, only the
+ * header and the positions of the mutable notifications, which are serialized again with their current state. The cost
+ * of each write grows with the size of the file. Use the {@link IncrementalMaxsFileWriter} for large calculation runs.
+ */
+@RequiredArgsConstructor
+public class RewritingMaxsFileWriter implements MaxsFileWriter {
+
+	/**
+	 * The log file.
+	 */
+	private final File logFile;
+
+	/**
+	 * The serializer for the document.
+	 */
+	private final MaxsSerializer serializer;
+
+	/**
+	 * Reusable buffer for the serialized parts of the document.
+	 */
+	private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+
+	/**
+	 * Character writer on top of the buffer.
+	 */
+	private final Writer bufferWriter = new OutputStreamWriter(buffer, StandardCharsets.UTF_8);
+
+	/**
+	 * The serialized start of the document, or null if the writer is not open.
+	 */
+	private byte[] header;
+
+	/**
+	 * The serialized closing tag of the document.
+	 */
+	private byte[] tail;
+
+	/**
+	 * The position after the last notification in the file.
+	 */
+	private long end;
+
+	/**
+	 * The positions of the notifications that may change after they have been written.
+	 */
+	private MutableNotificationRegions mutableRegions = new MutableNotificationRegions();
+
+	/**
+	 * Creates a new writer with the formatted {@link StreamingMaxsSerializer}.
+	 *
+	 * @param logFile the log file
+	 */
+	public RewritingMaxsFileWriter(final File logFile) {
+		this(logFile, StreamingMaxsSerializer.FORMATTED);
+	}
+
+	@Override
+	public synchronized void open(final KernelNotifications kernelNotifications) throws IOException {
+		buffer.reset();
+		serializer.writeEnd(bufferWriter);
+		bufferWriter.flush();
+		tail = buffer.toByteArray();
+		write(serializeHeader(kernelNotifications), false, kernelNotifications.getNotifications(), false);
+	}
+
+	@Override
+	public synchronized void append(final Notification notification) throws IOException {
+		write(header, true, List.of(notification), false);
+	}
+
+	@Override
+	public synchronized void appendMutable(final Notification notification) throws IOException {
+		write(header, true, List.of(notification), true);
+	}
+
+	@Override
+	public synchronized void appendAll(final Collection<Notification> notifications) throws IOException {
+		write(header, true, notifications, false);
+	}
+
+	@Override
+	public synchronized void update(final KernelNotifications header) throws IOException {
+		if (this.header == null) {
+			throw new IOException("The writer for " + logFile + " is not open");
+		}
+		write(serializeHeader(header), true, List.of(), false);
+	}
+
+	@Override
+	public boolean isUpdatable() {
+		return true;
+	}
+
+	@Override
+	public synchronized void close() {
+		header = null;
+		mutableRegions = new MutableNotificationRegions();
+	}
+
+	/**
+	 * Serializes the start of the document.
+	 *
+	 * @param kernelNotifications the application information
+	 * @return the serialized start
+	 * @throws IOException if the start cannot be serialized
+	 */
+	private byte[] serializeHeader(final KernelNotifications kernelNotifications) throws IOException {
+		buffer.reset();
+		serializer.writeStart(kernelNotifications, bufferWriter);
+		bufferWriter.flush();
+		return buffer.toByteArray();
+	}
+
+	/**
+	 * Writes the document into a temporary file, which then replaces the log file.
+	 *
+	 * @param start         the serialized start of the document
+	 * @param copy          true to copy the notifications of the previous file
+	 * @param notifications the new notifications
+	 * @param mutable       true if the new notifications may change after they have been written
+	 * @throws IOException if the file cannot be written
+	 */
+	private void write(final byte[] start, final boolean copy, final Collection<Notification> notifications, final boolean mutable) throws IOException {
+		if (start == null) {
+			throw new IOException("The writer for " + logFile + " is not open");
+		}
+		final Path temp = logFile.toPath().resolveSibling(logFile.getName() + ".tmp");
+		final MutableNotificationRegions updatedRegions;
+		final long updatedEnd;
+		try (FileChannel target = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			MutableNotificationRegions.write(target, start);
+			if (copy) {
+				try (FileChannel source = FileChannel.open(logFile.toPath(), StandardOpenOption.READ)) {
+					updatedRegions = mutableRegions.copy(source, header.length, end, target, serializer);
+				}
+			} else {
+				updatedRegions = new MutableNotificationRegions();
+			}
+			for (final Notification notification : notifications) {
+				buffer.reset();
+				serializer.writeNotification(notification, bufferWriter);
+				bufferWriter.flush();
+				final long position = target.position();
+				MutableNotificationRegions.write(target, buffer.toByteArray());
+				if (mutable) {
+					updatedRegions.put(notification, position, target.position());
+				}
+			}
+			updatedEnd = target.position();
+			MutableNotificationRegions.write(target, tail);
+		}
+		MutableNotificationRegions.replace(temp, logFile.toPath());
+		header = start;
+		end = updatedEnd;
+		mutableRegions = updatedRegions;
+	}
+}
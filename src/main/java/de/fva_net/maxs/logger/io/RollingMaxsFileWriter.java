@@ -0,0 +1,378 @@
+package de.fva_net.maxs.logger.io;
+
+import de.fva_net.maxs.logger.xml.KernelNotifications;
+import de.fva_net.maxs.logger.xml.MaxsSerializer;
+import de.fva_net.maxs.logger.xml.Notification;
+import de.fva_net.maxs.logger.xml.StreamingMaxsSerializer;
+import lombok.Builder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Writer that distributes the notifications over a sequence of segment files instead of one growing log file.
+ * <p>
+ * A new segment is started when the current one has reached the maximum number of notifications or bytes. With a
+ * {@link MaxsPartitioning} each routine or message type gets its own sequence of segments. Each segment is a complete
+ * document on its own, written with the writer selected by the extension of the log file. The segments are named after
+ * the log file, e.g. {@code job-00001.maxs} or {@code job-ISO6336_2019-00001.maxs}, and listed in the
+ * {@link MaxsManifest} {@code job.maxs.manifest}. The log file itself is not written.
+ * <p>
+ * Opening the writer again, e.g. to rewrite aggregated notifications, deletes the segments written before.
+ */
+public class RollingMaxsFileWriter implements MaxsFileWriter {
+
+	/**
+	 * The partition key of the notifications without partition.
+	 */
+	private static final String NO_PARTITION = "";
+
+	/**
+	 * The log file, which determines the names and the format of the segments.
+	 */
+	private final File logFile;
+
+	/**
+	 * The serializer of XML segments.
+	 */
+	private final MaxsSerializer serializer;
+
+	/**
+	 * The compression level of .maxs.gz segments.
+	 */
+	private final int compressionLevel;
+
+	/**
+	 * The maximum number of notifications of a segment, or 0 for no limit.
+	 */
+	private final int maxNotifications;
+
+	/**
+	 * The maximum size of a segment in bytes, or 0 for no limit.
+	 */
+	private final long maxBytes;
+
+	/**
+	 * The partitioning of the notifications.
+	 */
+	private final MaxsPartitioning partitioning;
+
+	/**
+	 * All segments in the order in which they have been started.
+	 */
+	private final List<Segment> segments = new ArrayList<>();
+
+	/**
+	 * The segments that are currently written, by partition key.
+	 */
+	private final Map<String, Segment> current = new HashMap<>();
+
+	/**
+	 * The number of segments per partition key.
+	 */
+	private final Map<String, Integer> sequences = new HashMap<>();
+
+	/**
+	 * The names of the partitions in the segment files, by partition key.
+	 */
+	private final Map<String, String> partitionNames = new HashMap<>();
+
+	/**
+	 * The partition keys by their names in the segment files, to keep the names of different keys apart.
+	 */
+	private final Map<String, String> partitionKeys = new HashMap<>();
+
+	/**
+	 * The header of the segments, or null if the writer is not open.
+	 */
+	private KernelNotifications header;
+
+	/**
+	 * Creates a new rolling writer.
+	 *
+	 * @param logFile          the log file, which determines the names and the format of the segments
+	 * @param serializer       the serializer of XML segments, or null for the formatted streaming serializer
+	 * @param compressionLevel the compression level of .maxs.gz segments, or -1 for the default level
+	 * @param maxNotifications the maximum number of notifications of a segment, or 0 for no limit
+	 * @param maxBytes         the maximum size of a segment in bytes, or 0 for no limit
+	 * @param partitioning     the partitioning of the notifications, or null for no partitioning
+	 */
+	@Builder
+	public RollingMaxsFileWriter(final File logFile, final MaxsSerializer serializer, final Integer compressionLevel, final int maxNotifications,
+		final long maxBytes, final MaxsPartitioning partitioning) {
+		if (logFile == null) {
+			throw new IllegalArgumentException("The log file must not be null");
+		}
+		if (maxNotifications < 0 || maxBytes < 0) {
+			throw new IllegalArgumentException("The limits of the segments must not be negative: " + maxNotifications + ", " + maxBytes);
+		}
+		this.logFile = logFile;
+		this.serializer = serializer != null ? serializer : StreamingMaxsSerializer.FORMATTED;
+		this.compressionLevel = compressionLevel != null ? compressionLevel : Deflater.DEFAULT_COMPRESSION;
+		this.maxNotifications = maxNotifications;
+		this.maxBytes = maxBytes;
+		this.partitioning = partitioning != null ? partitioning : MaxsPartitioning.NONE;
+	}
+
+	@Override
+	public synchronized void open(final KernelNotifications kernelNotifications) throws IOException {
+		closeSegments();
+		for (final Segment segment : segments) {
+			Files.deleteIfExists(segment.file.toPath());
+		}
+		segments.clear();
+		sequences.clear();
+		partitionNames.clear();
+		partitionKeys.clear();
+		header = new KernelNotifications();
+		header.setAppId(kernelNotifications.getAppId());
+		header.setAppVersion(kernelNotifications.getAppVersion());
+		if (partitioning == MaxsPartitioning.NONE) {
+			startSegment(NO_PARTITION);
+		}
+		for (final Notification notification : kernelNotifications.getNotifications()) {
+			write(notification);
+		}
+		writeManifest();
+	}
+
+	@Override
+	public synchronized void append(final Notification notification) throws IOException {
+		checkOpen();
+		write(notification);
+	}
+
+	@Override
+	public synchronized void appendAll(final Collection<Notification> notifications) throws IOException {
+		checkOpen();
+		for (final Notification notification : notifications) {
+			write(notification);
+		}
+	}
+
+	@Override
+	public synchronized void flush() throws IOException {
+		for (final Segment segment : current.values()) {
+			segment.writer.flush();
+		}
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (header == null) {
+			return;
+		}
+		try {
+			closeSegments();
+			writeManifest();
+		} finally {
+			header = null;
+		}
+	}
+
+	/**
+	 * Returns the segment files in the order in which they have been started.
+	 *
+	 * @return the segment files
+	 */
+	public synchronized List<File> getSegmentFiles() {
+		final List<File> files = new ArrayList<>(segments.size());
+		for (final Segment segment : segments) {
+			files.add(segment.file);
+		}
+		return files;
+	}
+
+	/**
+	 * Writes a notification to the segment of its partition, which is started or rolled over if necessary.
+	 *
+	 * @param notification the notification
+	 * @throws IOException if the segment cannot be written
+	 */
+	private void write(final Notification notification) throws IOException {
+		final String partition = partitionOf(notification);
+		Segment segment = current.get(partition);
+		if (segment == null || segment.isFull()) {
+			if (segment != null) {
+				segment.close();
+			}
+			segment = startSegment(partition);
+			writeManifest();
+		}
+		segment.writer.append(notification);
+		segment.notifications++;
+	}
+
+	/**
+	 * Starts the next segment of a partition.
+	 *
+	 * @param partition the partition key
+	 * @return the segment
+	 * @throws IOException if the segment cannot be created
+	 */
+	private Segment startSegment(final String partition) throws IOException {
+		final int sequence = sequences.merge(partition, 1, Integer::sum);
+		final StringBuilder name = new StringBuilder(MaxsFiles.baseName(logFile));
+		if (!partition.equals(NO_PARTITION)) {
+			name.append('-').append(partitionNames.computeIfAbsent(partition, this::nameOf));
+		}
+		name.append('-').append(String.format("%05d", sequence)).append(MaxsFiles.extensionOf(logFile));
+		final File file = new File(logFile.getAbsoluteFile().getParentFile(), name.toString());
+		final Segment segment = new Segment(file, partition.equals(NO_PARTITION) ? null : partition, createWriter(file));
+		segment.writer.open(header);
+		segments.add(segment);
+		current.put(partition, segment);
+		return segment;
+	}
+
+	/**
+	 * Derives the name of a partition in the segment files from its key. Characters that are not allowed in file names
+	 * are replaced, and a number is appended if the name is already used by another key, e.g. {@code ISO_6336_2} for
+	 * the key {@code ISO 6336} after {@code ISO_6336}.
+	 *
+	 * @param partition the partition key
+	 * @return the unique name
+	 */
+	private String nameOf(final String partition) {
+		final String sanitized = partition.replaceAll("[^A-Za-z0-9_.]", "_");
+		String name = sanitized;
+		for (int suffix = 2; partitionKeys.containsKey(name); suffix++) {
+			name = sanitized + "_" + suffix;
+		}
+		partitionKeys.put(name, partition);
+		return name;
+	}
+
+	/**
+	 * Creates the writer of a segment depending on the extension of the log file.
+	 *
+	 * @param file the segment file
+	 * @return the writer
+	 */
+	private MaxsFileWriter createWriter(final File file) {
+		if (MaxsFiles.isCompressed(file)) {
+			return new CompressedMaxsFileWriter(file, serializer, compressionLevel);
+		}
+		if (MaxsFiles.isBinary(file)) {
+			return new BinaryMaxsFileWriter(file);
+		}
+		return new IncrementalMaxsFileWriter(file, serializer);
+	}
+
+	/**
+	 * Returns the partition key of a notification.
+	 *
+	 * @param notification the notification
+	 * @return the partition key
+	 */
+	private String partitionOf(final Notification notification) {
+		return switch (partitioning) {
+			case ROUTINE -> notification.getRoutine() != null ? notification.getRoutine() : "none";
+			case TYPE -> notification.getType() != null ? notification.getType().name() : "none";
+			case NONE -> NO_PARTITION;
+		};
+	}
+
+	/**
+	 * Closes the segments that are currently written.
+	 *
+	 * @throws IOException if a segment cannot be closed
+	 */
+	private void closeSegments() throws IOException {
+		try {
+			for (final Segment segment : current.values()) {
+				segment.close();
+			}
+		} finally {
+			current.clear();
+		}
+	}
+
+	/**
+	 * Writes the manifest with all segments.
+	 *
+	 * @throws IOException if the manifest cannot be written
+	 */
+	private void writeManifest() throws IOException {
+		final List<MaxsManifest.Segment> entries = new ArrayList<>(segments.size());
+		for (final Segment segment : segments) {
+			entries.add(new MaxsManifest.Segment(segment.file.getName(), segment.partition, segment.notifications));
+		}
+		new MaxsManifest(logFile.getAbsoluteFile().getParentFile(), entries).write(MaxsManifest.manifestFileOf(logFile));
+	}
+
+	/**
+	 * Checks that the writer is open.
+	 *
+	 * @throws IOException if the writer is not open
+	 */
+	private void checkOpen() throws IOException {
+		if (header == null) {
+			throw new IOException("The writer for " + logFile + " is not open");
+		}
+	}
+
+	/**
+	 * A segment file with its writer.
+	 */
+	private final class Segment {
+
+		/**
+		 * The segment file.
+		 */
+		private final File file;
+
+		/**
+		 * The partition of the segment, or null if the notifications are not partitioned.
+		 */
+		private final String partition;
+
+		/**
+		 * The writer of the segment.
+		 */
+		private final MaxsFileWriter writer;
+
+		/**
+		 * The number of notifications written to the segment.
+		 */
+		private long notifications;
+
+		/**
+		 * Creates a new segment.
+		 *
+		 * @param file      the segment file
+		 * @param partition the partition of the segment
+		 * @param writer    the writer of the segment
+		 */
+		private Segment(final File file, final String partition, final MaxsFileWriter writer) {
+			this.file = file;
+			this.partition = partition;
+			this.writer = writer;
+		}
+
+		/**
+		 * Checks whether the segment has reached one of the limits.
+		 *
+		 * @return true if a new segment must be started
+		 */
+		private boolean isFull() {
+			return (maxNotifications > 0 && notifications >= maxNotifications) || (maxBytes > 0 && writer.getWrittenBytes() >= maxBytes);
+		}
+
+		/**
+		 * Completes and closes the segment.
+		 *
+		 * @throws IOException if the segment cannot be closed
+		 */
+		private void close() throws IOException {
+			writer.close();
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package de.fva_net.maxs.logger.sink;
+
+import de.fva_net.maxs.logger.io.AsyncNotificationQueue;
+import de.fva_net.maxs.logger.io.MaxsOverflowPolicy;
+import de.fva_net.maxs.logger.xml.Notification;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+
+/**
+ * Sink that passes the notifications to another sink on a background thread.
+ * <p>
+ * New notifications are put into an {@link AsyncNotificationQueue}, which is drained by a single background thread as
+ * soon as it is woken up. The {@link MaxsOverflowPolicy} defines what happens if the queue is full. The other sink
+ * always receives the notifications with {@link MaxsSink#acceptAll}, in the order in which they have been dispatched.
+ */
+@Slf4j
+final class AsyncMaxsSink implements MaxsSink {
+
+	/**
+	 * The sink that processes the notifications.
+	 */
+	private final MaxsSink delegate;
+
+	/**
+	 * The queue of notifications that have not been passed to the sink yet.
+	 */
+	private final AsyncNotificationQueue queue;
+
+	/**
+	 * Indicates whether the sink has not been stopped yet, guarded by this object. The queue itself rejects notifications
+	 * once stopping has started.
+	 */
+	private boolean open = true;
+
+	/**
+	 * Creates a new asynchronous sink and starts its background thread.
+	 *
+	 * @param delegate         the sink that processes the notifications
+	 * @param queueCapacity    the capacity of the queue
+	 * @param overflowPolicy   the policy if the queue is full
+	 * @param overflowCapacity the capacity of the overflow buffer of the {@link MaxsOverflowPolicy#BUFFER} policy
+	 */
+	AsyncMaxsSink(final MaxsSink delegate, final int queueCapacity, final MaxsOverflowPolicy overflowPolicy, final int overflowCapacity) {
+		this.delegate = delegate;
+		this.queue = AsyncNotificationQueue.builder()
+				.name("maxs-async-sink")
+				.capacity(queueCapacity)
+				.overflowPolicy(overflowPolicy)
+				.overflowCapacity(overflowCapacity)
+				.handler(delegate::acceptAll)
+				.build();
+		this.queue.start();
+	}
+
+	@Override
+	public void accept(final Notification notification) throws IOException {
+		if (queue.add(notification)) {
+			queue.wakeUp();
+		}
+	}
+
+	@Override
+	public void flush() throws IOException {
+		queue.drain(delegate::flush);
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			stop();
+		} finally {
+			delegate.close();
+		}
+	}
+
+	/**
+	 * Stops the background thread after the queued notifications have been passed to the sink. The sink itself is not
+	 * closed.
+	 *
+	 * @throws IOException if the queued notifications cannot be processed
+	 */
+	void stop() throws IOException {
+		synchronized (this) {
+			if (!open) {
+				return;
+			}
+			open = false;
+		}
+		// stop accepting notifications before the final drain, so a racing notification is passed or rejected
+		queue.stop();
+		flush();
+		if (queue.getDroppedCount() > 0) {
+			log.warn("{} notifications have been dropped because the queue of the sink {} was full.", queue.getDroppedCount(), delegate);
+		}
+	}
+
+	/**
+	 * Returns the number of notifications that have been dropped because the queue was full.
+	 *
+	 * @return the number of dropped notifications
+	 */
+	long getDroppedCount() {
+		return queue.getDroppedCount();
+	}
+
+	@Override
+	public String toString() {
+		return "async " + delegate;
+	}
+}
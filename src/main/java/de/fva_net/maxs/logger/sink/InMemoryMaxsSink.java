@@ -0,0 +1,59 @@
+package de.fva_net.maxs.logger.sink;
+
+import de.fva_net.maxs.logger.xml.Notification;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Sink that collects the notifications in memory, e.g. to verify them in tests without reading the store of the
+ * context.
+ */
+public final class InMemoryMaxsSink implements MaxsSink {
+
+	/**
+	 * The received notifications.
+	 */
+	private final List<Notification> notifications = new ArrayList<>();
+
+	@Override
+	public synchronized void accept(final Notification notification) {
+		notifications.add(notification);
+	}
+
+	@Override
+	public synchronized void acceptAll(final Collection<Notification> batch) {
+		notifications.addAll(batch);
+	}
+
+	/**
+	 * Returns a copy of the received notifications.
+	 *
+	 * @return the notifications in the order they have been received
+	 */
+	public synchronized List<Notification> getNotifications() {
+		return List.copyOf(notifications);
+	}
+
+	/**
+	 * Returns the number of received notifications.
+	 *
+	 * @return the number of notifications
+	 */
+	public synchronized int size() {
+		return notifications.size();
+	}
+
+	/**
+	 * Removes all received notifications.
+	 */
+	public synchronized void clear() {
+		notifications.clear();
+	}
+
+	@Override
+	public String toString() {
+		return "in-memory buffer";
+	}
+}
@@ -0,0 +1,23 @@
+package de.fva_net.maxs.logger.sink;
+
+/**
+ * Defines what happens when a subscriber of a {@link MaxsNotificationPublisher} requests notifications slower than they
+ * are logged and its buffer is full. The logging thread never waits for a subscriber.
+ */
+public enum MaxsBackpressurePolicy {
+	/**
+	 * The oldest buffered notification is dropped, so the subscriber always receives the latest notifications.
+	 */
+	DROP_OLDEST,
+
+	/**
+	 * The new notification is dropped, so the subscriber receives the notifications from the start without gaps until
+	 * the buffer is full.
+	 */
+	DROP_NEWEST,
+
+	/**
+	 * The buffer grows without limit, so no notification is dropped at the cost of memory.
+	 */
+	BUFFER
+}
@@ -0,0 +1,86 @@
+package de.fva_net.maxs.logger.sink;
+
+import de.fva_net.maxs.logger.io.MaxsFileWriter;
+import de.fva_net.maxs.logger.xml.KernelNotifications;
+import de.fva_net.maxs.logger.xml.Notification;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * Sink that writes the notifications to a log file with a {@link MaxsFileWriter}. This is the sink through which a
+ * context writes its log file.
+ */
+@Getter
+public final class MaxsFileSink implements MaxsSink {
+
+	/**
+	 * The writer of the log file.
+	 */
+	private final MaxsFileWriter writer;
+
+	/**
+	 * Creates a new sink.
+	 *
+	 * @param writer the writer of the log file, which must be open
+	 */
+	public MaxsFileSink(final MaxsFileWriter writer) {
+		if (writer == null) {
+			throw new IllegalArgumentException("The writer must not be null");
+		}
+		this.writer = writer;
+	}
+
+	@Override
+	public void accept(final Notification notification) throws IOException {
+		writer.append(notification);
+	}
+
+	@Override
+	public void acceptMutable(final Notification notification) throws IOException {
+		writer.appendMutable(notification);
+	}
+
+	@Override
+	public void acceptAll(final Collection<Notification> notifications) throws IOException {
+		writer.appendAll(notifications);
+	}
+
+	/**
+	 * Writes the log file again with the given content, e.g. after aggregated notifications have changed.
+	 *
+	 * @param kernelNotifications the application information and all notifications
+	 * @throws IOException if the file cannot be written
+	 */
+	public void rewrite(final KernelNotifications kernelNotifications) throws IOException {
+		writer.open(kernelNotifications);
+	}
+
+	/**
+	 * Writes the log file again with new application information and the current state of the mutable notifications,
+	 * keeping all notifications that have been written, e.g. after notifications have been evicted from the store.
+	 *
+	 * @param header the application information
+	 * @throws IOException if the file cannot be written or updated
+	 * @see MaxsFileWriter#update(KernelNotifications)
+	 */
+	public void update(final KernelNotifications header) throws IOException {
+		writer.update(header);
+	}
+
+	@Override
+	public void flush() throws IOException {
+		writer.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+
+	@Override
+	public String toString() {
+		return "file " + writer.getClass().getSimpleName();
+	}
+}
@@ -0,0 +1,146 @@
+package de.fva_net.maxs.logger.sink;
+
+import de.fva_net.maxs.logger.xml.Notification;
+import lombok.Builder;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publisher that pushes the logged notifications to its subscribers as they arrive, e.g. to show the progress of a
+ * calculation in a user interface.
+ * <p>
+ * The publisher is a {@link MaxsSink}, so it receives the notifications of a context. Each subscriber has its own
+ * buffer and receives at most as many notifications as it has requested, on a thread of the executor. Appending to the
+ * buffers never blocks the logging thread, the {@link MaxsBackpressurePolicy} defines which notifications are dropped if
+ * a buffer is full. Subscribers only receive the notifications logged after they have subscribed.
+ * <p>
+ * Closing the publisher completes all subscriptions after their buffered notifications have been delivered.
+ */
+public final class MaxsNotificationPublisher implements Flow.Publisher<Notification>, MaxsSink {
+
+	/**
+	 * The executor delivering the notifications to the subscribers.
+	 */
+	private final Executor executor;
+
+	/**
+	 * The capacity of the buffer of each subscriber.
+	 */
+	private final int bufferCapacity;
+
+	/**
+	 * The policy if the buffer of a subscriber is full.
+	 */
+	private final MaxsBackpressurePolicy backpressurePolicy;
+
+	/**
+	 * The active subscriptions.
+	 */
+	private final List<NotificationSubscription> subscriptions = new CopyOnWriteArrayList<>();
+
+	/**
+	 * The number of notifications dropped for all subscribers.
+	 */
+	private final LongAdder droppedCount = new LongAdder();
+
+	/**
+	 * Indicates whether the publisher has been closed.
+	 */
+	private volatile boolean closed;
+
+	/**
+	 * Creates a new publisher.
+	 *
+	 * @param executor           the executor delivering the notifications, or null for the common fork-join pool
+	 * @param bufferCapacity     the capacity of the buffer of each subscriber, or 0 for {@link Flow#defaultBufferSize()}
+	 * @param backpressurePolicy the policy if the buffer of a subscriber is full, or null for
+	 *                           {@link MaxsBackpressurePolicy#DROP_OLDEST}
+	 */
+	@Builder
+	public MaxsNotificationPublisher(final Executor executor, final int bufferCapacity, final MaxsBackpressurePolicy backpressurePolicy) {
+		if (bufferCapacity < 0) {
+			throw new IllegalArgumentException("The buffer capacity must not be negative: " + bufferCapacity);
+		}
+		this.executor = executor != null ? executor : ForkJoinPool.commonPool();
+		this.bufferCapacity = bufferCapacity > 0 ? bufferCapacity : Flow.defaultBufferSize();
+		this.backpressurePolicy = backpressurePolicy != null ? backpressurePolicy : MaxsBackpressurePolicy.DROP_OLDEST;
+	}
+
+	@Override
+	public void subscribe(final Flow.Subscriber<? super Notification> subscriber) {
+		if (subscriber == null) {
+			throw new NullPointerException("The subscriber must not be null");
+		}
+		final NotificationSubscription subscription = new NotificationSubscription(this, subscriber, executor, bufferCapacity, backpressurePolicy);
+		if (closed) {
+			subscription.complete();
+		} else {
+			subscriptions.add(subscription);
+		}
+		subscription.start();
+	}
+
+	@Override
+	public void accept(final Notification notification) {
+		for (final NotificationSubscription subscription : subscriptions) {
+			subscription.offer(notification);
+		}
+	}
+
+	/**
+	 * Completes all subscriptions after their buffered notifications have been delivered. Later subscribers are
+	 * completed immediately.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		for (final NotificationSubscription subscription : subscriptions) {
+			subscription.complete();
+		}
+		subscriptions.clear();
+	}
+
+	/**
+	 * Returns the number of active subscriptions.
+	 *
+	 * @return the number of subscribers
+	 */
+	public int getSubscriberCount() {
+		return subscriptions.size();
+	}
+
+	/**
+	 * Returns the number of notifications that have been dropped because the buffer of a subscriber was full.
+	 *
+	 * @return the number of dropped notifications, summed over all subscribers
+	 */
+	public long getDroppedCount() {
+		return droppedCount.sum();
+	}
+
+	/**
+	 * Counts a notification dropped for a subscriber.
+	 */
+	void dropped() {
+		droppedCount.increment();
+	}
+
+	/**
+	 * Removes a cancelled subscription.
+	 *
+	 * @param subscription the subscription
+	 */
+	void cancelled(final NotificationSubscription subscription) {
+		subscriptions.remove(subscription);
+	}
+
+	@Override
+	public String toString() {
+		return "publisher with " + subscriptions.size() + " subscribers";
+	}
+}
@@ -0,0 +1,73 @@
+package de.fva_net.maxs.logger.sink;
+
+import de.fva_net.maxs.logger.xml.Notification;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * Receives the notifications logged by a {@link de.fva_net.maxs.logger.MaxsLoggerContext}.
+ * <p>
+ * Each notification is dispatched once to all sinks of the context, which is also how the context fills its own
+ * {@link NotificationStoreSink store} and {@link MaxsFileSink log file}. A sink only receives the notifications that
+ * pass the filter of its {@link MaxsSinkOptions}. Sinks are called by the logging thread unless they are registered as
+ * asynchronous, so they should return quickly.
+ * <p>
+ * The interface is functional, so a callback, e.g. of a user interface, can be registered as lambda.
+ */
+@FunctionalInterface
+public interface MaxsSink extends Closeable {
+
+	/**
+	 * Receives a notification.
+	 *
+	 * @param notification the notification
+	 * @throws IOException if the notification cannot be processed
+	 */
+	void accept(Notification notification) throws IOException;
+
+	/**
+	 * Receives a notification that may be changed after it has been dispatched, e.g. the first occurrence of an
+	 * aggregated notification. Sinks that keep the notification must keep a reference to it instead of a copy.
+	 *
+	 * @param notification the notification
+	 * @throws IOException if the notification cannot be processed
+	 */
+	default void acceptMutable(final Notification notification) throws IOException {
+		accept(notification);
+	}
+
+	/**
+	 * Receives several notifications as one batch, in the order of the collection. The collection may be reused by the
+	 * caller after the call.
+	 *
+	 * @param notifications the notifications
+	 * @throws IOException if the notifications cannot be processed
+	 */
+	default void acceptAll(final Collection<Notification> notifications) throws IOException {
+		for (final Notification notification : notifications) {
+			accept(notification);
+		}
+	}
+
+	/**
+	 * Completes the processing of the notifications received so far.
+	 *
+	 * @throws IOException if the notifications cannot be processed
+	 */
+	default void flush() throws IOException {
+		// nothing is buffered by default
+	}
+
+	/**
+	 * Releases the resources of the sink. The context closes the sinks it has created itself, sinks registered with
+	 * {@link de.fva_net.maxs.logger.MaxsLoggerContext#addSink(MaxsSink)} are closed by their owner.
+	 *
+	 * @throws IOException if the sink cannot be closed
+	 */
+	@Override
+	default void close() throws IOException {
+		// nothing to release by default
+	}
+}
@@ -0,0 +1,316 @@
+package de.fva_net.maxs.logger.sink;
+
+import de.fva_net.maxs.logger.MaxsMessageType;
+import de.fva_net.maxs.logger.xml.Notification;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Dispatches each notification once to all registered sinks, in the order in which they have been registered.
+ * <p>
+ * The sinks are kept in a copy-on-write array, so dispatching neither locks nor allocates. Each sink only receives the
+ * notifications that pass the filter of its {@link MaxsSinkOptions}. A failing sink is logged and does not keep the
+ * notification from the other sinks.
+ */
+@Slf4j
+public final class MaxsSinkDispatcher {
+
+	/**
+	 * The registered sinks.
+	 */
+	private volatile Registration[] registrations = new Registration[0];
+
+	/**
+	 * Registers a sink. A sink that is already registered is registered again with the new options.
+	 *
+	 * @param sink    the sink
+	 * @param options the options of the sink
+	 */
+	public synchronized void add(final MaxsSink sink, final MaxsSinkOptions options) {
+		if (sink == null) {
+			throw new IllegalArgumentException("The sink must not be null");
+		}
+		remove(sink);
+		final MaxsSinkOptions sinkOptions = options != null ? options : MaxsSinkOptions.DEFAULT;
+		final Registration[] current = registrations;
+		final Registration[] updated = Arrays.copyOf(current, current.length + 1);
+		updated[current.length] = new Registration(sink, sinkOptions);
+		registrations = updated;
+	}
+
+	/**
+	 * Removes a sink after the notifications still queued for it have been passed to it. The sink is not closed.
+	 *
+	 * @param sink the sink
+	 * @return true if the sink was registered
+	 */
+	public synchronized boolean remove(final MaxsSink sink) {
+		final Registration[] current = registrations;
+		for (int i = 0; i < current.length; i++) {
+			if (current[i].sink == sink) {
+				final Registration[] updated = new Registration[current.length - 1];
+				System.arraycopy(current, 0, updated, 0, i);
+				System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+				registrations = updated;
+				current[i].stop();
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Replaces a registered sink by another one with the same options and at the same position, or registers the
+	 * other sink with the default options if the previous one is not registered.
+	 *
+	 * @param previous the registered sink
+	 * @param sink     the new sink
+	 */
+	public synchronized void replace(final MaxsSink previous, final MaxsSink sink) {
+		final Registration[] current = registrations;
+		for (int i = 0; i < current.length; i++) {
+			if (current[i].sink == previous) {
+				final Registration[] updated = current.clone();
+				updated[i] = new Registration(sink, current[i].options);
+				registrations = updated;
+				current[i].stop();
+				return;
+			}
+		}
+		add(sink, MaxsSinkOptions.DEFAULT);
+	}
+
+	/**
+	 * Returns the registered sinks.
+	 *
+	 * @return the sinks in the order in which they have been registered
+	 */
+	public List<MaxsSink> getSinks() {
+		final Registration[] current = registrations;
+		final List<MaxsSink> sinks = new ArrayList<>(current.length);
+		for (final Registration registration : current) {
+			sinks.add(registration.sink);
+		}
+		return sinks;
+	}
+
+	/**
+	 * Dispatches a notification to all sinks whose filter it passes.
+	 *
+	 * @param notification the notification
+	 */
+	public void dispatch(final Notification notification) {
+		for (final Registration registration : registrations) {
+			if (registration.accepts(notification)) {
+				try {
+					registration.target.accept(notification);
+				} catch (final IOException | RuntimeException e) {
+					registration.failed(e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Dispatches a notification that may be changed after it has been dispatched to all sinks whose filter it passes.
+	 *
+	 * @param notification the notification
+	 * @see MaxsSink#acceptMutable(Notification)
+	 */
+	public void dispatchMutable(final Notification notification) {
+		for (final Registration registration : registrations) {
+			if (registration.accepts(notification)) {
+				try {
+					registration.target.acceptMutable(notification);
+				} catch (final IOException | RuntimeException e) {
+					registration.failed(e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Dispatches several notifications as one batch. Each sink receives the notifications that pass its filter with a
+	 * single call, unless some of them are mutable, which are passed on their own.
+	 *
+	 * @param notifications the notifications
+	 * @param mutable       identifies the notifications that may be changed after they have been dispatched, or null
+	 *                      if none may be changed
+	 */
+	public void dispatchAll(final List<Notification> notifications, final Predicate<Notification> mutable) {
+		if (notifications.isEmpty()) {
+			return;
+		}
+		for (final Registration registration : registrations) {
+			try {
+				final List<Notification> accepted = registration.filter(notifications);
+				if (mutable == null) {
+					if (!accepted.isEmpty()) {
+						registration.target.acceptAll(accepted);
+					}
+				} else {
+					dispatchRuns(registration.target, accepted, mutable);
+				}
+			} catch (final IOException | RuntimeException e) {
+				registration.failed(e);
+			}
+		}
+	}
+
+	/**
+	 * Flushes all sinks, including the notifications still queued for asynchronous sinks.
+	 */
+	public void flush() {
+		for (final Registration registration : registrations) {
+			try {
+				registration.target.flush();
+			} catch (final IOException | RuntimeException e) {
+				registration.failed(e);
+			}
+		}
+	}
+
+	/**
+	 * Passes the notifications to a sink in runs of immutable notifications, each mutable notification on its own.
+	 *
+	 * @param sink          the sink
+	 * @param notifications the notifications
+	 * @param mutable       identifies the mutable notifications
+	 * @throws IOException if the sink fails
+	 */
+	private static void dispatchRuns(final MaxsSink sink, final List<Notification> notifications, final Predicate<Notification> mutable) throws IOException {
+		int start = 0;
+		for (int i = 0; i < notifications.size(); i++) {
+			final Notification notification = notifications.get(i);
+			if (mutable.test(notification)) {
+				if (start < i) {
+					sink.acceptAll(notifications.subList(start, i));
+				}
+				sink.acceptMutable(notification);
+				start = i + 1;
+			}
+		}
+		if (start < notifications.size()) {
+			sink.acceptAll(notifications.subList(start, notifications.size()));
+		}
+	}
+
+	/**
+	 * A registered sink with its filter.
+	 */
+	private static final class Registration {
+
+		/**
+		 * The registered sink.
+		 */
+		private final MaxsSink sink;
+
+		/**
+		 * The options of the sink.
+		 */
+		private final MaxsSinkOptions options;
+
+		/**
+		 * The sink that receives the notifications, which is the asynchronous wrapper of an asynchronous sink.
+		 */
+		private final MaxsSink target;
+
+		/**
+		 * Lookup table indexed by the ordinal of the message types, indicating whether a message type is passed.
+		 */
+		private final boolean[] enabledTypes;
+
+		/**
+		 * The additional filter, or null.
+		 */
+		private final Predicate<Notification> filter;
+
+		/**
+		 * Indicates whether all notifications are passed to the sink.
+		 */
+		private final boolean unfiltered;
+
+		/**
+		 * Creates a new registration.
+		 *
+		 * @param sink    the registered sink
+		 * @param options the options of the sink
+		 */
+		private Registration(final MaxsSink sink, final MaxsSinkOptions options) {
+			this.sink = sink;
+			this.options = options;
+			this.target = options.isAsync() ? new AsyncMaxsSink(sink, options.getQueueCapacity(), options.getOverflowPolicy(),
+					options.getOverflowCapacity()) : sink;
+			final MaxsMessageType minimumSeverity = options.getMinimumSeverity() != null ? options.getMinimumSeverity() : MaxsMessageType.INFO;
+			final MaxsMessageType[] types = MaxsMessageType.values();
+			this.enabledTypes = new boolean[types.length];
+			boolean all = options.getFilter() == null;
+			for (final MaxsMessageType type : types) {
+				enabledTypes[type.ordinal()] = (options.isDebugEnabled() || !type.isDebug()) && type.getSeverity() >= minimumSeverity.getSeverity();
+				all &= enabledTypes[type.ordinal()];
+			}
+			this.filter = options.getFilter();
+			this.unfiltered = all;
+		}
+
+		/**
+		 * Checks whether a notification is passed to the sink.
+		 *
+		 * @param notification the notification
+		 * @return true if the notification passes the filter
+		 */
+		private boolean accepts(final Notification notification) {
+			if (unfiltered) {
+				return true;
+			}
+			final MaxsMessageType type = notification.getType();
+			return (type == null || enabledTypes[type.ordinal()]) && (filter == null || filter.test(notification));
+		}
+
+		/**
+		 * Returns the notifications that are passed to the sink.
+		 *
+		 * @param notifications the notifications
+		 * @return the given list if all notifications pass the filter, otherwise a new list
+		 */
+		private List<Notification> filter(final List<Notification> notifications) {
+			if (unfiltered) {
+				return notifications;
+			}
+			final List<Notification> accepted = new ArrayList<>(notifications.size());
+			for (final Notification notification : notifications) {
+				if (accepts(notification)) {
+					accepted.add(notification);
+				}
+			}
+			return accepted;
+		}
+
+		/**
+		 * Stops the background thread of an asynchronous sink after its queue has been passed to the sink.
+		 */
+		private void stop() {
+			if (target instanceof AsyncMaxsSink async) {
+				try {
+					async.stop();
+				} catch (final IOException | RuntimeException e) {
+					failed(e);
+				}
+			}
+		}
+
+		/**
+		 * Logs a failure of the sink.
+		 *
+		 * @param e the failure
+		 */
+		private void failed(final Exception e) {
+			log.error("Unable to pass notifications to the sink {}: {}", sink, e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package de.fva_net.maxs.logger.sink;
+
+import de.fva_net.maxs.logger.MaxsMessageType;
+import de.fva_net.maxs.logger.io.AsyncNotificationQueue;
+import de.fva_net.maxs.logger.io.MaxsOverflowPolicy;
+import de.fva_net.maxs.logger.xml.Notification;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.function.Predicate;
+
+/**
+ * Options for a {@link MaxsSink} registered at a {@link de.fva_net.maxs.logger.MaxsLoggerContext}.
+ */
+@Getter
+@Builder
+public class MaxsSinkOptions {
+
+	/**
+	 * The default options, which pass all notifications synchronously to the sink.
+	 */
+	public static final MaxsSinkOptions DEFAULT = MaxsSinkOptions.builder().build();
+
+	/**
+	 * The minimum severity of the notifications passed to the sink, the debug flag of the type is ignored. The default
+	 * is {@link MaxsMessageType#INFO}, which passes all notifications.
+	 */
+	@Builder.Default
+	private final MaxsMessageType minimumSeverity = MaxsMessageType.INFO;
+
+	/**
+	 * Indicates whether debug notifications are passed to the sink.
+	 */
+	@Builder.Default
+	private final boolean debugEnabled = true;
+
+	/**
+	 * An additional filter of the notifications passed to the sink, or null to pass all notifications of the enabled
+	 * types. The filter is called by the logging thread.
+	 */
+	@Builder.Default
+	private final Predicate<Notification> filter = null;
+
+	/**
+	 * Indicates whether the sink is called by a background thread, so the logging thread does not wait for it.
+	 */
+	@Builder.Default
+	private final boolean async = false;
+
+	/**
+	 * The capacity of the queue of the background thread.
+	 */
+	@Builder.Default
+	private final int queueCapacity = 8192;
+
+	/**
+	 * The policy if the queue of the background thread is full.
+	 */
+	@Builder.Default
+	private final MaxsOverflowPolicy overflowPolicy = MaxsOverflowPolicy.BLOCK;
+
+	/**
+	 * The capacity of the overflow buffer of the {@link MaxsOverflowPolicy#BUFFER} policy. Notifications beyond it are
+	 * dropped and counted in a warning when the sink is removed.
+	 */
+	@Builder.Default
+	private final int overflowCapacity = AsyncNotificationQueue.DEFAULT_OVERFLOW_CAPACITY;
+}
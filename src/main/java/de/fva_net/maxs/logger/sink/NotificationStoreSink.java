@@ -0,0 +1,52 @@
+package de.fva_net.maxs.logger.sink;
+
+import de.fva_net.maxs.logger.store.NotificationStore;
+import de.fva_net.maxs.logger.xml.Notification;
+import lombok.Getter;
+
+import java.util.Collection;
+
+/**
+ * Sink that adds the notifications to a {@link NotificationStore}. This is the sink through which a context fills the
+ * store that it queries.
+ */
+@Getter
+public final class NotificationStoreSink implements MaxsSink {
+
+	/**
+	 * The store receiving the notifications.
+	 */
+	private final NotificationStore store;
+
+	/**
+	 * Creates a new sink.
+	 *
+	 * @param store the store receiving the notifications
+	 */
+	public NotificationStoreSink(final NotificationStore store) {
+		if (store == null) {
+			throw new IllegalArgumentException("The store must not be null");
+		}
+		this.store = store;
+	}
+
+	@Override
+	public void accept(final Notification notification) {
+		store.add(notification);
+	}
+
+	@Override
+	public void acceptMutable(final Notification notification) {
+		store.addMutable(notification);
+	}
+
+	@Override
+	public void acceptAll(final Collection<Notification> notifications) {
+		store.addAll(notifications);
+	}
+
+	@Override
+	public String toString() {
+		return "store " + store.getClass().getSimpleName();
+	}
+}
@@ -0,0 +1,240 @@
+package de.fva_net.maxs.logger.sink;
+
+import de.fva_net.maxs.logger.xml.Notification;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The subscription of a subscriber of a {@link MaxsNotificationPublisher}.
+ * <p>
+ * The notifications are buffered until the subscriber requests them. All signals to the subscriber are sent by a single
+ * drain task on the executor at a time, so they never overlap and never run on the logging thread.
+ */
+@Slf4j
+final class NotificationSubscription implements Flow.Subscription, Runnable {
+
+	/**
+	 * The publisher of the subscription.
+	 */
+	private final MaxsNotificationPublisher publisher;
+
+	/**
+	 * The subscriber.
+	 */
+	private final Flow.Subscriber<? super Notification> subscriber;
+
+	/**
+	 * The executor running the drain task.
+	 */
+	private final Executor executor;
+
+	/**
+	 * The capacity of the buffer.
+	 */
+	private final int capacity;
+
+	/**
+	 * The policy if the buffer is full.
+	 */
+	private final MaxsBackpressurePolicy policy;
+
+	/**
+	 * The notifications that have not been delivered yet, guarded by this subscription.
+	 */
+	private final ArrayDeque<Notification> buffer = new ArrayDeque<>();
+
+	/**
+	 * The number of signals since the drain task has last checked for work. The drain task is scheduled when the
+	 * counter leaves zero.
+	 */
+	private final AtomicInteger pending = new AtomicInteger();
+
+	/**
+	 * The number of requested notifications that have not been delivered yet, guarded by this subscription.
+	 */
+	private long demand;
+
+	/**
+	 * The error of an invalid request, which is sent instead of further notifications, guarded by this subscription.
+	 */
+	private Throwable error;
+
+	/**
+	 * Indicates whether the subscriber has received {@code onSubscribe}. Only accessed by the drain task.
+	 */
+	private boolean subscribed;
+
+	/**
+	 * Indicates whether the subscription is completed after the buffered notifications.
+	 */
+	private volatile boolean completed;
+
+	/**
+	 * Indicates whether the subscription has been cancelled or has terminated.
+	 */
+	private volatile boolean cancelled;
+
+	/**
+	 * Creates a new subscription.
+	 *
+	 * @param publisher  the publisher of the subscription
+	 * @param subscriber the subscriber
+	 * @param executor   the executor running the drain task
+	 * @param capacity   the capacity of the buffer
+	 * @param policy     the policy if the buffer is full
+	 */
+	NotificationSubscription(final MaxsNotificationPublisher publisher, final Flow.Subscriber<? super Notification> subscriber, final Executor executor,
+		final int capacity, final MaxsBackpressurePolicy policy) {
+		this.publisher = publisher;
+		this.subscriber = subscriber;
+		this.executor = executor;
+		this.capacity = capacity;
+		this.policy = policy;
+	}
+
+	/**
+	 * Sends {@code onSubscribe} to the subscriber.
+	 */
+	void start() {
+		signal();
+	}
+
+	/**
+	 * Buffers a notification for the subscriber without blocking.
+	 *
+	 * @param notification the notification
+	 */
+	void offer(final Notification notification) {
+		if (cancelled) {
+			return;
+		}
+		synchronized (this) {
+			if (buffer.size() >= capacity) {
+				switch (policy) {
+					case DROP_OLDEST -> {
+						buffer.poll();
+						publisher.dropped();
+					}
+					case DROP_NEWEST -> {
+						publisher.dropped();
+						return;
+					}
+					case BUFFER -> {
+						// the buffer grows
+					}
+				}
+			}
+			buffer.add(notification);
+		}
+		signal();
+	}
+
+	/**
+	 * Completes the subscription after the buffered notifications have been delivered.
+	 */
+	void complete() {
+		completed = true;
+		signal();
+	}
+
+	@Override
+	public void request(final long n) {
+		synchronized (this) {
+			if (n <= 0) {
+				error = new IllegalArgumentException("The number of requested notifications must be positive: " + n);
+			} else {
+				demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+			}
+		}
+		signal();
+	}
+
+	@Override
+	public void cancel() {
+		cancelled = true;
+		publisher.cancelled(this);
+		synchronized (this) {
+			buffer.clear();
+		}
+	}
+
+	/**
+	 * Schedules the drain task, unless it is running already.
+	 */
+	private void signal() {
+		if (pending.getAndIncrement() == 0) {
+			try {
+				executor.execute(this);
+			} catch (final RejectedExecutionException e) {
+				log.error("Unable to deliver notifications to the subscriber {}: {}", subscriber, e.getMessage());
+				cancel();
+			}
+		}
+	}
+
+	/**
+	 * The drain task, which delivers the requested notifications and the terminal signal.
+	 */
+	@Override
+	public void run() {
+		int missed = pending.get();
+		while (true) {
+			try {
+				drain();
+			} catch (final RuntimeException e) {
+				// a subscriber must not throw, the subscription is cancelled as it is in an undefined state
+				log.error("The subscriber {} has failed: {}", subscriber, e.getMessage());
+				cancel();
+			}
+			missed = pending.addAndGet(-missed);
+			if (missed == 0) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Delivers the requested notifications and the terminal signal, if any.
+	 */
+	private void drain() {
+		if (!subscribed) {
+			subscribed = true;
+			subscriber.onSubscribe(this);
+		}
+		while (!cancelled) {
+			final Notification notification;
+			final Throwable failure;
+			synchronized (this) {
+				failure = error;
+				notification = failure == null && demand > 0 ? buffer.poll() : null;
+				if (notification != null && demand != Long.MAX_VALUE) {
+					demand--;
+				}
+			}
+			if (failure != null) {
+				cancel();
+				subscriber.onError(failure);
+				return;
+			}
+			if (notification == null) {
+				break;
+			}
+			subscriber.onNext(notification);
+		}
+		if (completed && !cancelled) {
+			final boolean empty;
+			synchronized (this) {
+				empty = buffer.isEmpty();
+			}
+			if (empty) {
+				cancel();
+				subscriber.onComplete();
+			}
+		}
+	}
+}
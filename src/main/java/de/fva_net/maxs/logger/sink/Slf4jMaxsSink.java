@@ -0,0 +1,80 @@
+package de.fva_net.maxs.logger.sink;
+
+import de.fva_net.maxs.logger.xml.Notification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+
+/**
+ * Sink that forwards the notifications to an SLF4J logger. Errors are logged as {@link Level#ERROR}, warnings as
+ * {@link Level#WARN}, infos as {@link Level#INFO} and all debug types as {@link Level#DEBUG}.
+ * <p>
+ * The message is only formatted if the level is enabled for the logger.
+ */
+public final class Slf4jMaxsSink implements MaxsSink {
+
+	/**
+	 * The name of the default logger.
+	 */
+	public static final String DEFAULT_LOGGER_NAME = "de.fva_net.maxs.notifications";
+
+	/**
+	 * The logger receiving the notifications.
+	 */
+	private final Logger logger;
+
+	/**
+	 * Creates a new sink with the default logger {@value #DEFAULT_LOGGER_NAME}.
+	 */
+	public Slf4jMaxsSink() {
+		this(LoggerFactory.getLogger(DEFAULT_LOGGER_NAME));
+	}
+
+	/**
+	 * Creates a new sink.
+	 *
+	 * @param logger the logger receiving the notifications
+	 */
+	public Slf4jMaxsSink(final Logger logger) {
+		if (logger == null) {
+			throw new IllegalArgumentException("The logger must not be null");
+		}
+		this.logger = logger;
+	}
+
+	@Override
+	public void accept(final Notification notification) {
+		final Level level = levelOf(notification);
+		if (!logger.isEnabledForLevel(level)) {
+			return;
+		}
+		if (notification.getCompId() != null) {
+			logger.atLevel(level).log("[{}] component {}: {}", notification.getRoutine(), notification.getCompId(), notification.getMessage());
+		} else {
+			logger.atLevel(level).log("[{}] {}", notification.getRoutine(), notification.getMessage());
+		}
+	}
+
+	/**
+	 * Returns the level of a notification.
+	 *
+	 * @param notification the notification
+	 * @return the level
+	 */
+	static Level levelOf(final Notification notification) {
+		if (notification.getType() == null) {
+			return Level.INFO;
+		}
+		return switch (notification.getType()) {
+			case ERROR -> Level.ERROR;
+			case WARNING -> Level.WARN;
+			case INFO -> Level.INFO;
+			case DEBUG_ERROR, DEBUG_WARNING, DEBUG_INFO -> Level.DEBUG;
+		};
+	}
+
+	@Override
+	public String toString() {
+		return "SLF4J " + logger.getName();
+	}
+}
@@ -0,0 +1,313 @@
+package de.fva_net.maxs.logger.store;
+
+import de.fva_net.maxs.logger.MaxsMessageType;
+import de.fva_net.maxs.logger.xml.Notification;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Notification store with bounded memory, for long-running processes that never reset the logger.
+ * <p>
+ * The notifications are kept in one ring buffer per message type. If the maximum number of notifications or the
+ * maximum estimated size is exceeded, the oldest notification of the least important message type is evicted:
+ * {@link MaxsMessageType#DEBUG_INFO} goes first and {@link MaxsMessageType#ERROR} is kept longest. The ring buffers are
+ * merged by the order the notifications were added when they are read.
+ */
+public class BoundedNotificationStore implements NotificationStore {
+
+	/**
+	 * The message types in the order they are evicted: by severity, and debug before regular messages of the same
+	 * severity.
+	 */
+	private static final MaxsMessageType[] EVICTION_ORDER = Arrays.stream(MaxsMessageType.values())
+			.sorted(Comparator.comparingInt(MaxsMessageType::getSeverity).thenComparing(type -> !type.isDebug()))
+			.toArray(MaxsMessageType[]::new);
+
+	/**
+	 * The maximum number of notifications, or 0 for no limit.
+	 */
+	private final int maxNotifications;
+
+	/**
+	 * The maximum estimated size of the notifications in bytes, or 0 for no limit.
+	 */
+	private final long maxBytes;
+
+	/**
+	 * The ring buffers indexed by the ordinal of the message types. Notifications without type use an extra ring
+	 * buffer, which is evicted first.
+	 */
+	private final Ring[] rings = new Ring[MaxsMessageType.values().length + 1];
+
+	/**
+	 * The number of evicted notifications indexed like the ring buffers.
+	 */
+	private final long[] evicted = new long[rings.length];
+
+	/**
+	 * The sequence number of the next notification.
+	 */
+	private long sequence;
+
+	/**
+	 * The number of retained notifications.
+	 */
+	private int size;
+
+	/**
+	 * The estimated size of the retained notifications in bytes.
+	 */
+	private long bytes;
+
+	/**
+	 * Creates a new store.
+	 *
+	 * @param maxNotifications the maximum number of notifications, or 0 for no limit
+	 * @param maxBytes         the maximum estimated size of the notifications in bytes, or 0 for no limit
+	 */
+	public BoundedNotificationStore(final int maxNotifications, final long maxBytes) {
+		if (maxNotifications < 0 || maxBytes < 0) {
+			throw new IllegalArgumentException("The bounds of the store must not be negative.");
+		}
+		this.maxNotifications = maxNotifications;
+		this.maxBytes = maxBytes;
+		for (int i = 0; i < rings.length; i++) {
+			rings[i] = new Ring();
+		}
+	}
+
+	@Override
+	public synchronized void add(final Notification notification) {
+		add(notification, NotificationSizes.estimate(notification));
+	}
+
+	/**
+	 * Adds a notification that may grow after it has been added. Its size is estimated from the largest shape it can
+	 * reach, so the bound on the bytes also holds after the notification has changed.
+	 *
+	 * @param notification the notification to add
+	 */
+	@Override
+	public synchronized void addMutable(final Notification notification) {
+		add(notification, NotificationSizes.estimateMutable(notification));
+	}
+
+	/**
+	 * Adds a notification with its estimated size and evicts notifications until the bounds are kept.
+	 *
+	 * @param notification      the notification
+	 * @param notificationBytes the estimated size of the notification
+	 */
+	private void add(final Notification notification, final long notificationBytes) {
+		rings[ringIndex(notification.getType())].add(sequence++, notification, notificationBytes);
+		size++;
+		bytes += notificationBytes;
+		while (size > 0 && ((maxNotifications > 0 && size > maxNotifications) || (maxBytes > 0 && bytes > maxBytes))) {
+			evictOne();
+		}
+	}
+
+	@Override
+	public synchronized void addAll(final Collection<Notification> notifications) {
+		for (final Notification notification : notifications) {
+			add(notification);
+		}
+	}
+
+	@Override
+	public synchronized List<Notification> getAll() {
+		final List<Notification> merged = new ArrayList<>(size);
+		final int[] positions = new int[rings.length];
+		for (int i = 0; i < size; i++) {
+			int next = -1;
+			long nextSequence = Long.MAX_VALUE;
+			for (int r = 0; r < rings.length; r++) {
+				final Ring ring = rings[r];
+				if (positions[r] < ring.size && ring.sequenceAt(positions[r]) < nextSequence) {
+					next = r;
+					nextSequence = ring.sequenceAt(positions[r]);
+				}
+			}
+			merged.add(rings[next].notificationAt(positions[next]++));
+		}
+		return Collections.unmodifiableList(merged);
+	}
+
+	@Override
+	public synchronized int size() {
+		return size;
+	}
+
+	@Override
+	public synchronized void clear() {
+		for (final Ring ring : rings) {
+			ring.clear();
+		}
+		Arrays.fill(evicted, 0);
+		size = 0;
+		bytes = 0;
+	}
+
+	@Override
+	public synchronized long getEstimatedBytes() {
+		return bytes;
+	}
+
+	@Override
+	public synchronized long getEvictedCount() {
+		long count = 0;
+		for (final long value : evicted) {
+			count += value;
+		}
+		return count;
+	}
+
+	@Override
+	public synchronized long getEvictedCount(final MaxsMessageType type) {
+		return evicted[ringIndex(type)];
+	}
+
+	/**
+	 * Evicts the oldest notification of the least important message type.
+	 */
+	private void evictOne() {
+		int index = rings.length - 1;
+		if (rings[index].size == 0) {
+			for (final MaxsMessageType type : EVICTION_ORDER) {
+				if (rings[type.ordinal()].size > 0) {
+					index = type.ordinal();
+					break;
+				}
+			}
+		}
+		bytes -= rings[index].removeFirst();
+		evicted[index]++;
+		size--;
+	}
+
+	/**
+	 * Returns the index of the ring buffer of the message type.
+	 *
+	 * @param type the message type, may be null
+	 * @return the index of the ring buffer
+	 */
+	private int ringIndex(final MaxsMessageType type) {
+		return type != null ? type.ordinal() : rings.length - 1;
+	}
+
+	/**
+	 * Ring buffer of the notifications of a single message type, growing on demand.
+	 */
+	private static final class Ring {
+
+		/**
+		 * The sequence numbers of the notifications.
+		 */
+		private long[] sequences = new long[16];
+
+		/**
+		 * The notifications.
+		 */
+		private Notification[] notifications = new Notification[16];
+
+		/**
+		 * The estimated sizes of the notifications.
+		 */
+		private long[] sizes = new long[16];
+
+		/**
+		 * The physical index of the oldest notification.
+		 */
+		private int head;
+
+		/**
+		 * The number of notifications in the ring buffer.
+		 */
+		private int size;
+
+		/**
+		 * Appends a notification.
+		 *
+		 * @param sequence          the sequence number
+		 * @param notification      the notification
+		 * @param notificationBytes the estimated size of the notification
+		 */
+		private void add(final long sequence, final Notification notification, final long notificationBytes) {
+			if (size == notifications.length) {
+				grow();
+			}
+			final int index = (head + size) % notifications.length;
+			sequences[index] = sequence;
+			notifications[index] = notification;
+			sizes[index] = notificationBytes;
+			size++;
+		}
+
+		/**
+		 * Removes the oldest notification.
+		 *
+		 * @return the estimated size of the removed notification
+		 */
+		private long removeFirst() {
+			final long removedBytes = sizes[head];
+			notifications[head] = null;
+			head = (head + 1) % notifications.length;
+			size--;
+			return removedBytes;
+		}
+
+		/**
+		 * Returns the sequence number at the logical position.
+		 *
+		 * @param position the position, 0 is the oldest notification
+		 * @return the sequence number
+		 */
+		private long sequenceAt(final int position) {
+			return sequences[(head + position) % sequences.length];
+		}
+
+		/**
+		 * Returns the notification at the logical position.
+		 *
+		 * @param position the position, 0 is the oldest notification
+		 * @return the notification
+		 */
+		private Notification notificationAt(final int position) {
+			return notifications[(head + position) % notifications.length];
+		}
+
+		/**
+		 * Doubles the capacity and moves the oldest notification to the physical index 0.
+		 */
+		private void grow() {
+			final int capacity = notifications.length * 2;
+			final long[] newSequences = new long[capacity];
+			final Notification[] newNotifications = new Notification[capacity];
+			final long[] newSizes = new long[capacity];
+			for (int i = 0; i < size; i++) {
+				final int index = (head + i) % notifications.length;
+				newSequences[i] = sequences[index];
+				newNotifications[i] = notifications[index];
+				newSizes[i] = sizes[index];
+			}
+			sequences = newSequences;
+			notifications = newNotifications;
+			sizes = newSizes;
+			head = 0;
+		}
+
+		/**
+		 * Removes all notifications, the capacity is kept.
+		 */
+		private void clear() {
+			Arrays.fill(notifications, null);
+			head = 0;
+			size = 0;
+		}
+	}
+}
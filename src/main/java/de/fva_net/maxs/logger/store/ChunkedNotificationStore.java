@@ -0,0 +1,388 @@
+package de.fva_net.maxs.logger.store;
+
+import de.fva_net.maxs.logger.MaxsMessageType;
+import de.fva_net.maxs.logger.xml.Notification;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Append-only notification store that hands out immutable snapshots in constant time.
+ * <p>
+ * The notifications are kept in chunks, which are never moved or overwritten once a notification has been written to
+ * them. Each chunk is twice as large as the previous one, so a fixed array of chunk references covers the whole
+ * capacity and growing the store only allocates a new chunk. {@link #getAll()} therefore returns a view of the chunks
+ * up to the current size without copying anything. Later writes only fill slots beyond the size of the view, and
+ * {@link #clear()} starts new chunks, so a snapshot never changes once it has been taken.
+ * <p>
+ * Writers do not lock: each writer claims a slot with an atomic counter, fills it and then advances the published size
+ * over all consecutive filled slots, including those of other writers. A notification is therefore visible to the
+ * readers as soon as all notifications claimed before it have been written.
+ * <p>
+ * Like the {@link ConcurrentNotificationStore}, the store indexes the notifications by message type, routine and
+ * component ID, so {@link #find(NotificationQuery) queries} only visit the notifications of the most selective index.
+ * The indexes are brought up to date by the queries, so only readers lock them.
+ */
+public class ChunkedNotificationStore implements NotificationStore {
+
+	/**
+	 * The base-2 logarithm of the number of notifications of the first chunk.
+	 */
+	private static final int CHUNK_SHIFT = 10;
+
+	/**
+	 * The number of notifications of the first chunk.
+	 */
+	private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+	/**
+	 * The number of chunks, which together hold {@link #MAX_SIZE} notifications.
+	 */
+	private static final int MAX_CHUNKS = Integer.SIZE - 1 - CHUNK_SHIFT;
+
+	/**
+	 * The maximum number of notifications.
+	 */
+	private static final int MAX_SIZE = Integer.MAX_VALUE - CHUNK_SIZE + 1;
+
+	/**
+	 * Access to the slots of a chunk.
+	 */
+	private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(Notification[].class);
+
+	/**
+	 * Access to the chunk references.
+	 */
+	private static final VarHandle CHUNKS = MethodHandles.arrayElementVarHandle(Notification[][].class);
+
+	/**
+	 * The index of a criterion that matches no notification.
+	 */
+	private static final IntList NO_MATCH = new IntList();
+
+	/**
+	 * The chunks since the last {@link #clear()}.
+	 */
+	private volatile Chunks chunks = new Chunks();
+
+	@Override
+	public void add(final Notification notification) {
+		chunks.append(notification);
+	}
+
+	@Override
+	public void addAll(final Collection<Notification> notifications) {
+		final Chunks current = chunks;
+		for (final Notification notification : notifications) {
+			current.append(notification);
+		}
+	}
+
+	/**
+	 * Returns an immutable snapshot of the notifications, without copying them.
+	 *
+	 * @return the notifications in the order they were added
+	 */
+	@Override
+	public List<Notification> getAll() {
+		final Chunks current = chunks;
+		final int size = current.size.get();
+		return size == 0 ? List.of() : new Snapshot(current.spine, size);
+	}
+
+	@Override
+	public List<Notification> find(final NotificationQuery query) {
+		final Chunks current = chunks;
+		final int size = current.size.get();
+		final List<Notification> matches = new ArrayList<>();
+		synchronized (current) {
+			current.index(size);
+			final IntList candidates = current.candidates(query);
+			final int count = candidates != null ? candidates.size() : size;
+			for (int i = 0; i < count; i++) {
+				final int position = candidates != null ? candidates.get(i) : i;
+				if (position >= size) {
+					break;
+				}
+				final Notification notification = current.get(position);
+				if (query.matches(notification)) {
+					matches.add(notification);
+				}
+			}
+		}
+		return Collections.unmodifiableList(matches);
+	}
+
+	@Override
+	public int count(final NotificationQuery query) {
+		return chunks.scan(query, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public boolean exists(final NotificationQuery query) {
+		return chunks.scan(query, 1) > 0;
+	}
+
+	@Override
+	public int size() {
+		return chunks.size.get();
+	}
+
+	/**
+	 * Removes all notifications. Snapshots taken before keep their notifications.
+	 */
+	@Override
+	public void clear() {
+		chunks = new Chunks();
+	}
+
+	/**
+	 * Returns the index of the chunk of a position.
+	 *
+	 * @param position the position
+	 * @return the index of the chunk
+	 */
+	private static int chunkIndex(final int position) {
+		return Integer.SIZE - 1 - Integer.numberOfLeadingZeros(position + CHUNK_SIZE) - CHUNK_SHIFT;
+	}
+
+	/**
+	 * Returns the offset of a position within its chunk.
+	 *
+	 * @param position the position
+	 * @return the offset within the chunk
+	 */
+	private static int chunkOffset(final int position) {
+		final int shifted = position + CHUNK_SIZE;
+		return shifted - Integer.highestOneBit(shifted);
+	}
+
+	/**
+	 * Returns the smaller of the indexes.
+	 *
+	 * @param best      the smallest index so far, or null
+	 * @param candidate the index of a criterion, or null if no notification has the value of the criterion
+	 * @return the smaller index
+	 */
+	private static IntList smaller(final IntList best, final IntList candidate) {
+		if (candidate == null) {
+			return NO_MATCH;
+		}
+		return best == null || candidate.size() < best.size() ? candidate : best;
+	}
+
+	/**
+	 * The chunks of the notifications added since the store has been created or cleared, with their indexes. The
+	 * indexes are guarded by this object.
+	 */
+	private static final class Chunks {
+
+		/**
+		 * The chunks, which are installed once and never replaced.
+		 */
+		private final Notification[][] spine = new Notification[MAX_CHUNKS][];
+
+		/**
+		 * The number of claimed slots.
+		 */
+		private final AtomicInteger claimed = new AtomicInteger();
+
+		/**
+		 * The number of notifications visible to the readers. All slots below it have been written.
+		 */
+		private final AtomicInteger size = new AtomicInteger();
+
+		/**
+		 * The positions of the notifications by the ordinal of their message type.
+		 */
+		private final IntList[] byType = new IntList[MaxsMessageType.values().length];
+
+		/**
+		 * The positions of the notifications by their routine.
+		 */
+		private final Map<String, IntList> byRoutine = new HashMap<>();
+
+		/**
+		 * The positions of the notifications by their component ID.
+		 */
+		private final Map<Integer, IntList> byCompId = new HashMap<>();
+
+		/**
+		 * The number of indexed notifications.
+		 */
+		private int indexed;
+
+		/**
+		 * Claims the next slot, writes the notification into it and publishes it.
+		 *
+		 * @param notification the notification
+		 */
+		private void append(final Notification notification) {
+			final int position = claimed.getAndIncrement();
+			if (position < 0 || position >= MAX_SIZE) {
+				throw new IllegalStateException("The store cannot hold more than " + MAX_SIZE + " notifications");
+			}
+			SLOTS.setVolatile(chunkFor(chunkIndex(position)), chunkOffset(position), notification);
+			publish();
+		}
+
+		/**
+		 * Advances the size over all consecutive written slots. Each writer calls it after writing its slot, so the last
+		 * writer of a gap publishes the slots written behind it by the others.
+		 */
+		private void publish() {
+			int published = size.get();
+			while (published < MAX_SIZE) {
+				final Notification[] chunk = (Notification[]) CHUNKS.getVolatile(spine, chunkIndex(published));
+				if (chunk == null || SLOTS.getVolatile(chunk, chunkOffset(published)) == null) {
+					return;
+				}
+				final int witness = size.compareAndExchange(published, published + 1);
+				published = witness == published ? published + 1 : witness;
+			}
+		}
+
+		/**
+		 * Returns a chunk, which is allocated by the first writer that needs it.
+		 *
+		 * @param index the index of the chunk
+		 * @return the chunk
+		 */
+		private Notification[] chunkFor(final int index) {
+			final Notification[] chunk = (Notification[]) CHUNKS.getVolatile(spine, index);
+			if (chunk != null) {
+				return chunk;
+			}
+			final Notification[] created = new Notification[CHUNK_SIZE << index];
+			final Notification[] witness = (Notification[]) CHUNKS.compareAndExchange(spine, index, null, created);
+			return witness != null ? witness : created;
+		}
+
+		/**
+		 * Returns the notification at a position below the size.
+		 *
+		 * @param position the position
+		 * @return the notification
+		 */
+		private Notification get(final int position) {
+			return spine[chunkIndex(position)][chunkOffset(position)];
+		}
+
+		/**
+		 * Visits the notifications of the most selective index and counts those that match the query.
+		 *
+		 * @param query the query
+		 * @param limit the maximum number of matches
+		 * @return the number of matches
+		 */
+		private synchronized int scan(final NotificationQuery query, final int limit) {
+			final int visible = size.get();
+			index(visible);
+			final IntList candidates = candidates(query);
+			final int count = candidates != null ? candidates.size() : visible;
+			int found = 0;
+			for (int i = 0; i < count && found < limit; i++) {
+				final int position = candidates != null ? candidates.get(i) : i;
+				if (position >= visible) {
+					break;
+				}
+				if (query.matches(get(position))) {
+					found++;
+				}
+			}
+			return found;
+		}
+
+		/**
+		 * Adds the notifications up to a published size to the indexes. Must be called while holding the lock.
+		 *
+		 * @param visible the published size
+		 */
+		private void index(final int visible) {
+			for (; indexed < visible; indexed++) {
+				final Notification notification = get(indexed);
+				if (notification.getType() != null) {
+					final int type = notification.getType().ordinal();
+					if (byType[type] == null) {
+						byType[type] = new IntList();
+					}
+					byType[type].add(indexed);
+				}
+				if (notification.getRoutine() != null) {
+					byRoutine.computeIfAbsent(notification.getRoutine(), key -> new IntList()).add(indexed);
+				}
+				if (notification.getCompId() != null) {
+					byCompId.computeIfAbsent(notification.getCompId(), key -> new IntList()).add(indexed);
+				}
+			}
+		}
+
+		/**
+		 * Returns the smallest index that contains all matches of the query. Must be called while holding the lock.
+		 *
+		 * @param query the query
+		 * @return the positions of the candidates, or null if all notifications are candidates
+		 */
+		private IntList candidates(final NotificationQuery query) {
+			IntList best = null;
+			if (query.getRoutine() != null) {
+				best = smaller(best, byRoutine.get(query.getRoutine()));
+			}
+			if (query.getCompId() != null) {
+				best = smaller(best, byCompId.get(query.getCompId()));
+			}
+			if (query.getTypes().size() == 1) {
+				best = smaller(best, byType[query.getTypes().iterator().next().ordinal()]);
+			}
+			return best;
+		}
+	}
+
+	/**
+	 * Immutable view of the first notifications of the chunks.
+	 */
+	private static final class Snapshot extends AbstractList<Notification> implements RandomAccess {
+
+		/**
+		 * The chunks at the time of the snapshot.
+		 */
+		private final Notification[][] spine;
+
+		/**
+		 * The number of notifications of the snapshot.
+		 */
+		private final int size;
+
+		/**
+		 * Creates a new snapshot.
+		 *
+		 * @param spine the chunks
+		 * @param size  the number of notifications
+		 */
+		private Snapshot(final Notification[][] spine, final int size) {
+			this.spine = spine;
+			this.size = size;
+		}
+
+		@Override
+		public Notification get(final int index) {
+			Objects.checkIndex(index, size);
+			return spine[chunkIndex(index)][chunkOffset(index)];
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+}
@@ -0,0 +1,330 @@
+package de.fva_net.maxs.logger.store;
+
+import de.fva_net.maxs.logger.MaxsMessageTemplate;
+import de.fva_net.maxs.logger.MaxsMessageType;
+import de.fva_net.maxs.logger.xml.Item;
+import de.fva_net.maxs.logger.xml.Notification;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Notification store with a compact columnar representation, for jobs that log millions of notifications.
+ * <p>
+ * The fields of the notifications are kept in primitive arrays. Routines and attribute IDs are interned in a symbol
+ * table, component IDs and values are not boxed, and messages are kept by reference, messages given as template with
+ * their template and arguments. {@link Notification} and
+ * {@link Item} objects are only created when the notifications are read, so each call of {@link #getAll()} returns new
+ * objects and changes to them do not affect the store.
+ * <p>
+ * Notifications that are changed after they have been added, e.g. aggregated notifications, are added with
+ * {@link #addMutable(Notification)} and kept as objects. All methods are synchronized.
+ */
+public class CompactNotificationStore implements NotificationStore {
+
+	/**
+	 * The type of a row without message type.
+	 */
+	private static final byte NO_TYPE = -1;
+
+	/**
+	 * The type of a row that is kept as object.
+	 */
+	private static final byte MUTABLE = -2;
+
+	/**
+	 * The estimated size of a row, without message and items.
+	 */
+	private static final int ROW_BYTES = 4 + 4 + 1 + 1 + 4 + 4;
+
+	/**
+	 * The estimated size of an item.
+	 */
+	private static final int ITEM_BYTES = 4 + 4 + 1 + 8;
+
+	/**
+	 * The message types by their ordinal.
+	 */
+	private static final MaxsMessageType[] TYPES = MaxsMessageType.values();
+
+	/**
+	 * The interned routines and attribute IDs.
+	 */
+	private final SymbolTable symbols = new SymbolTable();
+
+	/**
+	 * The notifications that are kept as objects by their row.
+	 */
+	private final Map<Integer, Notification> mutableRows = new HashMap<>();
+
+	/**
+	 * The symbol indices of the routines.
+	 */
+	private int[] routines = new int[64];
+
+	/**
+	 * The component IDs.
+	 */
+	private int[] compIds = new int[64];
+
+	/**
+	 * Indicates whether the row has a component ID.
+	 */
+	private boolean[] hasCompIds = new boolean[64];
+
+	/**
+	 * The ordinals of the message types, or {@link #NO_TYPE} or {@link #MUTABLE}.
+	 */
+	private byte[] types = new byte[64];
+
+	/**
+	 * The messages, or the arguments of the messages given as template.
+	 */
+	private Object[] messages = new Object[64];
+
+	/**
+	 * The templates of the messages, or null for the messages given as string.
+	 */
+	private MaxsMessageTemplate[] templates = new MaxsMessageTemplate[64];
+
+	/**
+	 * The index of the first item of each row, the items of a row end at the first item of the next row.
+	 */
+	private int[] itemOffsets = new int[65];
+
+	/**
+	 * The symbol indices of the attribute IDs of the items.
+	 */
+	private int[] itemAttrIds = new int[64];
+
+	/**
+	 * The component IDs of the items.
+	 */
+	private int[] itemCompIds = new int[64];
+
+	/**
+	 * Indicates whether the item has a component ID.
+	 */
+	private boolean[] itemHasCompIds = new boolean[64];
+
+	/**
+	 * The values of the items.
+	 */
+	private double[] itemValues = new double[64];
+
+	/**
+	 * The number of rows.
+	 */
+	private int size;
+
+	/**
+	 * The number of items.
+	 */
+	private int itemCount;
+
+	/**
+	 * The estimated size of the rows in bytes.
+	 */
+	private long bytes;
+
+	@Override
+	public synchronized void add(final Notification notification) {
+		ensureRowCapacity();
+		routines[size] = symbols.intern(notification.getRoutine());
+		hasCompIds[size] = notification.getCompId() != null;
+		compIds[size] = hasCompIds[size] ? notification.getCompId() : 0;
+		types[size] = notification.getType() != null ? (byte) notification.getType().ordinal() : NO_TYPE;
+		templates[size] = notification.getMessageTemplate();
+		messages[size] = templates[size] != null ? notification.getMessageArguments() : notification.getMessage();
+		bytes += ROW_BYTES + NotificationSizes.estimateMessage(notification);
+		if (notification.hasData()) {
+			for (final Item item : notification.getData()) {
+				addItem(item);
+			}
+		}
+		size++;
+		itemOffsets[size] = itemCount;
+	}
+
+	@Override
+	public synchronized void addAll(final Collection<Notification> notifications) {
+		for (final Notification notification : notifications) {
+			add(notification);
+		}
+	}
+
+	@Override
+	public synchronized void addMutable(final Notification notification) {
+		ensureRowCapacity();
+		types[size] = MUTABLE;
+		mutableRows.put(size, notification);
+		bytes += ROW_BYTES + NotificationSizes.estimate(notification);
+		size++;
+		itemOffsets[size] = itemCount;
+	}
+
+	@Override
+	public synchronized List<Notification> getAll() {
+		final List<Notification> notifications = new ArrayList<>(size);
+		for (int row = 0; row < size; row++) {
+			notifications.add(toNotification(row));
+		}
+		return Collections.unmodifiableList(notifications);
+	}
+
+	@Override
+	public synchronized List<Notification> find(final NotificationQuery query) {
+		final List<Notification> matches = new ArrayList<>();
+		scan(query, matches, Integer.MAX_VALUE);
+		return Collections.unmodifiableList(matches);
+	}
+
+	@Override
+	public synchronized int count(final NotificationQuery query) {
+		return scan(query, null, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public synchronized boolean exists(final NotificationQuery query) {
+		return scan(query, null, 1) > 0;
+	}
+
+	@Override
+	public synchronized int size() {
+		return size;
+	}
+
+	@Override
+	public synchronized void clear() {
+		Arrays.fill(messages, 0, size, null);
+		Arrays.fill(templates, 0, size, null);
+		mutableRows.clear();
+		symbols.clear();
+		size = 0;
+		itemCount = 0;
+		bytes = 0;
+	}
+
+	@Override
+	public synchronized long getEstimatedBytes() {
+		return bytes;
+	}
+
+	/**
+	 * Scans the columns for rows matching the query. Views are only created for the matching rows.
+	 *
+	 * @param query   the query
+	 * @param matches receives the views of the matching rows, or null if they are only counted
+	 * @param limit   the maximum number of matches
+	 * @return the number of matches
+	 */
+	private int scan(final NotificationQuery query, final List<Notification> matches, final int limit) {
+		final boolean anyType = query.getTypes().isEmpty();
+		final boolean[] typeMask = new boolean[TYPES.length];
+		for (final MaxsMessageType type : query.getTypes()) {
+			typeMask[type.ordinal()] = true;
+		}
+		final boolean anyRoutine = query.getRoutine() == null;
+		final int routine = symbols.indexOf(query.getRoutine());
+		final boolean anyCompId = query.getCompId() == null;
+		final int compId = anyCompId ? 0 : query.getCompId();
+
+		int found = 0;
+		for (int row = 0; row < size && found < limit; row++) {
+			final boolean match;
+			if (types[row] == MUTABLE) {
+				match = query.matches(mutableRows.get(row));
+			} else {
+				match = (anyType || (types[row] != NO_TYPE && typeMask[types[row]]))
+						&& (anyRoutine || routines[row] == routine)
+						&& (anyCompId || (hasCompIds[row] && compIds[row] == compId));
+			}
+			if (match) {
+				found++;
+				if (matches != null) {
+					matches.add(toNotification(row));
+				}
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Creates the view of a row.
+	 *
+	 * @param row the row
+	 * @return the notification
+	 */
+	private Notification toNotification(final int row) {
+		if (types[row] == MUTABLE) {
+			return mutableRows.get(row);
+		}
+		final Notification notification = new Notification();
+		notification.setRoutine(symbols.get(routines[row]));
+		notification.setCompId(hasCompIds[row] ? compIds[row] : null);
+		notification.setType(types[row] != NO_TYPE ? TYPES[types[row]] : null);
+		if (templates[row] != null) {
+			notification.setMessage(templates[row], (Object[]) messages[row]);
+		} else {
+			notification.setMessage((String) messages[row]);
+		}
+		final int start = itemOffsets[row];
+		final int end = itemOffsets[row + 1];
+		if (end > start) {
+			final List<Item> data = new ArrayList<>(end - start);
+			for (int i = start; i < end; i++) {
+				final Item item = new Item();
+				item.setAttrId(symbols.get(itemAttrIds[i]));
+				item.setCompId(itemHasCompIds[i] ? itemCompIds[i] : null);
+				item.setValue(itemValues[i]);
+				data.add(item);
+			}
+			notification.setData(data);
+		}
+		return notification;
+	}
+
+	/**
+	 * Appends an item of the current row.
+	 *
+	 * @param item the item
+	 */
+	private void addItem(final Item item) {
+		if (itemCount == itemValues.length) {
+			final int capacity = itemCount * 2;
+			itemAttrIds = Arrays.copyOf(itemAttrIds, capacity);
+			itemCompIds = Arrays.copyOf(itemCompIds, capacity);
+			itemHasCompIds = Arrays.copyOf(itemHasCompIds, capacity);
+			itemValues = Arrays.copyOf(itemValues, capacity);
+		}
+		itemAttrIds[itemCount] = symbols.intern(item.getAttrId());
+		itemHasCompIds[itemCount] = item.getCompId() != null;
+		itemCompIds[itemCount] = itemHasCompIds[itemCount] ? item.getCompId() : 0;
+		itemValues[itemCount] = item.getValue();
+		itemCount++;
+		bytes += ITEM_BYTES;
+	}
+
+	/**
+	 * Grows the row arrays, if they are full.
+	 */
+	private void ensureRowCapacity() {
+		if (size < types.length) {
+			return;
+		}
+		final int capacity = size * 2;
+		routines = Arrays.copyOf(routines, capacity);
+		compIds = Arrays.copyOf(compIds, capacity);
+		hasCompIds = Arrays.copyOf(hasCompIds, capacity);
+		types = Arrays.copyOf(types, capacity);
+		messages = Arrays.copyOf(messages, capacity);
+		templates = Arrays.copyOf(templates, capacity);
+		itemOffsets = Arrays.copyOf(itemOffsets, capacity + 1);
+	}
+
+}
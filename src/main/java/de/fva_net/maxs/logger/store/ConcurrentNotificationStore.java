@@ -0,0 +1,408 @@
+package de.fva_net.maxs.logger.store;
+
+import de.fva_net.maxs.logger.MaxsMessageType;
+import de.fva_net.maxs.logger.xml.Notification;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Notification store for concurrent writers without a global lock.
+ * <p>
+ * Each thread appends to its own buffer. Every notification is stamped with a global sequence number, and the buffers
+ * are merged by this number when the notifications are read. A buffer is only locked by its own thread and by readers,
+ * so writers from different threads do not contend. The buffer of a thread that has terminated is removed as soon as it
+ * is empty, i.e. by the next {@link #clear()} or by the first read after that.
+ * <p>
+ * Each buffer indexes its notifications by message type, routine and component ID, so {@link #find(NotificationQuery)
+ * queries} only visit the notifications of the most selective index instead of copying all notifications.
+ */
+public class ConcurrentNotificationStore implements NotificationStore {
+
+	/**
+	 * The index of a criterion that matches no notification.
+	 */
+	private static final IntList NO_MATCH = new IntList();
+
+	/**
+	 * The global sequence number of the next notification.
+	 */
+	private final AtomicLong sequence = new AtomicLong();
+
+	/**
+	 * The buffers of the writing threads, until the threads have terminated and the buffers are empty.
+	 */
+	private final Queue<Buffer> buffers = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * The buffer of the current thread.
+	 */
+	private final ThreadLocal<Buffer> localBuffer = ThreadLocal.withInitial(this::createBuffer);
+
+	@Override
+	public void add(final Notification notification) {
+		localBuffer.get().add(notification);
+	}
+
+	@Override
+	public void addAll(final Collection<Notification> notifications) {
+		localBuffer.get().addAll(notifications);
+	}
+
+	@Override
+	public List<Notification> getAll() {
+		pruneBuffers();
+		// only notifications that have been stamped before this point in time are part of the view
+		final long end = sequence.get();
+		final List<Buffer> copies = new ArrayList<>();
+		int total = 0;
+		for (final Buffer buffer : buffers) {
+			final Buffer copy = buffer.copy(end);
+			if (copy.size > 0) {
+				copies.add(copy);
+				total += copy.size;
+			}
+		}
+		if (copies.size() == 1) {
+			return Collections.unmodifiableList(Arrays.asList(copies.get(0).notifications).subList(0, total));
+		}
+		return Collections.unmodifiableList(merge(copies, total));
+	}
+
+	@Override
+	public List<Notification> find(final NotificationQuery query) {
+		final long end = sequence.get();
+		final List<Buffer> matches = new ArrayList<>();
+		int total = 0;
+		for (final Buffer buffer : buffers) {
+			final Buffer match = new Buffer(16, false);
+			final int found = buffer.scan(query, end, match, Integer.MAX_VALUE);
+			if (found > 0) {
+				matches.add(match);
+				total += found;
+			}
+		}
+		if (matches.size() == 1) {
+			return Collections.unmodifiableList(Arrays.asList(matches.get(0).notifications).subList(0, total));
+		}
+		return Collections.unmodifiableList(merge(matches, total));
+	}
+
+	@Override
+	public int count(final NotificationQuery query) {
+		final long end = sequence.get();
+		int count = 0;
+		for (final Buffer buffer : buffers) {
+			count += buffer.scan(query, end, null, Integer.MAX_VALUE);
+		}
+		return count;
+	}
+
+	@Override
+	public boolean exists(final NotificationQuery query) {
+		final long end = sequence.get();
+		for (final Buffer buffer : buffers) {
+			if (buffer.scan(query, end, null, 1) > 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public int size() {
+		int size = 0;
+		for (final Buffer buffer : buffers) {
+			size += buffer.size();
+		}
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		for (final Buffer buffer : buffers) {
+			buffer.clear();
+		}
+		pruneBuffers();
+	}
+
+	/**
+	 * Returns the number of buffers of the writing threads.
+	 *
+	 * @return the number of buffers
+	 */
+	int getBufferCount() {
+		return buffers.size();
+	}
+
+	/**
+	 * Creates and registers the buffer for the current thread.
+	 *
+	 * @return the new buffer
+	 */
+	private Buffer createBuffer() {
+		final Buffer buffer = new Buffer(16, true);
+		buffer.owner = new WeakReference<>(Thread.currentThread());
+		buffers.add(buffer);
+		return buffer;
+	}
+
+	/**
+	 * Removes the empty buffers of the threads that have terminated. Such a thread cannot add notifications any more,
+	 * so its buffer stays empty.
+	 */
+	private void pruneBuffers() {
+		buffers.removeIf(buffer -> buffer.isAbandoned() && buffer.size() == 0);
+	}
+
+	/**
+	 * Merges the sorted buffers by their sequence numbers.
+	 *
+	 * @param copies the buffers to merge
+	 * @param total  the total number of notifications
+	 * @return the merged notifications
+	 */
+	private static List<Notification> merge(final List<Buffer> copies, final int total) {
+		final List<Notification> merged = new ArrayList<>(total);
+		final int[] positions = new int[copies.size()];
+		for (int i = 0; i < total; i++) {
+			int next = -1;
+			long nextSequence = Long.MAX_VALUE;
+			for (int b = 0; b < copies.size(); b++) {
+				final Buffer copy = copies.get(b);
+				if (positions[b] < copy.size && copy.sequences[positions[b]] < nextSequence) {
+					next = b;
+					nextSequence = copy.sequences[positions[b]];
+				}
+			}
+			merged.add(copies.get(next).notifications[positions[next]++]);
+		}
+		return merged;
+	}
+
+	/**
+	 * Append buffer of a single thread.
+	 */
+	private final class Buffer {
+
+		/**
+		 * The sequence numbers of the notifications.
+		 */
+		private long[] sequences;
+
+		/**
+		 * The notifications.
+		 */
+		private Notification[] notifications;
+
+		/**
+		 * The number of notifications in the buffer.
+		 */
+		private int size;
+
+		/**
+		 * The thread that writes to the buffer, or null if the buffer is a copy. The thread is referenced weakly, so a
+		 * terminated thread is not kept alive by its buffer.
+		 */
+		private WeakReference<Thread> owner;
+
+		/**
+		 * The positions of the notifications by the ordinal of their message type, or null if the buffer is a copy.
+		 */
+		private final IntList[] byType;
+
+		/**
+		 * The positions of the notifications by their routine, or null if the buffer is a copy.
+		 */
+		private final Map<String, IntList> byRoutine;
+
+		/**
+		 * The positions of the notifications by their component ID, or null if the buffer is a copy.
+		 */
+		private final Map<Integer, IntList> byCompId;
+
+		/**
+		 * Creates a new buffer.
+		 *
+		 * @param capacity the initial capacity
+		 * @param indexed  true if the buffer maintains indexes
+		 */
+		private Buffer(final int capacity, final boolean indexed) {
+			sequences = new long[capacity];
+			notifications = new Notification[capacity];
+			byType = indexed ? new IntList[MaxsMessageType.values().length] : null;
+			byRoutine = indexed ? new HashMap<>() : null;
+			byCompId = indexed ? new HashMap<>() : null;
+		}
+
+		/**
+		 * Stamps the notification with the next sequence number and appends it. The number is drawn while holding the
+		 * lock, so a reader that locks the buffer afterwards sees all of its notifications below the current number.
+		 *
+		 * @param notification the notification
+		 */
+		private synchronized void add(final Notification notification) {
+			final int position = size;
+			append(sequence.getAndIncrement(), notification);
+			if (notification.getType() != null) {
+				final int type = notification.getType().ordinal();
+				if (byType[type] == null) {
+					byType[type] = new IntList();
+				}
+				byType[type].add(position);
+			}
+			if (notification.getRoutine() != null) {
+				byRoutine.computeIfAbsent(notification.getRoutine(), key -> new IntList()).add(position);
+			}
+			if (notification.getCompId() != null) {
+				byCompId.computeIfAbsent(notification.getCompId(), key -> new IntList()).add(position);
+			}
+		}
+
+		/**
+		 * Appends the notification with the given sequence number, without indexing it.
+		 *
+		 * @param sequenceNumber the sequence number
+		 * @param notification   the notification
+		 */
+		private void append(final long sequenceNumber, final Notification notification) {
+			if (size == notifications.length) {
+				sequences = Arrays.copyOf(sequences, Math.max(16, size * 2));
+				notifications = Arrays.copyOf(notifications, Math.max(16, size * 2));
+			}
+			sequences[size] = sequenceNumber;
+			notifications[size] = notification;
+			size++;
+		}
+
+		/**
+		 * Visits the notifications of the most selective index and collects those that match the query.
+		 *
+		 * @param query   the query
+		 * @param end     the exclusive upper bound of the sequence numbers
+		 * @param matches receives the matching notifications, or null if they are only counted
+		 * @param limit   the maximum number of matches
+		 * @return the number of matches
+		 */
+		private synchronized int scan(final NotificationQuery query, final long end, final Buffer matches, final int limit) {
+			final IntList candidates = candidates(query);
+			final int count = candidates != null ? candidates.size() : size;
+			int found = 0;
+			for (int i = 0; i < count && found < limit; i++) {
+				final int position = candidates != null ? candidates.get(i) : i;
+				if (sequences[position] >= end) {
+					break;
+				}
+				if (query.matches(notifications[position])) {
+					found++;
+					if (matches != null) {
+						matches.append(sequences[position], notifications[position]);
+					}
+				}
+			}
+			return found;
+		}
+
+		/**
+		 * Returns the smallest index that contains all matches of the query.
+		 *
+		 * @param query the query
+		 * @return the positions of the candidates, or null if all notifications are candidates
+		 */
+		private IntList candidates(final NotificationQuery query) {
+			IntList best = null;
+			if (query.getRoutine() != null) {
+				best = smaller(best, byRoutine.get(query.getRoutine()));
+			}
+			if (query.getCompId() != null) {
+				best = smaller(best, byCompId.get(query.getCompId()));
+			}
+			if (query.getTypes().size() == 1) {
+				best = smaller(best, byType[query.getTypes().iterator().next().ordinal()]);
+			}
+			return best;
+		}
+
+		/**
+		 * Returns the smaller of the indexes.
+		 *
+		 * @param best      the smallest index so far, or null
+		 * @param candidate the index of a criterion, or null if no notification has the value of the criterion
+		 * @return the smaller index
+		 */
+		private IntList smaller(final IntList best, final IntList candidate) {
+			if (candidate == null) {
+				return NO_MATCH;
+			}
+			return best == null || candidate.size() < best.size() ? candidate : best;
+		}
+
+		/**
+		 * Stamps the notifications with consecutive sequence numbers and appends them while holding the lock once.
+		 *
+		 * @param batch the notifications
+		 */
+		private synchronized void addAll(final Collection<Notification> batch) {
+			for (final Notification notification : batch) {
+				add(notification);
+			}
+		}
+
+		/**
+		 * Copies all notifications with a sequence number below the given one.
+		 *
+		 * @param end the exclusive upper bound of the sequence numbers
+		 * @return the copy
+		 */
+		private synchronized Buffer copy(final long end) {
+			int count = size;
+			while (count > 0 && sequences[count - 1] >= end) {
+				count--;
+			}
+			final Buffer copy = new Buffer(0, false);
+			copy.sequences = Arrays.copyOf(sequences, count);
+			copy.notifications = Arrays.copyOf(notifications, count);
+			copy.size = count;
+			return copy;
+		}
+
+		/**
+		 * Returns the number of notifications in the buffer.
+		 *
+		 * @return the number of notifications
+		 */
+		private synchronized int size() {
+			return size;
+		}
+
+		/**
+		 * Checks whether the thread that writes to the buffer has terminated.
+		 *
+		 * @return true if the buffer will not receive notifications any more
+		 */
+		private boolean isAbandoned() {
+			final Thread thread = owner != null ? owner.get() : null;
+			return thread == null || !thread.isAlive();
+		}
+
+		/**
+		 * Removes all notifications from the buffer.
+		 */
+		private synchronized void clear() {
+			Arrays.fill(notifications, 0, size, null);
+			Arrays.fill(byType, null);
+			byRoutine.clear();
+			byCompId.clear();
+			size = 0;
+		}
+	}
+}
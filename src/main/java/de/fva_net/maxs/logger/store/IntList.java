@@ -0,0 +1,52 @@
+package de.fva_net.maxs.logger.store;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive ints, e.g. the positions of the notifications in an index.
+ * <p>
+ * The list is not thread-safe, the owner has to synchronize the access.
+ */
+class IntList {
+
+	/**
+	 * The values.
+	 */
+	private int[] values = new int[8];
+
+	/**
+	 * The number of values.
+	 */
+	private int size;
+
+	/**
+	 * Appends a value.
+	 *
+	 * @param value the value
+	 */
+	void add(final int value) {
+		if (size == values.length) {
+			values = Arrays.copyOf(values, size * 2);
+		}
+		values[size++] = value;
+	}
+
+	/**
+	 * Returns the value at the index.
+	 *
+	 * @param index the index
+	 * @return the value
+	 */
+	int get(final int index) {
+		return values[index];
+	}
+
+	/**
+	 * Returns the number of values.
+	 *
+	 * @return the number of values
+	 */
+	int size() {
+		return size;
+	}
+}
@@ -0,0 +1,253 @@
+package de.fva_net.maxs.logger.store;
+
+import de.fva_net.maxs.logger.MaxsMessageType;
+import de.fva_net.maxs.logger.xml.Item;
+import de.fva_net.maxs.logger.xml.Notification;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Aggregates repeated notifications into a single notification with an occurrence count.
+ * <p>
+ * Two notifications are repeats of each other if their routine, component ID, attribute ID, message and type are
+ * equal. The first notification is kept and counts all repeats in its item {@value #COUNT_ATTRIBUTE}, which is added
+ * after the other items. If the notifications carry data, the item of the first occurrence is kept and a second item
+ * holds the value of the last occurrence.
+ * <p>
+ * At most {@code maxKeys} distinct notifications are tracked. Notifications beyond this limit are not aggregated.
+ */
+public class NotificationAggregator {
+
+	/**
+	 * The attribute ID of the item holding the number of occurrences of an aggregated notification.
+	 */
+	public static final String COUNT_ATTRIBUTE = "occurrence_count";
+
+	/**
+	 * The aggregated notifications by their key.
+	 */
+	private final Map<Key, Aggregate> aggregated = new ConcurrentHashMap<>();
+
+	/**
+	 * The maximum number of distinct notifications that are tracked.
+	 */
+	private final int maxKeys;
+
+	/**
+	 * Indicates whether a repeat has been aggregated since the last call of {@link #resetRepeated()}.
+	 */
+	private volatile boolean repeated;
+
+	/**
+	 * Creates a new aggregator.
+	 *
+	 * @param maxKeys the maximum number of distinct notifications that are tracked
+	 */
+	public NotificationAggregator(final int maxKeys) {
+		if (maxKeys <= 0) {
+			throw new IllegalArgumentException("The maximum number of keys must be positive: " + maxKeys);
+		}
+		this.maxKeys = maxKeys;
+	}
+
+	/**
+	 * Aggregates the notification into a previous occurrence of it.
+	 *
+	 * @param notification the new notification
+	 * @return true if the notification was a repeat and has been aggregated, false if it is new and has to be stored
+	 */
+	public boolean aggregate(final Notification notification) {
+		final Key key = Key.of(notification);
+		Aggregate first = aggregated.get(key);
+		if (first == null) {
+			if (aggregated.size() >= maxKeys) {
+				return false;
+			}
+			first = aggregated.putIfAbsent(key, new Aggregate(notification));
+			if (first == null) {
+				return false;
+			}
+		}
+		first.merge(notification);
+		repeated = true;
+		return true;
+	}
+
+	/**
+	 * Aggregates the notification into a tracked previous occurrence of it. Unlike {@link #aggregate(Notification)}, a
+	 * new notification is not tracked, so it can be tracked once it has been admitted by other checks.
+	 *
+	 * @param notification the new notification
+	 * @return true if the notification was a repeat and has been aggregated, false if it is not tracked
+	 */
+	public boolean aggregateRepeat(final Notification notification) {
+		final Aggregate first = aggregated.get(Key.of(notification));
+		if (first == null) {
+			return false;
+		}
+		first.merge(notification);
+		repeated = true;
+		return true;
+	}
+
+	/**
+	 * Returns the number of occurrences of a notification, which is read from its item {@value #COUNT_ATTRIBUTE}.
+	 *
+	 * @param notification the notification
+	 * @return the number of occurrences, 1 if the notification has not been aggregated
+	 */
+	public static int getCount(final Notification notification) {
+		if (notification.hasData()) {
+			for (final Item item : notification.getData()) {
+				if (COUNT_ATTRIBUTE.equals(item.getAttrId())) {
+					return (int) item.getValue();
+				}
+			}
+		}
+		return 1;
+	}
+
+	/**
+	 * Returns whether the notification is the first occurrence of a tracked notification, which is changed when its
+	 * repeats are aggregated.
+	 *
+	 * @param notification the notification
+	 * @return true if the notification is tracked
+	 */
+	public boolean isTracked(final Notification notification) {
+		final Aggregate aggregate = aggregated.get(Key.of(notification));
+		return aggregate != null && aggregate.first == notification;
+	}
+
+	/**
+	 * Returns whether a repeat has been aggregated since the last call of {@link #resetRepeated()}. Aggregated
+	 * notifications change after they have been stored, so they must be written again in this case.
+	 *
+	 * @return true if a repeat has been aggregated
+	 */
+	public boolean isRepeated() {
+		return repeated;
+	}
+
+	/**
+	 * Resets the flag indicating that a repeat has been aggregated.
+	 */
+	public void resetRepeated() {
+		repeated = false;
+	}
+
+	/**
+	 * Returns the number of distinct notifications that are tracked.
+	 *
+	 * @return the number of tracked notifications
+	 */
+	public int size() {
+		return aggregated.size();
+	}
+
+	/**
+	 * Forgets all tracked notifications.
+	 */
+	public void clear() {
+		aggregated.clear();
+		repeated = false;
+	}
+
+	/**
+	 * A tracked notification with the items added by the aggregation. The items are guarded by the notification.
+	 */
+	private static final class Aggregate {
+
+		/**
+		 * The first occurrence, which is stored and changed by the repeats.
+		 */
+		private final Notification first;
+
+		/**
+		 * The item with the number of occurrences, or null if there has been no repeat yet.
+		 */
+		private Item countItem;
+
+		/**
+		 * The item with the value of the last occurrence, or null if the notifications carry no data.
+		 */
+		private Item lastItem;
+
+		/**
+		 * Creates a new aggregate.
+		 *
+		 * @param first the first occurrence
+		 */
+		private Aggregate(final Notification first) {
+			this.first = first;
+		}
+
+		/**
+		 * Merges the repeat into the first occurrence.
+		 *
+		 * @param repeat the repeated notification
+		 */
+		private void merge(final Notification repeat) {
+			synchronized (first) {
+				if (countItem != null) {
+					countItem.setValue(countItem.getValue() + 1);
+				} else {
+					// replace the list instead of modifying it, as it may be serialized concurrently
+					final List<Item> data = new ArrayList<>(first.hasData() ? first.getData().size() + 2 : 1);
+					if (first.hasData()) {
+						data.addAll(first.getData());
+						final Item firstItem = data.get(0);
+						lastItem = new Item();
+						lastItem.setAttrId(firstItem.getAttrId());
+						lastItem.setCompId(firstItem.getCompId());
+						lastItem.setValue(firstItem.getValue());
+						data.add(lastItem);
+					}
+					countItem = new Item();
+					countItem.setAttrId(COUNT_ATTRIBUTE);
+					countItem.setCompId(first.getCompId());
+					countItem.setValue(2);
+					data.add(countItem);
+					first.setData(data);
+				}
+				if (lastItem != null && repeat.hasData()) {
+					lastItem.setValue(repeat.getData().get(0).getValue());
+				}
+			}
+		}
+	}
+
+	/**
+	 * The key identifying repeated notifications.
+	 *
+	 * @param routine the routine
+	 * @param compId  the component ID
+	 * @param attrId  the attribute ID of the first item
+	 * @param message the message, or the template with its arguments if the message has not been built
+	 * @param type    the type
+	 */
+	private record Key(String routine, Integer compId, String attrId, Object message, MaxsMessageType type) {
+
+		/**
+		 * Creates the key of a notification.
+		 *
+		 * @param notification the notification
+		 * @return the key
+		 */
+		private static Key of(final Notification notification) {
+			// the count item of an aggregated notification without data does not change its key
+			final String attrId = notification.hasData() && !COUNT_ATTRIBUTE.equals(notification.getData().get(0).getAttrId())
+					? notification.getData().get(0).getAttrId()
+					: null;
+			// a message given as template is compared by its template and arguments, so it is not built for the key
+			final Object message = notification.getMessageTemplate() != null
+					? List.of(notification.getMessageTemplate(), Arrays.asList(notification.getMessageArguments()))
+					: notification.getMessage();
+			return new Key(notification.getRoutine(), notification.getCompId(), attrId, message, notification.getType());
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package de.fva_net.maxs.logger.store;
+
+import de.fva_net.maxs.logger.MaxsMessageType;
+import de.fva_net.maxs.logger.xml.Notification;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Criteria of a query for notifications, which a {@link NotificationStore} can answer with its indexes.
+ * <p>
+ * All criteria are combined, a criterion that is not set matches all notifications.
+ */
+@Getter
+public final class NotificationQuery {
+
+	/**
+	 * The message types to match, or an empty set to match all types.
+	 */
+	private final Set<MaxsMessageType> types;
+
+	/**
+	 * The routine ID to match, or null to match all routines.
+	 */
+	private final String routine;
+
+	/**
+	 * The component ID to match, or null to match all components.
+	 */
+	private final Integer compId;
+
+	/**
+	 * Creates a new query.
+	 *
+	 * @param types   the message types to match, or an empty set to match all types
+	 * @param routine the routine ID to match, or null to match all routines
+	 * @param compId  the component ID to match, or null to match all components
+	 */
+	public NotificationQuery(final Set<MaxsMessageType> types, final String routine, final Integer compId) {
+		this.types = types.isEmpty() ? Collections.emptySet() : Collections.unmodifiableSet(EnumSet.copyOf(types));
+		this.routine = routine;
+		this.compId = compId;
+	}
+
+	/**
+	 * Checks whether the notification matches all criteria.
+	 *
+	 * @param notification the notification
+	 * @return true if the notification matches
+	 */
+	public boolean matches(final Notification notification) {
+		return (types.isEmpty() || types.contains(notification.getType()))
+				&& (routine == null || routine.equals(notification.getRoutine()))
+				&& (compId == null || compId.equals(notification.getCompId()));
+	}
+
+	/**
+	 * Checks whether the query has no criteria and matches all notifications.
+	 *
+	 * @return true if the query matches all notifications
+	 */
+	public boolean matchesAll() {
+		return types.isEmpty() && routine == null && compId == null;
+	}
+
+	@Override
+	public String toString() {
+		return "NotificationQuery[types=" + types + ", routine=" + routine + ", compId=" + Objects.toString(compId) + "]";
+	}
+}
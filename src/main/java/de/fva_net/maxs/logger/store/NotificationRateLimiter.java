@@ -0,0 +1,210 @@
+package de.fva_net.maxs.logger.store;
+
+import de.fva_net.maxs.logger.MaxsMessageType;
+import de.fva_net.maxs.logger.xml.Item;
+import de.fva_net.maxs.logger.xml.Notification;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Limits the number of notifications per routine, per component ID and per message type.
+ * <p>
+ * Every notification takes a slot of one counter per limited dimension. If a counter has reached its cap, the
+ * notification is suppressed and the slots it has taken in the other dimensions are given back, so a suppressed
+ * notification never uses up the cap of another dimension. For the first notification suppressed by a counter, a
+ * summary notification of type {@link MaxsMessageType#WARNING} is created. Its item {@value #SUPPRESSED_ATTRIBUTE} is
+ * updated with the number of notifications suppressed by the counter afterwards.
+ */
+public class NotificationRateLimiter {
+
+	/**
+	 * The attribute ID of the item counting the suppressed notifications.
+	 */
+	public static final String SUPPRESSED_ATTRIBUTE = "suppressed_notifications";
+
+	/**
+	 * The maximum number of notifications per routine, or 0 for no limit.
+	 */
+	private final long maxPerRoutine;
+
+	/**
+	 * The maximum number of notifications per component ID, or 0 for no limit.
+	 */
+	private final long maxPerComponent;
+
+	/**
+	 * The maximum number of notifications per message type, or 0 for no limit.
+	 */
+	private final long maxPerType;
+
+	/**
+	 * The counters per routine.
+	 */
+	private final Map<String, Counter> routineCounters = new ConcurrentHashMap<>();
+
+	/**
+	 * The counters per component ID.
+	 */
+	private final Map<Integer, Counter> componentCounters = new ConcurrentHashMap<>();
+
+	/**
+	 * The counters per message type, indexed by the ordinal of the type.
+	 */
+	private final Counter[] typeCounters = new Counter[MaxsMessageType.values().length];
+
+	/**
+	 * Indicates whether a notification has been suppressed since the last call of {@link #resetSuppressed()}.
+	 */
+	private volatile boolean suppressed;
+
+	/**
+	 * Creates a new rate limiter.
+	 *
+	 * @param maxPerRoutine   the maximum number of notifications per routine, or 0 for no limit
+	 * @param maxPerComponent the maximum number of notifications per component ID, or 0 for no limit
+	 * @param maxPerType      the maximum number of notifications per message type, or 0 for no limit
+	 */
+	public NotificationRateLimiter(final long maxPerRoutine, final long maxPerComponent, final long maxPerType) {
+		this.maxPerRoutine = maxPerRoutine;
+		this.maxPerComponent = maxPerComponent;
+		this.maxPerType = maxPerType;
+		for (int i = 0; i < typeCounters.length; i++) {
+			typeCounters[i] = new Counter();
+		}
+	}
+
+	/**
+	 * Counts the notification and checks whether it exceeds a cap.
+	 *
+	 * @param notification the new notification
+	 * @param summarySink  receives the summary notification, if a cap is exceeded for the first time
+	 * @return true if the notification may be stored, false if it is suppressed
+	 */
+	public boolean tryAcquire(final Notification notification, final Consumer<Notification> summarySink) {
+		final String routine = notification.getRoutine() != null ? notification.getRoutine() : "";
+		final Integer compId = notification.getCompId();
+		final MaxsMessageType type = notification.getType();
+		final Counter routineCounter = maxPerRoutine > 0 ? routineCounters.computeIfAbsent(routine, key -> new Counter()) : null;
+		final Counter componentCounter = maxPerComponent > 0 && compId != null ? componentCounters.computeIfAbsent(compId, key -> new Counter()) : null;
+		final Counter typeCounter = maxPerType > 0 && type != null ? typeCounters[type.ordinal()] : null;
+
+		final boolean routinePermitted = routineCounter == null || routineCounter.tryIncrement(maxPerRoutine);
+		final boolean componentPermitted = componentCounter == null || componentCounter.tryIncrement(maxPerComponent);
+		final boolean typePermitted = typeCounter == null || typeCounter.tryIncrement(maxPerType);
+		if (routinePermitted && componentPermitted && typePermitted) {
+			return true;
+		}
+
+		// the suppressed notification only counts for the dimensions whose cap it has exceeded
+		if (routineCounter != null) {
+			routineCounter.release(routinePermitted, maxPerRoutine, summarySink, "routine", routine, notification.getRoutine(), null);
+		}
+		if (componentCounter != null) {
+			componentCounter.release(componentPermitted, maxPerComponent, summarySink, "component", compId, null, compId);
+		}
+		if (typeCounter != null) {
+			typeCounter.release(typePermitted, maxPerType, summarySink, "type", type, null, null);
+		}
+		suppressed = true;
+		return false;
+	}
+
+	/**
+	 * Returns whether a notification has been suppressed since the last call of {@link #resetSuppressed()}. The
+	 * summary notifications change after they have been stored, so they must be written again in this case.
+	 *
+	 * @return true if a notification has been suppressed
+	 */
+	public boolean isSuppressed() {
+		return suppressed;
+	}
+
+	/**
+	 * Resets the flag indicating that a notification has been suppressed.
+	 */
+	public void resetSuppressed() {
+		suppressed = false;
+	}
+
+	/**
+	 * Counter of a single routine, component ID or message type.
+	 */
+	private static final class Counter {
+
+		/**
+		 * The number of permitted notifications, which never exceeds the cap.
+		 */
+		private final AtomicLong count = new AtomicLong();
+
+		/**
+		 * The number of notifications suppressed because the cap has been reached.
+		 */
+		private final AtomicLong suppressedCount = new AtomicLong();
+
+		/**
+		 * The item of the summary notification, which holds the number of suppressed notifications.
+		 */
+		private volatile Item summaryItem;
+
+		/**
+		 * Increments the counter unless it has reached the cap.
+		 *
+		 * @param max the cap
+		 * @return true if the counter has been incremented
+		 */
+		private boolean tryIncrement(final long max) {
+			long value;
+			do {
+				value = count.get();
+				if (value >= max) {
+					return false;
+				}
+			} while (!count.compareAndSet(value, value + 1));
+			return true;
+		}
+
+		/**
+		 * Takes back a notification that has been suppressed: gives back its slot if the counter has been incremented,
+		 * or counts it as suppressed by this counter otherwise. Objects are only created if the cap has been reached.
+		 *
+		 * @param incremented true if the counter has been incremented for the notification
+		 * @param max         the cap
+		 * @param summarySink receives the summary notification, if the counter suppresses a notification for the first
+		 *                    time
+		 * @param dimension   the name of the limited dimension
+		 * @param key         the key of the counter within the dimension
+		 * @param routine     the routine of the summary notification
+		 * @param compId      the component ID of the summary notification
+		 */
+		private void release(final boolean incremented, final long max, final Consumer<Notification> summarySink, final String dimension, final Object key,
+			final String routine, final Integer compId) {
+			if (incremented) {
+				count.decrementAndGet();
+				return;
+			}
+			final long value = suppressedCount.incrementAndGet();
+			if (value == 1) {
+				final Notification notification = new Notification();
+				notification.setRoutine(routine);
+				notification.setCompId(compId);
+				notification.setType(MaxsMessageType.WARNING);
+				notification.setMessage("The limit of " + max + " notifications for " + dimension + " " + key + " has been reached, further notifications are suppressed.");
+				final Item item = new Item();
+				item.setAttrId(SUPPRESSED_ATTRIBUTE);
+				item.setCompId(compId);
+				item.setValue(1);
+				notification.getData().add(item);
+				summaryItem = item;
+				summarySink.accept(notification);
+			} else {
+				final Item item = summaryItem;
+				if (item != null) {
+					item.setValue(value);
+				}
+			}
+		}
+	}
+}
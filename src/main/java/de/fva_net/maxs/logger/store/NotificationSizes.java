@@ -0,0 +1,101 @@
+package de.fva_net.maxs.logger.store;
+
+import de.fva_net.maxs.logger.xml.Item;
+import de.fva_net.maxs.logger.xml.Notification;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Estimates the heap size of notifications.
+ * <p>
+ * The estimate assumes a 64-bit JVM with compressed references. Routines, attribute IDs and message types are
+ * constants that are shared by many notifications, so they are not counted.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class NotificationSizes {
+
+	/**
+	 * The size of a notification object with its boxed component ID.
+	 */
+	private static final int NOTIFICATION_BYTES = 32 + 16;
+
+	/**
+	 * The size of a string object without its characters, including the backing array header.
+	 */
+	private static final int STRING_BYTES = 24 + 16;
+
+	/**
+	 * The size of an array without its entries.
+	 */
+	private static final int ARRAY_BYTES = 16;
+
+	/**
+	 * The size of a reference.
+	 */
+	private static final int REFERENCE_BYTES = 4;
+
+	/**
+	 * The size of the list of items without its entries.
+	 */
+	private static final int LIST_BYTES = 24 + 16;
+
+	/**
+	 * The size of an item object with its boxed component ID and the reference in the list.
+	 */
+	private static final int ITEM_BYTES = 24 + 16 + 4;
+
+	/**
+	 * Estimates the heap size of the notification.
+	 *
+	 * @param notification the notification
+	 * @return the estimated size in bytes
+	 */
+	public static long estimate(final Notification notification) {
+		long bytes = NOTIFICATION_BYTES;
+		bytes += estimateMessage(notification);
+		if (notification.hasData()) {
+			bytes += LIST_BYTES;
+			for (final Item ignored : notification.getData()) {
+				bytes += ITEM_BYTES;
+			}
+		}
+		return bytes;
+	}
+
+	/**
+	 * Estimates the largest heap size that a mutable notification can reach. The first occurrence of an aggregated
+	 * notification gets an item with the occurrence count and, if it carries data, an item with the value of the last
+	 * occurrence. Summary notifications of the rate limits only change the value of their item.
+	 *
+	 * @param notification the mutable notification
+	 * @return the estimated size in bytes
+	 */
+	public static long estimateMutable(final Notification notification) {
+		return estimate(notification) + ITEM_BYTES + (notification.hasData() ? ITEM_BYTES : LIST_BYTES);
+	}
+
+	/**
+	 * Estimates the heap size of the message of a notification. A message given as template is not built, only the
+	 * array of its arguments is counted, as the arguments are usually shared or small.
+	 *
+	 * @param notification the notification
+	 * @return the estimated size in bytes
+	 */
+	public static long estimateMessage(final Notification notification) {
+		if (notification.getMessageTemplate() != null) {
+			return ARRAY_BYTES + (long) REFERENCE_BYTES * notification.getMessageArguments().length;
+		}
+		return estimate(notification.getMessage());
+	}
+
+	/**
+	 * Estimates the heap size of a string, assuming it is compact.
+	 *
+	 * @param value the string, may be null
+	 * @return the estimated size in bytes
+	 */
+	public static long estimate(final String value) {
+		// latin-1 strings are compact, but the characters of the messages are not known without scanning them
+		return value != null ? STRING_BYTES + value.length() : 0;
+	}
+}
@@ -0,0 +1,183 @@
+package de.fva_net.maxs.logger.store;
+
+import de.fva_net.maxs.logger.MaxsMessageType;
+import de.fva_net.maxs.logger.xml.Notification;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live counters of the logged notifications per message type, routine and component ID.
+ * <p>
+ * The counters are striped, so concurrent writers do not contend, and all counts are read in constant time without
+ * touching the notifications. They count every logged notification since the last {@link #reset()}, including
+ * aggregated repeats and notifications that have been suppressed by rate limits or evicted by the retention policy.
+ */
+public class NotificationStatistics {
+
+	/**
+	 * The counters by the ordinal of the message types.
+	 */
+	private final LongAdder[] byType = new LongAdder[MaxsMessageType.values().length];
+
+	/**
+	 * The counters by routine.
+	 */
+	private final ConcurrentMap<String, LongAdder> byRoutine = new ConcurrentHashMap<>();
+
+	/**
+	 * The counters by component ID.
+	 */
+	private final ConcurrentMap<Integer, LongAdder> byCompId = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates new statistics with all counts at zero.
+	 */
+	public NotificationStatistics() {
+		for (int i = 0; i < byType.length; i++) {
+			byType[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Counts the notification.
+	 *
+	 * @param notification the logged notification
+	 */
+	public void record(final Notification notification) {
+		if (notification.getType() != null) {
+			byType[notification.getType().ordinal()].increment();
+		}
+		if (notification.getRoutine() != null) {
+			counter(byRoutine, notification.getRoutine()).increment();
+		}
+		if (notification.getCompId() != null) {
+			counter(byCompId, notification.getCompId()).increment();
+		}
+	}
+
+	/**
+	 * Returns whether a notification of type {@link MaxsMessageType#ERROR} has been logged.
+	 *
+	 * @return true if an error has been logged
+	 */
+	public boolean hasErrors() {
+		return byType[MaxsMessageType.ERROR.ordinal()].sum() > 0;
+	}
+
+	/**
+	 * Returns the number of logged notifications of the message type.
+	 *
+	 * @param type the message type
+	 * @return the number of notifications
+	 */
+	public long count(final MaxsMessageType type) {
+		return byType[type.ordinal()].sum();
+	}
+
+	/**
+	 * Returns the number of logged notifications of the routine.
+	 *
+	 * @param routine the routine ID
+	 * @return the number of notifications
+	 */
+	public long countByRoutine(final String routine) {
+		final LongAdder counter = byRoutine.get(routine);
+		return counter != null ? counter.sum() : 0;
+	}
+
+	/**
+	 * Returns the number of logged notifications of the component.
+	 *
+	 * @param compId the component ID
+	 * @return the number of notifications
+	 */
+	public long countByCompId(final int compId) {
+		final LongAdder counter = byCompId.get(compId);
+		return counter != null ? counter.sum() : 0;
+	}
+
+	/**
+	 * Returns the total number of logged notifications with a message type.
+	 *
+	 * @return the number of notifications
+	 */
+	public long total() {
+		long total = 0;
+		for (final LongAdder counter : byType) {
+			total += counter.sum();
+		}
+		return total;
+	}
+
+	/**
+	 * Returns a snapshot of the counts by message type.
+	 *
+	 * @return the counts by the name of the message types
+	 */
+	public Map<String, Long> countsByType() {
+		final Map<String, Long> counts = new TreeMap<>();
+		for (final MaxsMessageType type : MaxsMessageType.values()) {
+			counts.put(type.name(), count(type));
+		}
+		return counts;
+	}
+
+	/**
+	 * Returns a snapshot of the counts by routine.
+	 *
+	 * @return the counts by routine ID
+	 */
+	public Map<String, Long> countsByRoutine() {
+		return snapshot(byRoutine);
+	}
+
+	/**
+	 * Returns a snapshot of the counts by component ID.
+	 *
+	 * @return the counts by component ID
+	 */
+	public Map<Integer, Long> countsByCompId() {
+		return snapshot(byCompId);
+	}
+
+	/**
+	 * Resets all counts to zero.
+	 */
+	public void reset() {
+		for (final LongAdder counter : byType) {
+			counter.reset();
+		}
+		byRoutine.clear();
+		byCompId.clear();
+	}
+
+	/**
+	 * Returns the counter of the key and creates it, if it does not exist.
+	 *
+	 * @param counters the counters
+	 * @param key      the key
+	 * @param <K>      the type of the key
+	 * @return the counter
+	 */
+	private static <K> LongAdder counter(final ConcurrentMap<K, LongAdder> counters, final K key) {
+		final LongAdder counter = counters.get(key);
+		return counter != null ? counter : counters.computeIfAbsent(key, k -> new LongAdder());
+	}
+
+	/**
+	 * Creates a sorted snapshot of the counters.
+	 *
+	 * @param counters the counters
+	 * @param <K>      the type of the key
+	 * @return the counts by key
+	 */
+	private static <K> Map<K, Long> snapshot(final ConcurrentMap<K, LongAdder> counters) {
+		final Map<K, Long> counts = new TreeMap<>();
+		counters.forEach((key, counter) -> counts.put(key, counter.sum()));
+		return counts;
+	}
+}
@@ -0,0 +1,125 @@
+package de.fva_net.maxs.logger.store;
+
+import de.fva_net.maxs.logger.MaxsMessageType;
+import de.fva_net.maxs.logger.xml.Notification;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Stores the notifications logged by the {@link de.fva_net.maxs.logger.MaxsLogger}.
+ * <p>
+ * Implementations must be safe for concurrent writers and return the notifications in the order they were added.
+ */
+public interface NotificationStore {
+
+	/**
+	 * Adds a notification to the store.
+	 *
+	 * @param notification the notification to add
+	 */
+	void add(Notification notification);
+
+	/**
+	 * Adds the notifications to the store as one batch, in the order of the collection.
+	 *
+	 * @param notifications the notifications to add
+	 */
+	default void addAll(final Collection<Notification> notifications) {
+		for (final Notification notification : notifications) {
+			add(notification);
+		}
+	}
+
+	/**
+	 * Adds a notification that may be changed after it has been added, e.g. the first occurrence of an aggregated
+	 * notification. Stores that copy the fields of the notifications must keep a reference to this notification
+	 * instead.
+	 *
+	 * @param notification the notification to add
+	 */
+	default void addMutable(final Notification notification) {
+		add(notification);
+	}
+
+	/**
+	 * Returns an unmodifiable, ordered view of all notifications in the store.
+	 *
+	 * @return the notifications in the order they were added
+	 */
+	List<Notification> getAll();
+
+	/**
+	 * Returns the number of notifications in the store.
+	 *
+	 * @return the number of notifications
+	 */
+	int size();
+
+	/**
+	 * Removes all notifications from the store.
+	 */
+	void clear();
+
+	/**
+	 * Returns the estimated heap size of the notifications in the store.
+	 *
+	 * @return the estimated size in bytes
+	 */
+	default long getEstimatedBytes() {
+		long bytes = 0;
+		for (final Notification notification : getAll()) {
+			bytes += NotificationSizes.estimate(notification);
+		}
+		return bytes;
+	}
+
+	/**
+	 * Returns the number of notifications that have been evicted to bound the memory of the store.
+	 *
+	 * @return the number of evicted notifications
+	 */
+	default long getEvictedCount() {
+		return 0;
+	}
+
+	/**
+	 * Returns the number of notifications of the message type that have been evicted to bound the memory of the store.
+	 *
+	 * @param type the message type
+	 * @return the number of evicted notifications of the type
+	 */
+	default long getEvictedCount(final MaxsMessageType type) {
+		return 0;
+	}
+
+	/**
+	 * Returns the notifications matching the query, in the order they were added.
+	 *
+	 * @param query the query
+	 * @return an unmodifiable list of the matching notifications
+	 */
+	default List<Notification> find(final NotificationQuery query) {
+		return getAll().stream().filter(query::matches).toList();
+	}
+
+	/**
+	 * Returns the number of notifications matching the query.
+	 *
+	 * @param query the query
+	 * @return the number of matching notifications
+	 */
+	default int count(final NotificationQuery query) {
+		return (int) getAll().stream().filter(query::matches).count();
+	}
+
+	/**
+	 * Checks whether at least one notification matches the query.
+	 *
+	 * @param query the query
+	 * @return true if a notification matches
+	 */
+	default boolean exists(final NotificationQuery query) {
+		return getAll().stream().anyMatch(query::matches);
+	}
+}
@@ -0,0 +1,95 @@
+package de.fva_net.maxs.logger.store;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interns strings that repeat across many notifications, e.g. routines and attribute IDs, and maps them to dense
+ * indices.
+ * <p>
+ * The table is not thread-safe, the owner has to synchronize the access.
+ */
+class SymbolTable {
+
+	/**
+	 * The index of null.
+	 */
+	static final int NULL = -1;
+
+	/**
+	 * The index of a symbol that is not in the table.
+	 */
+	static final int ABSENT = -2;
+
+	/**
+	 * The indices of the symbols.
+	 */
+	private final Map<String, Integer> indices = new HashMap<>();
+
+	/**
+	 * The symbols by their index.
+	 */
+	private final List<String> symbols = new ArrayList<>();
+
+	/**
+	 * Returns the index of the symbol and adds it, if it is unknown.
+	 *
+	 * @param symbol the symbol, may be null
+	 * @return the index of the symbol, or {@link #NULL}
+	 */
+	int intern(final String symbol) {
+		if (symbol == null) {
+			return NULL;
+		}
+		final Integer index = indices.get(symbol);
+		if (index != null) {
+			return index;
+		}
+		symbols.add(symbol);
+		indices.put(symbol, symbols.size() - 1);
+		return symbols.size() - 1;
+	}
+
+	/**
+	 * Returns the index of the symbol without adding it.
+	 *
+	 * @param symbol the symbol, may be null
+	 * @return the index of the symbol, {@link #NULL} or {@link #ABSENT}
+	 */
+	int indexOf(final String symbol) {
+		if (symbol == null) {
+			return NULL;
+		}
+		final Integer index = indices.get(symbol);
+		return index != null ? index : ABSENT;
+	}
+
+	/**
+	 * Returns the symbol of the index.
+	 *
+	 * @param index the index, or {@link #NULL}
+	 * @return the symbol, or null
+	 */
+	String get(final int index) {
+		return index == NULL ? null : symbols.get(index);
+	}
+
+	/**
+	 * Returns the number of symbols.
+	 *
+	 * @return the number of symbols
+	 */
+	int size() {
+		return symbols.size();
+	}
+
+	/**
+	 * Removes all symbols.
+	 */
+	void clear() {
+		indices.clear();
+		symbols.clear();
+	}
+}
@@ -0,0 +1,88 @@
+package de.fva_net.maxs.logger.xml;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Serializer that uses JAXB to marshal the MAXS model.
+ * <p>
+ * This serializer is kept as a fallback for the {@link StreamingMaxsSerializer}. The JAXB context is created once on
+ * first use and shared afterwards.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class JaxbMaxsSerializer implements MaxsSerializer {
+
+	/**
+	 * The shared instance.
+	 */
+	public static final JaxbMaxsSerializer INSTANCE = new JaxbMaxsSerializer();
+
+	/**
+	 * Lazily initialized holder of the JAXB context.
+	 */
+	private static final class ContextHolder {
+		private static final JAXBContext CONTEXT = createContext();
+
+		private static JAXBContext createContext() {
+			try {
+				return JAXBContext.newInstance(KernelNotifications.class);
+			} catch (final JAXBException e) {
+				throw new IllegalStateException("Cannot create the JAXB context for the MAXS model", e);
+			}
+		}
+	}
+
+	/**
+	 * Returns the shared JAXB context of the MAXS model.
+	 *
+	 * @return the JAXB context
+	 */
+	public static JAXBContext getContext() {
+		return ContextHolder.CONTEXT;
+	}
+
+	@Override
+	public void writeStart(final KernelNotifications kernelNotifications, final Writer writer) throws IOException {
+		StreamingMaxsSerializer.FORMATTED.writeStart(kernelNotifications, writer);
+	}
+
+	@Override
+	public void writeNotification(final Notification notification, final Writer writer) throws IOException {
+		marshal(notification, writer, true);
+	}
+
+	@Override
+	public void writeEnd(final Writer writer) throws IOException {
+		StreamingMaxsSerializer.FORMATTED.writeEnd(writer);
+	}
+
+	@Override
+	public void write(final KernelNotifications kernelNotifications, final Writer writer) throws IOException {
+		marshal(kernelNotifications, writer, false);
+	}
+
+	/**
+	 * Marshals the given object with formatted output.
+	 *
+	 * @param object   the object to marshal
+	 * @param writer   the target
+	 * @param fragment whether the XML declaration shall be omitted
+	 * @throws IOException if the object cannot be marshalled
+	 */
+	private static void marshal(final Object object, final Writer writer, final boolean fragment) throws IOException {
+		try {
+			final Marshaller marshaller = getContext().createMarshaller();
+			marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+			marshaller.setProperty(Marshaller.JAXB_FRAGMENT, fragment);
+			marshaller.marshal(object, writer);
+		} catch (final JAXBException e) {
+			throw new IOException(e.getMessage(), e);
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package de.fva_net.maxs.logger.xml;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Serializes kernel notifications into the MAXS XML format.
+ * <p>
+ * A document is written as a start, any number of notifications and an end, which allows writers to append single
+ * notifications to an already written document.
+ */
+public interface MaxsSerializer {
+
+	/**
+	 * Writes the XML declaration and the opening {@code kernelNotifications} tag including the application information.
+	 *
+	 * @param kernelNotifications the notifications holding the application information
+	 * @param writer              the target
+	 * @throws IOException if the target cannot be written
+	 */
+	void writeStart(KernelNotifications kernelNotifications, Writer writer) throws IOException;
+
+	/**
+	 * Writes a single notification element.
+	 *
+	 * @param notification the notification
+	 * @param writer       the target
+	 * @throws IOException if the target cannot be written
+	 */
+	void writeNotification(Notification notification, Writer writer) throws IOException;
+
+	/**
+	 * Writes the closing {@code kernelNotifications} tag.
+	 *
+	 * @param writer the target
+	 * @throws IOException if the target cannot be written
+	 */
+	void writeEnd(Writer writer) throws IOException;
+
+	/**
+	 * Writes the complete document.
+	 *
+	 * @param kernelNotifications the notifications to write
+	 * @param writer              the target
+	 * @throws IOException if the target cannot be written
+	 */
+	default void write(final KernelNotifications kernelNotifications, final Writer writer) throws IOException {
+		writeStart(kernelNotifications, writer);
+		for (final Notification notification : kernelNotifications.getNotifications()) {
+			writeNotification(notification, writer);
+		}
+		writeEnd(writer);
+	}
+}
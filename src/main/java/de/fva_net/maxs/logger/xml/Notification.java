@@ -1,8 +1,14 @@
 package de.fva_net.maxs.logger.xml;
 
+import de.fva_net.maxs.logger.MaxsMessageTemplate;
 import de.fva_net.maxs.logger.MaxsMessageType;
 import jakarta.xml.bind.annotation.*;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -11,6 +17,9 @@
  * Represents a notification entry in the MAXS logging system.
  * <p>
  * A notification contains a message, its type, associated routine, component ID, and a list of data items.
+ * <p>
+ * The message can be given as {@link MaxsMessageTemplate} with its arguments, in which case it is only built when it is
+ * read with {@link #getMessage()}, e.g. when the notification is written to a file.
  */
 @Data
 @XmlAccessorType(XmlAccessType.FIELD)
@@ -34,11 +43,33 @@ public class Notification {
     private List<Item> data;
 
     /**
-	 * The message describing the notification.
+	 * The message describing the notification, or null if it is built from the template. JAXB accesses the message
+	 * with {@link #getMessage()} and {@link #setMessage(String)}, so the template is formatted without changing this
+	 * field.
      */
-    @XmlElement(required = true)
+    @XmlTransient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
     private String message;
 
+	/**
+	 * The template of the message, or null if the message is given as string.
+	 */
+	@XmlTransient
+	@Setter(AccessLevel.NONE)
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
+	private MaxsMessageTemplate messageTemplate;
+
+	/**
+	 * The arguments of the template, as they have been logged.
+	 */
+	@XmlTransient
+	@Setter(AccessLevel.NONE)
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
+	private Object[] messageArguments;
+
     /**
 	 * The routine associated with this notification, as a string identifier.
 	 */
@@ -51,6 +82,44 @@ public class Notification {
     @XmlAttribute(required = true)
 	private MaxsMessageType type;
 
+	/**
+	 * Returns the message, which is built from the template on every call if the message has been given as template.
+	 *
+	 * @return the message
+	 */
+	@XmlElement(name = "message", required = true)
+	public String getMessage() {
+		final MaxsMessageTemplate template = messageTemplate;
+		return template != null ? template.format(messageArguments) : message;
+	}
+
+	/**
+	 * Sets the message.
+	 *
+	 * @param message the message
+	 */
+	public void setMessage(final String message) {
+		this.message = message;
+		this.messageTemplate = null;
+		this.messageArguments = null;
+	}
+
+	/**
+	 * Sets the message as template, which is only formatted when the message is read. The arguments are kept as they
+	 * are, so they should not be changed afterwards.
+	 *
+	 * @param template  the template of the message
+	 * @param arguments the arguments of the placeholders
+	 */
+	public void setMessage(final MaxsMessageTemplate template, final Object... arguments) {
+		if (template == null) {
+			throw new IllegalArgumentException("The template must not be null");
+		}
+		this.message = null;
+		this.messageTemplate = template;
+		this.messageArguments = arguments != null ? arguments : new Object[0];
+	}
+
 	/**
 	 * Returns the list of data items, initializing it if necessary.
      * @return the list of items
@@ -61,4 +130,23 @@ public List<Item> getData() {
         }
         return data;
     }
+
+	/**
+	 * Returns whether the notification contains data items, without initializing the list.
+	 *
+	 * @return true if there is at least one item
+	 */
+	public boolean hasData() {
+		return data != null && !data.isEmpty();
+	}
+
+	/**
+	 * Returns whether the list of data items has been initialized, which JAXB writes as empty {@code data} element even
+	 * if it has no items.
+	 *
+	 * @return true if the list has been initialized
+	 */
+	boolean hasDataList() {
+		return data != null;
+	}
 }
@@ -0,0 +1,203 @@
+package de.fva_net.maxs.logger.xml;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Serializer that writes the MAXS XML format directly to a writer, without reflection.
+ * <p>
+ * The formatted mode produces the same output as JAXB with {@code JAXB_FORMATTED_OUTPUT}, except for tabs in
+ * attribute values, which are escaped so they are not replaced by spaces when the file is read. The compact mode omits
+ * all indentation and line breaks.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class StreamingMaxsSerializer implements MaxsSerializer {
+
+	/**
+	 * Serializer with indented output.
+	 */
+	public static final StreamingMaxsSerializer FORMATTED = new StreamingMaxsSerializer(false);
+
+	/**
+	 * Serializer without indentation and line breaks.
+	 */
+	public static final StreamingMaxsSerializer COMPACT = new StreamingMaxsSerializer(true);
+
+	/**
+	 * The XML declaration, as written by JAXB.
+	 */
+	private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>";
+
+	/**
+	 * The indentation of one level, as written by JAXB.
+	 */
+	private static final String INDENT = "    ";
+
+	/**
+	 * Indicates whether indentation and line breaks are omitted.
+	 */
+	private final boolean compact;
+
+	@Override
+	public void writeStart(final KernelNotifications kernelNotifications, final Writer writer) throws IOException {
+		writer.write(XML_DECLARATION);
+		newLine(writer);
+		writer.write("<kernelNotifications");
+		writeAttribute("appId", kernelNotifications.getAppId(), writer);
+		writeAttribute("appVersion", kernelNotifications.getAppVersion(), writer);
+		writer.write('>');
+		newLine(writer);
+	}
+
+	@Override
+	public void writeNotification(final Notification notification, final Writer writer) throws IOException {
+		indent(1, writer);
+		writer.write("<notification");
+		writeAttribute("compId", notification.getCompId(), writer);
+		writeAttribute("routine", notification.getRoutine(), writer);
+		writeAttribute("type", notification.getType() != null ? notification.getType().name() : null, writer);
+		writer.write('>');
+		newLine(writer);
+
+		final String message = notification.getMessage();
+		if (message != null) {
+			indent(2, writer);
+			writer.write("<message>");
+			escape(message, false, writer);
+			writer.write("</message>");
+			newLine(writer);
+		}
+
+		if (notification.hasData()) {
+			indent(2, writer);
+			writer.write("<data>");
+			newLine(writer);
+			for (final Item item : notification.getData()) {
+				indent(3, writer);
+				writer.write("<item");
+				writeAttribute("compId", item.getCompId(), writer);
+				writeAttribute("attrId", item.getAttrId(), writer);
+				writeAttribute("value", printDouble(item.getValue()), writer);
+				writer.write("/>");
+				newLine(writer);
+			}
+			indent(2, writer);
+			writer.write("</data>");
+			newLine(writer);
+		} else if (notification.hasDataList()) {
+			// JAXB writes an initialized list even if it is empty
+			indent(2, writer);
+			writer.write("<data/>");
+			newLine(writer);
+		}
+
+		indent(1, writer);
+		writer.write("</notification>");
+		newLine(writer);
+	}
+
+	@Override
+	public void writeEnd(final Writer writer) throws IOException {
+		writer.write("</kernelNotifications>");
+		newLine(writer);
+	}
+
+	/**
+	 * Converts a double into its XML schema representation, as done by JAXB.
+	 *
+	 * @param value the value
+	 * @return the lexical representation
+	 */
+	static String printDouble(final double value) {
+		if (Double.isNaN(value)) {
+			return "NaN";
+		}
+		if (value == Double.POSITIVE_INFINITY) {
+			return "INF";
+		}
+		if (value == Double.NEGATIVE_INFINITY) {
+			return "-INF";
+		}
+		return String.valueOf(value);
+	}
+
+	/**
+	 * Writes an attribute, if the value is not null.
+	 *
+	 * @param name   the name of the attribute
+	 * @param value  the value of the attribute
+	 * @param writer the target
+	 * @throws IOException if the target cannot be written
+	 */
+	private static void writeAttribute(final String name, final Object value, final Writer writer) throws IOException {
+		if (value == null) {
+			return;
+		}
+		writer.write(' ');
+		writer.write(name);
+		writer.write("=\"");
+		escape(value.toString(), true, writer);
+		writer.write('"');
+	}
+
+	/**
+	 * Writes the given text and escapes all characters with a special meaning in XML. Carriage returns are escaped, so
+	 * they are not normalized when the file is read, as are line breaks and tabs in attribute values.
+	 *
+	 * @param text      the text
+	 * @param attribute whether the text is an attribute value, where quotes, line breaks and tabs are escaped as well
+	 * @param writer    the target
+	 * @throws IOException if the target cannot be written
+	 */
+	private static void escape(final String text, final boolean attribute, final Writer writer) throws IOException {
+		int start = 0;
+		for (int i = 0; i < text.length(); i++) {
+			final String replacement = switch (text.charAt(i)) {
+				case '&' -> "&amp;";
+				case '<' -> "&lt;";
+				case '>' -> "&gt;";
+				case '"' -> attribute ? "&quot;" : null;
+				case '\r' -> "&#13;";
+				case '\n' -> attribute ? "&#10;" : null;
+				case '\t' -> attribute ? "&#9;" : null;
+				default -> null;
+			};
+			if (replacement != null) {
+				writer.write(text, start, i - start);
+				writer.write(replacement);
+				start = i + 1;
+			}
+		}
+		writer.write(text, start, text.length() - start);
+	}
+
+	/**
+	 * Writes the indentation for the given level, unless the output is compact.
+	 *
+	 * @param level  the nesting level
+	 * @param writer the target
+	 * @throws IOException if the target cannot be written
+	 */
+	private void indent(final int level, final Writer writer) throws IOException {
+		if (!compact) {
+			for (int i = 0; i < level; i++) {
+				writer.write(INDENT);
+			}
+		}
+	}
+
+	/**
+	 * Writes a line break, unless the output is compact.
+	 *
+	 * @param writer the target
+	 * @throws IOException if the target cannot be written
+	 */
+	private void newLine(final Writer writer) throws IOException {
+		if (!compact) {
+			writer.write('\n');
+		}
+	}
+}
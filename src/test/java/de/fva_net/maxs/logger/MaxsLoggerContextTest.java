@@ -0,0 +1,518 @@
+package de.fva_net.maxs.logger;
+
+import de.fva_net.maxs.logger.io.MaxsFiles;
+import de.fva_net.maxs.logger.io.MaxsJournal;
+import de.fva_net.maxs.logger.io.MaxsManifest;
+import de.fva_net.maxs.logger.io.MaxsOverflowPolicy;
+import de.fva_net.maxs.logger.sink.InMemoryMaxsSink;
+import de.fva_net.maxs.logger.sink.MaxsFileSink;
+import de.fva_net.maxs.logger.sink.MaxsSinkOptions;
+import de.fva_net.maxs.logger.sink.NotificationStoreSink;
+import de.fva_net.maxs.logger.store.CompactNotificationStore;
+import de.fva_net.maxs.logger.store.NotificationAggregator;
+import de.fva_net.maxs.logger.xml.KernelNotifications;
+import de.fva_net.maxs.logger.xml.Notification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static de.fva_net.maxs.logger.MaxsTestFixtures.countNodes;
+import static de.fva_net.maxs.logger.MaxsTestFixtures.valueOf;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the MaxsLoggerContext class.
+ */
+class MaxsLoggerContextTest {
+
+	/**
+	 * Resets the global context before each test.
+	 */
+	@BeforeEach
+	void beforeEach() {
+		MaxsLogger.reset();
+	}
+
+	/**
+	 * Verifies that the static methods use the global context if no context is bound.
+	 */
+	@Test
+	void current_withoutBinding_returnsGlobalContext() {
+		assertSame(MaxsLoggerContext.getGlobal(), MaxsLogger.getContext());
+	}
+
+	/**
+	 * Verifies that the static methods route to the bound context and that the global context is restored afterwards.
+	 */
+	@Test
+	void bind_routesStaticCallsToContext() {
+		final MaxsLoggerContext context = new MaxsLoggerContext();
+		try (MaxsLoggerContext.Scope ignored = context.bind()) {
+			MaxsLogger.setAppInformation("job", "1.0");
+			MaxsLogger.logMessage(IsoRoutine.ISO6336_2019, 1, "in context", MaxsMessageType.INFO);
+			assertSame(context, MaxsLogger.getContext());
+		}
+		assertSame(MaxsLoggerContext.getGlobal(), MaxsLogger.getContext());
+		assertEquals(1, context.getAllNotifications().size());
+		assertEquals("job", context.getAppId());
+		assertTrue(MaxsLogger.getAllNotifications().isEmpty());
+	}
+
+	/**
+	 * Verifies that nested bindings restore the outer context when they are closed.
+	 */
+	@Test
+	void bind_nested_restoresOuterContext() {
+		final MaxsLoggerContext outer = new MaxsLoggerContext();
+		final MaxsLoggerContext inner = new MaxsLoggerContext();
+		try (MaxsLoggerContext.Scope ignored = outer.bind()) {
+			inner.run(() -> MaxsLogger.logMessage(IsoRoutine.ISO6336_2019, "inner", MaxsMessageType.INFO));
+			MaxsLogger.logMessage(IsoRoutine.ISO6336_2019, "outer", MaxsMessageType.INFO);
+		}
+		assertEquals("inner", inner.getAllNotifications().get(0).getMessage());
+		assertEquals("outer", outer.getAllNotifications().get(0).getMessage());
+		assertEquals(1, outer.getAllNotifications().size());
+	}
+
+	/**
+	 * Verifies that independent jobs on several threads do not share their notifications.
+	 */
+	@Test
+	void wrap_isolatesConcurrentJobs() throws InterruptedException {
+		final MaxsLoggerContext[] contexts = IntStream.range(0, 4).mapToObj(i -> new MaxsLoggerContext()).toArray(MaxsLoggerContext[]::new);
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		for (int job = 0; job < contexts.length; job++) {
+			final int count = job + 1;
+			executor.execute(contexts[job].wrap(() -> {
+				for (int i = 0; i < count; i++) {
+					MaxsLogger.logMessage(IsoRoutine.ISO21771_2007, i + 1, "msg", MaxsMessageType.INFO);
+				}
+				MaxsLogger.reset();
+				for (int i = 0; i < count; i++) {
+					MaxsLogger.logMessage(IsoRoutine.ISO21771_2007, i + 1, "msg", MaxsMessageType.INFO);
+				}
+			}));
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+		for (int job = 0; job < contexts.length; job++) {
+			assertEquals(job + 1, contexts[job].getAllNotifications().size());
+		}
+		assertTrue(MaxsLogger.getAllNotifications().isEmpty());
+	}
+
+	/**
+	 * Verifies that messages below the minimum severity are discarded.
+	 */
+	@Test
+	void setMinimumSeverity_discardsLowerSeverities() {
+		final MaxsLoggerContext context = new MaxsLoggerContext();
+		context.setMinimumSeverity(MaxsMessageType.WARNING);
+		assertFalse(context.isEnabled(MaxsMessageType.INFO));
+		assertFalse(context.isEnabled(MaxsMessageType.DEBUG_INFO));
+		assertTrue(context.isEnabled(MaxsMessageType.DEBUG_WARNING));
+
+		context.logMessage(IsoRoutine.ISO6336_2019, "info", MaxsMessageType.INFO);
+		context.logMessage(IsoRoutine.ISO6336_2019, "warning", MaxsMessageType.WARNING);
+		context.logMessage(IsoRoutine.ISO6336_2019, "error", MaxsMessageType.ERROR);
+		assertEquals(2, context.getAllNotifications().size());
+	}
+
+	/**
+	 * Verifies that disabled debug messages are neither created nor stored.
+	 */
+	@Test
+	void setDebugEnabled_false_skipsDebugMessages() {
+		final MaxsLoggerContext context = new MaxsLoggerContext();
+		context.setDebugEnabled(false);
+		assertFalse(context.isEnabled(MaxsMessageType.DEBUG_ERROR));
+		assertTrue(context.isEnabled(MaxsMessageType.ERROR));
+
+		context.requireNonZero(IsoRoutine.ISO6336_2019, 1, 0.0, "attr");
+		context.logMessage(IsoRoutine.ISO6336_2019, 1, () -> {
+			throw new AssertionError("The message of a disabled type must not be created");
+		}, MaxsMessageType.DEBUG_INFO);
+		assertTrue(context.getAllNotifications().isEmpty());
+
+		context.logMessage(IsoRoutine.ISO6336_2019, 1, () -> "created", MaxsMessageType.INFO);
+		assertEquals("created", context.getAllNotifications().get(0).getMessage());
+	}
+
+	/**
+	 * Verifies that repeated notifications are aggregated and that the counts are written to the log file.
+	 */
+	@Test
+	void enableAggregation_writesCountsToFile(@TempDir final Path tempDir) {
+		final File file = tempDir.resolve("aggregated.maxs").toFile();
+		final MaxsLoggerContext context = new MaxsLoggerContext();
+		context.enableAggregation(100);
+		context.activateFileLogging(file, MaxsFileLoggingOptions.builder().incremental(true).build());
+		for (int i = 0; i < 1000; i++) {
+			context.requireNonZero(IsoRoutine.ISO6336_2019, 7, i % 2 == 0 ? 0.0 : Double.NaN, "tooth_width");
+		}
+		assertEquals(1, context.getAllNotifications().size());
+		assertEquals(1000, NotificationAggregator.getCount(context.getAllNotifications().get(0)));
+
+		context.deactivateFileLogging();
+		assertEquals(0, countNodes(file, "/kernelNotifications/notification/@count"));
+		assertEquals("NaN", valueOf(file, "/kernelNotifications/notification/data/item[2]/@value"));
+		assertEquals("1000.0", valueOf(file, "/kernelNotifications/notification/data/item[@attrId='occurrence_count']/@value"));
+	}
+
+	/**
+	 * Verifies that the repeats of a suppressed notification count as suppressed and are not aggregated into it.
+	 */
+	@Test
+	void setRateLimits_withAggregation_countsRepeatsOfSuppressedNotification() {
+		final MaxsLoggerContext context = new MaxsLoggerContext();
+		context.enableAggregation(100);
+		context.setRateLimits(MaxsRateLimits.builder().maxPerRoutine(1).build());
+		context.logMessage(IsoRoutine.ISO6336_2019, 1, "a", MaxsMessageType.WARNING);
+		for (int i = 0; i < 5; i++) {
+			context.logMessage(IsoRoutine.ISO6336_2019, 1, "b", MaxsMessageType.WARNING);
+		}
+		context.logMessage(IsoRoutine.ISO6336_2019, 1, "a", MaxsMessageType.WARNING);
+
+		final List<Notification> notifications = context.getAllNotifications();
+		assertEquals(2, notifications.size());
+		assertEquals("a", notifications.get(0).getMessage());
+		assertEquals(2, NotificationAggregator.getCount(notifications.get(0)));
+		assertEquals(5.0, notifications.get(1).getData().get(0).getValue());
+	}
+
+	/**
+	 * Verifies that a flooding routine is capped and that the summary is written to the log file.
+	 */
+	@Test
+	void setRateLimits_capsFloodingRoutine(@TempDir final Path tempDir) {
+		final File file = tempDir.resolve("limited.maxs").toFile();
+		final MaxsLoggerContext context = new MaxsLoggerContext();
+		context.setRateLimits(MaxsRateLimits.builder().maxPerRoutine(100).build());
+		context.activateFileLogging(file, MaxsFileLoggingOptions.builder().incremental(true).build());
+		for (int i = 0; i < 10_000; i++) {
+			context.logMessage(IsoRoutine.ISO6336_2019, i + 1, "flood", MaxsMessageType.WARNING);
+		}
+		context.logMessage(IsoRoutine.ISO21771_2007, 1, "other routine", MaxsMessageType.INFO);
+		assertEquals(102, context.getAllNotifications().size());
+
+		context.deactivateFileLogging();
+		assertEquals(102, countNodes(file, "/kernelNotifications/notification"));
+		assertEquals("9900.0", valueOf(file, "/kernelNotifications/notification/data/item[@attrId='suppressed_notifications']/@value"));
+
+		context.reset();
+		context.logMessage(IsoRoutine.ISO6336_2019, 1, "after reset", MaxsMessageType.WARNING);
+		assertEquals(1, context.getAllNotifications().size());
+	}
+
+	/**
+	 * Verifies that the retention policy bounds the notifications of the context and keeps the errors.
+	 */
+	@Test
+	void setRetentionPolicy_boundsNotifications() {
+		final MaxsLoggerContext context = new MaxsLoggerContext();
+		context.logMessage(IsoRoutine.ISO6336_2019, 1, "error", MaxsMessageType.ERROR);
+		context.setRetentionPolicy(MaxsRetentionPolicy.builder().maxNotifications(10).build());
+		for (int i = 0; i < 100; i++) {
+			context.logMessage(IsoRoutine.ISO6336_2019, i, "debug", MaxsMessageType.DEBUG_INFO);
+		}
+		assertEquals(10, context.getRetainedCount());
+		assertEquals(91, context.getEvictedCount());
+		assertEquals(MaxsMessageType.ERROR, context.getAllNotifications().get(0).getType());
+		assertTrue(context.getRetainedBytes() > 0);
+
+		context.reset();
+		assertEquals(0, context.getEvictedCount());
+	}
+
+	/**
+	 * Verifies that notifications evicted by the retention policy remain in the log file when the application
+	 * information and the aggregated notifications are written again, with the rewriting and the incremental writer.
+	 */
+	@Test
+	void setRetentionPolicy_fileKeepsEvictedNotifications(@TempDir final Path tempDir) {
+		for (final boolean incremental : new boolean[] { false, true }) {
+			final File file = tempDir.resolve("retained-" + incremental + ".maxs").toFile();
+			final MaxsLoggerContext context = new MaxsLoggerContext();
+			context.setRetentionPolicy(MaxsRetentionPolicy.builder().maxNotifications(10).build());
+			context.enableAggregation(100);
+			context.activateFileLogging(file, MaxsFileLoggingOptions.builder().incremental(incremental).build());
+			context.logMessage(IsoRoutine.ISO6336_2019, 1, "repeated", MaxsMessageType.ERROR);
+			for (int i = 0; i < 100; i++) {
+				context.logMessage(IsoRoutine.ISO6336_2019, i + 2, "debug", MaxsMessageType.DEBUG_INFO);
+			}
+			context.logMessage(IsoRoutine.ISO6336_2019, 1, "repeated", MaxsMessageType.ERROR);
+			context.setAppInformation("job <1>", "2.0");
+			assertEquals(10, context.getRetainedCount());
+			assertEquals(101, countNodes(file, "/kernelNotifications/notification"));
+			assertEquals("job <1>", valueOf(file, "/kernelNotifications/@appId"));
+
+			context.logMessage(IsoRoutine.ISO6336_2019, 1, "repeated", MaxsMessageType.ERROR);
+			context.deactivateFileLogging();
+			assertEquals(101, countNodes(file, "/kernelNotifications/notification"));
+			assertEquals("3.0", valueOf(file, "/kernelNotifications/notification[1]/data/item[@attrId='occurrence_count']/@value"));
+			assertEquals("101", valueOf(file, "/kernelNotifications/notification[101]/@compId"));
+			assertEquals("2.0", valueOf(file, "/kernelNotifications/@appVersion"));
+		}
+	}
+
+	/**
+	 * Verifies that aggregation with a bounded retention policy is refused for log files that cannot be updated, in
+	 * whichever order it is configured.
+	 */
+	@Test
+	void setRetentionPolicy_refusesAggregationForFilesThatCannotBeUpdated(@TempDir final Path tempDir) {
+		final MaxsRetentionPolicy retention = MaxsRetentionPolicy.builder().maxNotifications(2).build();
+		final MaxsLoggerContext context = new MaxsLoggerContext();
+		context.setRetentionPolicy(retention);
+		context.enableAggregation(100);
+		context.activateFileLogging(tempDir.resolve("refused.maxs.gz").toFile());
+		assertFalse(context.isLoggingToFileActivated());
+		context.activateFileLogging(tempDir.resolve("refused.maxs").toFile(), MaxsFileLoggingOptions.builder().journal(true).build());
+		assertFalse(context.isLoggingToFileActivated());
+
+		context.disableAggregation();
+		context.activateFileLogging(tempDir.resolve("compressed.maxs.gz").toFile());
+		assertTrue(context.isLoggingToFileActivated());
+		context.enableAggregation(100);
+		assertFalse(context.isAggregationEnabled());
+		context.setRateLimits(MaxsRateLimits.builder().maxPerRoutine(10).build());
+		assertFalse(context.getRateLimits().isLimited());
+		context.setRetentionPolicy(MaxsRetentionPolicy.UNBOUNDED);
+		context.enableAggregation(100);
+		assertTrue(context.isAggregationEnabled());
+		context.setRetentionPolicy(retention);
+		assertFalse(context.getRetentionPolicy().isBounded());
+		context.deactivateFileLogging();
+	}
+
+	/**
+	 * Verifies that aggregated notifications are counted correctly in the compact store.
+	 */
+	@Test
+	void setNotificationStore_compactWithAggregation() {
+		final MaxsLoggerContext context = new MaxsLoggerContext();
+		context.logMessage(IsoRoutine.ISO6336_2019, 1, "before", MaxsMessageType.INFO);
+		context.setNotificationStore(new CompactNotificationStore());
+		context.enableAggregation(100);
+		for (int i = 0; i < 5; i++) {
+			context.logMessage(IsoRoutine.ISO6336_2019, 2, "repeated", MaxsMessageType.WARNING);
+		}
+
+		final List<Notification> notifications = context.getAllNotifications();
+		assertEquals(2, notifications.size());
+		assertEquals("before", notifications.get(0).getMessage());
+		assertEquals(5, NotificationAggregator.getCount(notifications.get(1)));
+	}
+
+	/**
+	 * Verifies that the counters include aggregated repeats and are published as MBean.
+	 */
+	@Test
+	void registerMBean_publishesStatistics() throws Exception {
+		final MaxsLoggerContext context = new MaxsLoggerContext();
+		context.enableAggregation(10);
+		context.logMessage(IsoRoutine.ISO6336_2019, 1, "failed", MaxsMessageType.ERROR);
+		context.logMessage(IsoRoutine.ISO6336_2019, 1, "failed", MaxsMessageType.ERROR);
+		context.logMessage(IsoRoutine.ISO6336_2019, 2, "check", MaxsMessageType.WARNING);
+		assertTrue(context.hasErrors());
+		assertEquals(2, context.count(MaxsMessageType.ERROR));
+
+		context.registerMBean("statistics-test");
+		try {
+			final ObjectName name = new ObjectName("de.fva_net.maxs.logger:type=MaxsLoggerContext,name=\"statistics-test\"");
+			final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			assertEquals(2L, server.getAttribute(name, "ErrorCount"));
+			assertEquals(3L, server.getAttribute(name, "TotalCount"));
+			assertEquals(2, server.getAttribute(name, "RetainedCount"));
+		} finally {
+			context.unregisterMBean();
+		}
+
+		context.reset();
+		assertFalse(context.hasErrors());
+	}
+
+	/**
+	 * Verifies that a .maxs.gz target is written compressed and can be read like an uncompressed file.
+	 */
+	@Test
+	void activateFileLogging_compressedTarget(@TempDir final Path tempDir) throws Exception {
+		final File file = tempDir.resolve("job.maxs.gz").toFile();
+		final MaxsLoggerContext context = new MaxsLoggerContext();
+		context.setAppInformation("app", "1.0");
+		context.activateFileLogging(file, MaxsFileLoggingOptions.builder().compressionLevel(1).build());
+		assertTrue(context.isLoggingToFileActivated());
+		for (int i = 0; i < 100; i++) {
+			context.logMessage(IsoRoutine.ISO6336_2019, i, "compressed", MaxsMessageType.INFO);
+		}
+		context.deactivateFileLogging();
+
+		final KernelNotifications read = MaxsFiles.read(file);
+		assertEquals("app", read.getAppId());
+		assertEquals(context.getAllNotifications(), read.getNotifications());
+	}
+
+	/**
+	 * Verifies that a .maxsb target is written in the binary format and can be read like an XML file.
+	 */
+	@Test
+	void activateFileLogging_binaryTarget(@TempDir final Path tempDir) throws Exception {
+		final File file = tempDir.resolve("job.maxsb").toFile();
+		final MaxsLoggerContext context = new MaxsLoggerContext();
+		context.setAppInformation("app", "1.0");
+		context.logMessage(IsoRoutine.ISO6336_2019, 0, "before", MaxsMessageType.WARNING);
+		context.activateFileLogging(file);
+		assertTrue(context.isLoggingToFileActivated());
+		for (int i = 1; i < 100; i++) {
+			context.logMessage(IsoRoutine.ISO6336_2019, i, "binary", MaxsMessageType.INFO);
+		}
+		context.deactivateFileLogging();
+
+		final KernelNotifications read = MaxsFiles.read(file);
+		assertEquals("app", read.getAppId());
+		assertEquals(context.getAllNotifications(), read.getNotifications());
+	}
+
+	/**
+	 * Verifies that in journal mode the log file is written from the journal when the file logging is deactivated.
+	 */
+	@Test
+	void activateFileLogging_journal(@TempDir final Path tempDir) throws Exception {
+		final File file = tempDir.resolve("job.maxs").toFile();
+		final MaxsLoggerContext context = new MaxsLoggerContext();
+		context.setAppInformation("app", "1.0");
+		context.activateFileLogging(file, MaxsFileLoggingOptions.builder().journal(true).journalSegmentSize(4096).build());
+		for (int i = 0; i < 200; i++) {
+			context.logMessage(IsoRoutine.ISO6336_2019, i, "journaled", MaxsMessageType.WARNING);
+		}
+		assertTrue(MaxsJournal.journalFileOf(file).exists());
+		context.deactivateFileLogging();
+
+		assertFalse(MaxsJournal.journalFileOf(file).exists());
+		assertEquals(context.getAllNotifications(), MaxsFiles.read(file).getNotifications());
+	}
+
+	/**
+	 * Verifies that in rolling mode the notifications are written to the segments listed in the manifest.
+	 */
+	@Test
+	void activateFileLogging_rolling(@TempDir final Path tempDir) throws Exception {
+		final File file = tempDir.resolve("job.maxs").toFile();
+		final MaxsLoggerContext context = new MaxsLoggerContext();
+		context.activateFileLogging(file, MaxsFileLoggingOptions.builder().rollingMaxNotifications(50).build());
+		for (int i = 0; i < 120; i++) {
+			context.logMessage(IsoRoutine.ISO6336_2019, i, "rolling", MaxsMessageType.INFO);
+		}
+		context.deactivateFileLogging();
+
+		final MaxsManifest manifest = MaxsManifest.read(MaxsManifest.manifestFileOf(file));
+		assertEquals(3, manifest.getSegments().size());
+		assertEquals(20, MaxsFiles.read(manifest.getFiles().get(2)).getNotifications().size());
+	}
+
+	/**
+	 * Verifies that the notifications dropped by the asynchronous file logging are counted, so every logged
+	 * notification is either written or counted.
+	 */
+	@Test
+	void activateFileLogging_asyncBuffer_countsDroppedNotifications(@TempDir final Path tempDir) throws Exception {
+		final File file = tempDir.resolve("buffered.maxs").toFile();
+		final MaxsLoggerContext context = new MaxsLoggerContext();
+		context.activateFileLogging(file, MaxsFileLoggingOptions.builder()
+				.async(true)
+				.queueCapacity(1)
+				.overflowPolicy(MaxsOverflowPolicy.BUFFER)
+				.overflowCapacity(1)
+				.build());
+		for (int i = 0; i < 1000; i++) {
+			context.logMessage(IsoRoutine.ISO6336_2019, i, "buffered", MaxsMessageType.INFO);
+		}
+		context.flush();
+
+		assertEquals(1000, MaxsFiles.read(file).getNotifications().size() + context.getDroppedCount());
+		context.deactivateFileLogging();
+		assertEquals(0, context.getDroppedCount());
+	}
+
+	/**
+	 * Verifies that each notification is dispatched to the store, the log file and the added sinks.
+	 */
+	@Test
+	void addSink_fanOut(@TempDir final Path tempDir) throws Exception {
+		final File file = tempDir.resolve("job.maxs").toFile();
+		final MaxsLoggerContext context = new MaxsLoggerContext();
+		final InMemoryMaxsSink all = new InMemoryMaxsSink();
+		final InMemoryMaxsSink errors = new InMemoryMaxsSink();
+		context.activateFileLogging(file, MaxsFileLoggingOptions.builder().incremental(true).build());
+		context.addSink(all);
+		context.addSink(errors, MaxsSinkOptions.builder().minimumSeverity(MaxsMessageType.ERROR).async(true).build());
+		assertTrue(context.getSinks().get(0) instanceof NotificationStoreSink);
+		assertTrue(context.getSinks().get(1) instanceof MaxsFileSink);
+
+		context.logMessage(IsoRoutine.ISO6336_2019, 1, "info", MaxsMessageType.INFO);
+		context.logMessage(IsoRoutine.ISO6336_2019, 2, "error", MaxsMessageType.ERROR);
+		context.flush();
+
+		assertEquals(context.getAllNotifications(), all.getNotifications());
+		assertEquals(context.getAllNotifications(), MaxsFiles.read(file).getNotifications());
+		assertEquals(List.of("error"), errors.getNotifications().stream().map(Notification::getMessage).toList());
+		assertTrue(context.removeSink(errors));
+		assertThrows(IllegalArgumentException.class, () -> context.removeSink(context.getSinks().get(0)));
+		context.deactivateFileLogging();
+		assertEquals(List.of(context.getSinks().get(0), all), context.getSinks());
+	}
+
+	/**
+	 * Verifies that subscribers receive the notifications logged after they have subscribed.
+	 */
+	@Test
+	void subscribe_pushesNewNotifications() throws Exception {
+		final MaxsLoggerContext context = new MaxsLoggerContext();
+		context.logMessage(IsoRoutine.ISO6336_2019, 1, "before", MaxsMessageType.INFO);
+		final BlockingQueue<Notification> received = new LinkedBlockingQueue<>();
+		context.subscribe(new Flow.Subscriber<>() {
+			@Override
+			public void onSubscribe(final Flow.Subscription subscription) {
+				subscription.request(Long.MAX_VALUE);
+			}
+
+			@Override
+			public void onNext(final Notification item) {
+				received.add(item);
+			}
+
+			@Override
+			public void onError(final Throwable throwable) {
+				// not expected
+			}
+
+			@Override
+			public void onComplete() {
+				// not expected
+			}
+		});
+		context.logMessage(IsoRoutine.ISO6336_2019, 2, "after", MaxsMessageType.WARNING);
+
+		assertEquals("after", received.poll(10, TimeUnit.SECONDS).getMessage());
+		assertSame(context.getPublisher(), context.getPublisher());
+	}
+}
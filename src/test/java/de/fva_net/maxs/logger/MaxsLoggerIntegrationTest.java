@@ -9,6 +9,7 @@
 
 import java.io.File;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -206,6 +207,42 @@ void requireNonZero_intValueIsNonZero_doesNotLog() {
         assertEquals(0, MaxsLogger.getAllNotifications().size());
     }
 
+	/**
+	 * Scans an array with missing values and verifies that a single notification lists their indices.
+	 */
+    @Test
+    void requireAllNonZero_valuesMissing_logsSingleNotification() {
+        MaxsLogger.requireAllNonZero(IsoRoutine.ISO6336_2019, 4, new double[] { 1.0, 0.0, 2.0, Double.NaN }, "toothValues");
+        assertEquals(1, MaxsLogger.getAllNotifications().size());
+        assertEquals("toothValues is required to perform the calculation but is missing at indices 1, 3.",
+                MaxsLogger.getAllNotifications().get(0).getMessage());
+        assertEquals(4, MaxsLogger.getAllNotifications().get(0).getCompId());
+        assertEquals(0.0, MaxsLogger.getAllNotifications().get(0).getData().get(0).getValue());
+    }
+
+	/**
+	 * Scans an array with many missing values and verifies that the listed indices are truncated.
+	 */
+    @Test
+    void requireAllNonNull_manyValuesMissing_truncatesIndices() {
+        final double[] values = new double[100];
+        Arrays.fill(values, Double.NaN);
+        values[0] = 0.0;
+        MaxsLogger.requireAllNonNull(IsoRoutine.ISO6336_2019, 4, values, "stepValues");
+        assertEquals(1, MaxsLogger.getAllNotifications().size());
+        assertTrue(MaxsLogger.getAllNotifications().get(0).getMessage().endsWith("indices 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20 and 79 more."));
+    }
+
+	/**
+	 * Scans an array without missing values and verifies that no notifications are created.
+	 */
+    @Test
+    void requireAllNonZero_noValueMissing_doesNotLog() {
+        MaxsLogger.requireAllNonZero(IsoRoutine.ISO6336_2019, 4, new double[] { 1.0, 2.0 }, "toothValues");
+        MaxsLogger.requireAllNonNull(IsoRoutine.ISO6336_2019, 4, new double[] { 0.0, 2.0 }, "toothValues");
+        assertEquals(0, MaxsLogger.getAllNotifications().size());
+    }
+
 	/**
 	 * Verifies that resetting the logger clears notifications and deactivates logging.
 	 */
@@ -14,6 +14,7 @@
 import java.nio.file.Path;
 import java.util.List;
 import java.util.function.Predicate;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -56,6 +57,39 @@ void test_notificationList(@TempDir final Path tempDir) {
         XmlAssert.assertThat(actualMaxsFile).and(expectedMaxFile).ignoreWhitespace().areIdentical();
     }
 
+	/**
+	 * Verifies that the incrementally written notification list matches the expected file.
+	 */
+	@Test
+	void test_notificationList_incremental(@TempDir final Path tempDir) {
+		final File expectedMaxFile = new File("src/test/resources/notificationList.maxs");
+		final File actualMaxsFile = tempDir.resolve("actual.maxs").toFile();
+
+		MaxsLogger.activateFileLogging(actualMaxsFile, MaxsFileLoggingOptions.builder().incremental(true).build());
+		final MaterialComp materialComp = MaterialComp.builder().rexsId(5).build();
+		MaxsLogger.logMessage(IsoRoutine.ISO21771_2007, materialComp.rexsId, "ISO21771 plugin", MaxsMessageType.INFO);
+		MaxsLogger.requireNonNull(IsoRoutine.ISO21771_2007, materialComp.rexsId, materialComp.elasticModulus(), "elastic_modulus");
+
+		XmlAssert.assertThat(actualMaxsFile).and(expectedMaxFile).ignoreWhitespace().areIdentical();
+	}
+
+	/**
+	 * Verifies that the asynchronously written notification list matches the expected file after flushing.
+	 */
+	@Test
+	void test_notificationList_async(@TempDir final Path tempDir) {
+		final File expectedMaxFile = new File("src/test/resources/notificationList.maxs");
+		final File actualMaxsFile = tempDir.resolve("actual.maxs").toFile();
+
+		MaxsLogger.activateFileLogging(actualMaxsFile, MaxsFileLoggingOptions.builder().async(true).build());
+		final MaterialComp materialComp = MaterialComp.builder().rexsId(5).build();
+		MaxsLogger.logMessage(IsoRoutine.ISO21771_2007, materialComp.rexsId, "ISO21771 plugin", MaxsMessageType.INFO);
+		MaxsLogger.requireNonNull(IsoRoutine.ISO21771_2007, materialComp.rexsId, materialComp.elasticModulus(), "elastic_modulus");
+		MaxsLogger.flush();
+
+		XmlAssert.assertThat(actualMaxsFile).and(expectedMaxFile).ignoreWhitespace().areIdentical();
+	}
+
 	/**
 	 * Verifies that setting application information updates the app ID and version.
 	 */
@@ -125,4 +159,14 @@ void test_getFilteredNotifications_byRoutineAndId() {
 		List<Notification> filteredNotifications = MaxsLogger.getFilteredNotifications(filter);
 		assertEquals(1, filteredNotifications.size());
 	}
+
+	/**
+	 * Tests that no notification is lost if messages are logged from a parallel stream.
+	 */
+	@Test
+	void test_logMessage_parallel() {
+		IntStream.range(0, 10_000).parallel()
+			.forEach(i -> MaxsLogger.requireNonZero(IsoRoutine.ISO6336_2019, i + 1, 0.0, "tooth_width"));
+		assertEquals(10_000, MaxsLogger.getAllNotifications().size());
+	}
 }
@@ -0,0 +1,213 @@
+package de.fva_net.maxs.logger;
+
+import de.fva_net.maxs.logger.store.CompactNotificationStore;
+import de.fva_net.maxs.logger.store.NotificationAggregator;
+import de.fva_net.maxs.logger.xml.JaxbMaxsSerializer;
+import de.fva_net.maxs.logger.xml.KernelNotifications;
+import de.fva_net.maxs.logger.xml.MaxsSerializer;
+import de.fva_net.maxs.logger.xml.Notification;
+import de.fva_net.maxs.logger.xml.StreamingMaxsSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the MaxsMessageTemplate class.
+ */
+class MaxsMessageTemplateTest {
+
+	/**
+	 * The template used by the tests.
+	 */
+	private static final MaxsMessageTemplate TEMPLATE = MaxsMessageTemplate.of("The stress of {} exceeds {} MPa.");
+
+	/**
+	 * Resets the global context before each test.
+	 */
+	@BeforeEach
+	void beforeEach() {
+		MaxsLogger.reset();
+	}
+
+	/**
+	 * Creates a notification with the message of the template.
+	 *
+	 * @param arguments the arguments of the message
+	 * @return the notification
+	 */
+	private static Notification notification(final Object... arguments) {
+		final Notification notification = MaxsTestFixtures.notification("iso6336_2019", 3, MaxsMessageType.WARNING, null);
+		notification.setMessage(TEMPLATE, arguments);
+		return notification;
+	}
+
+	/**
+	 * Verifies that the placeholders are replaced in order, that missing arguments keep their placeholder and that
+	 * additional arguments are ignored.
+	 */
+	@Test
+	void format_replacesPlaceholders() {
+		assertEquals(2, TEMPLATE.getArgumentCount());
+		assertEquals("The stress of gear 1 exceeds 450.5 MPa.", TEMPLATE.format("gear 1", 450.5));
+		assertEquals("The stress of gear 1 exceeds {} MPa.", TEMPLATE.format("gear 1"));
+		assertEquals("The stress of null exceeds 1 MPa.", TEMPLATE.format(null, 1, 2));
+		assertEquals("no placeholder", MaxsMessageTemplate.of("no placeholder").format("ignored"));
+		assertEquals("{}", MaxsMessageTemplate.of("{}").format((Object[]) null));
+	}
+
+	/**
+	 * Verifies that templates are interned by their pattern.
+	 */
+	@Test
+	void of_internsTemplates() {
+		assertSame(TEMPLATE, MaxsMessageTemplate.of(new String("The stress of {} exceeds {} MPa.")));
+		assertEquals("The stress of {} exceeds {} MPa.", TEMPLATE.getPattern());
+		assertThrows(IllegalArgumentException.class, () -> MaxsMessageTemplate.of(null));
+	}
+
+	/**
+	 * Verifies that a notification keeps the template and its arguments and equals a notification with the formatted
+	 * message.
+	 */
+	@Test
+	void notification_formatsMessageOnRead() {
+		final Notification templated = notification("gear 1", 450);
+		assertSame(TEMPLATE, templated.getMessageTemplate());
+		assertArrayEquals(new Object[] { "gear 1", 450 }, templated.getMessageArguments());
+		assertEquals("The stress of gear 1 exceeds 450 MPa.", templated.getMessage());
+
+		final Notification literal = new Notification();
+		literal.setRoutine("iso6336_2019");
+		literal.setCompId(3);
+		literal.setType(MaxsMessageType.WARNING);
+		literal.setMessage("The stress of gear 1 exceeds 450 MPa.");
+		assertEquals(literal, templated);
+		assertEquals(literal.hashCode(), templated.hashCode());
+
+		templated.setMessage("replaced");
+		assertNull(templated.getMessageTemplate());
+		assertEquals("replaced", templated.getMessage());
+	}
+
+	/**
+	 * Verifies that JAXB and the streaming serializer write the formatted message.
+	 */
+	@Test
+	void serialize_writesFormattedMessage() throws IOException {
+		final KernelNotifications kernelNotifications = new KernelNotifications();
+		kernelNotifications.getNotifications().add(notification("gear <1>", 450));
+		final String jaxb = serialize(JaxbMaxsSerializer.INSTANCE, kernelNotifications);
+		assertTrue(jaxb.contains("The stress of gear &lt;1&gt; exceeds 450 MPa."), jaxb);
+		assertEquals(jaxb, serialize(StreamingMaxsSerializer.FORMATTED, kernelNotifications));
+		assertSame(TEMPLATE, kernelNotifications.getNotifications().get(0).getMessageTemplate());
+	}
+
+	/**
+	 * Verifies that JAXB formats the message without changing the notification, so it can be marshalled by several
+	 * threads at once.
+	 */
+	@Test
+	void serialize_concurrently_keepsNotification() throws Exception {
+		final KernelNotifications kernelNotifications = new KernelNotifications();
+		kernelNotifications.getNotifications().add(notification("gear 1", 450));
+		final String expected = serialize(JaxbMaxsSerializer.INSTANCE, kernelNotifications);
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final List<Future<String>> results = new ArrayList<>();
+			for (int i = 0; i < 200; i++) {
+				results.add(executor.submit(() -> serialize(JaxbMaxsSerializer.INSTANCE, kernelNotifications)));
+			}
+			for (final Future<String> result : results) {
+				assertEquals(expected, result.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertSame(TEMPLATE, kernelNotifications.getNotifications().get(0).getMessageTemplate());
+	}
+
+	/**
+	 * Verifies that all missing attributes are reported with the same template.
+	 */
+	@Test
+	void requireAll_usesMissingAttributeTemplate() {
+		final MaxsLoggerContext context = new MaxsLoggerContext();
+		context.requireNonNull(IsoRoutine.ISO6336_2019, 1, null, "normal_module");
+		context.requireAllNonNull(IsoRoutine.ISO6336_2019, 2, new double[] { 1.0, Double.NaN }, "tooth_width");
+		final List<Notification> notifications = context.getAllNotifications();
+		assertEquals(2, notifications.size());
+		assertSame(MaxsLoggerContext.MISSING_ATTRIBUTE, notifications.get(0).getMessageTemplate());
+		assertEquals("normal_module is required to perform the calculation but is missing.", notifications.get(0).getMessage());
+		assertSame(MaxsLoggerContext.MISSING_ATTRIBUTE, notifications.get(1).getMessageTemplate());
+		assertEquals("tooth_width is required to perform the calculation but is missing at index 1.", notifications.get(1).getMessage());
+	}
+
+	/**
+	 * Serializes the notifications into a string.
+	 *
+	 * @param serializer          the serializer to use
+	 * @param kernelNotifications the notifications
+	 * @return the document
+	 */
+	private static String serialize(final MaxsSerializer serializer, final KernelNotifications kernelNotifications) throws IOException {
+		final StringWriter writer = new StringWriter();
+		serializer.write(kernelNotifications, writer);
+		return writer.toString();
+	}
+
+	/**
+	 * Verifies that the compact store keeps the template instead of the formatted message.
+	 */
+	@Test
+	void compactStore_keepsTemplate() {
+		final CompactNotificationStore store = new CompactNotificationStore();
+		store.add(notification("gear 1", 450));
+		final Notification stored = store.getAll().get(0);
+		assertSame(TEMPLATE, stored.getMessageTemplate());
+		assertEquals("The stress of gear 1 exceeds 450 MPa.", stored.getMessage());
+	}
+
+	/**
+	 * Verifies that repeated templated messages are aggregated by their template and arguments.
+	 */
+	@Test
+	void aggregator_countsRepeatedTemplates() {
+		final NotificationAggregator aggregator = new NotificationAggregator(16);
+		final Notification first = notification("gear 1", 450);
+		assertFalse(aggregator.aggregate(first));
+		assertTrue(aggregator.aggregate(notification("gear 1", 450)));
+		assertFalse(aggregator.aggregate(notification("gear 2", 450)));
+		assertEquals(2, NotificationAggregator.getCount(first));
+	}
+
+	/**
+	 * Verifies that the logger formats templated messages only when they are read.
+	 */
+	@Test
+	void logMessage_withTemplate() {
+		MaxsLogger.logMessage(IsoRoutine.ISO6336_2019, 3, TEMPLATE, MaxsMessageType.WARNING, "gear 1", 450);
+		MaxsLogger.logMessage(IsoRoutine.ISO6336_2019, TEMPLATE, MaxsMessageType.INFO, "all gears", 0);
+		final List<Notification> notifications = MaxsLogger.getAllNotifications();
+		assertEquals(2, notifications.size());
+		assertSame(TEMPLATE, notifications.get(0).getMessageTemplate());
+		assertEquals(3, notifications.get(0).getCompId());
+		assertEquals("The stress of gear 1 exceeds 450 MPa.", notifications.get(0).getMessage());
+		assertNull(notifications.get(1).getCompId());
+		assertEquals("The stress of all gears exceeds 0 MPa.", notifications.get(1).getMessage());
+	}
+}
@@ -2,6 +2,7 @@
 
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -23,4 +24,16 @@ void isDebug() {
 		assertTrue(MaxsMessageType.DEBUG_INFO.isDebug());
 	}
 
+	/**
+	 * Verifies that the severity of debug types equals the severity of their non-debug counterparts.
+	 */
+	@Test
+	void getSeverity() {
+		assertTrue(MaxsMessageType.ERROR.getSeverity() > MaxsMessageType.WARNING.getSeverity());
+		assertTrue(MaxsMessageType.WARNING.getSeverity() > MaxsMessageType.INFO.getSeverity());
+		assertEquals(MaxsMessageType.ERROR.getSeverity(), MaxsMessageType.DEBUG_ERROR.getSeverity());
+		assertEquals(MaxsMessageType.WARNING.getSeverity(), MaxsMessageType.DEBUG_WARNING.getSeverity());
+		assertEquals(MaxsMessageType.INFO.getSeverity(), MaxsMessageType.DEBUG_INFO.getSeverity());
+	}
+
 }
@@ -0,0 +1,101 @@
+package de.fva_net.maxs.logger;
+
+import de.fva_net.maxs.logger.store.ChunkedNotificationStore;
+import de.fva_net.maxs.logger.store.CompactNotificationStore;
+import de.fva_net.maxs.logger.store.ConcurrentNotificationStore;
+import de.fva_net.maxs.logger.store.NotificationAggregator;
+import de.fva_net.maxs.logger.store.NotificationStore;
+import de.fva_net.maxs.logger.xml.Notification;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the MaxsQuery class.
+ */
+class MaxsQueryTest {
+
+	/**
+	 * Creates the stores the queries are tested with.
+	 *
+	 * @return the stores
+	 */
+	private static List<NotificationStore> stores() {
+		return List.of(new ChunkedNotificationStore(), new ConcurrentNotificationStore(), new CompactNotificationStore());
+	}
+
+	/**
+	 * Creates a context with notifications of two routines and ten components.
+	 *
+	 * @param store the store of the context
+	 * @return the context
+	 */
+	private static MaxsLoggerContext createContext(final NotificationStore store) {
+		final MaxsLoggerContext context = new MaxsLoggerContext();
+		context.setNotificationStore(store);
+		for (int i = 0; i < 100; i++) {
+			final IsoRoutine routine = i % 2 == 0 ? IsoRoutine.ISO6336_2019 : IsoRoutine.ISO21771_2007;
+			final MaxsMessageType type = i % 10 == 9 ? MaxsMessageType.ERROR : MaxsMessageType.INFO;
+			context.logMessage(routine, i % 10, "message " + i, type);
+		}
+		return context;
+	}
+
+	/**
+	 * Verifies for all stores that the criteria are combined and the matches are ordered.
+	 */
+	@Test
+	void list_combinedCriteria_returnsOrderedMatches() {
+		for (final NotificationStore store : stores()) {
+			final MaxsLoggerContext context = createContext(store);
+			final List<Notification> errors = context.query().type(MaxsMessageType.ERROR).routine(IsoRoutine.ISO21771_2007).compId(9).list();
+
+			assertEquals(10, errors.size());
+			assertEquals(IntStream.range(0, 10).mapToObj(i -> "message " + (i * 10 + 9)).toList(),
+					errors.stream().map(Notification::getMessage).toList());
+		}
+	}
+
+	/**
+	 * Verifies count and exists for all stores, including criteria that match nothing.
+	 */
+	@Test
+	void countAndExists() {
+		for (final NotificationStore store : stores()) {
+			final MaxsLoggerContext context = createContext(store);
+
+			assertEquals(100, context.query().count());
+			assertEquals(50, context.query().routine(IsoRoutine.ISO6336_2019).count());
+			assertEquals(100, context.query().type(MaxsMessageType.ERROR, MaxsMessageType.INFO).count());
+			assertEquals(10, context.query().compId(3).count());
+			assertTrue(context.query().type(MaxsMessageType.ERROR).exists());
+			assertFalse(context.query().type(MaxsMessageType.ERROR).routine(IsoRoutine.ISO6336_2019).exists());
+			assertFalse(context.query().compId(42).exists());
+			assertFalse(context.query().type(MaxsMessageType.WARNING).exists());
+		}
+	}
+
+	/**
+	 * Verifies for all stores that a query sees aggregated notifications and no notifications after a reset.
+	 */
+	@Test
+	void count_afterAggregationAndReset() {
+		for (final NotificationStore store : stores()) {
+			final MaxsLoggerContext context = new MaxsLoggerContext();
+			context.setNotificationStore(store);
+			context.enableAggregation(10);
+			context.logMessage(IsoRoutine.ISO6336_2019, 1, "repeated", MaxsMessageType.ERROR);
+			context.logMessage(IsoRoutine.ISO6336_2019, 1, "repeated", MaxsMessageType.ERROR);
+			assertEquals(1, context.query().type(MaxsMessageType.ERROR).compId(1).count());
+			assertEquals(2, NotificationAggregator.getCount(context.query().type(MaxsMessageType.ERROR).list().get(0)));
+
+			context.reset();
+			assertFalse(context.query().exists());
+		}
+	}
+}
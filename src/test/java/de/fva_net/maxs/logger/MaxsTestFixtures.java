@@ -0,0 +1,120 @@
+package de.fva_net.maxs.logger;
+
+import de.fva_net.maxs.logger.xml.Item;
+import de.fva_net.maxs.logger.xml.Notification;
+import org.xml.sax.InputSource;
+
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import java.io.File;
+
+/**
+ * Shared helpers for the tests.
+ * <p>
+ * The notification factories fill in only the given fields, so each test states the fields it depends on. The written
+ * .maxs files are inspected with the XPath support of the JDK, so the tests do not depend on the assertion library
+ * behind the XMLUnit assertions.
+ */
+public final class MaxsTestFixtures {
+
+	/**
+	 * Utility class.
+	 */
+	private MaxsTestFixtures() {
+	}
+
+	/**
+	 * Creates a notification.
+	 *
+	 * @param routine the routine, or null
+	 * @param compId  the component ID, or null
+	 * @param type    the type
+	 * @param message the message
+	 * @return the notification
+	 */
+	public static Notification notification(final String routine, final Integer compId, final MaxsMessageType type, final String message) {
+		final Notification notification = new Notification();
+		notification.setRoutine(routine);
+		notification.setCompId(compId);
+		notification.setType(type);
+		notification.setMessage(message);
+		return notification;
+	}
+
+	/**
+	 * Creates a notification with the message "message".
+	 *
+	 * @param routine the routine, or null
+	 * @param compId  the component ID, or null
+	 * @param type    the type
+	 * @return the notification
+	 */
+	public static Notification notification(final String routine, final Integer compId, final MaxsMessageType type) {
+		return notification(routine, compId, type, "message");
+	}
+
+	/**
+	 * Creates a notification without routine and component ID.
+	 *
+	 * @param message the message
+	 * @param type    the type
+	 * @return the notification
+	 */
+	public static Notification notification(final String message, final MaxsMessageType type) {
+		return notification(null, null, type, message);
+	}
+
+	/**
+	 * Creates a {@link MaxsMessageType#WARNING} of the routine iso6336_2019.
+	 *
+	 * @param message the message
+	 * @return the notification
+	 */
+	public static Notification notification(final String message) {
+		return notification("iso6336_2019", null, MaxsMessageType.WARNING, message);
+	}
+
+	/**
+	 * Adds a data item to a notification.
+	 *
+	 * @param notification the notification
+	 * @param attrId       the attribute ID of the item
+	 * @param compId       the component ID of the item, or null
+	 * @param value        the value of the item
+	 * @return the notification
+	 */
+	public static Notification withItem(final Notification notification, final String attrId, final Integer compId, final double value) {
+		final Item item = new Item();
+		item.setAttrId(attrId);
+		item.setCompId(compId);
+		item.setValue(value);
+		notification.getData().add(item);
+		return notification;
+	}
+
+	/**
+	 * Evaluates an XPath expression on a file.
+	 *
+	 * @param file       the XML file
+	 * @param expression the XPath expression
+	 * @return the string value of the result, or an empty string if nothing matches
+	 */
+	public static String valueOf(final File file, final String expression) {
+		try {
+			return XPathFactory.newInstance().newXPath().evaluate(expression, new InputSource(file.toURI().toString()));
+		} catch (final XPathExpressionException e) {
+			throw new IllegalStateException("Unable to evaluate " + expression + " on " + file, e);
+		}
+	}
+
+	/**
+	 * Counts the nodes selected by an XPath expression in a file.
+	 *
+	 * @param file       the XML file
+	 * @param expression the XPath expression selecting the nodes
+	 * @return the number of selected nodes
+	 */
+	public static int countNodes(final File file, final String expression) {
+		return (int) Double.parseDouble(valueOf(file, "count(" + expression + ")"));
+	}
+}
@@ -0,0 +1,148 @@
+package de.fva_net.maxs.logger;
+
+import de.fva_net.maxs.logger.xml.Notification;
+import info.rexs.model.RexsComponent;
+import info.rexs.model.RexsModelObjectFactory;
+import info.rexs.schema.constants.standard.RexsStandardComponentTypes;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static de.fva_net.maxs.logger.MaxsTestFixtures.countNodes;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for the MaxsValidationPlan class.
+ */
+class MaxsValidationPlanTest {
+
+	/**
+	 * Mock enum for attribute testing.
+	 */
+	enum TestEnum {
+		UNKNOWN,
+		VALID
+	}
+
+	/**
+	 * Test values of the components by their ID.
+	 *
+	 * @param module    the normal module
+	 * @param angle     the helix angle
+	 * @param flankType the flank type
+	 */
+	private record Values(double module, Double angle, TestEnum flankType) {
+	}
+
+	/**
+	 * The values of the test components.
+	 */
+	private static final Map<Integer, Values> VALUES = Map.of(
+			1, new Values(2.0, 0.0, TestEnum.VALID),
+			2, new Values(0.0, Double.NaN, TestEnum.UNKNOWN),
+			3, new Values(Double.NaN, null, null));
+
+	/**
+	 * The plan for the test components.
+	 */
+	private static final MaxsValidationPlan PLAN = MaxsValidationPlan.builder(IsoRoutine.ISO6336_2019)
+			.requireNonZero("normal_module", component -> VALUES.get(component.getId()).module())
+			.requireNonNull("helix_angle", component -> VALUES.get(component.getId()).angle())
+			.requireKnown("flank_type", component -> VALUES.get(component.getId()).flankType())
+			.build();
+
+	/**
+	 * Creates a test component.
+	 *
+	 * @param id the component ID
+	 * @return the component
+	 */
+	private static RexsComponent gear(final int id) {
+		return RexsModelObjectFactory.getInstance().createRexsComponent(id, RexsStandardComponentTypes.cylindrical_gear, "gear " + id);
+	}
+
+	/**
+	 * Verifies that a valid component does not create notifications.
+	 */
+	@Test
+	void validate_validComponent_doesNotLog() {
+		final MaxsLoggerContext context = new MaxsLoggerContext();
+		context.validate(PLAN, gear(1));
+		assertEquals(0, context.getAllNotifications().size());
+		assertEquals(3, PLAN.size());
+	}
+
+	/**
+	 * Verifies that all missing attributes are logged in the order of the rules.
+	 */
+	@Test
+	void validate_missingAttributes_logsEachRule() {
+		final MaxsLoggerContext context = new MaxsLoggerContext();
+		context.validate(PLAN, gear(2));
+
+		final List<Notification> notifications = context.getAllNotifications();
+		assertEquals(List.of("normal_module", "helix_angle", "flank_type"),
+				notifications.stream().map(notification -> notification.getData().get(0).getAttrId()).toList());
+		assertEquals("normal_module is required to perform the calculation but is missing.", notifications.get(0).getMessage());
+		assertEquals(0.0, notifications.get(0).getData().get(0).getValue());
+		assertEquals(MaxsMessageType.DEBUG_ERROR, notifications.get(1).getType());
+		assertEquals(2, notifications.get(2).getCompId());
+		assertEquals("iso6336_2019", notifications.get(2).getRoutine());
+	}
+
+	/**
+	 * Verifies that the hits of several components are written to the log file as one batch.
+	 */
+	@Test
+	void validate_components_writesBatch(@TempDir final Path tempDir) {
+		final File file = tempDir.resolve("validation.maxs").toFile();
+		final MaxsLoggerContext context = new MaxsLoggerContext();
+		context.activateFileLogging(file, MaxsFileLoggingOptions.builder().incremental(true).build());
+		context.validate(PLAN, List.of(gear(1), gear(2), gear(3)));
+		context.deactivateFileLogging();
+
+		assertEquals(6, context.getAllNotifications().size());
+		assertEquals(6, countNodes(file, "/kernelNotifications/notification"));
+	}
+
+	/**
+	 * Verifies that the notifications of a validation are counted by the statistics in the default configuration.
+	 */
+	@Test
+	void validate_components_countsStatistics() {
+		final MaxsLoggerContext context = new MaxsLoggerContext();
+		context.validate(PLAN, List.of(gear(1), gear(2), gear(3)));
+		context.validate(PLAN, gear(2));
+
+		assertEquals(9, context.count(MaxsMessageType.DEBUG_ERROR));
+		assertEquals(9, context.getStatistics().total());
+		assertEquals(9, context.getStatistics().countByRoutine("iso6336_2019"));
+		assertEquals(6, context.getStatistics().countByCompId(2));
+		assertEquals(3, context.getStatistics().countByCompId(3));
+	}
+
+	/**
+	 * Verifies that disabled debug messages skip the validation.
+	 */
+	@Test
+	void validate_debugDisabled_doesNotLog() {
+		final MaxsLoggerContext context = new MaxsLoggerContext();
+		context.setDebugEnabled(false);
+		context.validate(PLAN, gear(2));
+		assertEquals(0, context.getAllNotifications().size());
+	}
+
+	/**
+	 * Verifies that a rule requires an attribute.
+	 */
+	@Test
+	void builder_withoutAttribute_throws() {
+		final MaxsValidationPlan.Builder builder = MaxsValidationPlan.builder(IsoRoutine.ISO6336_2019);
+		assertThrows(IllegalArgumentException.class, () -> builder.requireNonNaN(null, component -> 0.0));
+	}
+}
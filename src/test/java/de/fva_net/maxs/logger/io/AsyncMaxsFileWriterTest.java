@@ -0,0 +1,205 @@
+package de.fva_net.maxs.logger.io;
+
+import de.fva_net.maxs.logger.MaxsMessageType;
+import de.fva_net.maxs.logger.xml.KernelNotifications;
+import de.fva_net.maxs.logger.xml.Notification;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static de.fva_net.maxs.logger.MaxsTestFixtures.notification;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for the AsyncMaxsFileWriter class.
+ */
+class AsyncMaxsFileWriterTest {
+
+	/**
+	 * Writer that records all written notifications and can hold back the background thread.
+	 */
+	static class RecordingWriter implements MaxsFileWriter {
+		final List<String> written = Collections.synchronizedList(new ArrayList<>());
+		final CountDownLatch entered = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		volatile boolean hold;
+
+		@Override
+		public void open(final KernelNotifications kernelNotifications) {
+			written.clear();
+		}
+
+		@Override
+		public void append(final Notification notification) throws IOException {
+			if (hold) {
+				entered.countDown();
+				try {
+					release.await();
+				} catch (final InterruptedException e) {
+					throw new IOException(e);
+				}
+			}
+			written.add(notification.getMessage());
+		}
+
+		@Override
+		public void close() {
+			// nothing to close
+		}
+	}
+
+	/**
+	 * Verifies that flush and close write all appended notifications in order.
+	 */
+	@Test
+	void flushAndClose_writeAllNotificationsInOrder() throws IOException {
+		final RecordingWriter delegate = new RecordingWriter();
+		final AsyncMaxsFileWriter writer = AsyncMaxsFileWriter.builder()
+			.delegate(delegate)
+			.queueCapacity(4)
+			.overflowPolicy(MaxsOverflowPolicy.BLOCK)
+			.build();
+		writer.open(new KernelNotifications());
+
+		for (int i = 0; i < 100; i++) {
+			writer.append(notification("m" + i, MaxsMessageType.INFO));
+		}
+		writer.flush();
+		assertEquals(100, delegate.written.size());
+
+		writer.append(notification("last", MaxsMessageType.INFO));
+		writer.close();
+		assertEquals(101, delegate.written.size());
+		for (int i = 0; i < 100; i++) {
+			assertEquals("m" + i, delegate.written.get(i));
+		}
+		assertEquals("last", delegate.written.get(100));
+		assertThrows(IOException.class, () -> writer.append(notification("closed", MaxsMessageType.INFO)));
+	}
+
+	/**
+	 * Verifies that appends racing the close are either written or rejected, but never lost.
+	 */
+	@Test
+	void close_racingAppends_writesEveryAcceptedNotification() throws Exception {
+		final RecordingWriter delegate = new RecordingWriter();
+		final AsyncMaxsFileWriter writer = AsyncMaxsFileWriter.builder()
+			.delegate(delegate)
+			.queueCapacity(8)
+			.flushEveryNotifications(16)
+			.overflowPolicy(MaxsOverflowPolicy.BLOCK)
+			.build();
+		writer.open(new KernelNotifications());
+
+		final AtomicInteger accepted = new AtomicInteger();
+		final CountDownLatch started = new CountDownLatch(4);
+		final List<Thread> appenders = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			final Thread appender = new Thread(() -> {
+				started.countDown();
+				try {
+					// append until the writer rejects the notifications
+					while (true) {
+						writer.append(notification("racing", MaxsMessageType.INFO));
+						accepted.incrementAndGet();
+					}
+				} catch (final IOException e) {
+					// the writer has been closed
+				}
+			});
+			appender.start();
+			appenders.add(appender);
+		}
+		started.await();
+		Thread.sleep(20);
+		writer.close();
+		for (final Thread appender : appenders) {
+			appender.join();
+		}
+		assertEquals(accepted.get(), delegate.written.size());
+	}
+
+	/**
+	 * Verifies that appending an error or a debug error wakes up the background thread if flushOnError is set.
+	 */
+	@Test
+	void flushOnError_debugError_writesQueue() throws Exception {
+		for (final MaxsMessageType type : new MaxsMessageType[] { MaxsMessageType.ERROR, MaxsMessageType.DEBUG_ERROR }) {
+			final RecordingWriter delegate = new RecordingWriter();
+			final AsyncMaxsFileWriter writer = AsyncMaxsFileWriter.builder()
+				.delegate(delegate)
+				.queueCapacity(16)
+				.flushOnError(true)
+				.build();
+			writer.open(new KernelNotifications());
+			writer.append(notification("info", MaxsMessageType.INFO));
+			writer.append(notification("error", type));
+			for (int i = 0; i < 500 && delegate.written.size() < 2; i++) {
+				Thread.sleep(10);
+			}
+			assertEquals(List.of("info", "error"), delegate.written);
+			writer.close();
+		}
+	}
+
+	/**
+	 * Verifies that debug notifications are dropped if the queue is full.
+	 */
+	@Test
+	void dropDebug_dropsDebugNotificationsIfQueueIsFull() throws Exception {
+		final RecordingWriter delegate = new RecordingWriter();
+		final AsyncMaxsFileWriter writer = AsyncMaxsFileWriter.builder()
+			.delegate(delegate)
+			.queueCapacity(2)
+			.flushOnError(true)
+			.overflowPolicy(MaxsOverflowPolicy.DROP_DEBUG)
+			.build();
+		writer.open(new KernelNotifications());
+
+		// block the background thread inside the delegate
+		delegate.hold = true;
+		writer.append(notification("blocker", MaxsMessageType.INFO));
+		writer.append(notification("trigger", MaxsMessageType.ERROR));
+		delegate.entered.await();
+		writer.append(notification("a", MaxsMessageType.INFO));
+		writer.append(notification("b", MaxsMessageType.INFO));
+		writer.append(notification("dropped", MaxsMessageType.DEBUG_INFO));
+		assertEquals(1, writer.getDroppedCount());
+
+		delegate.hold = false;
+		delegate.release.countDown();
+		writer.close();
+		assertEquals(List.of("blocker", "trigger", "a", "b"), delegate.written);
+	}
+
+	/**
+	 * Verifies that notifications are buffered instead of blocking if the queue is full.
+	 */
+	@Test
+	void buffer_neverBlocksAndKeepsAllNotifications() throws IOException {
+		final RecordingWriter delegate = new RecordingWriter();
+		final AsyncMaxsFileWriter writer = AsyncMaxsFileWriter.builder()
+			.delegate(delegate)
+			.queueCapacity(1)
+			.overflowPolicy(MaxsOverflowPolicy.BUFFER)
+			.build();
+		writer.open(new KernelNotifications());
+		delegate.hold = true;
+		for (int i = 0; i < 50; i++) {
+			writer.append(notification("m" + i, MaxsMessageType.DEBUG_INFO));
+		}
+		delegate.hold = false;
+		delegate.release.countDown();
+		writer.close();
+		assertEquals(50, delegate.written.size());
+		for (int i = 0; i < 50; i++) {
+			assertEquals("m" + i, delegate.written.get(i));
+		}
+	}
+}
@@ -0,0 +1,212 @@
+package de.fva_net.maxs.logger.io;
+
+import de.fva_net.maxs.logger.MaxsMessageType;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static de.fva_net.maxs.logger.MaxsTestFixtures.notification;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the AsyncNotificationQueue class.
+ */
+class AsyncNotificationQueueTest {
+
+	/**
+	 * Creates a queue that records the messages of the passed notifications.
+	 *
+	 * @param received       receives the messages
+	 * @param capacity       the capacity of the queue
+	 * @param overflowPolicy the policy if the queue is full
+	 * @return the started queue
+	 */
+	private static AsyncNotificationQueue queue(final List<String> received, final int capacity, final MaxsOverflowPolicy overflowPolicy) {
+		final AsyncNotificationQueue queue = AsyncNotificationQueue.builder()
+			.name("test-queue")
+			.capacity(capacity)
+			.overflowPolicy(overflowPolicy)
+			.handler(batch -> batch.forEach(notification -> received.add(notification.getMessage())))
+			.build();
+		queue.start();
+		return queue;
+	}
+
+	/**
+	 * Verifies that the queued and buffered notifications are passed in order and that the action runs after them.
+	 */
+	@Test
+	void drain_buffer_passesAllNotificationsInOrder() throws IOException {
+		final List<String> received = Collections.synchronizedList(new ArrayList<>());
+		final AsyncNotificationQueue queue = queue(received, 2, MaxsOverflowPolicy.BUFFER);
+		for (int i = 0; i < 5; i++) {
+			assertTrue(queue.add(notification("message " + i, MaxsMessageType.INFO)));
+		}
+		queue.drain(() -> received.add("flushed"));
+		assertEquals(List.of("message 0", "message 1", "message 2", "message 3", "message 4", "flushed"), received);
+	}
+
+	/**
+	 * Verifies that only debug notifications are dropped if the queue is full.
+	 */
+	@Test
+	void add_dropDebug_dropsDebugNotifications() throws IOException {
+		final List<String> received = new ArrayList<>();
+		final AsyncNotificationQueue queue = queue(received, 1, MaxsOverflowPolicy.DROP_DEBUG);
+		assertTrue(queue.add(notification("first", MaxsMessageType.DEBUG_INFO)));
+		assertFalse(queue.add(notification("dropped", MaxsMessageType.DEBUG_INFO)));
+		assertEquals(1, queue.getDroppedCount());
+
+		queue.clear(null);
+		assertTrue(queue.add(notification("error", MaxsMessageType.ERROR)));
+		queue.drain(null);
+		assertEquals(List.of("error"), received);
+	}
+
+	/**
+	 * Verifies that the buffered notifications are bounded and that further ones are dropped.
+	 */
+	@Test
+	void add_bufferFull_dropsNotifications() throws Exception {
+		final List<String> received = Collections.synchronizedList(new ArrayList<>());
+		final CountDownLatch entered = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final AsyncNotificationQueue queue = AsyncNotificationQueue.builder()
+			.capacity(1)
+			.overflowPolicy(MaxsOverflowPolicy.BUFFER)
+			.overflowCapacity(2)
+			.handler(batch -> {
+				entered.countDown();
+				try {
+					release.await();
+				} catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				batch.forEach(notification -> received.add(notification.getMessage()));
+			})
+			.build();
+		queue.start();
+
+		// hold the background thread inside the handler
+		assertTrue(queue.add(notification("blocker", MaxsMessageType.INFO)));
+		queue.wakeUp();
+		entered.await();
+		assertTrue(queue.add(notification("queued", MaxsMessageType.INFO)));
+		assertTrue(queue.add(notification("buffered 1", MaxsMessageType.INFO)));
+		assertTrue(queue.add(notification("buffered 2", MaxsMessageType.INFO)));
+		assertFalse(queue.add(notification("dropped 1", MaxsMessageType.ERROR)));
+		assertFalse(queue.add(notification("dropped 2", MaxsMessageType.INFO)));
+		assertEquals(2, queue.getDroppedCount());
+
+		release.countDown();
+		queue.stop();
+		queue.drain(null);
+		assertEquals(List.of("blocker", "queued", "buffered 1", "buffered 2"), received);
+	}
+
+	/**
+	 * Verifies that the background thread passes the notifications when it is woken up and that a stopped queue rejects
+	 * notifications until it is started again.
+	 */
+	@Test
+	void start_wakeUp_passesNotificationsInBackground() throws Exception {
+		final List<String> received = Collections.synchronizedList(new ArrayList<>());
+		final AsyncNotificationQueue queue = queue(received, 16, MaxsOverflowPolicy.BLOCK);
+		queue.add(notification("background", MaxsMessageType.INFO));
+		queue.wakeUp();
+		for (int i = 0; i < 500 && received.isEmpty(); i++) {
+			Thread.sleep(10);
+		}
+		assertEquals(List.of("background"), received);
+
+		queue.stop();
+		assertThrows(IOException.class, () -> queue.add(notification("after stop", MaxsMessageType.INFO)));
+		queue.drain(null);
+		assertEquals(List.of("background"), received);
+
+		queue.start();
+		queue.add(notification("restarted", MaxsMessageType.INFO));
+		queue.stop();
+		queue.drain(null);
+		assertEquals(List.of("background", "restarted"), received);
+	}
+
+	/**
+	 * Verifies that a batch is kept if the handler fails on the background thread, that it is passed again before the
+	 * notifications queued afterwards and that the failure is thrown by the next drain.
+	 */
+	@Test
+	void drain_afterBackgroundFailure_passesBatchAgainAndThrows() throws Exception {
+		final List<String> received = Collections.synchronizedList(new ArrayList<>());
+		final CountDownLatch failed = new CountDownLatch(1);
+		final AsyncNotificationQueue queue = AsyncNotificationQueue.builder()
+			.name("failing-queue")
+			.capacity(16)
+			.handler(batch -> {
+				if (failed.getCount() > 0) {
+					failed.countDown();
+					throw new IOException("disk full");
+				}
+				batch.forEach(notification -> received.add(notification.getMessage()));
+			})
+			.build();
+		queue.start();
+		queue.add(notification("failed", MaxsMessageType.INFO));
+		queue.wakeUp();
+		assertTrue(failed.await(5, TimeUnit.SECONDS));
+		queue.add(notification("later", MaxsMessageType.INFO));
+
+		final IOException e = assertThrows(IOException.class, () -> queue.drain(null));
+		assertEquals("disk full", e.getCause().getMessage());
+		assertEquals(List.of("failed", "later"), received);
+		queue.stop();
+		queue.drain(null);
+		assertEquals(List.of("failed", "later"), received);
+	}
+
+	/**
+	 * Verifies that a batch is kept if the handler fails on a drain and that it is passed by the next drain.
+	 */
+	@Test
+	void drain_handlerFails_keepsBatch() throws Exception {
+		final List<String> received = new ArrayList<>();
+		final boolean[] failing = { true };
+		final AsyncNotificationQueue queue = AsyncNotificationQueue.builder()
+			.capacity(16)
+			.handler(batch -> {
+				if (failing[0]) {
+					throw new IOException("disk full");
+				}
+				batch.forEach(notification -> received.add(notification.getMessage()));
+			})
+			.build();
+		queue.start();
+		queue.add(notification("first", MaxsMessageType.INFO));
+		assertThrows(IOException.class, () -> queue.drain(null));
+		queue.add(notification("second", MaxsMessageType.INFO));
+		assertThrows(IOException.class, () -> queue.drain(null));
+
+		failing[0] = false;
+		queue.drain(null);
+		assertEquals(List.of("first", "second"), received);
+		queue.stop();
+	}
+
+	/**
+	 * Verifies that the capacities and the handler are checked.
+	 */
+	@Test
+	void builder_invalidArguments_throws() {
+		assertThrows(IllegalArgumentException.class, () -> queue(new ArrayList<>(), 0, null));
+		assertThrows(IllegalArgumentException.class, () -> AsyncNotificationQueue.builder().capacity(1).overflowCapacity(-1).handler(batch -> { }).build());
+		assertThrows(IllegalArgumentException.class, () -> AsyncNotificationQueue.builder().capacity(1).build());
+	}
+}
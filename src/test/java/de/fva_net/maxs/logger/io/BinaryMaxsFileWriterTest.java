@@ -0,0 +1,153 @@
+package de.fva_net.maxs.logger.io;
+
+import de.fva_net.maxs.logger.MaxsMessageType;
+import de.fva_net.maxs.logger.MaxsTestFixtures;
+import de.fva_net.maxs.logger.store.NotificationQuery;
+import de.fva_net.maxs.logger.xml.KernelNotifications;
+import de.fva_net.maxs.logger.xml.Notification;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the binary format with BinaryMaxsFileWriter, BinaryMaxsReader and the converters of MaxsFiles.
+ */
+class BinaryMaxsFileWriterTest {
+
+	/**
+	 * Creates a notification with one item.
+	 *
+	 * @param i the index of the notification
+	 * @return the notification
+	 */
+	private static Notification notification(final int i) {
+		final Notification notification = MaxsTestFixtures.notification(i % 2 == 0 ? "even" : null, i % 4 - 1, MaxsMessageType.values()[i % MaxsMessageType.values().length],
+			i % 3 == 0 ? "repeated message \u00e4\u00f6" : "message " + i);
+		return MaxsTestFixtures.withItem(notification, "attr" + (i % 2), i == 1 ? null : i, i == 2 ? Double.NaN : -i * 0.25);
+	}
+
+	/**
+	 * Creates the content of a file.
+	 *
+	 * @param count the number of notifications
+	 * @return the content
+	 */
+	private static KernelNotifications content(final int count) {
+		final KernelNotifications kernelNotifications = new KernelNotifications();
+		kernelNotifications.setAppId("app");
+		kernelNotifications.setAppVersion("1.0");
+		for (int i = 0; i < count; i++) {
+			kernelNotifications.getNotifications().add(notification(i));
+		}
+		return kernelNotifications;
+	}
+
+	/**
+	 * Verifies that notifications written at open and appended later are read unchanged.
+	 */
+	@Test
+	void openAndAppend_readBack_sameNotifications(@TempDir final Path tempDir) throws IOException {
+		final File file = tempDir.resolve("log.maxsb").toFile();
+		final KernelNotifications expected = content(20);
+		try (BinaryMaxsFileWriter writer = new BinaryMaxsFileWriter(file)) {
+			writer.open(content(10));
+			for (int i = 10; i < 15; i++) {
+				writer.append(notification(i));
+			}
+			writer.appendAll(expected.getNotifications().subList(15, 20));
+		}
+
+		try (BinaryMaxsReader reader = BinaryMaxsReader.open(file)) {
+			assertEquals("app", reader.getAppId());
+			assertEquals("1.0", reader.getAppVersion());
+			assertEquals(expected.getNotifications(), reader.stream().collect(Collectors.toList()));
+		}
+		assertEquals(expected.getNotifications(), MaxsFiles.read(file).getNotifications());
+	}
+
+	/**
+	 * Verifies that the filters on type, routine and component are applied.
+	 */
+	@Test
+	void read_withFilter_onlyMatchingNotifications(@TempDir final Path tempDir) throws IOException {
+		final File file = tempDir.resolve("log.maxsb").toFile();
+		try (BinaryMaxsFileWriter writer = new BinaryMaxsFileWriter(file)) {
+			writer.open(content(24));
+		}
+		final NotificationQuery filter = new NotificationQuery(EnumSet.of(MaxsMessageType.ERROR, MaxsMessageType.INFO), "even", -1);
+		final List<Notification> expected = content(24).getNotifications().stream().filter(filter::matches).collect(Collectors.toList());
+		try (BinaryMaxsReader reader = BinaryMaxsReader.open(file, filter)) {
+			assertEquals(expected, reader.stream().collect(Collectors.toList()));
+		}
+		assertTrue(!expected.isEmpty());
+	}
+
+	/**
+	 * Verifies that the binary file is smaller than the XML file and that the conversions keep all notifications.
+	 */
+	@Test
+	void convert_roundTrip_sameNotifications(@TempDir final Path tempDir) throws IOException {
+		final File binary = tempDir.resolve("log.maxsb").toFile();
+		final File xml = tempDir.resolve("log.maxs").toFile();
+		final File compressed = tempDir.resolve("log.maxs.gz").toFile();
+		final File binaryAgain = tempDir.resolve("again.maxsb").toFile();
+		final KernelNotifications expected = content(1000);
+		try (BinaryMaxsFileWriter writer = new BinaryMaxsFileWriter(binary)) {
+			writer.open(expected);
+		}
+
+		assertEquals(1000, MaxsFiles.convertToXml(binary, xml));
+		assertEquals(1000, MaxsFiles.convertToXml(binary, compressed));
+		assertEquals(1000, MaxsFiles.convertToBinary(compressed, binaryAgain));
+
+		final KernelNotifications fromXml = MaxsFiles.read(xml);
+		assertEquals("app", fromXml.getAppId());
+		assertEquals(expected.getNotifications().toString(), fromXml.getNotifications().toString());
+		assertEquals(expected.getNotifications(), MaxsFiles.read(binaryAgain).getNotifications());
+		assertTrue(binary.length() * 3 < xml.length(), binary.length() + " bytes binary, " + xml.length() + " bytes XML");
+	}
+
+	/**
+	 * Verifies that a record cut off by a crash is reported after the complete notifications.
+	 */
+	@Test
+	void read_truncatedRecord_throwsAfterCompleteNotifications(@TempDir final Path tempDir) throws IOException {
+		final File file = tempDir.resolve("log.maxsb").toFile();
+		try (BinaryMaxsFileWriter writer = new BinaryMaxsFileWriter(file)) {
+			writer.open(content(3));
+		}
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+			channel.truncate(channel.size() - 3);
+		}
+		try (BinaryMaxsReader reader = BinaryMaxsReader.open(file)) {
+			reader.next();
+			reader.next();
+			assertThrows(UncheckedIOException.class, reader::hasNext);
+		}
+	}
+
+	/**
+	 * Verifies that other files are rejected.
+	 */
+	@Test
+	void open_noBinaryFile_throws(@TempDir final Path tempDir) throws IOException {
+		final File file = tempDir.resolve("log.maxsb").toFile();
+		Files.writeString(file.toPath(), "<kernelNotifications/>");
+		assertThrows(IOException.class, () -> BinaryMaxsReader.open(file, new NotificationQuery(Collections.emptySet(), null, null)));
+	}
+}
@@ -0,0 +1,80 @@
+package de.fva_net.maxs.logger.io;
+
+import de.fva_net.maxs.logger.MaxsMessageType;
+import de.fva_net.maxs.logger.xml.KernelNotifications;
+import de.fva_net.maxs.logger.xml.StreamingMaxsSerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+import static de.fva_net.maxs.logger.MaxsTestFixtures.notification;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the CompressedMaxsFileWriter class.
+ */
+class CompressedMaxsFileWriterTest {
+
+	/**
+	 * Verifies that the compressed file contains the same document as an uncompressed file.
+	 */
+	@Test
+	void close_writesSameDocumentAsUncompressed(@TempDir final Path tempDir) throws IOException {
+		final File compressed = tempDir.resolve("log.maxs.gz").toFile();
+		final File plain = tempDir.resolve("log.maxs").toFile();
+		final KernelNotifications kernelNotifications = new KernelNotifications();
+		kernelNotifications.setAppId("app");
+		kernelNotifications.getNotifications().add(notification("iso6336_2019", 1, MaxsMessageType.WARNING, "first"));
+
+		try (MaxsFileWriter writer = new CompressedMaxsFileWriter(compressed, StreamingMaxsSerializer.FORMATTED, 9);
+				MaxsFileWriter plainWriter = new IncrementalMaxsFileWriter(plain)) {
+			writer.open(kernelNotifications);
+			plainWriter.open(kernelNotifications);
+			for (int i = 0; i < 1000; i++) {
+				writer.append(notification("iso6336_2019", 1, MaxsMessageType.WARNING, "notification " + i));
+				plainWriter.append(notification("iso6336_2019", 1, MaxsMessageType.WARNING, "notification " + i));
+			}
+		}
+
+		final String decompressed;
+		try (InputStream input = new GZIPInputStream(Files.newInputStream(compressed.toPath()))) {
+			decompressed = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+		}
+		assertEquals(Files.readString(plain.toPath()), decompressed);
+		assertTrue(compressed.length() * 10 < plain.length());
+	}
+
+	/**
+	 * Verifies that the appended notifications can be decompressed before the writer is closed.
+	 */
+	@Test
+	void append_flushesCompressedData(@TempDir final Path tempDir) throws IOException {
+		final File file = tempDir.resolve("log.maxs.gz").toFile();
+		try (MaxsFileWriter writer = new CompressedMaxsFileWriter(file)) {
+			writer.open(new KernelNotifications());
+			writer.append(notification("iso6336_2019", 1, MaxsMessageType.WARNING, "visible before close"));
+
+			// the stream is not finished yet, so the decompression ends with an exception after the flushed data
+			final ByteArrayOutputStream content = new ByteArrayOutputStream();
+			try (InputStream input = new GZIPInputStream(Files.newInputStream(file.toPath()))) {
+				int read;
+				while ((read = input.read()) >= 0) {
+					content.write(read);
+				}
+			} catch (final EOFException e) {
+				// expected for an unfinished stream
+			}
+			assertTrue(content.toString(StandardCharsets.UTF_8).contains("visible before close"));
+		}
+	}
+}
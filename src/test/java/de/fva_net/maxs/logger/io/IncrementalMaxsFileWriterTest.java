@@ -0,0 +1,96 @@
+package de.fva_net.maxs.logger.io;
+
+import de.fva_net.maxs.logger.xml.KernelNotifications;
+import de.fva_net.maxs.logger.xml.Notification;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static de.fva_net.maxs.logger.MaxsTestFixtures.notification;
+import static de.fva_net.maxs.logger.MaxsTestFixtures.countNodes;
+import static de.fva_net.maxs.logger.MaxsTestFixtures.valueOf;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit tests for the IncrementalMaxsFileWriter class.
+ */
+class IncrementalMaxsFileWriterTest {
+
+	/**
+	 * Verifies that the file is a well-formed document after opening and after each appended notification.
+	 */
+	@Test
+	void append_keepsDocumentWellFormed(@TempDir final Path tempDir) throws IOException {
+		final File file = tempDir.resolve("incremental.maxs").toFile();
+		final KernelNotifications kernelNotifications = new KernelNotifications();
+		kernelNotifications.setAppId("app & co");
+		kernelNotifications.setAppVersion("1.0");
+		kernelNotifications.getNotifications().add(notification("existing"));
+
+		try (final IncrementalMaxsFileWriter writer = new IncrementalMaxsFileWriter(file)) {
+			writer.open(kernelNotifications);
+			assertEquals(1, countNodes(file, "/kernelNotifications/notification"));
+			assertEquals("app & co", valueOf(file, "/kernelNotifications/@appId"));
+
+			writer.append(notification("first <new>"));
+			writer.append(notification("second"));
+			assertEquals(3, countNodes(file, "/kernelNotifications/notification"));
+			assertEquals("first <new>", valueOf(file, "/kernelNotifications/notification[2]/message"));
+			assertEquals("second", valueOf(file, "/kernelNotifications/notification[3]/message"));
+		}
+	}
+
+	/**
+	 * Verifies that opening the writer again replaces the previous content of the file.
+	 */
+	@Test
+	void open_replacesPreviousContent(@TempDir final Path tempDir) throws IOException {
+		final File file = tempDir.resolve("incremental.maxs").toFile();
+		final KernelNotifications kernelNotifications = new KernelNotifications();
+
+		try (final IncrementalMaxsFileWriter writer = new IncrementalMaxsFileWriter(file)) {
+			writer.open(kernelNotifications);
+			writer.append(notification("first"));
+			writer.append(notification("second"));
+			writer.open(kernelNotifications);
+			assertEquals(0, countNodes(file, "/kernelNotifications/notification"));
+		}
+	}
+
+	/**
+	 * Verifies that an update writes the new header and the current state of the mutable notifications, and keeps all
+	 * other notifications.
+	 */
+	@Test
+	void update_keepsNotificationsAndRefreshesMutable(@TempDir final Path tempDir) throws IOException {
+		final File file = tempDir.resolve("incremental.maxs").toFile();
+		final KernelNotifications kernelNotifications = new KernelNotifications();
+		kernelNotifications.setAppId("app");
+
+		try (final IncrementalMaxsFileWriter writer = new IncrementalMaxsFileWriter(file)) {
+			writer.open(kernelNotifications);
+			writer.append(notification("first"));
+			final Notification mutable = notification("mutable");
+			writer.appendMutable(mutable);
+			writer.append(notification("last"));
+
+			mutable.setMessage("changed & longer");
+			final KernelNotifications header = new KernelNotifications();
+			header.setAppId("a much longer application ID");
+			header.setAppVersion("2.0");
+			writer.update(header);
+			writer.append(notification("after update"));
+
+			mutable.setMessage("changed again");
+			writer.update(header);
+			assertEquals("a much longer application ID", valueOf(file, "/kernelNotifications/@appId"));
+			assertEquals(4, countNodes(file, "/kernelNotifications/notification"));
+			assertEquals("first", valueOf(file, "/kernelNotifications/notification[1]/message"));
+			assertEquals("changed again", valueOf(file, "/kernelNotifications/notification[2]/message"));
+			assertEquals("after update", valueOf(file, "/kernelNotifications/notification[4]/message"));
+		}
+	}
+}
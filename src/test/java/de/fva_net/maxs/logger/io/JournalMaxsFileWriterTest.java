@@ -0,0 +1,158 @@
+package de.fva_net.maxs.logger.io;
+
+import de.fva_net.maxs.logger.MaxsMessageType;
+import de.fva_net.maxs.logger.MaxsTestFixtures;
+import de.fva_net.maxs.logger.xml.KernelNotifications;
+import de.fva_net.maxs.logger.xml.Notification;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the JournalMaxsFileWriter and MaxsJournal classes.
+ */
+class JournalMaxsFileWriterTest {
+
+	/**
+	 * The segment size of the tests, which is small so that the journal grows by several segments.
+	 */
+	private static final int SEGMENT_SIZE = 4096;
+
+	/**
+	 * Creates a notification.
+	 *
+	 * @param i the index of the notification
+	 * @return the notification
+	 */
+	private static Notification notification(final int i) {
+		return MaxsTestFixtures.withItem(MaxsTestFixtures.notification("routine", i, MaxsMessageType.WARNING, "journal entry " + i), "attr", i, i);
+	}
+
+	/**
+	 * Creates the header of the log file.
+	 *
+	 * @return the header without notifications
+	 */
+	private static KernelNotifications header() {
+		final KernelNotifications kernelNotifications = new KernelNotifications();
+		kernelNotifications.setAppId("app");
+		kernelNotifications.setAppVersion("1.0");
+		return kernelNotifications;
+	}
+
+	/**
+	 * Verifies that the log file is written from the journal on close and that the journal is deleted.
+	 */
+	@Test
+	void close_writesLogFileAndDeletesJournal(@TempDir final Path tempDir) throws IOException {
+		final File logFile = tempDir.resolve("job.maxs").toFile();
+		final File journal = MaxsJournal.journalFileOf(logFile);
+		final List<Notification> expected = new ArrayList<>();
+		try (JournalMaxsFileWriter writer = new JournalMaxsFileWriter(logFile, journal, SEGMENT_SIZE)) {
+			writer.open(header());
+			for (int i = 0; i < 500; i++) {
+				expected.add(notification(i));
+				writer.append(notification(i));
+			}
+			assertTrue(writer.usedBytes() > 3 * SEGMENT_SIZE);
+			assertFalse(logFile.exists());
+		}
+
+		assertFalse(journal.exists());
+		final KernelNotifications read = MaxsFiles.read(logFile);
+		assertEquals("app", read.getAppId());
+		assertEquals(expected, read.getNotifications());
+	}
+
+	/**
+	 * Verifies that a journal that has not been closed, like after a crash, can be recovered.
+	 */
+	@Test
+	void recover_unclosedJournal_allNotifications(@TempDir final Path tempDir) throws IOException {
+		final File logFile = tempDir.resolve("job.maxs").toFile();
+		final File recovered = tempDir.resolve("recovered.maxs.gz").toFile();
+		final File journal = MaxsJournal.journalFileOf(logFile);
+		final JournalMaxsFileWriter writer = new JournalMaxsFileWriter(logFile, journal, SEGMENT_SIZE);
+		final KernelNotifications initial = header();
+		initial.getNotifications().add(notification(0));
+		writer.open(initial);
+		for (int i = 1; i < 100; i++) {
+			writer.append(notification(i));
+		}
+
+		assertEquals(100, MaxsJournal.recover(journal, recovered));
+		assertEquals(100, MaxsFiles.read(recovered).getNotifications().size());
+		assertEquals(notification(99), MaxsFiles.read(recovered).getNotifications().get(99));
+		writer.close();
+	}
+
+	/**
+	 * Verifies that a record that has only partially been written is not recovered.
+	 */
+	@Test
+	void recover_tornRecord_completeNotificationsOnly(@TempDir final Path tempDir) throws IOException {
+		final File logFile = tempDir.resolve("job.maxs").toFile();
+		final File journal = MaxsJournal.journalFileOf(logFile);
+		final File recovered = tempDir.resolve("recovered.maxsb").toFile();
+		final JournalMaxsFileWriter writer = new JournalMaxsFileWriter(logFile, journal, SEGMENT_SIZE);
+		writer.open(header());
+		for (int i = 0; i < 3; i++) {
+			writer.append(notification(i));
+		}
+		writer.flush();
+		try (FileChannel channel = FileChannel.open(journal.toPath(), StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.wrap(new byte[] { 0x55 }), writer.usedBytes() - 1);
+		}
+
+		assertEquals(2, MaxsJournal.recover(journal, recovered));
+		assertEquals(List.of(notification(0), notification(1)), MaxsFiles.read(recovered).getNotifications());
+		writer.close();
+	}
+
+	/**
+	 * Verifies that reopening the writer rewrites the journal and hides the previous records.
+	 */
+	@Test
+	void open_again_replacesNotifications(@TempDir final Path tempDir) throws IOException {
+		final File logFile = tempDir.resolve("job.maxs").toFile();
+		try (JournalMaxsFileWriter writer = new JournalMaxsFileWriter(logFile)) {
+			writer.open(header());
+			for (int i = 0; i < 10; i++) {
+				writer.append(notification(i));
+			}
+			final KernelNotifications rewritten = header();
+			rewritten.getNotifications().add(notification(42));
+			writer.open(rewritten);
+		}
+		assertEquals(List.of(notification(42)), MaxsFiles.read(logFile).getNotifications());
+	}
+
+	/**
+	 * Verifies that a journal of a previous run is kept and not overwritten.
+	 */
+	@Test
+	void open_existingJournal_keptAsCrashed(@TempDir final Path tempDir) throws IOException {
+		final File logFile = tempDir.resolve("job.maxs").toFile();
+		final File journal = MaxsJournal.journalFileOf(logFile);
+		Files.writeString(journal.toPath(), "previous");
+		try (JournalMaxsFileWriter writer = new JournalMaxsFileWriter(logFile)) {
+			writer.open(header());
+		}
+		assertEquals("previous", Files.readString(tempDir.resolve("job.maxs.journal.crashed")));
+		assertThrows(IOException.class, () -> MaxsJournal.recover(new File(journal.getPath() + ".crashed"), tempDir.resolve("x.maxs").toFile()));
+	}
+}
@@ -0,0 +1,82 @@
+package de.fva_net.maxs.logger.io;
+
+import de.fva_net.maxs.logger.MaxsMessageType;
+import de.fva_net.maxs.logger.xml.KernelNotifications;
+import de.fva_net.maxs.logger.xml.Notification;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the MaxsFiles class.
+ */
+class MaxsFilesTest {
+
+	/**
+	 * Writes a file with two notifications.
+	 *
+	 * @param writer the writer
+	 * @throws IOException if the file cannot be written
+	 */
+	private static void write(final MaxsFileWriter writer) throws IOException {
+		final KernelNotifications kernelNotifications = new KernelNotifications();
+		kernelNotifications.setAppId("app");
+		kernelNotifications.setAppVersion("1.0");
+		for (int i = 0; i < 2; i++) {
+			final Notification notification = new Notification();
+			notification.setCompId(i);
+			notification.setMessage("message " + i);
+			notification.setType(MaxsMessageType.ERROR);
+			kernelNotifications.getNotifications().add(notification);
+		}
+		try (writer) {
+			writer.open(kernelNotifications);
+		}
+	}
+
+	/**
+	 * Verifies that compressed and uncompressed files are read the same way.
+	 */
+	@Test
+	void read_compressedAndPlain_sameContent(@TempDir final Path tempDir) throws IOException {
+		final File plain = tempDir.resolve("log.maxs").toFile();
+		final File compressed = tempDir.resolve("log.MAXS.GZ").toFile();
+		write(new RewritingMaxsFileWriter(plain));
+		write(new CompressedMaxsFileWriter(compressed));
+
+		final KernelNotifications fromPlain = MaxsFiles.read(plain);
+		final KernelNotifications fromCompressed = MaxsFiles.read(compressed);
+		assertEquals("app", fromCompressed.getAppId());
+		assertEquals(2, fromCompressed.getNotifications().size());
+		assertEquals(fromPlain.getNotifications(), fromCompressed.getNotifications());
+	}
+
+	/**
+	 * Verifies the detection of the extensions.
+	 */
+	@Test
+	void extensions() {
+		assertTrue(MaxsFiles.hasMaxsExtension(new File("a.maxs")));
+		assertTrue(MaxsFiles.hasMaxsExtension(new File("a.Maxs.Gz")));
+		assertFalse(MaxsFiles.hasMaxsExtension(new File("a.xml.gz")));
+		assertTrue(MaxsFiles.isCompressed(new File("a.maxs.gz")));
+		assertFalse(MaxsFiles.isCompressed(new File("a.maxs")));
+	}
+
+	/**
+	 * Verifies that invalid compression levels are rejected.
+	 */
+	@Test
+	void newCompressedOutputStream_invalidLevel_throws(@TempDir final Path tempDir) {
+		final File file = tempDir.resolve("log.maxs.gz").toFile();
+		assertThrows(IllegalArgumentException.class, () -> MaxsFiles.newCompressedOutputStream(file, 10));
+	}
+}
@@ -0,0 +1,169 @@
+package de.fva_net.maxs.logger.io;
+
+import de.fva_net.maxs.logger.MaxsMessageType;
+import de.fva_net.maxs.logger.MaxsTestFixtures;
+import de.fva_net.maxs.logger.xml.Item;
+import de.fva_net.maxs.logger.xml.KernelNotifications;
+import de.fva_net.maxs.logger.xml.Notification;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for the MaxsMerger class.
+ */
+class MaxsMergerTest {
+
+	/**
+	 * Writes a file with notifications for the given component IDs, each with a data item.
+	 *
+	 * @param file       the file
+	 * @param appId      the application ID
+	 * @param appVersion the application version
+	 * @param compIds    the component IDs of the notifications
+	 * @return the file
+	 * @throws IOException if the file cannot be written
+	 */
+	private static File write(final File file, final String appId, final String appVersion, final int... compIds) throws IOException {
+		final KernelNotifications kernelNotifications = new KernelNotifications();
+		kernelNotifications.setAppId(appId);
+		kernelNotifications.setAppVersion(appVersion);
+		for (final int compId : compIds) {
+			final Notification notification = new Notification();
+			notification.setCompId(compId);
+			notification.setType(MaxsMessageType.WARNING);
+			notification.setMessage("component " + compId);
+			MaxsTestFixtures.withItem(notification, "normal_module", compId, compId * 0.5);
+			kernelNotifications.getNotifications().add(notification);
+		}
+		try (MaxsFileWriter writer = MaxsFiles.isCompressed(file) ? new CompressedMaxsFileWriter(file) : new RewritingMaxsFileWriter(file)) {
+			writer.open(kernelNotifications);
+		}
+		return file;
+	}
+
+	/**
+	 * Returns the component IDs of the notifications of a file.
+	 *
+	 * @param file the file
+	 * @return the component IDs
+	 * @throws IOException if the file cannot be read
+	 */
+	private static List<Integer> compIds(final File file) throws IOException {
+		return MaxsFiles.read(file).getNotifications().stream().map(Notification::getCompId).collect(Collectors.toList());
+	}
+
+	/**
+	 * Returns the source tags of the notifications of a file.
+	 *
+	 * @param file the file
+	 * @return the indexes of the input files, null for untagged notifications
+	 * @throws IOException if the file cannot be read
+	 */
+	private static List<Double> sources(final File file) throws IOException {
+		return MaxsFiles.read(file).getNotifications().stream()
+				.map(notification -> notification.getData().stream()
+						.filter(item -> MaxsMerger.SOURCE_ATTRIBUTE.equals(item.getAttrId()))
+						.map(Item::getValue)
+						.findFirst()
+						.orElse(null))
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Verifies that the inputs are concatenated and tagged with their sources.
+	 */
+	@Test
+	void merge_withoutOrder_concatenatesAndTagsSources(@TempDir final Path tempDir) throws IOException {
+		final File first = write(tempDir.resolve("worker-1.maxs").toFile(), "app", "1.0", 3, 1);
+		final File second = write(tempDir.resolve("worker-2.maxs.gz").toFile(), "app", "1.0", 2);
+		final File target = tempDir.resolve("merged.maxs").toFile();
+
+		final long count = MaxsMerger.builder().tagSources(true).build().merge(List.of(first, second), target);
+
+		assertEquals(3, count);
+		final KernelNotifications merged = MaxsFiles.read(target);
+		assertEquals("app", merged.getAppId());
+		assertEquals("1.0", merged.getAppVersion());
+		assertEquals(List.of(3, 1, 2), compIds(target));
+		assertEquals(List.of(0.0, 0.0, 1.0), sources(target));
+
+		final File third = write(tempDir.resolve("worker-3.maxs").toFile(), "app", "1.0", 4);
+		final File remerged = tempDir.resolve("remerged.maxs").toFile();
+		assertEquals(4, MaxsMerger.builder().tagSources(true).build().merge(List.of(third, target), remerged));
+		assertEquals(List.of(0.0, 0.0, 0.0, 1.0), sources(remerged));
+	}
+
+	/**
+	 * Verifies that sorted inputs are merged in order.
+	 */
+	@Test
+	void merge_withOrder_mergesSortedInputs(@TempDir final Path tempDir) throws IOException {
+		final File first = write(tempDir.resolve("a.maxs").toFile(), "app", "1.0", 1, 4, 7);
+		final File second = write(tempDir.resolve("b.maxs").toFile(), "app", "1.1", 2, 5);
+		final File third = write(tempDir.resolve("c.maxs").toFile(), "app", null, 3, 6, 8, 9);
+		final File target = tempDir.resolve("merged.maxs.gz").toFile();
+
+		final MaxsMerger merger = MaxsMerger.builder().order(Comparator.comparing(Notification::getCompId)).build();
+		assertEquals(9, merger.merge(List.of(first, second, third), target));
+
+		assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9), compIds(target));
+		assertEquals("1.0, 1.1", MaxsFiles.read(target).getAppVersion());
+		assertEquals(Collections.nCopies(9, null), sources(target));
+	}
+
+	/**
+	 * Verifies that duplicates within the window are dropped.
+	 */
+	@Test
+	void merge_withDeduplication_dropsRecentDuplicates(@TempDir final Path tempDir) throws IOException {
+		final File first = write(tempDir.resolve("a.maxs").toFile(), "app", "1.0", 1, 2);
+		final File second = write(tempDir.resolve("b.maxs").toFile(), "app", "1.0", 2, 3);
+		final File target = tempDir.resolve("merged.maxs").toFile();
+
+		// the duplicates carry data items, which must not be changed by the tag of the first one
+		final MaxsMerger merger = MaxsMerger.builder().tagSources(true).deduplicationWindow(10).order(Comparator.comparing(Notification::getCompId)).build();
+		assertEquals(3, merger.merge(List.of(first, second), target));
+		assertEquals(List.of(1, 2, 3), compIds(target));
+		assertEquals(List.of(0.0, 0.0, 1.0), sources(target));
+
+		final MaxsMerger untagged = MaxsMerger.builder().deduplicationWindow(10).order(Comparator.comparing(Notification::getCompId)).build();
+		assertEquals(3, untagged.merge(List.of(first, second), target));
+		assertEquals(List.of(1, 2, 3), compIds(target));
+	}
+
+	/**
+	 * Verifies that different application IDs must be resolved explicitly.
+	 */
+	@Test
+	void merge_differentAppIds_requiresExplicitAppId(@TempDir final Path tempDir) throws IOException {
+		final File first = write(tempDir.resolve("a.maxs").toFile(), "app", "1.0", 1);
+		final File second = write(tempDir.resolve("b.maxs").toFile(), "other", "1.0", 2);
+		final File target = tempDir.resolve("merged.maxs").toFile();
+
+		assertThrows(IOException.class, () -> MaxsMerger.builder().build().merge(List.of(first, second), target));
+
+		MaxsMerger.builder().appId("study").build().merge(List.of(first, second), target);
+		assertEquals("study", MaxsFiles.read(target).getAppId());
+		assertEquals(List.of(1, 2), compIds(target));
+	}
+
+	/**
+	 * Verifies that the target must not be one of the inputs.
+	 */
+	@Test
+	void merge_targetIsInput_throws(@TempDir final Path tempDir) throws IOException {
+		final File first = write(tempDir.resolve("a.maxs").toFile(), "app", "1.0", 1);
+		assertThrows(IllegalArgumentException.class, () -> MaxsMerger.builder().build().merge(List.of(first), first));
+	}
+}
@@ -0,0 +1,163 @@
+package de.fva_net.maxs.logger.io;
+
+import de.fva_net.maxs.logger.MaxsMessageType;
+import de.fva_net.maxs.logger.store.NotificationQuery;
+import de.fva_net.maxs.logger.xml.Item;
+import de.fva_net.maxs.logger.xml.KernelNotifications;
+import de.fva_net.maxs.logger.xml.Notification;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the MaxsReader class.
+ */
+class MaxsReaderTest {
+
+	/**
+	 * Creates the content of a file with ten notifications of alternating types, routines and components.
+	 *
+	 * @return the content
+	 */
+	private static KernelNotifications content() {
+		final KernelNotifications kernelNotifications = new KernelNotifications();
+		kernelNotifications.setAppId("app");
+		kernelNotifications.setAppVersion("1.0");
+		for (int i = 0; i < 10; i++) {
+			final Notification notification = new Notification();
+			notification.setCompId(i % 3);
+			notification.setRoutine(i % 2 == 0 ? "even" : "odd");
+			notification.setType(i % 2 == 0 ? MaxsMessageType.ERROR : MaxsMessageType.WARNING);
+			notification.setMessage("message <" + i + "> & more");
+			final Item item = new Item();
+			item.setCompId(i);
+			item.setAttrId("attr");
+			item.setValue(i == 0 ? Double.NaN : i * 0.5);
+			notification.getData().add(item);
+			kernelNotifications.getNotifications().add(notification);
+		}
+		return kernelNotifications;
+	}
+
+	/**
+	 * Writes the content to a file.
+	 *
+	 * @param writer the writer
+	 * @throws IOException if the file cannot be written
+	 */
+	private static void write(final MaxsFileWriter writer) throws IOException {
+		try (writer) {
+			writer.open(content());
+		}
+	}
+
+	/**
+	 * Reads all notifications of the file matching the filter.
+	 *
+	 * @param file   the file
+	 * @param filter the filter
+	 * @return the notifications
+	 * @throws IOException if the file cannot be read
+	 */
+	private static List<Notification> read(final File file, final NotificationQuery filter) throws IOException {
+		try (Stream<Notification> stream = MaxsReader.open(file, filter).stream()) {
+			return stream.collect(Collectors.toList());
+		}
+	}
+
+	/**
+	 * Verifies that all notifications are read like with JAXB, for plain and compressed files.
+	 */
+	@Test
+	void read_allNotifications_equalToJaxb(@TempDir final Path tempDir) throws IOException {
+		final File plain = tempDir.resolve("log.maxs").toFile();
+		final File compressed = tempDir.resolve("log.maxs.gz").toFile();
+		write(new RewritingMaxsFileWriter(plain));
+		write(new CompressedMaxsFileWriter(compressed));
+
+		final List<Notification> expected = MaxsFiles.read(plain).getNotifications();
+		for (final File file : List.of(plain, compressed)) {
+			try (MaxsReader reader = MaxsReader.open(file)) {
+				assertEquals("app", reader.getAppId());
+				assertEquals("1.0", reader.getAppVersion());
+				final List<Notification> actual = reader.stream().collect(Collectors.toList());
+				assertEquals(expected.size(), actual.size());
+				assertEquals(expected.toString(), actual.toString());
+				assertTrue(Double.isNaN(actual.get(0).getData().get(0).getValue()));
+				assertEquals("message <2> & more", actual.get(2).getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Verifies that the filters on type, routine and component are applied.
+	 */
+	@Test
+	void read_withFilter_onlyMatchingNotifications(@TempDir final Path tempDir) throws IOException {
+		final File file = tempDir.resolve("log.maxs").toFile();
+		write(new RewritingMaxsFileWriter(file));
+
+		assertEquals(5, read(file, new NotificationQuery(EnumSet.of(MaxsMessageType.WARNING), null, null)).size());
+		assertEquals(5, read(file, new NotificationQuery(Collections.emptySet(), "even", null)).size());
+		final List<Notification> filtered = read(file, new NotificationQuery(EnumSet.of(MaxsMessageType.ERROR), "even", 0));
+		assertEquals(List.of("message <0> & more", "message <6> & more"),
+				filtered.stream().map(Notification::getMessage).collect(Collectors.toList()));
+		assertTrue(read(file, new NotificationQuery(EnumSet.of(MaxsMessageType.INFO), null, null)).isEmpty());
+	}
+
+	/**
+	 * Verifies the iterator contract at the end of the file.
+	 */
+	@Test
+	void next_afterEnd_throws(@TempDir final Path tempDir) throws IOException {
+		final File file = tempDir.resolve("log.maxs").toFile();
+		try (MaxsFileWriter writer = new RewritingMaxsFileWriter(file)) {
+			writer.open(new KernelNotifications());
+		}
+		try (MaxsReader reader = MaxsReader.open(file)) {
+			assertFalse(reader.hasNext());
+			assertThrows(NoSuchElementException.class, reader::next);
+		}
+	}
+
+	/**
+	 * Verifies that an incomplete file reports an error after the complete notifications.
+	 */
+	@Test
+	void read_truncatedFile_throwsAfterCompleteNotifications(@TempDir final Path tempDir) throws IOException {
+		final File file = tempDir.resolve("log.maxs").toFile();
+		Files.writeString(file.toPath(), "<kernelNotifications appId=\"app\"><notification type=\"ERROR\"><message>a</message>"
+				+ "</notification><notification type=\"INFO\">", StandardCharsets.UTF_8);
+		try (MaxsReader reader = MaxsReader.open(file)) {
+			assertEquals("a", reader.next().getMessage());
+			assertThrows(UncheckedIOException.class, reader::hasNext);
+		}
+	}
+
+	/**
+	 * Verifies that a file with another root element is rejected.
+	 */
+	@Test
+	void open_otherRootElement_throws(@TempDir final Path tempDir) throws IOException {
+		final File file = tempDir.resolve("log.maxs").toFile();
+		Files.writeString(file.toPath(), "<other/>", StandardCharsets.UTF_8);
+		assertThrows(IOException.class, () -> MaxsReader.open(file));
+	}
+}
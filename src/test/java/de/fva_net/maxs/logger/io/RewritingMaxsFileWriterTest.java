@@ -0,0 +1,56 @@
+package de.fva_net.maxs.logger.io;
+
+import de.fva_net.maxs.logger.xml.KernelNotifications;
+import de.fva_net.maxs.logger.xml.Notification;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static de.fva_net.maxs.logger.MaxsTestFixtures.notification;
+import static de.fva_net.maxs.logger.MaxsTestFixtures.countNodes;
+import static de.fva_net.maxs.logger.MaxsTestFixtures.valueOf;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for the RewritingMaxsFileWriter class.
+ */
+class RewritingMaxsFileWriterTest {
+
+	/**
+	 * Verifies that each write replaces the file with a complete document, in which the mutable notifications have
+	 * their current state.
+	 */
+	@Test
+	void append_rewritesMutableNotifications(@TempDir final Path tempDir) throws IOException {
+		final File file = tempDir.resolve("rewriting.maxs").toFile();
+		final KernelNotifications kernelNotifications = new KernelNotifications();
+		kernelNotifications.setAppId("app");
+		kernelNotifications.getNotifications().add(notification("existing"));
+
+		final RewritingMaxsFileWriter writer = new RewritingMaxsFileWriter(file);
+		writer.open(kernelNotifications);
+		final Notification mutable = notification("mutable");
+		writer.appendMutable(mutable);
+		mutable.setMessage("changed");
+		writer.appendAll(List.of(notification("second"), notification("third <&>")));
+		assertEquals(4, countNodes(file, "/kernelNotifications/notification"));
+		assertEquals("changed", valueOf(file, "/kernelNotifications/notification[2]/message"));
+		assertEquals("third <&>", valueOf(file, "/kernelNotifications/notification[4]/message"));
+
+		final KernelNotifications header = new KernelNotifications();
+		header.setAppId("other application");
+		writer.update(header);
+		assertEquals("other application", valueOf(file, "/kernelNotifications/@appId"));
+		assertEquals(4, countNodes(file, "/kernelNotifications/notification"));
+		assertFalse(tempDir.resolve("rewriting.maxs.tmp").toFile().exists());
+
+		writer.close();
+		assertThrows(IOException.class, () -> writer.append(notification("closed")));
+	}
+}
@@ -0,0 +1,207 @@
+package de.fva_net.maxs.logger.io;
+
+import de.fva_net.maxs.logger.MaxsMessageType;
+import de.fva_net.maxs.logger.MaxsTestFixtures;
+import de.fva_net.maxs.logger.xml.KernelNotifications;
+import de.fva_net.maxs.logger.xml.Notification;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the RollingMaxsFileWriter and MaxsManifest classes.
+ */
+class RollingMaxsFileWriterTest {
+
+	/**
+	 * Creates a notification.
+	 *
+	 * @param i the index of the notification
+	 * @return the notification
+	 */
+	private static Notification notification(final int i) {
+		return MaxsTestFixtures.notification(i % 2 == 0 ? "ISO 6336" : "DIN 3990", i, i % 3 == 0 ? MaxsMessageType.ERROR : MaxsMessageType.INFO, "message " + i);
+	}
+
+	/**
+	 * Creates the header of the log file.
+	 *
+	 * @return the header without notifications
+	 */
+	private static KernelNotifications header() {
+		final KernelNotifications kernelNotifications = new KernelNotifications();
+		kernelNotifications.setAppId("app");
+		kernelNotifications.setAppVersion("1.0");
+		return kernelNotifications;
+	}
+
+	/**
+	 * Reads all notifications of the segments listed in the manifest.
+	 *
+	 * @param manifest the manifest
+	 * @return the notifications
+	 * @throws IOException if a segment cannot be read
+	 */
+	private static List<Notification> readAll(final MaxsManifest manifest) throws IOException {
+		final List<Notification> notifications = new ArrayList<>();
+		for (final File file : manifest.getFiles()) {
+			final KernelNotifications segment = MaxsFiles.read(file);
+			assertEquals("app", segment.getAppId());
+			notifications.addAll(segment.getNotifications());
+		}
+		return notifications;
+	}
+
+	/**
+	 * Verifies that a new segment is started after the maximum number of notifications.
+	 */
+	@Test
+	void append_countLimit_rollsSegments(@TempDir final Path tempDir) throws IOException {
+		final File logFile = tempDir.resolve("job.maxs").toFile();
+		final List<Notification> expected = new ArrayList<>();
+		try (RollingMaxsFileWriter writer = RollingMaxsFileWriter.builder().logFile(logFile).maxNotifications(10).build()) {
+			writer.open(header());
+			for (int i = 0; i < 25; i++) {
+				expected.add(notification(i));
+				writer.append(notification(i));
+			}
+			// every segment is complete while it is written
+			assertEquals(5, MaxsFiles.read(writer.getSegmentFiles().get(2)).getNotifications().size());
+		}
+
+		final MaxsManifest manifest = MaxsManifest.read(MaxsManifest.manifestFileOf(logFile));
+		assertEquals(List.of("job-00001.maxs", "job-00002.maxs", "job-00003.maxs"),
+				manifest.getSegments().stream().map(MaxsManifest.Segment::fileName).collect(Collectors.toList()));
+		assertEquals(List.of(10L, 10L, 5L), manifest.getSegments().stream().map(MaxsManifest.Segment::notifications).collect(Collectors.toList()));
+		assertNull(manifest.getSegments().get(0).partition());
+		assertEquals(expected, readAll(manifest));
+		assertFalse(logFile.exists());
+	}
+
+	/**
+	 * Verifies that a new segment is started after the maximum size.
+	 */
+	@Test
+	void append_sizeLimit_rollsSegments(@TempDir final Path tempDir) throws IOException {
+		final File logFile = tempDir.resolve("job.maxs.gz").toFile();
+		try (RollingMaxsFileWriter writer = RollingMaxsFileWriter.builder().logFile(logFile).maxBytes(2048).build()) {
+			writer.open(header());
+			for (int i = 0; i < 2000; i++) {
+				writer.append(notification(i));
+			}
+		}
+		final MaxsManifest manifest = MaxsManifest.read(MaxsManifest.manifestFileOf(logFile));
+		assertTrue(manifest.getSegments().size() > 1);
+		assertTrue(manifest.getSegments().get(0).fileName().endsWith("-00001.maxs.gz"));
+		assertEquals(2000, readAll(manifest).size());
+	}
+
+	/**
+	 * Verifies for all formats that a segment is only rolled over once the written bytes have reached the maximum size.
+	 */
+	@Test
+	void append_sizeLimit_countsWrittenBytes(@TempDir final Path tempDir) throws IOException {
+		for (final String extension : List.of(".maxs", ".maxs.gz", ".maxsb")) {
+			final File logFile = tempDir.resolve("job" + extension).toFile();
+			try (RollingMaxsFileWriter writer = RollingMaxsFileWriter.builder().logFile(logFile).maxBytes(1024).build()) {
+				writer.open(header());
+				for (int i = 0; i < 500; i++) {
+					writer.append(notification(i));
+				}
+			}
+			final List<File> files = MaxsManifest.read(MaxsManifest.manifestFileOf(logFile)).getFiles();
+			assertTrue(files.size() > 1, extension);
+			for (final File file : files.subList(0, files.size() - 1)) {
+				assertTrue(file.length() >= 1024, file.getName());
+			}
+			assertEquals(500, readAll(MaxsManifest.read(MaxsManifest.manifestFileOf(logFile))).size());
+		}
+	}
+
+	/**
+	 * Verifies that partition keys with the same file name get distinct segments.
+	 */
+	@Test
+	void append_collidingPartitionNames_separateSegments(@TempDir final Path tempDir) throws IOException {
+		final File logFile = tempDir.resolve("job.maxs").toFile();
+		try (RollingMaxsFileWriter writer = RollingMaxsFileWriter.builder().logFile(logFile).partitioning(MaxsPartitioning.ROUTINE).build()) {
+			writer.open(header());
+			for (final String routine : List.of("ISO_6336", "ISO 6336", "ISO/6336", "ISO_6336", "ISO 6336")) {
+				final Notification notification = notification(0);
+				notification.setRoutine(routine);
+				writer.append(notification);
+			}
+		}
+
+		final MaxsManifest manifest = MaxsManifest.read(MaxsManifest.manifestFileOf(logFile));
+		assertEquals(List.of("job-ISO_6336-00001.maxs", "job-ISO_6336_2-00001.maxs", "job-ISO_6336_3-00001.maxs"),
+				manifest.getSegments().stream().map(MaxsManifest.Segment::fileName).collect(Collectors.toList()));
+		assertEquals(List.of("ISO_6336", "ISO 6336", "ISO/6336"),
+				manifest.getSegments().stream().map(MaxsManifest.Segment::partition).collect(Collectors.toList()));
+		assertEquals(List.of(2L, 2L, 1L), manifest.getSegments().stream().map(MaxsManifest.Segment::notifications).collect(Collectors.toList()));
+	}
+
+	/**
+	 * Verifies that the notifications of each routine are written to their own segments.
+	 */
+	@Test
+	void append_partitionByRoutine_separateSegments(@TempDir final Path tempDir) throws IOException {
+		final File logFile = tempDir.resolve("job.maxs").toFile();
+		try (RollingMaxsFileWriter writer = RollingMaxsFileWriter.builder()
+				.logFile(logFile)
+				.maxNotifications(4)
+				.partitioning(MaxsPartitioning.ROUTINE)
+				.build()) {
+			final KernelNotifications initial = header();
+			initial.getNotifications().add(notification(0));
+			writer.open(initial);
+			for (int i = 1; i < 10; i++) {
+				writer.append(notification(i));
+			}
+		}
+
+		final MaxsManifest manifest = MaxsManifest.read(MaxsManifest.manifestFileOf(logFile));
+		assertEquals(List.of("job-ISO_6336-00001.maxs", "job-DIN_3990-00001.maxs", "job-ISO_6336-00002.maxs", "job-DIN_3990-00002.maxs"),
+				manifest.getSegments().stream().map(MaxsManifest.Segment::fileName).collect(Collectors.toList()));
+		assertEquals("ISO 6336", manifest.getSegments().get(0).partition());
+		for (final MaxsManifest.Segment segment : manifest.getSegments()) {
+			final KernelNotifications content = MaxsFiles.read(new File(manifest.getDirectory(), segment.fileName()));
+			assertEquals(segment.notifications(), content.getNotifications().size());
+			assertTrue(content.getNotifications().stream().allMatch(n -> n.getRoutine().equals(segment.partition())));
+		}
+	}
+
+	/**
+	 * Verifies that opening the writer again replaces the previous segments.
+	 */
+	@Test
+	void open_again_replacesSegments(@TempDir final Path tempDir) throws IOException {
+		final File logFile = tempDir.resolve("job.maxsb").toFile();
+		try (RollingMaxsFileWriter writer = RollingMaxsFileWriter.builder().logFile(logFile).partitioning(MaxsPartitioning.TYPE).build()) {
+			writer.open(header());
+			for (int i = 0; i < 6; i++) {
+				writer.append(notification(i));
+			}
+			final KernelNotifications rewritten = header();
+			rewritten.getNotifications().add(notification(1));
+			writer.open(rewritten);
+		}
+
+		final MaxsManifest manifest = MaxsManifest.read(MaxsManifest.manifestFileOf(logFile));
+		assertEquals(1, manifest.getSegments().size());
+		assertEquals("job-INFO-00001.maxsb", manifest.getSegments().get(0).fileName());
+		assertEquals(List.of(notification(1)), readAll(manifest));
+		assertFalse(tempDir.resolve("job-ERROR-00001.maxsb").toFile().exists());
+	}
+}
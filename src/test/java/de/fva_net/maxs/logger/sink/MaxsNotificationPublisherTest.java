@@ -0,0 +1,211 @@
+package de.fva_net.maxs.logger.sink;
+
+import de.fva_net.maxs.logger.MaxsMessageType;
+import de.fva_net.maxs.logger.xml.Notification;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static de.fva_net.maxs.logger.MaxsTestFixtures.notification;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the MaxsNotificationPublisher and NotificationSubscription classes.
+ */
+class MaxsNotificationPublisherTest {
+
+	/**
+	 * Executor running the drain tasks on the calling thread, so the tests are deterministic.
+	 */
+	private static final Executor DIRECT = Runnable::run;
+
+	/**
+	 * Subscriber recording the signals.
+	 */
+	private static final class RecordingSubscriber implements Flow.Subscriber<Notification> {
+
+		/**
+		 * The received notifications.
+		 */
+		private final List<Notification> received = new ArrayList<>();
+
+		/**
+		 * The subscription.
+		 */
+		private Flow.Subscription subscription;
+
+		/**
+		 * The received error.
+		 */
+		private Throwable error;
+
+		/**
+		 * Indicates whether the subscription has completed.
+		 */
+		private boolean completed;
+
+		@Override
+		public void onSubscribe(final Flow.Subscription subscription) {
+			this.subscription = subscription;
+		}
+
+		@Override
+		public void onNext(final Notification item) {
+			received.add(item);
+		}
+
+		@Override
+		public void onError(final Throwable throwable) {
+			error = throwable;
+		}
+
+		@Override
+		public void onComplete() {
+			completed = true;
+		}
+
+		/**
+		 * Returns the component IDs of the received notifications.
+		 *
+		 * @return the component IDs
+		 */
+		private List<Integer> ids() {
+			return received.stream().map(Notification::getCompId).collect(Collectors.toList());
+		}
+	}
+
+	/**
+	 * Verifies that a subscriber receives no more notifications than it has requested.
+	 */
+	@Test
+	void request_limitsDelivery() {
+		final MaxsNotificationPublisher publisher = MaxsNotificationPublisher.builder().executor(DIRECT).build();
+		final RecordingSubscriber subscriber = new RecordingSubscriber();
+		publisher.subscribe(subscriber);
+		assertNotNull(subscriber.subscription);
+
+		for (int i = 0; i < 5; i++) {
+			publisher.accept(notification(null, i, MaxsMessageType.INFO));
+		}
+		assertTrue(subscriber.received.isEmpty());
+		subscriber.subscription.request(2);
+		assertEquals(List.of(0, 1), subscriber.ids());
+		subscriber.subscription.request(10);
+		publisher.accept(notification(null, 5, MaxsMessageType.INFO));
+		assertEquals(List.of(0, 1, 2, 3, 4, 5), subscriber.ids());
+	}
+
+	/**
+	 * Verifies the policies if the buffer of a subscriber is full.
+	 */
+	@Test
+	void accept_fullBuffer_appliesPolicy() {
+		final List<List<Integer>> results = new ArrayList<>();
+		for (final MaxsBackpressurePolicy policy : MaxsBackpressurePolicy.values()) {
+			final MaxsNotificationPublisher publisher = MaxsNotificationPublisher.builder().executor(DIRECT).bufferCapacity(3).backpressurePolicy(policy).build();
+			final RecordingSubscriber subscriber = new RecordingSubscriber();
+			publisher.subscribe(subscriber);
+			for (int i = 0; i < 5; i++) {
+				publisher.accept(notification(null, i, MaxsMessageType.INFO));
+			}
+			subscriber.subscription.request(Long.MAX_VALUE);
+			results.add(subscriber.ids());
+			assertEquals(policy == MaxsBackpressurePolicy.BUFFER ? 0 : 2, publisher.getDroppedCount());
+		}
+		assertEquals(List.of(List.of(2, 3, 4), List.of(0, 1, 2), List.of(0, 1, 2, 3, 4)), results);
+	}
+
+	/**
+	 * Verifies that closing the publisher completes the subscribers after the buffered notifications.
+	 */
+	@Test
+	void close_completesAfterBuffer() {
+		final MaxsNotificationPublisher publisher = MaxsNotificationPublisher.builder().executor(DIRECT).build();
+		final RecordingSubscriber subscriber = new RecordingSubscriber();
+		publisher.subscribe(subscriber);
+		publisher.accept(notification(null, 1, MaxsMessageType.INFO));
+		publisher.close();
+		assertFalse(subscriber.completed);
+		subscriber.subscription.request(1);
+		assertEquals(List.of(1), subscriber.ids());
+		assertTrue(subscriber.completed);
+
+		final RecordingSubscriber late = new RecordingSubscriber();
+		publisher.subscribe(late);
+		assertTrue(late.completed);
+	}
+
+	/**
+	 * Verifies that a non-positive request is answered with an error and that cancelled subscribers are removed.
+	 */
+	@Test
+	void request_invalid_signalsError() {
+		final MaxsNotificationPublisher publisher = MaxsNotificationPublisher.builder().executor(DIRECT).build();
+		final RecordingSubscriber invalid = new RecordingSubscriber();
+		final RecordingSubscriber cancelling = new RecordingSubscriber();
+		publisher.subscribe(invalid);
+		publisher.subscribe(cancelling);
+		assertEquals(2, publisher.getSubscriberCount());
+
+		invalid.subscription.request(0);
+		assertTrue(invalid.error instanceof IllegalArgumentException);
+		cancelling.subscription.cancel();
+		assertEquals(0, publisher.getSubscriberCount());
+	}
+
+	/**
+	 * Verifies that a blocked subscriber does not block the logging thread.
+	 */
+	@Test
+	void accept_blockedSubscriber_doesNotBlock() throws Exception {
+		final MaxsNotificationPublisher publisher = MaxsNotificationPublisher.builder().bufferCapacity(8).build();
+		final CountDownLatch release = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(1);
+		final List<Notification> received = new ArrayList<>();
+		publisher.subscribe(new Flow.Subscriber<>() {
+			@Override
+			public void onSubscribe(final Flow.Subscription subscription) {
+				subscription.request(Long.MAX_VALUE);
+			}
+
+			@Override
+			public void onNext(final Notification item) {
+				try {
+					release.await(10, TimeUnit.SECONDS);
+				} catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				received.add(item);
+			}
+
+			@Override
+			public void onError(final Throwable throwable) {
+				done.countDown();
+			}
+
+			@Override
+			public void onComplete() {
+				done.countDown();
+			}
+		});
+
+		for (int i = 0; i < 10_000; i++) {
+			publisher.accept(notification(null, i, MaxsMessageType.INFO));
+		}
+		release.countDown();
+		publisher.close();
+		assertTrue(done.await(10, TimeUnit.SECONDS));
+		assertTrue(publisher.getDroppedCount() > 0);
+		assertEquals(10_000, received.size() + publisher.getDroppedCount());
+		assertEquals(9_999, received.get(received.size() - 1).getCompId());
+	}
+}
@@ -0,0 +1,167 @@
+package de.fva_net.maxs.logger.sink;
+
+import de.fva_net.maxs.logger.MaxsMessageType;
+import de.fva_net.maxs.logger.io.MaxsOverflowPolicy;
+import de.fva_net.maxs.logger.xml.Notification;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static de.fva_net.maxs.logger.MaxsTestFixtures.notification;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the MaxsSinkDispatcher and AsyncMaxsSink classes.
+ */
+class MaxsSinkDispatcherTest {
+
+	/**
+	 * Verifies that each sink only receives the notifications passing its own filter.
+	 */
+	@Test
+	void dispatch_perSinkFilters() {
+		final MaxsSinkDispatcher dispatcher = new MaxsSinkDispatcher();
+		final InMemoryMaxsSink all = new InMemoryMaxsSink();
+		final InMemoryMaxsSink warnings = new InMemoryMaxsSink();
+		final InMemoryMaxsSink component = new InMemoryMaxsSink();
+		dispatcher.add(all, MaxsSinkOptions.DEFAULT);
+		dispatcher.add(warnings, MaxsSinkOptions.builder().minimumSeverity(MaxsMessageType.WARNING).debugEnabled(false).build());
+		dispatcher.add(component, MaxsSinkOptions.builder().filter(n -> n.getCompId() == 2).build());
+
+		dispatcher.dispatch(notification("routine", 1, MaxsMessageType.INFO));
+		dispatcher.dispatch(notification("routine", 2, MaxsMessageType.ERROR));
+		dispatcher.dispatch(notification("routine", 3, MaxsMessageType.DEBUG_ERROR));
+		dispatcher.dispatchAll(List.of(notification("routine", 4, MaxsMessageType.WARNING), notification("routine", 2, MaxsMessageType.INFO)), null);
+
+		assertEquals(5, all.size());
+		assertEquals(List.of(2, 4), warnings.getNotifications().stream().map(Notification::getCompId).collect(Collectors.toList()));
+		assertEquals(2, component.size());
+	}
+
+	/**
+	 * Verifies that a failing sink does not keep the notifications from the other sinks.
+	 */
+	@Test
+	void dispatch_failingSink_othersReceive() {
+		final MaxsSinkDispatcher dispatcher = new MaxsSinkDispatcher();
+		final InMemoryMaxsSink buffer = new InMemoryMaxsSink();
+		dispatcher.add(n -> {
+			throw new IOException("broken");
+		}, MaxsSinkOptions.DEFAULT);
+		dispatcher.add(buffer, MaxsSinkOptions.DEFAULT);
+
+		dispatcher.dispatch(notification("routine", 1, MaxsMessageType.ERROR));
+		dispatcher.dispatchAll(List.of(notification("routine", 2, MaxsMessageType.ERROR)), null);
+		assertEquals(2, buffer.size());
+	}
+
+	/**
+	 * Verifies that mutable notifications of a batch are passed on their own and the others in runs.
+	 */
+	@Test
+	void dispatchAll_mutable_passedSeparately() {
+		final MaxsSinkDispatcher dispatcher = new MaxsSinkDispatcher();
+		final List<String> calls = new ArrayList<>();
+		dispatcher.add(new MaxsSink() {
+			@Override
+			public void accept(final Notification notification) {
+				calls.add("accept");
+			}
+
+			@Override
+			public void acceptMutable(final Notification notification) {
+				calls.add("mutable " + notification.getCompId());
+			}
+
+			@Override
+			public void acceptAll(final Collection<Notification> notifications) {
+				calls.add("batch " + notifications.size());
+			}
+		}, MaxsSinkOptions.DEFAULT);
+
+		final List<Notification> notifications = IntStream.range(0, 6).mapToObj(i -> notification("routine", i, MaxsMessageType.INFO)).toList();
+		dispatcher.dispatchAll(notifications, n -> n.getCompId() == 2 || n.getCompId() == 5);
+		assertEquals(List.of("batch 2", "mutable 2", "batch 2", "mutable 5"), calls);
+	}
+
+	/**
+	 * Verifies that an asynchronous sink receives the notifications in order on another thread and that flushing
+	 * passes the queue.
+	 */
+	@Test
+	void dispatch_async_orderedOnBackgroundThread() {
+		final MaxsSinkDispatcher dispatcher = new MaxsSinkDispatcher();
+		final List<Notification> received = new ArrayList<>();
+		final List<Thread> threads = new ArrayList<>();
+		final MaxsSink sink = new MaxsSink() {
+			@Override
+			public void accept(final Notification notification) {
+				received.add(notification);
+				threads.add(Thread.currentThread());
+			}
+		};
+		dispatcher.add(sink, MaxsSinkOptions.builder().async(true).queueCapacity(16).build());
+
+		final List<Notification> expected = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			expected.add(notification("routine", i, MaxsMessageType.INFO));
+			dispatcher.dispatch(expected.get(i));
+		}
+		dispatcher.flush();
+		assertTrue(dispatcher.remove(sink));
+
+		assertEquals(expected, received);
+		assertTrue(threads.stream().anyMatch(t -> t != Thread.currentThread()));
+		assertFalse(dispatcher.remove(sink));
+	}
+
+	/**
+	 * Verifies that a slow asynchronous sink does not block the logging thread with the drop policy.
+	 */
+	@Test
+	void dispatch_asyncDropDebug_doesNotBlock() throws Exception {
+		final CountDownLatch release = new CountDownLatch(1);
+		final InMemoryMaxsSink buffer = new InMemoryMaxsSink();
+		final MaxsSink slow = n -> {
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			buffer.accept(n);
+		};
+		final AsyncMaxsSink async = new AsyncMaxsSink(slow, 4, MaxsOverflowPolicy.DROP_DEBUG, 0);
+		for (int i = 0; i < 100; i++) {
+			async.accept(notification("routine", i, MaxsMessageType.DEBUG_INFO));
+		}
+		assertNotEquals(0, async.getDroppedCount());
+		release.countDown();
+		async.close();
+		assertEquals(100, buffer.size() + async.getDroppedCount());
+	}
+
+	/**
+	 * Verifies that a replaced sink keeps its position.
+	 */
+	@Test
+	void replace_keepsPosition() {
+		final MaxsSinkDispatcher dispatcher = new MaxsSinkDispatcher();
+		final InMemoryMaxsSink first = new InMemoryMaxsSink();
+		final InMemoryMaxsSink second = new InMemoryMaxsSink();
+		final InMemoryMaxsSink replacement = new InMemoryMaxsSink();
+		dispatcher.add(first, MaxsSinkOptions.DEFAULT);
+		dispatcher.add(second, MaxsSinkOptions.DEFAULT);
+		dispatcher.replace(first, replacement);
+		assertEquals(List.of(replacement, second), dispatcher.getSinks());
+	}
+}
@@ -0,0 +1,105 @@
+package de.fva_net.maxs.logger.store;
+
+import de.fva_net.maxs.logger.MaxsMessageType;
+import de.fva_net.maxs.logger.xml.Item;
+import de.fva_net.maxs.logger.xml.Notification;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static de.fva_net.maxs.logger.MaxsTestFixtures.notification;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the BoundedNotificationStore class.
+ */
+class BoundedNotificationStoreTest {
+
+	/**
+	 * Verifies that debug infos are evicted before errors and that the order of the remaining notifications is kept.
+	 */
+	@Test
+	void add_countExceeded_evictsByPriority() {
+		final BoundedNotificationStore store = new BoundedNotificationStore(3, 0);
+		store.add(notification("error 1", MaxsMessageType.ERROR));
+		store.add(notification("debug 1", MaxsMessageType.DEBUG_INFO));
+		store.add(notification("info 1", MaxsMessageType.INFO));
+		store.add(notification("error 2", MaxsMessageType.ERROR));
+		store.add(notification("debug 2", MaxsMessageType.DEBUG_INFO));
+
+		final List<Notification> notifications = store.getAll();
+		assertEquals(3, store.size());
+		assertEquals(List.of("error 1", "info 1", "error 2"), notifications.stream().map(Notification::getMessage).toList());
+		assertEquals(2, store.getEvictedCount());
+		assertEquals(2, store.getEvictedCount(MaxsMessageType.DEBUG_INFO));
+		assertEquals(0, store.getEvictedCount(MaxsMessageType.ERROR));
+	}
+
+	/**
+	 * Verifies that the oldest errors are evicted once only errors are left.
+	 */
+	@Test
+	void add_onlyErrors_evictsOldest() {
+		final BoundedNotificationStore store = new BoundedNotificationStore(100, 0);
+		for (int i = 0; i < 1000; i++) {
+			store.add(notification("error " + i, MaxsMessageType.ERROR));
+		}
+		final List<Notification> notifications = store.getAll();
+		assertEquals(100, notifications.size());
+		assertEquals("error 900", notifications.get(0).getMessage());
+		assertEquals("error 999", notifications.get(99).getMessage());
+		assertEquals(900, store.getEvictedCount());
+	}
+
+	/**
+	 * Verifies that the estimated size is bounded and reset by clear.
+	 */
+	@Test
+	void add_bytesExceeded_evictsUntilBelowBound() {
+		final BoundedNotificationStore store = new BoundedNotificationStore(0, 10_000);
+		for (int i = 0; i < 1000; i++) {
+			store.add(notification("warning " + i, MaxsMessageType.WARNING));
+		}
+		assertTrue(store.getEstimatedBytes() <= 10_000);
+		assertTrue(store.size() > 0 && store.size() < 1000);
+		assertEquals(1000, store.size() + store.getEvictedCount());
+
+		store.clear();
+		assertEquals(0, store.size());
+		assertEquals(0, store.getEstimatedBytes());
+		assertEquals(0, store.getEvictedCount());
+	}
+
+	/**
+	 * Verifies that the bound on the bytes holds after aggregated notifications have grown by the items of their count and
+	 * the value of the last occurrence.
+	 */
+	@Test
+	void addMutable_aggregatedNotificationsGrow_staysBelowBound() {
+		final BoundedNotificationStore store = new BoundedNotificationStore(0, 10_000);
+		final NotificationAggregator aggregator = new NotificationAggregator(1000);
+		for (int repeat = 0; repeat < 2; repeat++) {
+			for (int i = 0; i < 100; i++) {
+				final Notification notification = notification("warning " + i, MaxsMessageType.WARNING);
+				final Item item = new Item();
+				item.setAttrId("stress_" + i);
+				item.setValue(repeat);
+				notification.setData(new ArrayList<>(List.of(item)));
+				if (!aggregator.aggregate(notification)) {
+					store.addMutable(notification);
+				}
+			}
+		}
+
+		long estimated = 0;
+		for (final Notification notification : store.getAll()) {
+			assertEquals(3, notification.getData().size());
+			estimated += NotificationSizes.estimate(notification);
+		}
+		assertTrue(store.getEvictedCount() > 0);
+		assertTrue(estimated <= store.getEstimatedBytes());
+		assertTrue(store.getEstimatedBytes() <= 10_000);
+	}
+}
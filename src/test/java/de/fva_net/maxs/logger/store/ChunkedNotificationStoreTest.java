@@ -0,0 +1,185 @@
+package de.fva_net.maxs.logger.store;
+
+import de.fva_net.maxs.logger.MaxsMessageType;
+import de.fva_net.maxs.logger.MaxsTestFixtures;
+import de.fva_net.maxs.logger.xml.Notification;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the ChunkedNotificationStore class.
+ */
+class ChunkedNotificationStoreTest {
+
+	/**
+	 * Creates a notification.
+	 *
+	 * @param routine the routine
+	 * @param index   the index used as component ID
+	 * @return the notification
+	 */
+	private static Notification notification(final String routine, final int index) {
+		return MaxsTestFixtures.notification(routine, index, index % 10 == 0 ? MaxsMessageType.ERROR : MaxsMessageType.INFO);
+	}
+
+	/**
+	 * Verifies that the notifications are returned in the order they were added, across several chunks.
+	 */
+	@Test
+	void getAll_severalChunks_keepsOrder() {
+		final NotificationStore store = new ChunkedNotificationStore();
+		final List<Notification> expected = IntStream.range(0, 5000).mapToObj(i -> notification("main", i)).toList();
+		store.addAll(expected.subList(0, 2500));
+		expected.subList(2500, 5000).forEach(store::add);
+
+		assertEquals(expected, store.getAll());
+		assertEquals(5000, store.size());
+		assertSame(expected.get(4999), store.getAll().get(4999));
+	}
+
+	/**
+	 * Verifies that a snapshot is neither changed by later writes nor by clearing the store.
+	 */
+	@Test
+	void getAll_snapshotUnaffectedByLaterWrites() {
+		final NotificationStore store = new ChunkedNotificationStore();
+		for (int i = 0; i < 1500; i++) {
+			store.add(notification("main", i));
+		}
+		final List<Notification> snapshot = store.getAll();
+		for (int i = 1500; i < 20_000; i++) {
+			store.add(notification("main", i));
+		}
+		assertEquals(1500, snapshot.size());
+		assertEquals(1499, snapshot.get(1499).getCompId());
+		assertThrows(IndexOutOfBoundsException.class, () -> snapshot.get(1500));
+
+		store.clear();
+		store.add(notification("other", 7));
+		assertEquals(1500, snapshot.size());
+		assertEquals(0, snapshot.get(0).getCompId());
+		assertEquals(List.of(7), store.getAll().stream().map(Notification::getCompId).collect(Collectors.toList()));
+		assertThrows(UnsupportedOperationException.class, () -> snapshot.add(notification("main", 0)));
+	}
+
+	/**
+	 * Verifies that no notification is lost if several threads add concurrently, while another thread takes snapshots.
+	 */
+	@Test
+	void add_concurrentWriters_consistentSnapshots() {
+		final NotificationStore store = new ChunkedNotificationStore();
+		IntStream.range(0, 9).parallel().forEach(thread -> {
+			if (thread == 8) {
+				for (int i = 0; i < 200; i++) {
+					final List<Notification> snapshot = store.getAll();
+					snapshot.forEach(notification -> assertTrue(notification.getRoutine().startsWith("thread")));
+				}
+				return;
+			}
+			for (int i = 0; i < 10_000; i++) {
+				store.add(notification("thread" + thread, i));
+			}
+		});
+
+		final List<Notification> all = store.getAll();
+		assertEquals(80_000, all.size());
+		final Map<String, Integer> lastIndex = new HashMap<>();
+		for (final Notification notification : all) {
+			final int previous = lastIndex.getOrDefault(notification.getRoutine(), -1);
+			assertTrue(notification.getCompId() > previous);
+			lastIndex.put(notification.getRoutine(), notification.getCompId());
+		}
+	}
+
+	/**
+	 * Verifies that no notification is lost if several threads add and query concurrently, and that the published
+	 * notifications always form a gapless prefix.
+	 */
+	@Test
+	void add_concurrentWritersAndQueries_loseNothing() {
+		final NotificationStore store = new ChunkedNotificationStore();
+		final NotificationQuery errors = new NotificationQuery(Set.of(MaxsMessageType.ERROR), null, null);
+		IntStream.range(0, 10).parallel().forEach(thread -> {
+			if (thread >= 8) {
+				for (int i = 0; i < 200; i++) {
+					final int before = store.size();
+					final List<Notification> snapshot = store.getAll();
+					assertTrue(snapshot.size() >= before);
+					snapshot.forEach(Assertions::assertNotNull);
+					assertTrue(store.count(errors) * 10 >= before);
+				}
+				return;
+			}
+			for (int i = 0; i < 10_000; i += 10) {
+				final List<Notification> batch = new ArrayList<>();
+				for (int j = i; j < i + 10; j++) {
+					batch.add(notification("thread" + thread, j));
+				}
+				if (i % 20 == 0) {
+					store.addAll(batch);
+				} else {
+					batch.forEach(store::add);
+				}
+			}
+		});
+
+		assertEquals(80_000, store.size());
+		assertEquals(8000, store.count(errors));
+		assertEquals(10_000, store.count(new NotificationQuery(Set.of(), "thread3", null)));
+		assertEquals(80_000, store.getAll().stream().map(n -> n.getRoutine() + n.getCompId()).distinct().count());
+	}
+
+	/**
+	 * Verifies that writers do not need a lock that a reader or another writer holds.
+	 */
+	@Test
+	void add_whileStoreLocked_doesNotBlock() throws Exception {
+		final NotificationStore store = new ChunkedNotificationStore();
+		store.add(notification("main", 0));
+		store.count(new NotificationQuery(Set.of(), "main", null));
+		synchronized (store) {
+			final Thread writer = new Thread(() -> {
+				for (int i = 1; i < 5000; i++) {
+					store.add(notification("writer", i));
+				}
+			});
+			writer.start();
+			writer.join(10_000);
+			assertFalse(writer.isAlive());
+		}
+		assertEquals(5000, store.size());
+	}
+
+	/**
+	 * Verifies that the queries use the indexes and that clearing resets them.
+	 */
+	@Test
+	void find_indexedQueries() {
+		final NotificationStore store = new ChunkedNotificationStore();
+		for (int i = 0; i < 3000; i++) {
+			store.add(notification(i % 2 == 0 ? "even" : "odd", i));
+		}
+		final NotificationQuery errors = new NotificationQuery(Set.of(MaxsMessageType.ERROR), "even", null);
+		assertEquals(300, store.count(errors));
+		assertEquals(0, store.find(errors).get(0).getCompId());
+		assertTrue(store.exists(new NotificationQuery(Set.of(), null, 2999)));
+
+		store.clear();
+		assertEquals(0, store.count(errors));
+		assertTrue(store.getAll().isEmpty());
+	}
+}
@@ -0,0 +1,97 @@
+package de.fva_net.maxs.logger.store;
+
+import de.fva_net.maxs.logger.MaxsMessageType;
+import de.fva_net.maxs.logger.MaxsTestFixtures;
+import de.fva_net.maxs.logger.xml.Notification;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the CompactNotificationStore class.
+ */
+class CompactNotificationStoreTest {
+
+	/**
+	 * Creates a notification.
+	 *
+	 * @param routine the routine
+	 * @param compId  the component ID
+	 * @param message the message
+	 * @param type    the type
+	 * @param values  the values of the items
+	 * @return the notification
+	 */
+	private static Notification notification(final String routine, final Integer compId, final String message, final MaxsMessageType type,
+			final double... values) {
+		final Notification notification = MaxsTestFixtures.notification(routine, compId, type, message);
+		for (final double value : values) {
+			MaxsTestFixtures.withItem(notification, "normal_module", compId, value);
+		}
+		return notification;
+	}
+
+	/**
+	 * Verifies that the views are equal to the added notifications, including null fields.
+	 */
+	@Test
+	void getAll_returnsEqualViews() {
+		final CompactNotificationStore store = new CompactNotificationStore();
+		final List<Notification> added = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			added.add(notification(i % 2 == 0 ? "iso6336_2019" : null, i % 3 == 0 ? null : i, "message " + i,
+					i % 5 == 0 ? null : MaxsMessageType.values()[i % 6], i % 4 == 0 ? new double[0] : new double[] { i, -i }));
+		}
+		added.forEach(store::add);
+
+		final List<Notification> views = store.getAll();
+		assertEquals(added, views);
+		assertNotSame(added.get(0), views.get(0));
+		assertFalse(views.get(0).hasData());
+		assertEquals(1000, store.size());
+	}
+
+	/**
+	 * Verifies that mutable notifications are kept as objects, so later changes are visible.
+	 */
+	@Test
+	void addMutable_keepsReference() {
+		final CompactNotificationStore store = new CompactNotificationStore();
+		final Notification aggregated = notification("iso6336_2019", 1, "aggregated", MaxsMessageType.WARNING, 1.0);
+		store.add(notification("iso6336_2019", 2, "before", MaxsMessageType.INFO));
+		store.addMutable(aggregated);
+		store.add(notification("iso6336_2019", 3, "after", MaxsMessageType.INFO));
+		aggregated.getData().get(0).setValue(5.0);
+
+		final List<Notification> views = store.getAll();
+		assertEquals(List.of("before", "aggregated", "after"), views.stream().map(Notification::getMessage).toList());
+		assertSame(aggregated, views.get(1));
+		assertEquals(5.0, views.get(1).getData().get(0).getValue());
+	}
+
+	/**
+	 * Verifies that the compact representation is smaller than the estimated size of the objects.
+	 */
+	@Test
+	void getEstimatedBytes_smallerThanObjects() {
+		final CompactNotificationStore store = new CompactNotificationStore();
+		final ConcurrentNotificationStore objects = new ConcurrentNotificationStore();
+		for (int i = 0; i < 1000; i++) {
+			final Notification notification = notification("iso6336_2019", i, "The attribute is missing.", MaxsMessageType.DEBUG_ERROR, 0.0);
+			store.add(notification);
+			objects.add(notification);
+		}
+		assertTrue(store.getEstimatedBytes() < objects.getEstimatedBytes());
+
+		store.clear();
+		assertEquals(0, store.size());
+		assertEquals(0, store.getEstimatedBytes());
+	}
+}
@@ -0,0 +1,116 @@
+package de.fva_net.maxs.logger.store;
+
+import de.fva_net.maxs.logger.MaxsMessageType;
+import de.fva_net.maxs.logger.xml.Notification;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static de.fva_net.maxs.logger.MaxsTestFixtures.notification;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the ConcurrentNotificationStore class.
+ */
+class ConcurrentNotificationStoreTest {
+
+	/**
+	 * Verifies that notifications of a single thread are returned in the order they were added.
+	 */
+	@Test
+	void getAll_singleThread_keepsOrder() {
+		final NotificationStore store = new ConcurrentNotificationStore();
+		for (int i = 0; i < 100; i++) {
+			store.add(notification("main", i, MaxsMessageType.INFO));
+		}
+		final List<Notification> all = store.getAll();
+		assertEquals(100, all.size());
+		for (int i = 0; i < 100; i++) {
+			assertEquals(i, all.get(i).getCompId());
+		}
+	}
+
+	/**
+	 * Verifies that no notification is lost if several threads add concurrently and that the order of each thread is
+	 * kept in the merged view.
+	 */
+	@Test
+	void add_concurrentWriters_loseNothing() {
+		final NotificationStore store = new ConcurrentNotificationStore();
+		IntStream.range(0, 8).parallel().forEach(thread -> {
+			for (int i = 0; i < 10_000; i++) {
+				store.add(notification("thread" + thread, i, MaxsMessageType.INFO));
+			}
+		});
+
+		final List<Notification> all = store.getAll();
+		assertEquals(80_000, all.size());
+		assertEquals(80_000, store.size());
+		final Map<String, Integer> lastIndex = new HashMap<>();
+		for (final Notification notification : all) {
+			final int previous = lastIndex.getOrDefault(notification.getRoutine(), -1);
+			assertTrue(notification.getCompId() > previous);
+			lastIndex.put(notification.getRoutine(), notification.getCompId());
+		}
+	}
+
+	/**
+	 * Verifies that clearing removes the notifications of all threads.
+	 */
+	@Test
+	void clear_removesAllNotifications() {
+		final NotificationStore store = new ConcurrentNotificationStore();
+		IntStream.range(0, 4).parallel().forEach(i -> store.add(notification("thread", i, MaxsMessageType.INFO)));
+		store.clear();
+		assertEquals(0, store.size());
+		assertTrue(store.getAll().isEmpty());
+		store.add(notification("main", 1, MaxsMessageType.INFO));
+		assertEquals(1, store.getAll().size());
+	}
+
+	/**
+	 * Verifies that a query merges the matches of several threads in the order they were added.
+	 */
+	@Test
+	void find_concurrentWriters_returnsOrderedMatches() {
+		final NotificationStore store = new ConcurrentNotificationStore();
+		IntStream.range(0, 4).parallel().forEach(thread -> {
+			for (int i = 0; i < 1000; i++) {
+				store.add(notification("thread" + thread, i % 100, MaxsMessageType.INFO));
+			}
+		});
+
+		final List<Notification> matches = store.find(new NotificationQuery(Set.of(MaxsMessageType.INFO), null, 7));
+		assertEquals(40, matches.size());
+		assertEquals(40, store.count(new NotificationQuery(Set.of(), null, 7)));
+		assertEquals(0, store.count(new NotificationQuery(Set.of(MaxsMessageType.ERROR), null, 7)));
+		assertEquals(10, store.count(new NotificationQuery(Set.of(), "thread2", 7)));
+		assertTrue(store.exists(new NotificationQuery(Set.of(), "thread3", null)));
+	}
+
+	/**
+	 * Verifies that the buffer of a terminated thread keeps its notifications until the store is cleared and is removed
+	 * afterwards, while the buffer of a live thread is kept.
+	 */
+	@Test
+	void clear_terminatedWriter_removesItsBuffer() throws InterruptedException {
+		final ConcurrentNotificationStore store = new ConcurrentNotificationStore();
+		store.add(notification("main", 0, MaxsMessageType.INFO));
+		final Thread writer = new Thread(() -> store.add(notification("writer", 1, MaxsMessageType.INFO)));
+		writer.start();
+		writer.join();
+		assertEquals(2, store.getBufferCount());
+		assertEquals(2, store.getAll().size());
+		assertEquals(2, store.getBufferCount());
+
+		store.clear();
+		assertEquals(1, store.getBufferCount());
+		store.add(notification("main", 2, MaxsMessageType.INFO));
+		assertEquals(List.of(2), store.getAll().stream().map(Notification::getCompId).toList());
+	}
+}
@@ -0,0 +1,91 @@
+package de.fva_net.maxs.logger.store;
+
+import de.fva_net.maxs.logger.MaxsMessageType;
+import de.fva_net.maxs.logger.MaxsTestFixtures;
+import de.fva_net.maxs.logger.xml.Notification;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the NotificationAggregator class.
+ */
+class NotificationAggregatorTest {
+
+	/**
+	 * Creates a missing attribute notification.
+	 *
+	 * @param compId the component ID
+	 * @param value  the value of the item
+	 * @return the notification
+	 */
+	private static Notification notification(final int compId, final double value) {
+		return MaxsTestFixtures.withItem(MaxsTestFixtures.notification("iso6336_2019", compId, MaxsMessageType.DEBUG_ERROR, "attr is missing"), "attr", compId,
+			value);
+	}
+
+	/**
+	 * Verifies that repeats are counted and that the first and last values are kept.
+	 */
+	@Test
+	void aggregate_repeats_countAndKeepFirstAndLastValue() {
+		final NotificationAggregator aggregator = new NotificationAggregator(10);
+		final Notification first = notification(1, 1.0);
+		assertFalse(aggregator.aggregate(first));
+		assertEquals(1, NotificationAggregator.getCount(first));
+		assertEquals(1, first.getData().size());
+		assertFalse(aggregator.isRepeated());
+
+		assertTrue(aggregator.aggregate(notification(1, 2.0)));
+		assertTrue(aggregator.aggregate(notification(1, 3.0)));
+		assertEquals(3, NotificationAggregator.getCount(first));
+		assertEquals(3, first.getData().size());
+		assertEquals(1.0, first.getData().get(0).getValue());
+		assertEquals(3.0, first.getData().get(1).getValue());
+		assertEquals(NotificationAggregator.COUNT_ATTRIBUTE, first.getData().get(2).getAttrId());
+		assertEquals(1, first.getData().get(2).getCompId());
+		assertTrue(aggregator.isTracked(first));
+		assertTrue(aggregator.isRepeated());
+	}
+
+	/**
+	 * Verifies that notifications with a different key are not aggregated.
+	 */
+	@Test
+	void aggregate_differentKey_isNotAggregated() {
+		final NotificationAggregator aggregator = new NotificationAggregator(10);
+		assertFalse(aggregator.aggregate(notification(1, 1.0)));
+		assertFalse(aggregator.aggregate(notification(2, 1.0)));
+		assertEquals(2, aggregator.size());
+	}
+
+	/**
+	 * Verifies that only repeats of tracked notifications are aggregated and that new notifications are not tracked.
+	 */
+	@Test
+	void aggregateRepeat_newNotification_isNotTracked() {
+		final NotificationAggregator aggregator = new NotificationAggregator(10);
+		final Notification first = notification(1, 1.0);
+		assertFalse(aggregator.aggregateRepeat(first));
+		assertEquals(0, aggregator.size());
+
+		assertFalse(aggregator.aggregate(first));
+		assertTrue(aggregator.aggregateRepeat(notification(1, 2.0)));
+		assertEquals(2, NotificationAggregator.getCount(first));
+	}
+
+	/**
+	 * Verifies that no more than the maximum number of keys are tracked.
+	 */
+	@Test
+	void aggregate_maxKeysReached_storesNewNotificationsUnaggregated() {
+		final NotificationAggregator aggregator = new NotificationAggregator(1);
+		assertFalse(aggregator.aggregate(notification(1, 1.0)));
+		assertFalse(aggregator.aggregate(notification(2, 1.0)));
+		assertFalse(aggregator.aggregate(notification(2, 1.0)));
+		assertTrue(aggregator.aggregate(notification(1, 1.0)));
+		assertEquals(1, aggregator.size());
+	}
+}
@@ -0,0 +1,78 @@
+package de.fva_net.maxs.logger.store;
+
+import de.fva_net.maxs.logger.MaxsMessageType;
+import de.fva_net.maxs.logger.xml.Notification;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static de.fva_net.maxs.logger.MaxsTestFixtures.notification;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the NotificationRateLimiter class.
+ */
+class NotificationRateLimiterTest {
+
+	/**
+	 * Verifies that notifications beyond the routine cap are suppressed and counted in a single summary.
+	 */
+	@Test
+	void tryAcquire_routineCapExceeded_emitsSingleSummary() {
+		final NotificationRateLimiter limiter = new NotificationRateLimiter(3, 0, 0);
+		final List<Notification> summaries = new ArrayList<>();
+		int permitted = 0;
+		for (int i = 0; i < 10; i++) {
+			if (limiter.tryAcquire(notification("iso6336_2019", i, MaxsMessageType.INFO), summaries::add)) {
+				permitted++;
+			}
+		}
+		assertTrue(limiter.tryAcquire(notification("iso21771_2007", 1, MaxsMessageType.INFO), summaries::add));
+
+		assertEquals(3, permitted);
+		assertEquals(1, summaries.size());
+		assertEquals("iso6336_2019", summaries.get(0).getRoutine());
+		assertEquals(MaxsMessageType.WARNING, summaries.get(0).getType());
+		assertEquals(NotificationRateLimiter.SUPPRESSED_ATTRIBUTE, summaries.get(0).getData().get(0).getAttrId());
+		assertEquals(7.0, summaries.get(0).getData().get(0).getValue());
+		assertTrue(limiter.isSuppressed());
+	}
+
+	/**
+	 * Verifies that the component and type caps are checked independently.
+	 */
+	@Test
+	void tryAcquire_componentAndTypeCaps() {
+		final NotificationRateLimiter limiter = new NotificationRateLimiter(0, 1, 2);
+		final List<Notification> summaries = new ArrayList<>();
+		assertTrue(limiter.tryAcquire(notification("r", 1, MaxsMessageType.ERROR), summaries::add));
+		assertFalse(limiter.tryAcquire(notification("r", 1, MaxsMessageType.WARNING), summaries::add));
+		assertTrue(limiter.tryAcquire(notification("r", 2, MaxsMessageType.ERROR), summaries::add));
+		assertFalse(limiter.tryAcquire(notification("r", 3, MaxsMessageType.ERROR), summaries::add));
+
+		assertEquals(2, summaries.size());
+		assertEquals(1, summaries.get(0).getCompId());
+		assertTrue(summaries.get(1).getMessage().contains("type ERROR"));
+	}
+
+	/**
+	 * Verifies that a notification suppressed by one dimension does not use up the cap of another dimension.
+	 */
+	@Test
+	void tryAcquire_suppressedByComponent_keepsTypeCap() {
+		final NotificationRateLimiter limiter = new NotificationRateLimiter(0, 1, 2);
+		final List<Notification> summaries = new ArrayList<>();
+		assertTrue(limiter.tryAcquire(notification("r", 1, MaxsMessageType.INFO), summaries::add));
+		for (int i = 0; i < 5; i++) {
+			assertFalse(limiter.tryAcquire(notification("r", 1, MaxsMessageType.INFO), summaries::add));
+		}
+		assertTrue(limiter.tryAcquire(notification("r", 2, MaxsMessageType.INFO), summaries::add));
+
+		assertEquals(1, summaries.size());
+		assertEquals(1, summaries.get(0).getCompId());
+		assertEquals(5.0, summaries.get(0).getData().get(0).getValue());
+	}
+}
@@ -0,0 +1,58 @@
+package de.fva_net.maxs.logger.store;
+
+import de.fva_net.maxs.logger.MaxsMessageType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static de.fva_net.maxs.logger.MaxsTestFixtures.notification;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the NotificationStatistics class.
+ */
+class NotificationStatisticsTest {
+
+	/**
+	 * Verifies the counts of concurrent writers per type, routine and component ID.
+	 */
+	@Test
+	void record_concurrentWriters_countsAll() {
+		final NotificationStatistics statistics = new NotificationStatistics();
+		IntStream.range(0, 8).parallel().forEach(thread -> {
+			for (int i = 0; i < 10_000; i++) {
+				statistics.record(notification("routine" + (i % 2), i % 10, i % 100 == 0 ? MaxsMessageType.ERROR : MaxsMessageType.INFO));
+			}
+		});
+
+		assertTrue(statistics.hasErrors());
+		assertEquals(800, statistics.count(MaxsMessageType.ERROR));
+		assertEquals(79_200, statistics.count(MaxsMessageType.INFO));
+		assertEquals(80_000, statistics.total());
+		assertEquals(40_000, statistics.countByRoutine("routine1"));
+		assertEquals(8_000, statistics.countByCompId(3));
+		assertEquals(0, statistics.countByCompId(42));
+		assertEquals(Map.of("routine0", 40_000L, "routine1", 40_000L), statistics.countsByRoutine());
+		assertEquals(800L, statistics.countsByType().get("ERROR"));
+	}
+
+	/**
+	 * Verifies that warnings are no errors and that reset clears all counts.
+	 */
+	@Test
+	void reset_clearsCounts() {
+		final NotificationStatistics statistics = new NotificationStatistics();
+		statistics.record(notification(null, null, MaxsMessageType.WARNING));
+		assertFalse(statistics.hasErrors());
+		statistics.record(notification("routine", 1, MaxsMessageType.ERROR));
+		assertTrue(statistics.hasErrors());
+
+		statistics.reset();
+		assertFalse(statistics.hasErrors());
+		assertEquals(0, statistics.total());
+		assertTrue(statistics.countsByCompId().isEmpty());
+	}
+}
@@ -0,0 +1,142 @@
+package de.fva_net.maxs.logger.xml;
+
+import de.fva_net.maxs.logger.MaxsMessageType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.xmlunit.assertj3.XmlAssert;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit tests for the StreamingMaxsSerializer class.
+ */
+class StreamingMaxsSerializerTest {
+
+	/**
+	 * The notifications to serialize.
+	 */
+	private final KernelNotifications kernelNotifications = new KernelNotifications();
+
+	/**
+	 * Fills the notifications with entries covering all optional parts, special characters and whitespace characters.
+	 */
+	@BeforeEach
+	void beforeEach() {
+		kernelNotifications.setAppId("app \"<&>\"");
+		kernelNotifications.setAppVersion("1.0");
+
+		final Notification plain = new Notification();
+		plain.setRoutine("iso21771_2007");
+		plain.setMessage("message with <tags> & \"quotes\"");
+		plain.setType(MaxsMessageType.INFO);
+		kernelNotifications.getNotifications().add(plain);
+
+		final Notification withData = new Notification();
+		withData.setCompId(5);
+		withData.setRoutine("iso6336_2019");
+		withData.setMessage("values");
+		withData.setType(MaxsMessageType.DEBUG_ERROR);
+		for (final double value : new double[] { Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 1.5, 1e-12 }) {
+			final Item item = new Item();
+			item.setAttrId("attr");
+			item.setCompId(5);
+			item.setValue(value);
+			withData.getData().add(item);
+		}
+		kernelNotifications.getNotifications().add(withData);
+
+		// JAXB writes an initialized list of items even if it is empty
+		final Notification emptyData = new Notification();
+		emptyData.setMessage("empty");
+		emptyData.setType(MaxsMessageType.WARNING);
+		emptyData.getData();
+		kernelNotifications.getNotifications().add(emptyData);
+
+		final Notification whitespace = new Notification();
+		whitespace.setRoutine("line\nreturn\r\nend");
+		whitespace.setMessage(" tab\tline\nreturn\r\nend ");
+		whitespace.setType(MaxsMessageType.ERROR);
+		kernelNotifications.getNotifications().add(whitespace);
+	}
+
+	/**
+	 * Serializes the notifications into a string.
+	 *
+	 * @param serializer the serializer to use
+	 * @return the document
+	 */
+	private String serialize(final MaxsSerializer serializer) throws IOException {
+		final StringWriter writer = new StringWriter();
+		serializer.write(kernelNotifications, writer);
+		return writer.toString();
+	}
+
+	/**
+	 * Verifies that the formatted output is identical to the output of JAXB.
+	 */
+	@Test
+	void formatted_isIdenticalToJaxb() throws IOException {
+		assertEquals(serialize(JaxbMaxsSerializer.INSTANCE), serialize(StreamingMaxsSerializer.FORMATTED));
+	}
+
+	/**
+	 * Verifies that the compact output has no line breaks except for those of the messages and is equivalent to the
+	 * output of JAXB.
+	 */
+	@Test
+	void compact_isEquivalentToJaxb() throws IOException {
+		final String compact = serialize(StreamingMaxsSerializer.COMPACT);
+		assertEquals(2, compact.chars().filter(c -> c == '\n').count());
+		XmlAssert.assertThat(compact).and(serialize(JaxbMaxsSerializer.INSTANCE)).ignoreWhitespace().areIdentical();
+	}
+
+	/**
+	 * Verifies that a notification without message and data is written without these elements.
+	 */
+	@Test
+	void writeNotification_withoutOptionalParts() throws IOException {
+		final Notification notification = new Notification();
+		notification.setType(MaxsMessageType.WARNING);
+		final StringWriter writer = new StringWriter();
+		StreamingMaxsSerializer.COMPACT.writeNotification(notification, writer);
+		assertEquals("<notification type=\"WARNING\"></notification>", writer.toString());
+	}
+
+	/**
+	 * Verifies that an initialized but empty list of items is written as empty element, like JAXB does.
+	 */
+	@Test
+	void writeNotification_emptyData_writesEmptyElement() throws IOException {
+		final Notification notification = new Notification();
+		notification.setType(MaxsMessageType.WARNING);
+		notification.getData();
+		final StringWriter writer = new StringWriter();
+		StreamingMaxsSerializer.COMPACT.writeNotification(notification, writer);
+		assertEquals("<notification type=\"WARNING\"><data/></notification>", writer.toString());
+	}
+
+	/**
+	 * Verifies that tabs, line breaks and carriage returns in attribute values and messages are read back unchanged.
+	 */
+	@Test
+	void write_whitespace_isReadBackUnchanged() throws Exception {
+		final Notification notification = new Notification();
+		notification.setRoutine("tab\tline\nreturn\r\nend");
+		notification.setMessage("tab\tline\nreturn\r\nend");
+		notification.setType(MaxsMessageType.INFO);
+		final KernelNotifications written = new KernelNotifications();
+		written.setAppId("app\t1");
+		written.getNotifications().add(notification);
+		final StringWriter writer = new StringWriter();
+		StreamingMaxsSerializer.FORMATTED.write(written, writer);
+
+		final KernelNotifications read = (KernelNotifications) JaxbMaxsSerializer.getContext().createUnmarshaller().unmarshal(new StringReader(writer.toString()));
+		assertEquals("app\t1", read.getAppId());
+		assertEquals("tab\tline\nreturn\r\nend", read.getNotifications().get(0).getRoutine());
+		assertEquals("tab\tline\nreturn\r\nend", read.getNotifications().get(0).getMessage());
+	}
+}